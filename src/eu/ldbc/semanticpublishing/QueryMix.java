@@ -0,0 +1,168 @@
+package eu.ldbc.semanticpublishing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import eu.ldbc.semanticpublishing.agents.AgentsThrottle;
+import eu.ldbc.semanticpublishing.properties.Configuration;
+import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.statistics.QueryMixStatistics;
+import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionQueryParametersManager;
+import eu.ldbc.semanticpublishing.templates.MustacheTemplatesHolder;
+import eu.ldbc.semanticpublishing.templates.QueryTemplatesRegistry;
+import eu.ldbc.semanticpublishing.util.AllocationsUtil;
+
+/**
+ * A query mix executed by a group of aggregation agents. Each mix has its own query templates, operations allocation, query pools,
+ * substitution parameters and statistics, so that mixes of different profiles (e.g. basic and advanced) can be executed side by side.
+ *
+ * Query mixes are listed in configuration parameter queryMixes. Parameters of mix 'name' are read from keys prefixed with 'name.',
+ * in test.properties : aggregationAgents, queriesPath, substitutionParametersDistribution, in definitions.properties : aggregationOperationsAllocation, queryPools,
+ * aggregationQueryTemplates, aggregationQueryTemplatesPackage. A missing prefixed key is taken from the key without prefix.
+ * If no query mixes are listed, a single default mix is configured by keys without prefix.
+ *
+ * Operations allocation, number of active agents and rate of queries of a mix can be changed during the run by a workload schedule.
+ */
+public class QueryMix {
+	public static final String DEFAULT_QUERY_MIX_NAME = "";
+
+	private final String name;
+	private final int aggregationAgentsCount;
+	private final QueryTemplatesRegistry queryTemplatesRegistry;
+	private volatile AllocationsUtil aggregationOperationsAllocation;
+	private final AgentsThrottle throttle;
+	private final String queryPoolsDefinitions;
+	private final SubstitutionQueryParametersManager substitutionQueryParametersManager;
+	private final QueryMixStatistics statistics;
+
+	/**
+	 * @param name - name of the query mix, empty for the default mix
+	 * @param queryTemplates - aggregation query templates of the mix, key=query file name, value=query template
+	 * @param random - used for picking next query of the mix
+	 */
+	public QueryMix(String name, HashMap<String, String> queryTemplates, Configuration configuration, Definitions definitions, Random random) {
+		this.name = name;
+		this.aggregationAgentsCount = Integer.parseInt(getConfigurationValue(configuration, Configuration.AGGREGATION_AGENTS_COUNT));
+		this.queryTemplatesRegistry = new QueryTemplatesRegistry(queryTemplates, definitions, getDefinitionsValue(definitions, Definitions.AGGREGATION_QUERY_TEMPLATES_PACKAGE, QueryTemplatesRegistry.DEFAULT_TEMPLATES_PACKAGE), getDefinitionsValue(definitions, Definitions.AGGREGATION_QUERY_TEMPLATES, ""));
+
+		double[] allocations = Definitions.parseAllocations(getDefinitionsValue(definitions, Definitions.AGGREGATION_OPERATIONS_ALLOCATION, null));
+		if (allocations.length != queryTemplatesRegistry.getQueriesCount()) {
+			throw new IllegalStateException("Illegal value for definitions parameter: " + getKey(Definitions.AGGREGATION_OPERATIONS_ALLOCATION) + ", expected " + queryTemplatesRegistry.getQueriesCount() + " allocations, found : " + allocations.length);
+		}
+		this.aggregationOperationsAllocation = new AllocationsUtil(allocations, random);
+		this.throttle = new AgentsThrottle(aggregationAgentsCount);
+		this.queryPoolsDefinitions = getDefinitionsValue(definitions, Definitions.QUERY_POOLS, "");
+		this.substitutionQueryParametersManager = new SubstitutionQueryParametersManager(name, queryTemplatesRegistry.getQueriesCount());
+		this.substitutionQueryParametersManager.setAggregateAccessDistribution(getConfigurationValue(configuration, Configuration.SUBSTITUTION_PARAMETERS_DISTRIBUTION), configuration.getLong(Configuration.GENERATOR_RANDOM_SEED));
+		this.statistics = new QueryMixStatistics(name, queryTemplatesRegistry.getQueriesCount());
+	}
+
+	/**
+	 * Creates query mixes listed in configuration parameter queryMixes, or the default mix if none are listed
+	 * @param templatesHolder - templates loaded from configuration parameter queriesPath, used by mixes which do not set a queries path of their own
+	 */
+	public static List<QueryMix> createQueryMixes(Configuration configuration, Definitions definitions, MustacheTemplatesHolder templatesHolder, Random random) throws IOException {
+		List<String> names = new ArrayList<String>();
+		for (String name : configuration.getString(Configuration.QUERY_MIXES).split(",")) {
+			name = name.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (names.contains(name)) {
+				throw new IllegalStateException("Illegal value for configuration parameter: " + Configuration.QUERY_MIXES + ", query mix " + name + " is listed more than once");
+			}
+			names.add(name);
+		}
+
+		if (names.isEmpty()) {
+			names.add(DEFAULT_QUERY_MIX_NAME);
+		}
+
+		List<QueryMix> queryMixes = new ArrayList<QueryMix>();
+		for (String name : names) {
+			String queriesPath = configuration.getString(name + "." + Configuration.QUERIES_PATH, configuration.getString(Configuration.QUERIES_PATH));
+			HashMap<String, String> queryTemplates = templatesHolder.getQueryTemplates(MustacheTemplatesHolder.AGGREGATION);
+
+			if (!queriesPath.equals(configuration.getString(Configuration.QUERIES_PATH))) {
+				MustacheTemplatesHolder mixTemplatesHolder = new MustacheTemplatesHolder();
+				mixTemplatesHolder.loadFrom(queriesPath, MustacheTemplatesHolder.AGGREGATION);
+				queryTemplates = mixTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.AGGREGATION);
+			}
+
+			queryMixes.add(new QueryMix(name, queryTemplates, configuration, definitions, random));
+		}
+		return queryMixes;
+	}
+
+	private String getKey(String key) {
+		return name.isEmpty() ? key : name + "." + key;
+	}
+
+	private String getConfigurationValue(Configuration configuration, String key) {
+		return configuration.getString(getKey(key), configuration.getString(key));
+	}
+
+	/**
+	 * @param defaultValue - returned if neither the prefixed key nor the key without prefix is set, if null such parameter is mandatory
+	 */
+	private String getDefinitionsValue(Definitions definitions, String key, String defaultValue) {
+		String value = definitions.getString(getKey(key), definitions.getString(key, defaultValue));
+		if (value == null) {
+			throw new IllegalStateException("Missing definitions parameter: " + getKey(key));
+		}
+		return value;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getAggregationAgentsCount() {
+		return aggregationAgentsCount;
+	}
+
+	public QueryTemplatesRegistry getQueryTemplatesRegistry() {
+		return queryTemplatesRegistry;
+	}
+
+	public AllocationsUtil getAggregationOperationsAllocation() {
+		return aggregationOperationsAllocation;
+	}
+
+	/**
+	 * Replaces the operations allocation of the mix, agents use it from their next query on
+	 * @param allocations - an allocation for each query of the mix
+	 */
+	public void setAggregationOperationsAllocation(double[] allocations, Random random) {
+		if (allocations.length != queryTemplatesRegistry.getQueriesCount()) {
+			throw new IllegalArgumentException("Query mix " + name + " has " + queryTemplatesRegistry.getQueriesCount() + " queries, found " + allocations.length + " allocations");
+		}
+		this.aggregationOperationsAllocation = new AllocationsUtil(allocations, random);
+	}
+
+	/**
+	 * @return throttle of the aggregation agents executing the mix
+	 */
+	public AgentsThrottle getThrottle() {
+		return throttle;
+	}
+
+	public String getQueryPoolsDefinitions() {
+		return queryPoolsDefinitions;
+	}
+
+	public boolean hasQueryPools() {
+		return !queryPoolsDefinitions.trim().isEmpty();
+	}
+
+	public SubstitutionQueryParametersManager getSubstitutionQueryParametersManager() {
+		return substitutionQueryParametersManager;
+	}
+
+	public QueryMixStatistics getStatistics() {
+		return statistics;
+	}
+}
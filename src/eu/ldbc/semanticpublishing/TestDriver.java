@@ -2,28 +2,31 @@ package eu.ldbc.semanticpublishing;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.openrdf.rio.RDFFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import eu.ldbc.semanticpublishing.agents.AbstractAsynchronousAgent;
+import eu.ldbc.semanticpublishing.agents.AgentsThrottle;
 import eu.ldbc.semanticpublishing.agents.AggregationAgent;
 import eu.ldbc.semanticpublishing.agents.EditorialAgent;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.EmbeddedSparqlQueryExecuteManager;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager;
+import eu.ldbc.semanticpublishing.endpoint.mock.MockSparqlEndpoint;
 import eu.ldbc.semanticpublishing.enterprise.ReplicationAndBackupHelper;
 import eu.ldbc.semanticpublishing.generators.data.DataGenerator;
+import eu.ldbc.semanticpublishing.generators.data.GenerateAndLoadPipeline;
+import eu.ldbc.semanticpublishing.generators.data.GeneratedDataSorter;
 import eu.ldbc.semanticpublishing.properties.Configuration;
 import eu.ldbc.semanticpublishing.properties.Definitions;
 import eu.ldbc.semanticpublishing.refdataset.DataManager;
@@ -32,12 +35,15 @@ import eu.ldbc.semanticpublishing.resultanalyzers.CreativeWorksAnalyzer;
 import eu.ldbc.semanticpublishing.resultanalyzers.GeonamesAnalyzer;
 import eu.ldbc.semanticpublishing.resultanalyzers.ReferenceDataAnalyzer;
 import eu.ldbc.semanticpublishing.statistics.Statistics;
+import eu.ldbc.semanticpublishing.substitutionparameters.ParallelSubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionQueryParametersManager;
 import eu.ldbc.semanticpublishing.templates.MustacheTemplatesHolder;
+import eu.ldbc.semanticpublishing.templates.QueryTemplatesRegistry;
 import eu.ldbc.semanticpublishing.util.FileUtils;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 import eu.ldbc.semanticpublishing.util.RdfUtils;
+import eu.ldbc.semanticpublishing.util.SesameUtils;
 import eu.ldbc.semanticpublishing.util.ShellUtil;
 import eu.ldbc.semanticpublishing.util.StringUtil;
 import eu.ldbc.semanticpublishing.util.ThreadUtil;
@@ -63,8 +69,15 @@ public class TestDriver {
 	private final Definitions definitions = new Definitions();
 	private final MustacheTemplatesHolder mustacheTemplatesHolder = new MustacheTemplatesHolder();
 	private final RandomUtil randomGenerator;
-	private final SubstitutionQueryParametersManager substitutionQueryParamtersManager = new SubstitutionQueryParametersManager();
-	private final ValidationValuesManager validationValuesManager = new ValidationValuesManager();
+	private final List<QueryMix> queryMixes;
+	private final ValidationValuesManager validationValuesManager;
+	private final AgentsThrottle editorialAgentsThrottle;
+	private final WorkloadSchedule workloadSchedule;
+	//shard of the generated dataset, i/N, set by parameter dataGeneratorShard or by command line option --shard
+	private final String dataGeneratorShard;
+	//resume an interrupted data generation from its checkpoint, set by parameter resumeDataGeneration or by command line option --resume
+	private final boolean resumeDataGeneration;
+	private MockSparqlEndpoint mockSparqlEndpoint;
 	
 	private final static Logger LOGGER = LoggerFactory.getLogger(TestDriver.class.getName());
 	private final static Logger RLOGGER = LoggerFactory.getLogger(TestDriverReporter.class.getName());
@@ -75,6 +88,21 @@ public class TestDriver {
 			throw new IllegalArgumentException("Missing parameter - the configuration file must be specified");
 		}
 		configuration.loadFromFile(args[0]);
+		
+		String shard = configuration.getString(Configuration.DATA_GENERATOR_SHARD);
+		boolean resume = configuration.getBoolean(Configuration.RESUME_DATA_GENERATION);
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--shard") && i + 1 < args.length) {
+				shard = args[++i];
+			} else if (args[i].equals("--resume")) {
+				resume = true;
+			} else {
+				throw new IllegalArgumentException("Unknown parameter : " + args[i] + ", expected : <configuration file> [--shard i/N] [--resume]");
+			}
+		}
+		dataGeneratorShard = shard.trim();
+		resumeDataGeneration = resume;
+		
 		definitions.loadFromFile(configuration.getString(Configuration.DEFINITIONS_PATH), configuration.getBoolean(Configuration.VERBOSE));
 		mustacheTemplatesHolder.loadFrom(configuration.getString(Configuration.QUERIES_PATH));
 		
@@ -87,18 +115,52 @@ public class TestDriver {
 		//will use initialized randomGenerator above
 		definitions.initializeAllocations(randomGenerator.getRandom());
 		
-		aggregationAgentsCount = configuration.getInt(Configuration.AGGREGATION_AGENTS_COUNT);
+		//query mixes executed by separate groups of aggregation agents
+		queryMixes = QueryMix.createQueryMixes(configuration, definitions, mustacheTemplatesHolder, randomGenerator.getRandom());
+		
+		//validation dataset holds expected results of the queries of a single mix
+		if (configuration.getBoolean(Configuration.VALIDATE_QUERY_RESULTS) && queryMixes.size() > 1) {
+			throw new IllegalStateException("Query results can be validated for a single query mix only, found " + queryMixes.size() + " query mixes in configuration parameter : " + Configuration.QUERY_MIXES + ". Disable parameter " + Configuration.VALIDATE_QUERY_RESULTS + " or configure a single query mix");
+		}
+		validationValuesManager = new ValidationValuesManager(queryMixes.get(0).getQueryTemplatesRegistry().getQueriesCount());
+		
+		aggregationAgentsCount = 0;
+		for (QueryMix queryMix : queryMixes) {
+			aggregationAgentsCount += queryMix.getAggregationAgentsCount();
+		}
 		editorialAgentsCount = configuration.getInt(Configuration.EDITORIAL_AGENTS_COUNT);
+		editorialAgentsThrottle = new AgentsThrottle(editorialAgentsCount);
 		warmupPeriodSeconds = configuration.getInt(Configuration.WARMUP_PERIOD_SECONDS);
 		benchmarkRunPeriodSeconds = configuration.getInt(Configuration.BENCHMARK_RUN_PERIOD_SECONDS);
 
+		//time-phased changes of the workload during the benchmark phase, validated here to fail before any phase has been started
+		if (!configuration.getString(Configuration.WORKLOAD_SCHEDULE).trim().isEmpty()) {
+			workloadSchedule = new WorkloadSchedule(configuration.getString(Configuration.WORKLOAD_SCHEDULE).trim(), queryMixes, editorialAgentsCount);
+		} else {
+			workloadSchedule = null;
+		}
+
+		startMockEndpoint(configuration.getInt(Configuration.MOCK_ENDPOINT_PORT));
 
-		queryExecuteManager = new SparqlQueryExecuteManager(inBenchmarkState,
-				configuration.getString(Configuration.ENDPOINT_URL),
-				configuration.getString(Configuration.ENDPOINT_UPDATE_URL),
-				configuration.getInt(Configuration.QUERY_TIMEOUT_SECONDS) * 1000,
-				configuration.getInt(Configuration.SYSTEM_QUERY_TIMEOUT_SECONDS) * 1000,
-				configuration.getBoolean(Configuration.VERBOSE));
+		if (!configuration.getString(Configuration.EMBEDDED_STORE).trim().isEmpty()) {
+			//queries, updates and loading of data are executed in-process against an embedded Sesame repository
+			queryExecuteManager = new EmbeddedSparqlQueryExecuteManager(inBenchmarkState,
+					configuration.getString(Configuration.EMBEDDED_STORE).trim(),
+					configuration.getString(Configuration.EMBEDDED_STORE_DATA_DIR),
+					configuration.getInt(Configuration.QUERY_TIMEOUT_SECONDS) * 1000,
+					configuration.getInt(Configuration.SYSTEM_QUERY_TIMEOUT_SECONDS) * 1000,
+					configuration.getBoolean(Configuration.VERBOSE));
+		} else {
+			queryExecuteManager = new SparqlQueryExecuteManager(inBenchmarkState,
+					configuration.getString(Configuration.ENDPOINT_URL),
+					configuration.getString(Configuration.ENDPOINT_UPDATE_URL),
+					configuration.getInt(Configuration.QUERY_TIMEOUT_SECONDS) * 1000,
+					configuration.getInt(Configuration.SYSTEM_QUERY_TIMEOUT_SECONDS) * 1000,
+					configuration.getBoolean(Configuration.VERBOSE));
+		}
+		queryExecuteManager.setCompression(configuration.getBoolean(Configuration.ACCEPT_COMPRESSED_RESULTS), configuration.getBoolean(Configuration.COMPRESS_UPDATES_AND_LOADS));
+		//result formats requested by the benchmark agents (xml, json, tsv, binary for SELECT; rdfxml, ntriples, binary for CONSTRUCT and DESCRIBE)
+		queryExecuteManager.setResultFormats(ResultFormat.forSelectQueries(configuration.getString(Configuration.SELECT_RESULT_FORMAT)), ResultFormat.forGraphQueries(configuration.getString(Configuration.GRAPH_RESULT_FORMAT)));
 			
 		//set the nextId for Creative Works, default 0
 		DataManager.creativeWorksNextId.set(configuration.getLong(Configuration.CREATIVE_WORK_NEXT_ID));		
@@ -108,6 +170,26 @@ public class TestDriver {
 		return queryExecuteManager;
 	}
 	
+	/**
+	 * Starts a local mock SPARQL endpoint and redirects all queries and updates to it, used for measuring the throughput
+	 * of the driver itself without a database. A port value of zero picks any free port, negative value disables the mock endpoint.
+	 */
+	private void startMockEndpoint(int port) throws IOException {
+		if (port < 0) {
+			return;
+		}
+		
+		mockSparqlEndpoint = new MockSparqlEndpoint(port,
+													configuration.getString(Configuration.MOCK_ENDPOINT_RESPONSES_PATH),
+													configuration.getString(Configuration.MOCK_ENDPOINT_QUERY_LATENCY),
+													configuration.getString(Configuration.MOCK_ENDPOINT_UPDATE_LATENCY),
+													configuration.getLong(Configuration.GENERATOR_RANDOM_SEED));
+		mockSparqlEndpoint.start();
+		
+		configuration.setString(Configuration.ENDPOINT_URL, mockSparqlEndpoint.getEndpointUrl());
+		configuration.setString(Configuration.ENDPOINT_UPDATE_URL, mockSparqlEndpoint.getEndpointUpdateUrl());
+	}
+	
 	private RandomUtil initializeRandomUtil(String datasetsPath, long seed, int yearSeed, int generorPeriodYears) {
 		//File WordsDictionary.txt is one level up
 		String ontPath = StringUtil.normalizePath(datasetsPath);
@@ -122,7 +204,6 @@ public class TestDriver {
 			System.out.println("Loading ontologies...");
 			
 			String ontologiesPath = StringUtil.normalizePath(configuration.getString(Configuration.ONTOLOGIES_PATH));
-			String endpoint = configuration.getString(Configuration.ENDPOINT_UPDATE_URL);
 			
 			List<File> collectedFiles = new ArrayList<File>();
 			FileUtils.collectFilesList2(ontologiesPath, collectedFiles, "ttl", true);
@@ -131,9 +212,7 @@ public class TestDriver {
 			
 			for( File file : collectedFiles ) {
 				System.out.print("\tloading " + file.getName());
-				InputStream input = new FileInputStream(file);
-				
-				RdfUtils.postStatements(endpoint, RdfUtils.CONTENT_TYPE_TURTLE, input);
+				queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_TURTLE, file);
 				System.out.println();
 			}			
 		}
@@ -169,7 +248,6 @@ public class TestDriver {
 			System.out.println("Loading reference datasets...");
 			
 			String datasetsPath = StringUtil.normalizePath(configuration.getString(Configuration.REFERENCE_DATASETS_PATH));
-			String endpoint = configuration.getString(Configuration.ENDPOINT_UPDATE_URL);
 			
 			List<File> collectedFiles = new ArrayList<File>();
 			FileUtils.collectFilesList2(datasetsPath, collectedFiles, "ttl", true);
@@ -178,9 +256,7 @@ public class TestDriver {
 			
 			for( File file : collectedFiles ) {
 				System.out.print("\tloading " + file.getName());
-				InputStream input = new FileInputStream(file);
-				
-				RdfUtils.postStatements(endpoint, RdfUtils.CONTENT_TYPE_TURTLE, input);
+				queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_TURTLE, file);
 				System.out.println();
 			}				
 		}
@@ -241,33 +317,77 @@ public class TestDriver {
 		if (enable) {
 			System.out.println("Loading Creative Works...");
 			
-			String endpoint = configuration.getString(Configuration.ENDPOINT_UPDATE_URL);
-			
-			File[] files = new File(configuration.getString(Configuration.CREATIVE_WORKS_PATH)).listFiles();
+			List<File> files = new ArrayList<File>();
+			if (configuration.getBoolean(Configuration.GROW_DATASET)) {
+				//only Creative Works generated when the dataset was grown, the existing dataset is already loaded
+				System.out.println("\tloading Creative Works of the grown dataset from " + generatedDataPath());
+				collectCreativeWorksFiles(new File(generatedDataPath()), files, false);
+			} else {
+				collectCreativeWorksFiles(new File(configuration.getString(Configuration.CREATIVE_WORKS_PATH)), files, true);
+			}
 			
-			Arrays.sort(files);
 			int size=0;
+			long loadedBytes = 0;
 			long startTime = System.currentTimeMillis();
 			for( File file : files ) {
 				size++;
-				if( file.getName().endsWith(".nq")) {
+				//compressed files are loaded without inflating them first
+				String fileName = file.getName().endsWith(RdfUtils.GZIP_FILE_EXTENSION) ? file.getName().substring(0, file.getName().length() - RdfUtils.GZIP_FILE_EXTENSION.length()) : file.getName();
+				if( fileName.endsWith(".nq")) {
 					System.out.print("\tloading " + file.getName());
-					InputStream input = new FileInputStream(file);
-					
-					RdfUtils.postStatements(endpoint, RdfUtils.CONTENT_TYPE_SESAME_NQUADS, input);
+					queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_SESAME_NQUADS, file);
+					loadedBytes += file.length();
 					System.out.println();
 				}
-				if( file.getName().endsWith(".ttl")) {
+				if( fileName.endsWith(".ttl")) {
 					System.out.print("\tloading " + file.getName());
-					InputStream input = new FileInputStream(file);
-					
-					RdfUtils.postStatements(endpoint, RdfUtils.CONTENT_TYPE_TURTLE, input);
+					queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_TURTLE, file);
+					loadedBytes += file.length();
 					System.out.println();
 				}		
+				if( fileName.endsWith(".brf")) {
+					System.out.print("\tloading " + file.getName());
+					queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_BINARY_RDF, file);
+					loadedBytes += file.length();
+					System.out.println();
+				}
 			}
 			long endTime = System.currentTimeMillis();
 			System.out.println("Loaded "+size+" files with Creative Works in "+ (endTime - startTime) + " milliseconds");
+			System.out.println(String.format("Loaded %d bytes from files, %.2f MB/s", loadedBytes, (endTime - startTime) > 0 ? (double)loadedBytes / (1024.0 * 1024.0) / ((double)(endTime - startTime) / 1000.0) : 0.0));
+		}
+	}
+	
+	/**
+	 * Collects files of a folder in order of their names, optionally followed by files of folders with Creative Works generated when the dataset was grown
+	 */
+	private void collectCreativeWorksFiles(File folder, List<File> files, boolean includeGrowthFolders) {
+		File[] folderFiles = folder.listFiles();
+		if (folderFiles == null) {
+			return;
+		}
+		Arrays.sort(folderFiles);
+		List<File> growthFolders = new ArrayList<File>();
+		for (File file : folderFiles) {
+			if (file.isFile()) {
+				files.add(file);
+			} else if (includeGrowthFolders && file.getName().startsWith(DataGenerator.GROWTH_FOLDER_PREFIX)) {
+				growthFolders.add(file);
+			}
+		}
+		for (File growthFolder : growthFolders) {
+			collectCreativeWorksFiles(growthFolder, files, false);
+		}
+	}
+	
+	/**
+	 * @return folder of generated files, the folder of Creative Works generated for the targeted size when the dataset is grown
+	 */
+	private String generatedDataPath() {
+		if (configuration.getBoolean(Configuration.GROW_DATASET)) {
+			return DataGenerator.buildGrowthPath(configuration.getString(Configuration.CREATIVE_WORKS_PATH), configuration.getLong(Configuration.DATASET_SIZE_TRIPLES));
 		}
+		return configuration.getString(Configuration.CREATIVE_WORKS_PATH);
 	}
 	
 	private void executeScripts(boolean enable, String scriptsSubFolder) {
@@ -300,32 +420,88 @@ public class TestDriver {
 	private void generateCreativeWorks(boolean enable) throws IOException, InterruptedException {
 		if (enable) {
 			System.out.println("Generating Creative Works data files...");
-			
-			//assuming that if regularEntitiesList is empty, no entity lists were populated
-			if (DataManager.regularEntitiesList.size() == 0) {
-				populateRefDataEntitiesLists(true, false, true, "");
-			}
-			
-			//if configuration property creativeWorkNextId > 0, use that value for next generated Creative Work. 
-			//Use-case : starting data generator in several JVMs to generate data in parallel
-			if (configuration.getLong(Configuration.CREATIVE_WORK_NEXT_ID) > 0) {
-				DataManager.creativeWorksNextId.set(configuration.getLong(Configuration.CREATIVE_WORK_NEXT_ID));
-				System.out.println("\tData generation will start with next Creative Work id : " + DataManager.creativeWorksNextId.get());
+			produceCreativeWorks(null);
+			sortGeneratedData();
+		}
+	}
+	
+	/**
+	 * Sorts and partitions generated files by graph or subject, if configured by property sortGeneratedData
+	 */
+	private void sortGeneratedData() throws IOException {
+		String sortGeneratedData = configuration.getString(Configuration.SORT_GENERATED_DATA);
+		if (sortGeneratedData.isEmpty() || sortGeneratedData.equalsIgnoreCase("none")) {
+			return;
+		}
+		if (SesameUtils.parseRdfFormat(configuration.getString(Configuration.GENERATE_CREATIVE_WORKS_FORMAT)) != RDFFormat.NQUADS) {
+			System.out.println("	Sorting of generated data is supported for N-Quads format only, generated files are left unsorted");
+			return;
+		}
+		
+		System.out.println("Sorting generated Creative Works by " + sortGeneratedData + "...");
+		GeneratedDataSorter sorter = new GeneratedDataSorter(generatedDataPath(), 
+															 GeneratedDataSorter.SortKey.parse(sortGeneratedData), 
+															 configuration.getInt(Configuration.SORT_PARTITIONS), 
+															 configuration.getLong(Configuration.SORT_MEMORY_MB) * 1024 * 1024, 
+															 configuration.getBoolean(Configuration.ENABLE_COMPRESSION_ON_GENERATED_DATA));
+		sorter.sort();
+	}
+	
+	/**
+	 * Generates Creative Works and loads them while they are being generated, without writing them to files first
+	 */
+	private void generateAndLoadCreativeWorks(boolean enable) throws IOException, InterruptedException {
+		if (enable) {
+			System.out.println("Generating and loading Creative Works...");
+			
+			GenerateAndLoadPipeline pipeline = new GenerateAndLoadPipeline(queryExecuteManager, 
+																		   SesameUtils.parseRdfFormat(configuration.getString(Configuration.GENERATE_CREATIVE_WORKS_FORMAT)), 
+																		   configuration.getInt(Configuration.PIPELINE_LOAD_STREAMS), 
+																		   configuration.getInt(Configuration.PIPELINE_QUEUE_SIZE), 
+																		   configuration.getBoolean(Configuration.PIPELINE_SAVE_FILES));
+			pipeline.start();
+			try {
+				produceCreativeWorks(pipeline);
+				pipeline.generationFinished();
+			} finally {
+				pipeline.finish();
 			}
-			
-			long triplesPerFile = configuration.getLong(Configuration.GENERATED_TRIPLES_PER_FILE);
-			long totalTriples = configuration.getLong(Configuration.DATASET_SIZE_TRIPLES);
-			String destinationPath = configuration.getString(Configuration.CREATIVE_WORKS_PATH);
-			String serializationFormat = configuration.getString(Configuration.GENERATE_CREATIVE_WORKS_FORMAT);
-			
-			int generatorThreads = configuration.getInt(Configuration.DATA_GENERATOR_WORKERS);
-			
-			DataGenerator dataGenerator = new DataGenerator(randomGenerator, configuration, definitions, generatorThreads, totalTriples, triplesPerFile, destinationPath, serializationFormat);
-			dataGenerator.produceData();
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
+	/**
+	 * @param pipeline - if not null, generated data is passed to the pipeline, otherwise it is saved to files
+	 */
+	private void produceCreativeWorks(GenerateAndLoadPipeline pipeline) throws IOException, InterruptedException {
+		//assuming that if regularEntitiesList is empty, no entity lists were populated
+		if (DataManager.regularEntitiesList.size() == 0) {
+			populateRefDataEntitiesLists(true, false, true, "");
+		}
+		
+		//if configuration property creativeWorkNextId > 0, use that value for next generated Creative Work. 
+		//Use-case : starting data generator in several JVMs to generate data in parallel
+		if (configuration.getLong(Configuration.CREATIVE_WORK_NEXT_ID) > 0) {
+			DataManager.creativeWorksNextId.set(configuration.getLong(Configuration.CREATIVE_WORK_NEXT_ID));
+			System.out.println("\tData generation will start with next Creative Work id : " + DataManager.creativeWorksNextId.get());
+		}
+		
+		long triplesPerFile = configuration.getLong(Configuration.GENERATED_TRIPLES_PER_FILE);
+		long totalTriples = configuration.getLong(Configuration.DATASET_SIZE_TRIPLES);
+		String destinationPath = configuration.getString(Configuration.CREATIVE_WORKS_PATH);
+		String serializationFormat = configuration.getString(Configuration.GENERATE_CREATIVE_WORKS_FORMAT);
+		
+		int generatorThreads = configuration.getInt(Configuration.DATA_GENERATOR_WORKERS);
+		
+		DataGenerator dataGenerator = new DataGenerator(randomGenerator, configuration, definitions, generatorThreads, totalTriples, triplesPerFile, destinationPath, serializationFormat);
+		if (!dataGeneratorShard.isEmpty()) {
+			dataGenerator.setShard(dataGeneratorShard);
+		}
+		dataGenerator.setPipeline(pipeline);
+		dataGenerator.setCheckpoint(configuration.getBoolean(Configuration.CHECKPOINT_DATA_GENERATION), resumeDataGeneration);
+		dataGenerator.setGrowth(configuration.getBoolean(Configuration.GROW_DATASET));
+		dataGenerator.produceData();
+	}
+	
 	public void generateQuerySubstitutionParameters(boolean enable) throws InterruptedException, IOException {
 		if (enable) {
 			System.out.println("Generating query parameters");
@@ -344,8 +520,6 @@ public class TestDriver {
 			FileUtils.makeDirectories(targetFolder);
 			
 			BufferedWriter bw = null;
-			Class<SubstitutionParametersGenerator> c = null;
-			Constructor<?> cc = null;
 			SubstitutionParametersGenerator queryTemplate = null;
 			try {
 /*
@@ -378,24 +552,19 @@ public class TestDriver {
 				bw.close();
 */
 				
-				//Aggregate query parameters
-				for (int i = 1; i <= Statistics.AGGREGATE_QUERIES_COUNT; i++) {
-					bw = new BufferedWriter(new FileWriter(new File(targetFolder + File.separator + String.format("query%01dSubstParameters", i) + ".txt")));
-					
-					c = (Class<SubstitutionParametersGenerator>) Class.forName(String.format("eu.ldbc.semanticpublishing.templates.aggregation.Query%dTemplate", i));
-					cc = c.getConstructor(RandomUtil.class, HashMap.class, Definitions.class, String[].class);
-					queryTemplate = (SubstitutionParametersGenerator) cc.newInstance(randomGenerator.randomUtilFactory(configuration.getLong(Configuration.GENERATOR_RANDOM_SEED)), mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.AGGREGATION), definitions, null);					
-					queryTemplate.generateSubstitutionParameters(bw, configuration.getInt(Configuration.QUERY_SUBSTITUTION_PARAMETERS));
-					
-					bw.close();
-					
-					//indicate activity in console
-					if (i != Statistics.AGGREGATE_QUERIES_COUNT) {
-						System.out.print(".");
-					} else {
-						System.out.println(".");
+				//Aggregate query parameters, of each query mix, generated in parallel by query and by chunks of each query
+				int generatorThreads = configuration.getInt(Configuration.SUBSTITUTION_PARAMETERS_GENERATOR_WORKERS);
+				if (generatorThreads <= 0) {
+					generatorThreads = Runtime.getRuntime().availableProcessors();
+				}
+				ParallelSubstitutionParametersGenerator parametersGenerator = new ParallelSubstitutionParametersGenerator(randomGenerator, configuration.getLong(Configuration.GENERATOR_RANDOM_SEED), generatorThreads);
+				for (QueryMix queryMix : queryMixes) {
+					QueryTemplatesRegistry queryTemplatesRegistry = queryMix.getQueryTemplatesRegistry();
+					for (int i = 1; i <= queryTemplatesRegistry.getQueriesCount(); i++) {
+						parametersGenerator.addQuery(targetFolder + File.separator + SubstitutionQueryParametersManager.getAggregateFileName(queryMix.getName(), i), queryTemplatesRegistry, i);
 					}
 				}
+				parametersGenerator.generate(configuration.getInt(Configuration.QUERY_SUBSTITUTION_PARAMETERS));
 				System.out.println("\n");
 			} catch (Exception e) {
 				System.out.println("\n\tException caught during generation of query substitution parameters : " + e.getClass().getName() + " :: " + e.getMessage());
@@ -412,7 +581,15 @@ public class TestDriver {
 			if (!validationPhaseIsEnabled) {
 				System.out.println("Initializing query substitution parameters...");
 			}
-			substitutionQueryParamtersManager.intiSubstitutionParameters(configuration.getString(Configuration.CREATIVE_WORKS_PATH), validationPhaseIsEnabled, true);
+			for (int i = 0; i < queryMixes.size(); i++) {
+				SubstitutionQueryParametersManager substitutionQueryParamtersManager = queryMixes.get(i).getSubstitutionQueryParametersManager();
+				if (i == 0) {
+					//editorial substitution parameters are shared by all query mixes
+					substitutionQueryParamtersManager.intiSubstitutionParameters(configuration.getString(Configuration.CREATIVE_WORKS_PATH), validationPhaseIsEnabled, true);
+				} else {
+					substitutionQueryParamtersManager.intiAggregateSubstitutionParameters(configuration.getString(Configuration.CREATIVE_WORKS_PATH), validationPhaseIsEnabled);
+				}
+			}
 		}
 	}
 	
@@ -431,7 +608,7 @@ public class TestDriver {
 			//refresh info about reference data and CWs stored in database 
 			populateRefDataEntitiesLists(false, true, true, "");
 			
-			AggregateOperationsValidator aov = new AggregateOperationsValidator(this, validationValuesManager, queryExecuteManager, randomGenerator, mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.AGGREGATION), configuration, definitions);
+			AggregateOperationsValidator aov = new AggregateOperationsValidator(this, validationValuesManager, queryExecuteManager, randomGenerator, queryMixes.get(0).getQueryTemplatesRegistry(), configuration);
 			aov.validate();
 		}
 	}
@@ -439,12 +616,14 @@ public class TestDriver {
 	private final AtomicBoolean runFlag = new AtomicBoolean(true);
 	
 	private void setupAsynchronousAgents() {
-		for(int i = 0; i < aggregationAgentsCount; ++i ) {
-			aggregationAgents.add(new AggregationAgent(inBenchmarkState, queryExecuteManager, randomGenerator, runFlag, mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.AGGREGATION), definitions, substitutionQueryParamtersManager, configuration.getLong(Configuration.BENCHMARK_BY_QUERY_MIX_RUNS)));
+		for (QueryMix queryMix : queryMixes) {
+			for(int i = 0; i < queryMix.getAggregationAgentsCount(); ++i ) {
+				aggregationAgents.add(new AggregationAgent(inBenchmarkState, queryExecuteManager, randomGenerator, runFlag, queryMix, i, configuration.getLong(Configuration.BENCHMARK_BY_QUERY_MIX_RUNS), configuration.getInt(Configuration.FACETED_SEARCH_SESSION_CONCURRENCY)));
+			}
 		}
 
 		for(int i = 0; i < editorialAgentsCount; ++i ) {
-			editorialAgents.add(new EditorialAgent(inBenchmarkState, queryExecuteManager, randomGenerator, runFlag, mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.EDITORIAL), mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.VALIDATION), configuration, definitions, maxUpdateRateReached));
+			editorialAgents.add(new EditorialAgent(inBenchmarkState, queryExecuteManager, randomGenerator, runFlag, mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.EDITORIAL), mustacheTemplatesHolder.getQueryTemplates(MustacheTemplatesHolder.VALIDATION), configuration, definitions, maxUpdateRateReached, editorialAgentsThrottle, i));
 		}
 	}
 	
@@ -486,7 +665,7 @@ public class TestDriver {
 				System.exit(-1);
 			}			
 			
-			if (benchmarkByQueryMixRuns > 0 && (definitions.getString(Definitions.QUERY_POOLS).trim().isEmpty() || aggregationAgentsCount <= 0)) {
+			if (benchmarkByQueryMixRuns > 0 && (!queryPoolsDefined() || aggregationAgentsCount <= 0)) {
 				System.out.println("Error : incorrect configuration of parameters: 'queryPools' (in definition.properties) and benchmarkByQueryMixRuns, aggregationAgents (in test.properties), exiting...");
 				System.exit(-1);				
 			}
@@ -538,8 +717,10 @@ public class TestDriver {
 			interrupterThread.setDaemon(true);
 			interrupterThread.start();
 			
+			Thread schedulerThread = startWorkloadScheduler();
+			
 			Thread reporterThread = new TestDriverReporter(Statistics.totalAggregateQueryStatistics.getRunsCountAtomicLong(),
-														   Statistics.totalCompletedQueryMixRuns,
+														   queryMixes,
 													       inBenchmarkState, 
 													       keepReporterAlive,
 													       benchmarkResultIsValid,
@@ -548,15 +729,15 @@ public class TestDriver {
 														   configuration.getDouble(Configuration.MAX_UPDATE_RATE_THRESHOLD_OPS),
 													       maxUpdateRateReached, 
 													       configuration.getInt(Configuration.EDITORIAL_AGENTS_COUNT),																				
-														   configuration.getInt(Configuration.AGGREGATION_AGENTS_COUNT), 
 													       configuration.getLong(Configuration.BENCHMARK_RUN_PERIOD_SECONDS),
-														   definitions.getString(Definitions.QUERY_POOLS),
+														   configuration.getDouble(Configuration.DRIVER_CPU_WARNING_THRESHOLD_PERCENT),
+														   configuration.getDouble(Configuration.DRIVER_GC_WARNING_THRESHOLD_PERCENT),
 														   configuration.getBoolean(Configuration.VERBOSE));
 			reporterThread.setDaemon(true);
 			reporterThread.start();
 			
 			if (benchmarkByQueryMixRuns > 0) {
-				while ((Statistics.totalCompletedQueryMixRuns.get() < benchmarkByQueryMixRuns) && (inBenchmarkState.get() == true)) {
+				while (!queryMixRunsCompleted(benchmarkByQueryMixRuns) && (inBenchmarkState.get() == true)) {
 					ThreadUtil.sleepMilliseconds(50);					
 				}				
 			} else if (benchmarkByQueryRuns > 0) {
@@ -571,6 +752,10 @@ public class TestDriver {
 			
 			ThreadUtil.join(reporterThread);
 			
+			if (schedulerThread != null) {
+				ThreadUtil.join(schedulerThread);
+			}
+			
 			if (configuration.getDouble(Configuration.MIN_UPDATE_RATE_THRESHOLD_OPS) > 0.0) {
 				if (!benchmarkResultIsValid.get()) {
 					message = String.format("Warning : Benchmark results are not valid! Required query rate has not been reached, or has dropped below threshold (%.1f ops) during the benchmark run.", configuration.getDouble(Configuration.MIN_UPDATE_RATE_THRESHOLD_OPS));
@@ -590,6 +775,44 @@ public class TestDriver {
 		}
 	}
 	
+	/**
+	 * Starts applying the workload schedule, if configured. The first segment is applied at the start of the benchmark phase.
+	 * @return the started scheduler thread, or null if no workload schedule has been configured
+	 */
+	private Thread startWorkloadScheduler() {
+		if (workloadSchedule == null) {
+			return null;
+		}
+		Thread schedulerThread = new WorkloadScheduler(workloadSchedule, queryMixes, editorialAgentsThrottle, inBenchmarkState, randomGenerator.getRandom());
+		schedulerThread.setDaemon(true);
+		schedulerThread.start();
+		return schedulerThread;
+	}
+	
+	/**
+	 * @return true if each query mix executed by aggregation agents has query pools defined
+	 */
+	private boolean queryPoolsDefined() {
+		for (QueryMix queryMix : queryMixes) {
+			if (queryMix.getAggregationAgentsCount() > 0 && !queryMix.hasQueryPools()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return true if each query mix executed by aggregation agents has completed the given number of runs
+	 */
+	private boolean queryMixRunsCompleted(long benchmarkByQueryMixRuns) {
+		for (QueryMix queryMix : queryMixes) {
+			if (queryMix.getAggregationAgentsCount() > 0 && queryMix.getStatistics().getTotalCompletedQueryMixRuns().get() < benchmarkByQueryMixRuns) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	/**
 	 * @param enable 				 - enable the phase
 	 * @param benchmarkByQueryRuns   - if zero, then time interval set by parameter 'benchmarkRunPeriodSeconds' will be used for completing the phase.
@@ -660,8 +883,10 @@ public class TestDriver {
 			interrupterThread.setDaemon(true);
 			interrupterThread.start();
 			
+			Thread schedulerThread = startWorkloadScheduler();
+			
 			Thread reporterThread = new TestDriverReporter(Statistics.totalAggregateQueryStatistics.getRunsCountAtomicLong(), 
-														   Statistics.totalCompletedQueryMixRuns,
+														   queryMixes,
 													       inBenchmarkState,
 													       keepReporterAlive, 
 													       benchmarkResultIsValid,
@@ -670,9 +895,9 @@ public class TestDriver {
 														   configuration.getDouble(Configuration.MAX_UPDATE_RATE_THRESHOLD_OPS),
 														   maxUpdateRateReached, 
 														   configuration.getInt(Configuration.EDITORIAL_AGENTS_COUNT),																				
-														   configuration.getInt(Configuration.AGGREGATION_AGENTS_COUNT), 
 														   configuration.getLong(Configuration.BENCHMARK_RUN_PERIOD_SECONDS),
-													       definitions.getString(Definitions.QUERY_POOLS), 
+														   configuration.getDouble(Configuration.DRIVER_CPU_WARNING_THRESHOLD_PERCENT),
+														   configuration.getDouble(Configuration.DRIVER_GC_WARNING_THRESHOLD_PERCENT),
 														   configuration.getBoolean(Configuration.VERBOSE));
 			reporterThread.setDaemon(true);
 			reporterThread.start();
@@ -743,6 +968,10 @@ public class TestDriver {
 			
 			ThreadUtil.join(reporterThread);
 			
+			if (schedulerThread != null) {
+				ThreadUtil.join(schedulerThread);
+			}
+			
 			if (configuration.getDouble(Configuration.MIN_UPDATE_RATE_THRESHOLD_OPS) > 0.0) {
 				if (!benchmarkResultIsValid.get()) {
 					message = String.format("Warning : Benchmark results are not valid! Required query rate has not been reached, or has dropped below threshold (%.1f ops) during the benchmark run.", configuration.getDouble(Configuration.MIN_UPDATE_RATE_THRESHOLD_OPS));
@@ -807,7 +1036,6 @@ public class TestDriver {
 		if (enable) {
 
 			String queriesPath = configuration.getString(Configuration.QUERIES_PATH) + File.separator + "conformance";	
-			String endpoint = configuration.getString(Configuration.ENDPOINT_UPDATE_URL);
 			
 			List<File> collectedFiles = new ArrayList<File>();
 			FileUtils.collectFilesList2(queriesPath, collectedFiles, "ttl", true);
@@ -817,9 +1045,7 @@ public class TestDriver {
 			System.out.println("Preparing for conformance tests...");
 			for( File file : collectedFiles ) {
 				System.out.print("\tloading " + file.getName());
-				InputStream input = new FileInputStream(file);
-				
-				RdfUtils.postStatements(endpoint, RdfUtils.CONTENT_TYPE_TURTLE, input);
+				queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_TURTLE, file);
 				System.out.println();
 			}						
 			
@@ -891,7 +1117,8 @@ public class TestDriver {
 		loadDatasets(configuration.getBoolean(Configuration.LOAD_REFERENCE_DATASETS));
 		generateCreativeWorks(configuration.getBoolean(Configuration.GENERATE_CREATIVE_WORKS));
 		loadCreativeWorks(configuration.getBoolean(Configuration.LOAD_CREATIVE_WORKS));
-		executeScripts(configuration.getBoolean(Configuration.LOAD_CREATIVE_WORKS) || configuration.getBoolean(Configuration.VALIDATE_QUERY_RESULTS), "postLoad");
+		generateAndLoadCreativeWorks(configuration.getBoolean(Configuration.GENERATE_AND_LOAD_CREATIVE_WORKS));
+		executeScripts(configuration.getBoolean(Configuration.LOAD_CREATIVE_WORKS) || configuration.getBoolean(Configuration.GENERATE_AND_LOAD_CREATIVE_WORKS) || configuration.getBoolean(Configuration.VALIDATE_QUERY_RESULTS), "postLoad");
 		generateQuerySubstitutionParameters(configuration.getBoolean(Configuration.GENERATE_QUERY_SUBSTITUTION_PARAMETERS));
 		initializeQuerySubstitutionParameters(configuration.getBoolean(Configuration.WARM_UP) || configuration.getBoolean(Configuration.RUN_BENCHMARK) || configuration.getBoolean(Configuration.RUN_BENCHMARK_ONLINE_REPlICATION_AND_BACKUP));
 		validateQueryResults(configuration.getBoolean(Configuration.VALIDATE_QUERY_RESULTS));
@@ -903,6 +1130,12 @@ public class TestDriver {
 		checkConformance(configuration.getBoolean(Configuration.CHECK_CONFORMANCE));
 		clearDatabase(configuration.getBoolean(Configuration.CLEAR_DATABASE));
 		
+		queryExecuteManager.shutDown();
+		
+		if (mockSparqlEndpoint != null) {
+			mockSparqlEndpoint.stop();
+		}
+		
 		System.out.println("END OF RUN, all agents shut down...");
 		System.exit(0);
 	}
@@ -1,11 +1,17 @@
 package eu.ldbc.semanticpublishing;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.ldbc.semanticpublishing.statistics.DriverOverheadStatistics;
+import eu.ldbc.semanticpublishing.statistics.LatencyHistogram;
+import eu.ldbc.semanticpublishing.statistics.QueryMixStatistics;
+import eu.ldbc.semanticpublishing.statistics.QueryStatistics;
+import eu.ldbc.semanticpublishing.statistics.SessionStatistics;
 import eu.ldbc.semanticpublishing.statistics.Statistics;
 
 /**
@@ -14,28 +20,32 @@ import eu.ldbc.semanticpublishing.statistics.Statistics;
  */
 public class TestDriverReporter extends Thread {
 	private final AtomicLong totalQueryExecutions;
-	private final AtomicLong totalCompletedQueryMixRuns;
+	private final List<QueryMix> queryMixes;
 	private final AtomicBoolean benchmarkState;
 	private final AtomicBoolean keepAlive;
 	private final AtomicBoolean benchmarkResultIsValid;
 	private final AtomicBoolean maxUpdateRateReached;
-	private final String queryPoolsDefinitions;
 	private final double maxUpdateRateThresholdOps;
+	private final double driverCpuWarningThresholdPercent;
+	private final double driverGcWarningThresholdPercent;
+	private final long gcTimeAtStartMs;
+	private final long bytesReceivedAtStart;
+	private final long bytesSentAtStart;
+	private final int availableProcessors;
 	private double minUpdateRateThresholdOps;	
 	private double updateRateReachTimePercent;
 	private boolean verbose;
 	private long seconds;
 	private long runPeriodSeconds;
 	private int minUpdateRatePassesCount;
-	private int aggregationAgentsCount;
 	private int editorialAgentsCount;
 	private int initializedCount;
 	
 	private final static Logger LOGGER = LoggerFactory.getLogger(TestDriverReporter.class.getName());
 	
-	public TestDriverReporter(AtomicLong totalQueryExecutions, AtomicLong totalCompletedQueryMixRuns, AtomicBoolean benchmarkState, AtomicBoolean keepAlive, AtomicBoolean benchmarkResultIsValid, double updateQueryRateFirstReachTimePercent, double minUpdateQueriesRateThresholdOps, double maxUpdateRateThresholdOps, AtomicBoolean maxUpdateRateReached, int editorialAgentsCount, int aggregationAgentsCount, long runPeriodSeconds, /*long benchmarkByQueryMixRuns, long benchmarkByQueryRuns, */String queryPoolsDefinitons, boolean verbose) {
+	public TestDriverReporter(AtomicLong totalQueryExecutions, List<QueryMix> queryMixes, AtomicBoolean benchmarkState, AtomicBoolean keepAlive, AtomicBoolean benchmarkResultIsValid, double updateQueryRateFirstReachTimePercent, double minUpdateQueriesRateThresholdOps, double maxUpdateRateThresholdOps, AtomicBoolean maxUpdateRateReached, int editorialAgentsCount, long runPeriodSeconds, /*long benchmarkByQueryMixRuns, long benchmarkByQueryRuns, */double driverCpuWarningThresholdPercent, double driverGcWarningThresholdPercent, boolean verbose) {
 		this.totalQueryExecutions = totalQueryExecutions;
-		this.totalCompletedQueryMixRuns = totalCompletedQueryMixRuns;
+		this.queryMixes = queryMixes;
 		this.benchmarkState = benchmarkState;
 		this.keepAlive = keepAlive;
 		this.benchmarkResultIsValid = benchmarkResultIsValid;
@@ -43,14 +53,18 @@ public class TestDriverReporter extends Thread {
 		this.seconds = 0;
 		this.runPeriodSeconds = runPeriodSeconds;
 		this.verbose = verbose;
-		this.aggregationAgentsCount = aggregationAgentsCount;
 		this.editorialAgentsCount = editorialAgentsCount;
 		this.minUpdateRateThresholdOps = minUpdateQueriesRateThresholdOps;
 		this.minUpdateRatePassesCount = 0;
 		this.maxUpdateRateThresholdOps = maxUpdateRateThresholdOps;
 		this.maxUpdateRateReached = maxUpdateRateReached;
 		this.initializedCount = 0;
-		this.queryPoolsDefinitions = queryPoolsDefinitons;
+		this.driverCpuWarningThresholdPercent = driverCpuWarningThresholdPercent;
+		this.driverGcWarningThresholdPercent = driverGcWarningThresholdPercent;
+		this.gcTimeAtStartMs = DriverOverheadStatistics.getTotalGcTimeMs();
+		this.bytesReceivedAtStart = Statistics.bytesReceived.get();
+		this.bytesSentAtStart = Statistics.bytesSent.get();
+		this.availableProcessors = Runtime.getRuntime().availableProcessors();
 	}
 	
 	/* (non-Javadoc)
@@ -94,9 +108,10 @@ public class TestDriverReporter extends Thread {
 		
 		sb.append("\n");
 		
+		long completedQueryMixRuns = getCompletedQueryMixRuns();
 		sb.append("\nSeconds : " + seconds);
-		if (!queryPoolsDefinitions.isEmpty()) {
-			sb.append(" (completed query mixes : " + totalCompletedQueryMixRuns.get() + ")");
+		if (completedQueryMixRuns >= 0) {
+			sb.append(" (completed query mixes : " + completedQueryMixRuns + ")");
 		} else {
 			sb.append(" (completed query runs : " + totalQueryExecutions.get() + ")");
 		}
@@ -129,34 +144,22 @@ public class TestDriverReporter extends Thread {
 		
 		sb.append(String.format("\t\t%.4f average operations per second\n", averageOperationsPerSecond));
 
-		sb.append("\n");
-		sb.append("\tAggregation:\n");
-		sb.append(String.format("\t\t%s agents\n\n", aggregationAgentsCount));
-		if (verbose) {
-			for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
-				sb.append(String.format("\t\t%-5d Q%-2d  queries (avg : %-7d ms, min : %-7d ms, max : %-7d ms, %d errors)\n", Statistics.aggregateQueriesArray[i].getRunsCount(), 
-																											   				  (i + 1),
-																											   				  Statistics.aggregateQueriesArray[i].getAvgExecutionTimeMs(),
-																											   				  Statistics.aggregateQueriesArray[i].getMinExecutionTimeMs(), 
-																											   				  Statistics.aggregateQueriesArray[i].getMaxExecutionTimeMs(), 
-																											   				  Statistics.aggregateQueriesArray[i].getFailuresCount()));
-			}
-			
-			sb.append(String.format("\n\t\t%d total retrieval queries (%d timed-out)\n", totalAggregateOpsCount, failedTotalAggregateOpsCount));
-		} else {
-			for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
-				sb.append(String.format("\t\t%-5d Q%-2d  queries\n", Statistics.aggregateQueriesArray[i].getRunsCount(), (i + 1)));
-			}
-			
-			sb.append(String.format("\n\t\t%d total retrieval queries\n", totalAggregateOpsCount));
+		for (QueryMix queryMix : queryMixes) {
+			appendAggregation(sb, queryMix);
 		}
 		
-		//considering a time correction caused by result parsing for each aggregate query by each of aggregate agents, that time is subtracted when calculating the total average		
-		double averageQueriesPerSecond = (double)totalAggregateOpsCount / ((double)seconds - (double)(Statistics.timeCorrectionsMS.get() / 1000));
-		if ((double)(Statistics.timeCorrectionsMS.get() / 1000) >= (double)seconds) {
-			averageQueriesPerSecond = (double)totalAggregateOpsCount / ((double)seconds);
+		if (queryMixes.size() > 1) {
+			sb.append("\n");
+			sb.append("\tAggregation, all query mixes:\n");
+			sb.append(String.format("\t\t%d total retrieval queries\n", totalAggregateOpsCount));
+			if (verbose) {
+				sb.append(String.format("\t\t%d timed-out retrieval queries\n", failedTotalAggregateOpsCount));
+			}
+			sb.append(String.format("\t\t%.4f average queries per second\n", getAverageQueriesPerSecond(totalAggregateOpsCount)));
 		}
-		sb.append(String.format("\t\t%.4f average queries per second\n", averageQueriesPerSecond));		
+		
+		appendDriverOverhead(sb);
+		appendTransferStatistics(sb, insertOpsCount + updateOpsCount + deleteOpsCount + totalAggregateOpsCount);
 				
 		//in case using minUpdateRateThresholdOps option, display a message that benchmark is not 
 		if (minUpdateRateThresholdOps > 0.0) {
@@ -182,6 +185,184 @@ public class TestDriverReporter extends Thread {
 		return (System.currentTimeMillis() - time);		
 	}	
 	
+	/**
+	 * @return number of completed runs of query mixes which have query pools defined, or -1 if no query pools are defined
+	 */
+	private long getCompletedQueryMixRuns() {
+		long completedQueryMixRuns = -1;
+		for (QueryMix queryMix : queryMixes) {
+			if (queryMix.hasQueryPools()) {
+				completedQueryMixRuns = Math.max(completedQueryMixRuns, 0) + queryMix.getStatistics().getTotalCompletedQueryMixRuns().get();
+			}
+		}
+		return completedQueryMixRuns;
+	}
+	
+	/**
+	 * Considering a time correction caused by result parsing for each aggregate query by each of aggregate agents, that time is subtracted when calculating the average
+	 */
+	private double getAverageQueriesPerSecond(long aggregateOpsCount) {
+		double averageQueriesPerSecond = (double)aggregateOpsCount / ((double)seconds - (double)(Statistics.timeCorrectionsMS.get() / 1000));
+		if ((double)(Statistics.timeCorrectionsMS.get() / 1000) >= (double)seconds) {
+			averageQueriesPerSecond = (double)aggregateOpsCount / ((double)seconds);
+		}
+		return averageQueriesPerSecond;
+	}
+	
+	/**
+	 * Appends executed queries and sessions of a query mix, each mix is reported in a section of its own
+	 */
+	private void appendAggregation(StringBuilder sb, QueryMix queryMix) {
+		QueryMixStatistics queryMixStatistics = queryMix.getStatistics();
+		long totalAggregateOpsCount = queryMixStatistics.getTotalAggregateQueryStatistics().getRunsCount();
+		long failedTotalAggregateOpsCount = queryMixStatistics.getTotalAggregateQueryStatistics().getFailuresCount();
+		
+		sb.append("\n");
+		if (queryMix.getName().isEmpty()) {
+			sb.append("\tAggregation:\n");
+		} else {
+			sb.append(String.format("\tAggregation, query mix %s:\n", queryMix.getName()));
+		}
+		sb.append(String.format("\t\t%s agents\n\n", queryMix.getAggregationAgentsCount()));
+		if (verbose) {
+			for (int i = 1; i <= queryMixStatistics.getQueriesCount(); i++) {
+				QueryStatistics queryStatistics = queryMixStatistics.getQueryStatistics(i);
+				sb.append(String.format("\t\t%-5d Q%-2d  queries (avg : %-7d ms, min : %-7d ms, max : %-7d ms, %d errors)\n", queryStatistics.getRunsCount(), 
+																											   				  i,
+																											   				  queryStatistics.getAvgExecutionTimeMs(),
+																											   				  queryStatistics.getMinExecutionTimeMs(), 
+																											   				  queryStatistics.getMaxExecutionTimeMs(), 
+																											   				  queryStatistics.getFailuresCount()));
+			}
+			
+			sb.append(String.format("\n\t\t%d total retrieval queries (%d timed-out)\n", totalAggregateOpsCount, failedTotalAggregateOpsCount));
+		} else {
+			for (int i = 1; i <= queryMixStatistics.getQueriesCount(); i++) {
+				sb.append(String.format("\t\t%-5d Q%-2d  queries\n", queryMixStatistics.getQueryStatistics(i).getRunsCount(), i));
+			}
+			
+			sb.append(String.format("\n\t\t%d total retrieval queries\n", totalAggregateOpsCount));
+		}
+		
+		sb.append(String.format("\t\t%.4f average queries per second\n", getAverageQueriesPerSecond(totalAggregateOpsCount)));
+		
+		appendSessionStatistics(sb, queryMixStatistics);
+	}
+	
+	/**
+	 * Appends resources consumed by the driver itself next to the time measured for the operations. If CPU usage of agent threads
+	 * or time spent in garbage collection exceed configured thresholds, measured results are likely to be limited by the driver.
+	 * CPU usage is relative to the cores the agent threads can occupy, i.e. not more cores than there are agents.
+	 */
+	private void appendDriverOverhead(StringBuilder sb) {
+		DriverOverheadStatistics driverOverhead = Statistics.driverOverheadStatistics;
+		double elapsedMs = (double)(seconds * 1000);
+		double driverCpuPercent = 0.0;
+		double gcPercent = 0.0;
+		
+		int agentsCount = editorialAgentsCount;
+		for (QueryMix queryMix : queryMixes) {
+			agentsCount += queryMix.getAggregationAgentsCount();
+		}
+		int agentsCores = Math.max(1, Math.min(agentsCount, availableProcessors));
+		
+		if (elapsedMs > 0) {
+			driverCpuPercent = (double)driverOverhead.getDriverCpuTimeMs() * 100.0 / (elapsedMs * agentsCores);
+			gcPercent = (double)(DriverOverheadStatistics.getTotalGcTimeMs() - gcTimeAtStartMs) * 100.0 / elapsedMs;
+		}
+		
+		sb.append("\n");
+		sb.append("\tDriver overhead:\n");
+		if (driverOverhead.isCpuTimeSupported()) {
+			sb.append(String.format("\t\t%.2f ms driver CPU time per operation (avg store time : %.2f ms, avg queueing delay : %.2f ms)\n", driverOverhead.getAvgDriverCpuTimeMs(), driverOverhead.getAvgStoreTimeMs(), driverOverhead.getAvgQueueingDelayMs()));
+			sb.append(String.format("\t\t%.1f%% of CPU available to %d agents (%d of %d cores) used by agents, %.1f%% of time spent in garbage collection\n", driverCpuPercent, agentsCount, agentsCores, availableProcessors, gcPercent));
+		} else {
+			sb.append(String.format("\t\tthread CPU time is not supported by the JVM (avg store time : %.2f ms, avg queueing delay : %.2f ms)\n", driverOverhead.getAvgStoreTimeMs(), driverOverhead.getAvgQueueingDelayMs()));
+			sb.append(String.format("\t\t%.1f%% of time spent in garbage collection\n", gcPercent));
+		}
+		
+		if (driverCpuWarningThresholdPercent > 0.0 && driverCpuPercent > driverCpuWarningThresholdPercent) {
+			String message = String.format("Warning : CPU usage of the driver (%.1f%%) is above threshold of %.1f%%, results may be limited by the benchmark driver and not by the tested database!", driverCpuPercent, driverCpuWarningThresholdPercent);
+			LOGGER.warn(message);
+			sb.append("\t\t" + message + "\n");
+		}
+		
+		if (driverGcWarningThresholdPercent > 0.0 && gcPercent > driverGcWarningThresholdPercent) {
+			String message = String.format("Warning : time spent by the driver in garbage collection (%.1f%%) is above threshold of %.1f%%, results may be limited by the benchmark driver and not by the tested database!", gcPercent, driverGcWarningThresholdPercent);
+			LOGGER.warn(message);
+			sb.append("\t\t" + message + "\n");
+		}
+	}
+	
+	/**
+	 * Appends end-to-end times of drill-down and faceted search sessions, number of iterations they have executed and (in verbose mode)
+	 * times of each iteration. In the aggregation section above each session is reported as a single query with the time of its first iteration
+	 * and the results of all iterations.
+	 */
+	private void appendSessionStatistics(StringBuilder sb, QueryMixStatistics queryMixStatistics) {
+		boolean sessionsExecuted = false;
+		for (int i = 1; i <= queryMixStatistics.getQueriesCount(); i++) {
+			SessionStatistics sessionStatistics = queryMixStatistics.getSessionStatistics(i);
+			sessionsExecuted |= sessionStatistics != null && (sessionStatistics.getSessionsCount() > 0 || sessionStatistics.getFailuresCount() > 0);
+		}
+		if (!sessionsExecuted) {
+			return;
+		}
+		
+		sb.append("\n");
+		sb.append("\tSessions:\n");
+		for (int i = 1; i <= queryMixStatistics.getQueriesCount(); i++) {
+			SessionStatistics sessionStatistics = queryMixStatistics.getSessionStatistics(i);
+			if (sessionStatistics == null) {
+				continue;
+			}
+			LatencyHistogram sessionTimes = sessionStatistics.getSessionTimes();
+			sb.append(String.format("\t\t%-5d Q%-2d  sessions (avg : %-7d ms, 50%% : %-7d ms, 90%% : %-7d ms, 99%% : %-7d ms, max : %-7d ms, %d errors)\n", sessionStatistics.getSessionsCount(),
+																																	   i,
+																																	   sessionTimes.getAvgMs(),
+																																	   sessionTimes.getPercentileMs(50.0),
+																																	   sessionTimes.getPercentileMs(90.0),
+																																	   sessionTimes.getPercentileMs(99.0),
+																																	   sessionTimes.getMaxMs(),
+																																	   sessionStatistics.getFailuresCount()));
+			if (sessionStatistics.getSessionsCount() == 0) {
+				continue;
+			}
+			
+			StringBuilder stepsCounts = new StringBuilder();
+			for (int steps = sessionStatistics.getMaxStepsCount(); steps > 0; steps--) {
+				if (sessionStatistics.getSessionsCount(steps) > 0) {
+					stepsCounts.append(String.format("%s%d steps : %d", stepsCounts.length() > 0 ? ", " : "", steps, sessionStatistics.getSessionsCount(steps)));
+				}
+			}
+			sb.append(String.format("\t\t\t%.2f of max %d steps per session (%s), %.2f steps overlap\n", sessionStatistics.getAvgStepsCount(), sessionStatistics.getMaxStepsCount(), stepsCounts.toString(), sessionStatistics.getStepsOverlap()));
+			
+			if (verbose) {
+				for (int step = 0; step < sessionStatistics.getMaxStepsCount(); step++) {
+					LatencyHistogram stepTimes = sessionStatistics.getStepTimes(step);
+					if (stepTimes.getCount() > 0) {
+						sb.append(String.format("\t\t\tstep %d : %-5d runs (avg : %-7d ms, 50%% : %-7d ms, 90%% : %-7d ms, 99%% : %-7d ms, max : %-7d ms)\n", (step + 1), stepTimes.getCount(), stepTimes.getAvgMs(), stepTimes.getPercentileMs(50.0), stepTimes.getPercentileMs(90.0), stepTimes.getPercentileMs(99.0), stepTimes.getMaxMs()));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Appends amount of data transferred over the network by queries and updates (compressed size, if compression is enabled).
+	 */
+	private void appendTransferStatistics(StringBuilder sb, long operationsCount) {
+		long bytesReceived = Statistics.bytesReceived.get() - bytesReceivedAtStart;
+		long bytesSent = Statistics.bytesSent.get() - bytesSentAtStart;
+		
+		sb.append("\n");
+		sb.append("\tNetwork transfer:\n");
+		sb.append(String.format("\t\t%d bytes received per operation (%.2f KB/s), %d bytes sent per operation (%.2f KB/s)\n", operationsCount > 0 ? bytesReceived / operationsCount : 0,
+																																   seconds > 0 ? (double)bytesReceived / 1024.0 / (double)seconds : 0.0,
+																																   operationsCount > 0 ? bytesSent / operationsCount : 0,
+																																   seconds > 0 ? (double)bytesSent / 1024.0 / (double)seconds : 0.0));
+	}
+	
 	private void updateInternalStatus(double averageOperationsPerSecond) {
 		
 		//using maxUpdateRate threshold to control the update rate of editorial agents
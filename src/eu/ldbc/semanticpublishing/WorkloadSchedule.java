@@ -0,0 +1,234 @@
+package eu.ldbc.semanticpublishing;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import eu.ldbc.semanticpublishing.properties.Configuration;
+import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.statistics.Statistics;
+
+/**
+ * A workload schedule, changes the workload at given offsets from the start of the benchmark phase, e.g. to model daily ramps,
+ * write spikes of breaking news or bursts of analytical queries. The schedule file (java properties format) lists names of segments
+ * in parameter 'segments', parameters of a segment are prefixed with its name :
+ *   startSeconds - offset of the segment from the start of the benchmark phase, segments are listed in order of their start, first one starts at 0
+ *   editorialOperationsAllocation, editorialAgents, editorialRateOps - allocation, number of active agents and maximum operations per second of editorial agents
+ *   aggregationOperationsAllocation, aggregationAgents, aggregationRateOps - same for aggregation agents of a query mix. Parameters of a mix listed in
+ *   configuration parameter queryMixes are additionally prefixed with the mix name, e.g. spike.basic.aggregationAgents, a missing key is taken from the key without mix prefix.
+ *
+ * A parameter missing in a segment keeps its value from the previous segment, a rate of zero means no limit. Numbers of active agents can not
+ * exceed the numbers of agents set in test.properties, the remaining agents stay idle.
+ */
+public class WorkloadSchedule {
+	public static final String SEGMENTS = "segments";
+	public static final String START_SECONDS = "startSeconds";
+	public static final String EDITORIAL_AGENTS_COUNT = Configuration.EDITORIAL_AGENTS_COUNT;
+	public static final String EDITORIAL_RATE_OPS = "editorialRateOps";
+	public static final String AGGREGATION_AGENTS_COUNT = Configuration.AGGREGATION_AGENTS_COUNT;
+	public static final String AGGREGATION_RATE_OPS = "aggregationRateOps";
+
+	private final List<Segment> segments = new ArrayList<Segment>();
+
+	/**
+	 * Loads and validates a schedule file
+	 * @param queryMixes - query mixes of the run, for validating allocations and agents count of each mix
+	 * @param editorialAgentsCount - number of editorial agents of the run
+	 */
+	public WorkloadSchedule(String filename, List<QueryMix> queryMixes, int editorialAgentsCount) throws IOException {
+		Properties properties = new Properties();
+		InputStream input = new FileInputStream(filename);
+		try {
+			properties.load(input);
+		}
+		finally {
+			input.close();
+		}
+
+		List<String> names = new ArrayList<String>();
+		for (String name : properties.getProperty(SEGMENTS, "").split(",")) {
+			name = name.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (names.contains(name)) {
+				throw new IllegalStateException("Illegal value for workload schedule parameter: " + SEGMENTS + ", segment " + name + " is listed more than once");
+			}
+			names.add(name);
+		}
+
+		if (names.isEmpty()) {
+			throw new IllegalStateException("Missing workload schedule parameter: " + SEGMENTS + ", in file : " + filename);
+		}
+
+		for (String name : names) {
+			Segment segment = new Segment(name, properties, queryMixes, editorialAgentsCount);
+			if (segments.isEmpty() && segment.getStartSeconds() != 0) {
+				throw new IllegalStateException("Illegal value for workload schedule parameter: " + name + "." + START_SECONDS + ", first segment should start at 0");
+			}
+			if (!segments.isEmpty() && segment.getStartSeconds() <= segments.get(segments.size() - 1).getStartSeconds()) {
+				throw new IllegalStateException("Illegal value for workload schedule parameter: " + name + "." + START_SECONDS + ", segments should be listed in order of their start");
+			}
+			segments.add(segment);
+		}
+	}
+
+	public List<Segment> getSegments() {
+		return segments;
+	}
+
+	/**
+	 * A segment of the schedule. Null values (or missing keys in maps of query mixes) stand for settings not changed by the segment.
+	 */
+	public static class Segment {
+		private final String name;
+		private final long startSeconds;
+		private final List<String> settings = new ArrayList<String>();
+		private double[] editorialOperationsAllocation;
+		private Integer editorialAgentsCount;
+		private Double editorialRateOps;
+		private final Map<String, double[]> aggregationOperationsAllocations = new HashMap<String, double[]>();
+		private final Map<String, Integer> aggregationAgentsCounts = new HashMap<String, Integer>();
+		private final Map<String, Double> aggregationRateOps = new HashMap<String, Double>();
+
+		private Segment(String name, Properties properties, List<QueryMix> queryMixes, int editorialAgentsCount) {
+			this.name = name;
+
+			String value = getValue(properties, "", START_SECONDS);
+			if (value == null) {
+				throw new IllegalStateException("Missing workload schedule parameter: " + name + "." + START_SECONDS);
+			}
+			this.startSeconds = Long.parseLong(value);
+
+			value = getValue(properties, "", Definitions.EDITORIAL_OPERATIONS_ALLOCATION);
+			if (value != null) {
+				this.editorialOperationsAllocation = parseAllocations(Definitions.EDITORIAL_OPERATIONS_ALLOCATION, value, Statistics.EDITORIAL_QUERIES_COUNT);
+			}
+
+			value = getValue(properties, "", EDITORIAL_AGENTS_COUNT);
+			if (value != null) {
+				this.editorialAgentsCount = parseAgentsCount(EDITORIAL_AGENTS_COUNT, value, editorialAgentsCount);
+			}
+
+			value = getValue(properties, "", EDITORIAL_RATE_OPS);
+			if (value != null) {
+				this.editorialRateOps = parseRate(EDITORIAL_RATE_OPS, value);
+			}
+
+			for (QueryMix queryMix : queryMixes) {
+				String mixName = queryMix.getName();
+
+				value = getValue(properties, mixName, Definitions.AGGREGATION_OPERATIONS_ALLOCATION);
+				if (value != null) {
+					aggregationOperationsAllocations.put(mixName, parseAllocations(getKey(mixName, Definitions.AGGREGATION_OPERATIONS_ALLOCATION), value, queryMix.getQueryTemplatesRegistry().getQueriesCount()));
+				}
+
+				value = getValue(properties, mixName, AGGREGATION_AGENTS_COUNT);
+				if (value != null) {
+					aggregationAgentsCounts.put(mixName, parseAgentsCount(getKey(mixName, AGGREGATION_AGENTS_COUNT), value, queryMix.getAggregationAgentsCount()));
+				}
+
+				value = getValue(properties, mixName, AGGREGATION_RATE_OPS);
+				if (value != null) {
+					aggregationRateOps.put(mixName, parseRate(getKey(mixName, AGGREGATION_RATE_OPS), value));
+				}
+			}
+		}
+
+		private static String getKey(String mixName, String key) {
+			return mixName.isEmpty() ? key : mixName + "." + key;
+		}
+
+		/**
+		 * @return value of key prefixed with the segment and query mix names, or of key prefixed with the segment name only, null if neither is set
+		 */
+		private String getValue(Properties properties, String mixName, String key) {
+			String value = null;
+			if (!mixName.isEmpty()) {
+				value = properties.getProperty(name + "." + mixName + "." + key);
+			}
+			if (value == null) {
+				value = properties.getProperty(name + "." + key);
+			}
+			return (value == null) ? null : value.trim();
+		}
+
+		private double[] parseAllocations(String key, String value, int expectedCount) {
+			double[] allocations = Definitions.parseAllocations(value);
+			if (allocations.length != expectedCount) {
+				throw new IllegalStateException("Illegal value for workload schedule parameter: " + name + "." + key + ", expected " + expectedCount + " allocations, found : " + allocations.length);
+			}
+			double sum = 0.0;
+			for (double allocation : allocations) {
+				sum += allocation;
+			}
+			if (Math.abs(1.0 - sum) > 0.001) {
+				throw new IllegalStateException(String.format("Illegal value for workload schedule parameter: %s.%s, sum of allocations should be 1.0, found : %.2f", name, key, sum));
+			}
+			settings.add(key + "=" + value);
+			return allocations;
+		}
+
+		private int parseAgentsCount(String key, String value, int maxCount) {
+			int count = Integer.parseInt(value);
+			if (count < 0 || count > maxCount) {
+				throw new IllegalStateException("Illegal value for workload schedule parameter: " + name + "." + key + ", expected a value between 0 and the configured number of agents : " + maxCount + ", found : " + count);
+			}
+			settings.add(key + "=" + value);
+			return count;
+		}
+
+		private double parseRate(String key, String value) {
+			double rate = Double.parseDouble(value);
+			if (rate < 0.0) {
+				throw new IllegalStateException("Illegal value for workload schedule parameter: " + name + "." + key + ", found a negative rate : " + value);
+			}
+			settings.add(key + "=" + value);
+			return rate;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getStartSeconds() {
+			return startSeconds;
+		}
+
+		/**
+		 * @return settings changed by the segment, as key=value
+		 */
+		public List<String> getSettings() {
+			return settings;
+		}
+
+		public double[] getEditorialOperationsAllocation() {
+			return editorialOperationsAllocation;
+		}
+
+		public Integer getEditorialAgentsCount() {
+			return editorialAgentsCount;
+		}
+
+		public Double getEditorialRateOps() {
+			return editorialRateOps;
+		}
+
+		public double[] getAggregationOperationsAllocation(String mixName) {
+			return aggregationOperationsAllocations.get(mixName);
+		}
+
+		public Integer getAggregationAgentsCount(String mixName) {
+			return aggregationAgentsCounts.get(mixName);
+		}
+
+		public Double getAggregationRateOps(String mixName) {
+			return aggregationRateOps.get(mixName);
+		}
+	}
+}
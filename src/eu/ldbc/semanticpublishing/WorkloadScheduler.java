@@ -0,0 +1,147 @@
+package eu.ldbc.semanticpublishing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.ldbc.semanticpublishing.WorkloadSchedule.Segment;
+import eu.ldbc.semanticpublishing.agents.AgentsThrottle;
+import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.statistics.LatencyHistogram;
+import eu.ldbc.semanticpublishing.statistics.Statistics;
+import eu.ldbc.semanticpublishing.statistics.WorkloadSegmentStatistics;
+import eu.ldbc.semanticpublishing.util.AllocationsUtil;
+import eu.ldbc.semanticpublishing.util.ThreadUtil;
+
+/**
+ * Applies segments of a workload schedule during the benchmark phase. On start of each segment the editorial and aggregation
+ * operations allocations, active agents and target rates are changed as set by the segment, statistics of the previous
+ * segment are reported and statistics of the new segment are started, so that transitions between segments can be compared.
+ */
+public class WorkloadScheduler extends Thread {
+	private final static int CHECK_INTERVAL_MS = 100;
+
+	private final WorkloadSchedule schedule;
+	private final List<QueryMix> queryMixes;
+	private final AgentsThrottle editorialAgentsThrottle;
+	private final AtomicBoolean benchmarkState;
+	private final Random random;
+	private final List<String> statisticsNames = new ArrayList<String>();
+	private WorkloadSegmentStatistics segmentStatistics = null;
+
+	private final static Logger LOGGER = LoggerFactory.getLogger(WorkloadScheduler.class.getName());
+
+	public WorkloadScheduler(WorkloadSchedule schedule, List<QueryMix> queryMixes, AgentsThrottle editorialAgentsThrottle, AtomicBoolean benchmarkState, Random random) {
+		this.schedule = schedule;
+		this.queryMixes = queryMixes;
+		this.editorialAgentsThrottle = editorialAgentsThrottle;
+		this.benchmarkState = benchmarkState;
+		this.random = random;
+
+		statisticsNames.add(Statistics.insertCreativeWorksQueryStatistics.getQueryName());
+		statisticsNames.add(Statistics.updateCreativeWorksQueryStatistics.getQueryName());
+		statisticsNames.add(Statistics.deleteCreativeWorksQueryStatistics.getQueryName());
+		for (QueryMix queryMix : queryMixes) {
+			statisticsNames.add(queryMix.getStatistics().getTotalAggregateQueryStatistics().getQueryName());
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			long startTimeMs = System.currentTimeMillis();
+
+			for (Segment segment : schedule.getSegments()) {
+				while (benchmarkState.get() && System.currentTimeMillis() < startTimeMs + segment.getStartSeconds() * 1000) {
+					ThreadUtil.sleepMilliseconds(CHECK_INTERVAL_MS);
+				}
+
+				if (!benchmarkState.get()) {
+					String message = "Workload segment " + segment.getName() + " has not been started, the benchmark phase has completed earlier";
+					System.out.println(message);
+					LOGGER.info(message);
+					continue;
+				}
+
+				finishSegment();
+				applySegment(segment, (System.currentTimeMillis() - startTimeMs) / 1000);
+			}
+
+			while (benchmarkState.get()) {
+				ThreadUtil.sleepMilliseconds(CHECK_INTERVAL_MS);
+			}
+
+			finishSegment();
+		} catch (Throwable t) {
+			System.out.println("WorkloadScheduler :: encountered a problem : " + t.getMessage());
+			t.printStackTrace();
+		}
+	}
+
+	private void applySegment(Segment segment, long offsetSeconds) {
+		if (segment.getEditorialOperationsAllocation() != null) {
+			Definitions.editorialOperationsAllocation = new AllocationsUtil(segment.getEditorialOperationsAllocation(), random);
+		}
+		if (segment.getEditorialAgentsCount() != null) {
+			editorialAgentsThrottle.setActiveAgentsCount(segment.getEditorialAgentsCount());
+		}
+		if (segment.getEditorialRateOps() != null) {
+			editorialAgentsThrottle.setTargetRateOps(segment.getEditorialRateOps());
+		}
+
+		for (QueryMix queryMix : queryMixes) {
+			if (segment.getAggregationOperationsAllocation(queryMix.getName()) != null) {
+				queryMix.setAggregationOperationsAllocation(segment.getAggregationOperationsAllocation(queryMix.getName()), random);
+			}
+			if (segment.getAggregationAgentsCount(queryMix.getName()) != null) {
+				queryMix.getThrottle().setActiveAgentsCount(segment.getAggregationAgentsCount(queryMix.getName()));
+			}
+			if (segment.getAggregationRateOps(queryMix.getName()) != null) {
+				queryMix.getThrottle().setTargetRateOps(segment.getAggregationRateOps(queryMix.getName()));
+			}
+		}
+
+		segmentStatistics = new WorkloadSegmentStatistics(segment.getName(), statisticsNames);
+		Statistics.setSegmentStatistics(segmentStatistics);
+
+		String message = String.format("Workload segment %s has started at %d seconds, settings : %s", segment.getName(), offsetSeconds, segment.getSettings().isEmpty() ? "unchanged" : segment.getSettings());
+		System.out.println(message);
+		LOGGER.info(message);
+	}
+
+	/**
+	 * Stops statistics of the running segment, if any, and reports them
+	 */
+	private void finishSegment() {
+		if (segmentStatistics == null) {
+			return;
+		}
+
+		Statistics.setSegmentStatistics(null);
+		segmentStatistics.finish();
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Workload segment %s has completed, duration : %.1f seconds\n", segmentStatistics.getSegmentName(), segmentStatistics.getDurationSeconds()));
+		for (String name : segmentStatistics.getGroupNames()) {
+			LatencyHistogram latencies = segmentStatistics.getLatencies(name);
+			sb.append(String.format("\t\t%-16s : %d operations, %.2f ops, avg : %d ms, 90%% : %d ms, 99%% : %d ms, max : %d ms, failures : %d\n",
+					name,
+					latencies.getCount(),
+					segmentStatistics.getOperationsPerSecond(name),
+					latencies.getAvgMs(),
+					latencies.getPercentileMs(90.0),
+					latencies.getPercentileMs(99.0),
+					latencies.getMaxMs(),
+					segmentStatistics.getFailuresCount(name)));
+		}
+
+		System.out.println(sb.toString());
+		LOGGER.info(sb.toString());
+
+		segmentStatistics = null;
+	}
+}
@@ -0,0 +1,96 @@
+package eu.ldbc.semanticpublishing.agents;
+
+/**
+ * Controls a group of agents (e.g. editorial agents, or aggregation agents of a query mix) while they are running.
+ * Only the first activeAgentsCount agents of the group execute operations, the rest stay idle. If a target rate is set,
+ * operations of the group are spaced evenly so that the group does not execute more than targetRateOps operations per second.
+ * Both limits can be changed at any time, e.g. by a workload schedule.
+ */
+public class AgentsThrottle {
+	//longest time an agent waits before checking again if it is still active
+	private final static long MAX_WAIT_MS = 200;
+
+	private final int agentsCount;
+	private volatile int activeAgentsCount;
+	private volatile double targetRateOps = 0.0;
+	//compared by difference with System.nanoTime(), which may overflow
+	private long nextOperationNs = System.nanoTime();
+
+	/**
+	 * @param agentsCount - number of agents in the group, all of them are active initially
+	 */
+	public AgentsThrottle(int agentsCount) {
+		this.agentsCount = agentsCount;
+		this.activeAgentsCount = agentsCount;
+	}
+
+	/**
+	 * Waits until the agent is allowed to execute its next operation.
+	 * @param agentIndex - index of the agent in its group, zero based
+	 * @return time spent waiting in milliseconds, or -1 if the agent should skip the current operation and call again
+	 */
+	public long acquire(int agentIndex) throws InterruptedException {
+		if (agentIndex >= activeAgentsCount) {
+			Thread.sleep(MAX_WAIT_MS);
+			return -1;
+		}
+
+		double rateOps = targetRateOps;
+		if (rateOps <= 0.0) {
+			return 0;
+		}
+
+		long waitNs;
+		synchronized (this) {
+			long nowNs = System.nanoTime();
+			//time when the group was below the target rate is not saved up, so that a burst does not follow an idle period
+			if (nowNs - nextOperationNs >= 0) {
+				nextOperationNs = nowNs;
+			}
+			waitNs = nextOperationNs - nowNs;
+			if (waitNs > MAX_WAIT_MS * 1000000L) {
+				waitNs = -1;
+			} else {
+				nextOperationNs += (long)(1000000000.0 / rateOps);
+			}
+		}
+
+		if (waitNs < 0) {
+			Thread.sleep(MAX_WAIT_MS);
+			return -1;
+		}
+		if (waitNs > 0) {
+			Thread.sleep(waitNs / 1000000L, (int)(waitNs % 1000000L));
+		}
+		return waitNs / 1000000L;
+	}
+
+	public int getAgentsCount() {
+		return agentsCount;
+	}
+
+	public int getActiveAgentsCount() {
+		return activeAgentsCount;
+	}
+
+	/**
+	 * @param activeAgentsCount - number of agents executing operations, not more than the agents in the group
+	 */
+	public void setActiveAgentsCount(int activeAgentsCount) {
+		if (activeAgentsCount < 0 || activeAgentsCount > agentsCount) {
+			throw new IllegalArgumentException("Active agents count : " + activeAgentsCount + " should be between 0 and " + agentsCount);
+		}
+		this.activeAgentsCount = activeAgentsCount;
+	}
+
+	public double getTargetRateOps() {
+		return targetRateOps;
+	}
+
+	/**
+	 * @param targetRateOps - maximum operations per second of the group, zero for no limit
+	 */
+	public void setTargetRateOps(double targetRateOps) {
+		this.targetRateOps = targetRateOps;
+	}
+}
@@ -1,73 +1,74 @@
 package eu.ldbc.semanticpublishing.agents;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.ldbc.semanticpublishing.QueryMix;
 import eu.ldbc.semanticpublishing.TestDriver;
+import eu.ldbc.semanticpublishing.agents.SessionStepsExecutor.StepResult;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager;
-import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager.ResultStreamHandler;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionQueryParametersManager;
-import eu.ldbc.semanticpublishing.refdataset.model.Entity;
-import eu.ldbc.semanticpublishing.resultanalyzers.Query17Analyzer;
-import eu.ldbc.semanticpublishing.resultanalyzers.Query18Analyzer;
-import eu.ldbc.semanticpublishing.resultanalyzers.Query21Analyzer;
-import eu.ldbc.semanticpublishing.resultanalyzers.Query22Analyzer;
-import eu.ldbc.semanticpublishing.resultanalyzers.sax.SPARQLResultStatementsCounter;
-import eu.ldbc.semanticpublishing.resultanalyzers.sesame.RDFXMLResultStatementsCounter;
+import eu.ldbc.semanticpublishing.resultanalyzers.ResultStatementsCounter;
+import eu.ldbc.semanticpublishing.statistics.QueryMixStatistics;
+import eu.ldbc.semanticpublishing.statistics.SessionStatistics;
 import eu.ldbc.semanticpublishing.statistics.Statistics;
 import eu.ldbc.semanticpublishing.statistics.querypool.Pool;
+import eu.ldbc.semanticpublishing.templates.IterativeQueryTemplate;
 import eu.ldbc.semanticpublishing.templates.MustacheTemplate;
-import eu.ldbc.semanticpublishing.templates.aggregation.*;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 
 /**
  * A class that represents an aggregation agent. It executes aggregation queries 
- * in a loop, updates query execution statistics.
- *
- * WARNING : after making changes to this class, make sure you've made a copy of it with corresponding .basic / .advanced extension before building, 
- *           otherwise you will lose your changes!
+ * of a query mix in a loop, updates query execution statistics of the mix. Queries are built by templates
+ * taken from the QueryTemplatesRegistry of the mix, an instance of each template is created on first use and re-used.
  */
 public class AggregationAgent extends AbstractAsynchronousAgent {
 	private final SparqlQueryExecuteManager queryExecuteManager;
 	private final RandomUtil ru;
 	private final AtomicBoolean benchmarkingState;
-	private final HashMap<String, String> queryTemplates;
+	private final QueryMix queryMix;
+	private final int agentIndex;
+	private final QueryMixStatistics queryMixStatistics;
+	private final MustacheTemplate[] aggregateQueries;
 	private final Pool queryMixPool;
 	private final long benchmarkByQueryMixRuns;
 	private SparqlQueryConnection connection;
-	private Definitions definitions;
 	private SubstitutionQueryParametersManager substitutionQueryParametersMngr;
-	private RDFXMLResultStatementsCounter rdfxmlResultStatementsCounter;
-	private SPARQLResultStatementsCounter sparqlResultStatementsCounter;
+	private ResultStatementsCounter resultStatementsCounter;
+	private long lastOperationCompletedMs = 0;
+	private final SessionStepsExecutor sessionStepsExecutor;
 	
 	private final static Logger LOGGER = LoggerFactory.getLogger(AggregationAgent.class.getName());
 	private final static Logger BRIEF_LOGGER = LoggerFactory.getLogger(TestDriver.class.getName());
-	private final static int MAX_DRILL_DOWN_ITERATIONS = 5;
-	private final static int MAX_FACETED_SEARCH_ITERATIONS = 5;
 	
-	public AggregationAgent(AtomicBoolean benchmarkingState, SparqlQueryExecuteManager queryExecuteManager, RandomUtil ru, AtomicBoolean runFlag, HashMap<String, String> queryTamplates, Definitions definitions, SubstitutionQueryParametersManager substitutionQueryParametersMngr, long benchmarkByQueryMixRuns) {
+	public AggregationAgent(AtomicBoolean benchmarkingState, SparqlQueryExecuteManager queryExecuteManager, RandomUtil ru, AtomicBoolean runFlag, QueryMix queryMix, int agentIndex, long benchmarkByQueryMixRuns, int facetedSearchSessionConcurrency) {
 		super(runFlag);
 		this.queryExecuteManager = queryExecuteManager;
 		this.ru = ru;
 		this.benchmarkingState = benchmarkingState;
-		this.queryTemplates = queryTamplates;
 		this.connection = new SparqlQueryConnection(queryExecuteManager.getEndpointUrl(), queryExecuteManager.getEndpointUpdateUrl(), queryExecuteManager.getTimeoutMilliseconds(), true);
-		this.definitions = definitions;
-		this.substitutionQueryParametersMngr = substitutionQueryParametersMngr;
-		this.rdfxmlResultStatementsCounter = new RDFXMLResultStatementsCounter();
-		this.sparqlResultStatementsCounter = new SPARQLResultStatementsCounter();
-		this.queryMixPool = new Pool(definitions.getString(Definitions.QUERY_POOLS), Statistics.totalStartedQueryMixRuns, Statistics.totalCompletedQueryMixRuns);
+		this.connection.setResultFormats(queryExecuteManager.getSelectResultFormat(), queryExecuteManager.getGraphResultFormat());
+		this.substitutionQueryParametersMngr = queryMix.getSubstitutionQueryParametersManager();
+		this.resultStatementsCounter = new ResultStatementsCounter(queryExecuteManager.getSelectResultFormat(), queryExecuteManager.getGraphResultFormat());
+		this.queryMix = queryMix;
+		this.agentIndex = agentIndex;
+		this.queryMixStatistics = queryMix.getStatistics();
+		this.aggregateQueries = new MustacheTemplate[queryMix.getQueryTemplatesRegistry().getQueriesCount()];
+		this.queryMixPool = new Pool(queryMix.getQueryPoolsDefinitions(), queryMixStatistics.getTotalStartedQueryMixRuns(), queryMixStatistics.getTotalCompletedQueryMixRuns());
 		this.benchmarkByQueryMixRuns = benchmarkByQueryMixRuns;
+		//independent iterations of faceted search queries are executed concurrently only if a concurrency has been configured
+		this.sessionStepsExecutor = facetedSearchSessionConcurrency > 0 ? new SessionStepsExecutor(queryExecuteManager, facetedSearchSessionConcurrency, getName()) : null;
 	}
 	
 	@Override
@@ -75,370 +76,234 @@ public class AggregationAgent extends AbstractAsynchronousAgent {
 		//remember if query was executed before benchmark phase start to skip it later when updating query statistics. No need to do that for Editorial Agents.
 		boolean startedDuringBenchmarkPhase = benchmarkingState.get();
 
+		//wait for a turn if the number of active agents or the rate of queries of the mix is limited
+		try {
+			long waitedMs = queryMix.getThrottle().acquire(agentIndex);
+			if (waitedMs != 0) {
+				//throttling is not a queueing delay of the driver
+				lastOperationCompletedMs = 0;
+			}
+			if (waitedMs < 0) {
+				return true;
+			}
+		} catch (InterruptedException ie) {
+			return true;
+		}
+
 		//retrieve next query to be executed from the aggregation query mix
-		int aggregateQueryIndex = Definitions.aggregationOperationsAllocation.getAllocation();
-		
+		int aggregateQueryIndex = queryMix.getAggregationOperationsAllocation().getAllocation();
+
 		if (startedDuringBenchmarkPhase && queryMixPool.getItemsCount() > 0) {
-		    if (benchmarkByQueryMixRuns > 0 && !queryMixPool.getInProgress() && Statistics.totalStartedQueryMixRuns.get() >= benchmarkByQueryMixRuns) {
+		    if (benchmarkByQueryMixRuns > 0 && !queryMixPool.getInProgress() && queryMixStatistics.getTotalStartedQueryMixRuns().get() >= benchmarkByQueryMixRuns) {
 		        return true;
 		    }
-		
+
 		    //aggregateQueryIndex is ZERO based, while query ids in definitions.properties (parameter queryPools) are not
 		    if (!queryMixPool.checkAndSetItemUnavailable(aggregateQueryIndex + 1)) {
 		        return true;
-		    }            
+		    }
 		}
 
-		long queryId = 0;
-		MustacheTemplate aggregateQuery = null;
+		long driverCpuStartNs = Statistics.driverOverheadStatistics.getCurrentThreadCpuTimeNs();
+		//important : queryDistribution is zero-based, while QueryNTemplate is not!
+		long queryId = queryMixStatistics.getQueryStatistics(aggregateQueryIndex + 1).getNewQueryId();
+		MustacheTemplate aggregateQuery = getAggregateQuery(aggregateQueryIndex, substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId));
+		IterativeQueryTemplate iterativeQuery = getIterativeQuery(aggregateQuery);
 		String queryString = "";
 		String queryResult = "";
-		
+
 		try {
-			boolean drillDownQuery = false;
-			boolean facetedSearchQuery = false;
-			
-			//important : queryDistribution is zero-based, while QueryNTemplate is not!
-			queryId = Statistics.aggregateQueriesArray[aggregateQueryIndex].getNewQueryId();
-
-			String[] querySubstParameters;
-			switch (aggregateQueryIndex) {
-				case 0 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query1Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 1 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query2Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 2 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query3Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 3 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query4Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 4 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query5Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 5 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query6Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 6 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query7Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 7 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query8Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 8 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query9Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 9 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query10Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 10 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query11Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 11 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query12Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 12 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query13Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 13 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query14Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 14 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query15Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 15 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query16Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 16 : 
-					//Drill-Down query with constraints on Geo-locations
-					drillDownQuery = true;
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query17Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 17 : 
-					//Drill-Down query with constraints on Date intervals
-					drillDownQuery = true;
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query18Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 18 : 
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query19Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 19 : 
-					//FTS Query
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query20Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 20 : 					
-					//Faceted Search Query
-					facetedSearchQuery = true;
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query21Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 21 : 					
-					//Faceted Search Query
-					facetedSearchQuery = true;
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query22Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 22 :
-					//Faceted Search Query
-					facetedSearchQuery = true;
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query23Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 23 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query24Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-				case 24 :
-					querySubstParameters = substitutionQueryParametersMngr.getSubstitutionParametersFor(SubstitutionQueryParametersManager.QueryType.AGGREGATE, aggregateQueryIndex).get(queryId);
-					aggregateQuery = new Query25Template(ru, queryTemplates, definitions, querySubstParameters);
-					break;
-			}
-			
 			queryString = aggregateQuery.compileMustacheTemplate();
-			
+
 			long executionTimeMs = System.currentTimeMillis();
-			
-			queryResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), queryString, aggregateQuery.getTemplateQueryType(), true, false);			
-									
-			if (drillDownQuery) {
-				//further loop the drill-down query using results from previous run
-				executeDrillDown(aggregateQuery, aggregateQueryIndex, queryString, queryResult, queryId);
+			long queueingDelayMs = (lastOperationCompletedMs > 0) ? executionTimeMs - lastOperationCompletedMs : 0;
+
+			List<StepResult> steps;
+
+			if (iterativeQuery != null && sessionStepsExecutor != null && hasIndependentIterations(iterativeQuery)) {
+				steps = executeSession(aggregateQuery, iterativeQuery, queryString);
+				queryResult = steps.get(0).getResult();
+			} else {
+				queryResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), queryString, aggregateQuery.getTemplateQueryType(), true, false, newResultHandler(iterativeQuery, 0));
+				steps = new ArrayList<StepResult>(iterativeQuery != null ? iterativeQuery.getIterationsCount() : 1);
+				steps.add(new StepResult(queryString, queryResult, System.currentTimeMillis() - executionTimeMs));
+
+				if (iterativeQuery != null) {
+					//further loop the drill-down or faceted search query using results from previous run
+					executeIterations(aggregateQuery, iterativeQuery, steps);
+				}
 			}
-			
-			if (facetedSearchQuery) {
-				executeFacetedSearch(aggregateQuery, aggregateQueryIndex, queryString, queryResult, queryId);
+
+			long queryExecutionTimeMs = System.currentTimeMillis() - executionTimeMs;
+
+			if (iterativeQuery != null) {
+				//the session counts as a single query with the time of its first iteration, comparable to queries executed once,
+				//times of all iterations and of the whole session are reported in session statistics
+				updateSessionStatistics(true, startedDuringBenchmarkPhase, aggregateQueryIndex, iterativeQuery, queryExecutionTimeMs, steps);
+				updateQueryStatistics(true, startedDuringBenchmarkPhase, aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), queryString, queryResult, steps, queryId, steps.get(0).getExecutionTimeMs());
+			} else {
+				updateQueryStatistics(true, startedDuringBenchmarkPhase, aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), queryString, queryResult, steps, queryId, queryExecutionTimeMs);
 			}
-			
-			updateQueryStatistics(true, startedDuringBenchmarkPhase, aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), queryString, queryResult, queryId, System.currentTimeMillis() - executionTimeMs);			
+
+			//CPU time of the agent thread includes building the query, reading the response and counting its results
+			updateDriverOverheadStatistics(startedDuringBenchmarkPhase, driverCpuStartNs, queryExecutionTimeMs, queueingDelayMs);
 		} catch (IOException ioe) {
 			String msg = "Warning : AggregationAgent : IOException caught : " + ioe.getMessage() + ", attempting a new connection" + "\n" + "\tfor query : \n" + queryString;
-			
+
 			System.out.println(msg);
-			
+
 			LOGGER.warn(msg);
-			
-			updateQueryStatistics(false, startedDuringBenchmarkPhase, aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), queryString, queryResult, queryId, 0);
-			
+
+			updateQueryStatistics(false, startedDuringBenchmarkPhase, aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), queryString, queryResult, null, queryId, 0);
+
+			if (iterativeQuery != null) {
+				updateSessionStatistics(false, startedDuringBenchmarkPhase, aggregateQueryIndex, iterativeQuery, 0, null);
+			}
+
 			connection = new SparqlQueryConnection(queryExecuteManager.getEndpointUrl(), queryExecuteManager.getEndpointUpdateUrl(), queryExecuteManager.getTimeoutMilliseconds(), true);
+			connection.setResultFormats(queryExecuteManager.getSelectResultFormat(), queryExecuteManager.getGraphResultFormat());
 		}
 
+		lastOperationCompletedMs = System.currentTimeMillis();
+
 		if (startedDuringBenchmarkPhase) {
 			queryMixPool.releaseUnavailableItem(aggregateQueryIndex + 1);
 		}
-		
+
 		return true;
 	}
-	
+
 	/**
-	 * @param aggregateQuery - the aggregateQuery object
-	 * @param queryDistribution - pre-computed distribution
-	 * @param queryString - the query
-	 * @param queryResult - result of the query, RDFXML
-	 * @param queryId - will reuse the queryId of the first query iteration, easier to recognize query sequence in query log
-	 * @throws IOException
+	 * @return the template of a query prepared for building a new query, created on first use as templates may need data which is not available earlier
 	 */
-	private void executeDrillDown(MustacheTemplate aggregateQuery, int queryDistribution, String queryString, String queryResult, long queryId) throws IOException {
-		String qString = queryString;
-		String qResult = queryResult;
-		ArrayList<Entity> entitiesList;
-		
-		//iteration starts from 1, first execution was already completed
-		for (int i = 1; i < MAX_DRILL_DOWN_ITERATIONS ; i++) {
-			
-			switch (queryDistribution) {
-				case 16 :
-					Query17Analyzer query17Analyzer = new Query17Analyzer();
-					entitiesList = query17Analyzer.collectEntitiesList(qResult);
-					
-					if (entitiesList == null) {
-						//no results from previous query
-						return;
-					}		
-
-					if (entitiesList.size() > 0) {
-						int randomEntity = ru.nextInt(entitiesList.size());
-						Entity entity = entitiesList.get(randomEntity);
-
-						double latitude = Double.parseDouble(entity.getObjectFromTriple("geo:lat"));
-						double longtitude = Double.parseDouble(entity.getObjectFromTriple("geo:long"));
-
-						((Query17Template)aggregateQuery).initialize(latitude, longtitude, ru.nextDouble(0.01, 0.08), null);
-
-						qString = aggregateQuery.compileMustacheTemplate();
-						
-//						long executionTimeMs = System.currentTimeMillis();
-						
-						qResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), qString, aggregateQuery.getTemplateQueryType(), true, false);
-
-//						updateQueryStatistics(true, benchmarkingState.get(), aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), qString, qResult, queryId, System.currentTimeMillis() - executionTimeMs);
-					} else {
-            return;
-          }
-				
-				break;
-				
-			case 17 :
-				Query18Analyzer query18Analyzer = new Query18Analyzer();
-				entitiesList = query18Analyzer.collectEntitiesList(qResult);
+	private MustacheTemplate getAggregateQuery(int aggregateQueryIndex, String[] substitutionParameters) {
+		if (aggregateQueries[aggregateQueryIndex] == null) {
+			aggregateQueries[aggregateQueryIndex] = queryMix.getQueryTemplatesRegistry().newTemplate(aggregateQueryIndex + 1, ru, substitutionParameters);
+		} else {
+			aggregateQueries[aggregateQueryIndex].reInitialize(substitutionParameters);
+		}
+		return aggregateQueries[aggregateQueryIndex];
+	}
 
-				if (entitiesList == null) {
-					//no results from previous query
-					return;
-				}
-          
-				if (entitiesList.size() > 0) {
-					int randomEntity = ru.nextInt(entitiesList.size());
-					Entity entity = entitiesList.get(randomEntity);
-					
-					((Query18Template)aggregateQuery).initialize(entity.getObjectFromTriple("cwork:dateModified"), ru.nextInt(1, 3), null);
-
-					qString = aggregateQuery.compileMustacheTemplate();
-					
-//					long executionTimeMs = System.currentTimeMillis();
-					
-					qResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), qString, aggregateQuery.getTemplateQueryType(), true, false);
-
-//					updateQueryStatistics(true, benchmarkingState.get(), aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), qString, qResult, queryId, System.currentTimeMillis() - executionTimeMs);
-				} else {
-					return;
-				}
-				break;	
+	/**
+	 * @return the template as an IterativeQueryTemplate if its query is executed in more than one iteration, null otherwise
+	 */
+	private IterativeQueryTemplate getIterativeQuery(MustacheTemplate aggregateQuery) {
+		if (aggregateQuery instanceof IterativeQueryTemplate && ((IterativeQueryTemplate)aggregateQuery).getIterationsCount() > 1) {
+			return (IterativeQueryTemplate)aggregateQuery;
+		}
+		return null;
+	}
+
+	private boolean hasIndependentIterations(IterativeQueryTemplate iterativeQuery) {
+		for (int i = 1; i < iterativeQuery.getIterationsCount(); i++) {
+			if (!iterativeQuery.dependsOnPreviousIteration(i)) {
+				return true;
 			}
 		}
+		return false;
 	}
-	
+
 	/**
+	 * Executes iterations of a drill-down or faceted search query one after another
+	 *
 	 * @param aggregateQuery - the aggregateQuery object
-	 * @param queryDistribution - pre-computed distribution
-	 * @param queryString - the query
-	 * @param queryResult - result of the query, RDFXML
-	 * @param queryId - will reuse the queryId of the first query iteration, easier to recognize query sequence in query log
+	 * @param iterativeQuery - same object as aggregateQuery
+	 * @param steps - results of iterations, first iteration was already added by the caller, further iterations are added here
 	 * @throws IOException
 	 */
-	private void executeFacetedSearch(MustacheTemplate aggregateQuery, int queryDistribution, String queryString, String queryResult, long queryId) throws IOException {
-		String qString = queryString;
-		String qResult = queryResult;
-		String dateString = "";
-//		long executionTimeMs = 0;
-		ArrayList<String> datesList;
-		
+	private void executeIterations(MustacheTemplate aggregateQuery, IterativeQueryTemplate iterativeQuery, List<StepResult> steps) throws IOException {
+		String qString;
+		String qResult;
+		long executionTimeMs;
+
 		//iteration starts from 1, first execution was already completed
-		for (int i = 1; i < MAX_FACETED_SEARCH_ITERATIONS ; i++) {
-			
-			switch (queryDistribution) {
-			
-				case 20 :
-					
-					//collect results from previous iteration (note that last iteration is 4, but iteration 3 is executed at the end and result is kept in qResult)
-					if (i == 4) {
-						Query21Analyzer query21Analyzer = new Query21Analyzer();
-						//date string format : 2010-10-02
-						datesList = query21Analyzer.collectDatesList(qResult);
-						
-						if (datesList == null) {
-							//no results from previous query
-							break;
-						}						
-						
-						if (datesList.size() == 0) {
-							//no results from previous query
-							break;
-						}
-						
-						//get random date
-						int randomDate = ru.nextInt(datesList.size());
-						dateString = datesList.get(randomDate);
-					}
-					
-					((Query21Template)aggregateQuery).initialize(i, dateString, null);
-					qString = aggregateQuery.compileMustacheTemplate();
-					
-//					executionTimeMs = System.currentTimeMillis();
-									
-					qResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), qString, aggregateQuery.getTemplateQueryType(), true, false);
-					
-//					updateQueryStatistics(true, benchmarkingState.get(), aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), qString, qResult, queryId, System.currentTimeMillis() - executionTimeMs);
-					
-					break;
-					
-				case 21 :
-					
-					//collect results from previous iteration (note that last iteration is 4, but iteration 3 is executed at the end and result is kept in qResult)
-					if (i == 4) {
-						Query22Analyzer query22Analyzer = new Query22Analyzer();
-						//date string format : 2010-10
-						datesList = query22Analyzer.collectDatesList(qResult);
-						
-						if (datesList == null) {
-							//no results from previous query
-							break;
-						}												
-						
-						if (datesList.size() == 0) {
-							//no results from previous query
-							break;
-						}
-						
-						//get random date
-						int randomDate = ru.nextInt(datesList.size());
-						dateString = datesList.get(randomDate);
-					}
-					
-					((Query22Template)aggregateQuery).initialize(i, dateString, null);
-					qString = aggregateQuery.compileMustacheTemplate();
-					
-//					executionTimeMs = System.currentTimeMillis();
-									
-					qResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), qString, aggregateQuery.getTemplateQueryType(), true, false);
-					
-//					updateQueryStatistics(true, benchmarkingState.get(), aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), qString, qResult, queryId, System.currentTimeMillis() - executionTimeMs);
-					
+		for (int i = 1; i < iterativeQuery.getIterationsCount(); i++) {
+			if (!iterativeQuery.initializeIteration(i)) {
+				//no results from previous query
+				return;
+			}
+
+			qString = aggregateQuery.compileMustacheTemplate();
+
+			executionTimeMs = System.currentTimeMillis();
+
+			qResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), qString, aggregateQuery.getTemplateQueryType(), true, false, newResultHandler(iterativeQuery, i));
+
+			steps.add(new StepResult(qString, qResult, System.currentTimeMillis() - executionTimeMs));
+		}
+	}
+
+	/**
+	 * Executes all iterations of a faceted search query as a session, independent iterations are executed concurrently on pooled connections.
+	 * An iteration which depends on the result of the previous one is submitted after that result has been received.
+	 *
+	 * @param aggregateQuery - the aggregateQuery object
+	 * @param iterativeQuery - same object as aggregateQuery
+	 * @param queryString - the query of first iteration
+	 * @return results of executed iterations, in order of iterations
+	 * @throws IOException - if any of the iterations has failed
+	 */
+	private List<StepResult> executeSession(MustacheTemplate aggregateQuery, IterativeQueryTemplate iterativeQuery, String queryString) throws IOException {
+		List<Future<StepResult>> steps = new ArrayList<Future<StepResult>>(iterativeQuery.getIterationsCount());
+
+		try {
+			//query strings are built by the agent thread as templates are not thread safe
+			steps.add(sessionStepsExecutor.submit(aggregateQuery.getTemplateFileName(), queryString, aggregateQuery.getTemplateQueryType(), newResultHandler(iterativeQuery, 0)));
+			for (int i = 1; i < iterativeQuery.getIterationsCount(); i++) {
+				if (iterativeQuery.dependsOnPreviousIteration(i)) {
+					//previous result is analyzed by the session thread which has received it
+					sessionStepsExecutor.getResult(steps.get(steps.size() - 1));
+				}
+
+				if (!iterativeQuery.initializeIteration(i)) {
+					//no results from previous query, remaining iterations are skipped
 					break;
-					
-				case 22 :
-					
-					((Query23Template)aggregateQuery).initialize(i, "", null);
-					qString = aggregateQuery.compileMustacheTemplate();
-					
-//					executionTimeMs = System.currentTimeMillis();
-									
-					qResult = queryExecuteManager.executeQuery(connection, aggregateQuery.getTemplateFileName(), qString, aggregateQuery.getTemplateQueryType(), true, false);
-					
-//					updateQueryStatistics(true, benchmarkingState.get(), aggregateQuery.getTemplateQueryType(), aggregateQuery.getTemplateFileName(), qString, qResult, queryId, System.currentTimeMillis() - executionTimeMs);
-					
-					break;					
+				}
+				steps.add(sessionStepsExecutor.submit(aggregateQuery.getTemplateFileName(), aggregateQuery.compileMustacheTemplate(), aggregateQuery.getTemplateQueryType(), newResultHandler(iterativeQuery, i)));
+			}
+
+			List<StepResult> results = new ArrayList<StepResult>(steps.size());
+			for (Future<StepResult> step : steps) {
+				results.add(sessionStepsExecutor.getResult(step));
 			}
+			return results;
+		} catch (IOException e) {
+			//steps not started yet are not needed anymore, running ones will return their connections to the pool when completed
+			for (Future<StepResult> step : steps) {
+				step.cancel(false);
+			}
+			throw e;
 		}
 	}
-	
+
+	/**
+	 * @return handler passing the result of an iteration to the template while the result is being received, null if the next iteration does not depend on it
+	 */
+	private ResultStreamHandler newResultHandler(final IterativeQueryTemplate iterativeQuery, final int iteration) {
+		if (iterativeQuery == null || iteration + 1 >= iterativeQuery.getIterationsCount() || !iterativeQuery.dependsOnPreviousIteration(iteration + 1)) {
+			return null;
+		}
+		return new ResultStreamHandler() {
+			@Override
+			public void handleResult(InputStream result, ResultFormat resultFormat) throws IOException {
+				iterativeQuery.analyzeResult(iteration, result, resultFormat);
+			}
+		};
+	}
+
 	@Override
 	public void executeFinalize() {				
 		connection.disconnect();
+		if (sessionStepsExecutor != null) {
+			sessionStepsExecutor.shutDown();
+		}
 	}
 	
-	private void updateQueryStatistics(boolean reportSuccess, boolean startedDuringBenchmarkPhase, QueryType queryType, String queryName, String queryString, String queryResult, long id, long queryExecutionTimeMs) {
+	/**
+	 * @param steps - results of all iterations of a drill-down or faceted search session, results of each are counted, or null to count queryResult only
+	 */
+	private void updateQueryStatistics(boolean reportSuccess, boolean startedDuringBenchmarkPhase, QueryType queryType, String queryName, String queryString, String queryResult, List<StepResult> steps, long id, long queryExecutionTimeMs) {
 		//skip update of statistics for conformance queries
 		if (queryName.startsWith("#")) {
 			return;
@@ -449,45 +314,72 @@ public class AggregationAgent extends AbstractAsynchronousAgent {
 		
 		//count results (statements)
 		long resultsCount = 0;
-		InputStream iStream = null;
+		String failureMessage = ", query has timed out!";
 				
 		try {
-			if ((!queryResult.trim().isEmpty())) {			
-            iStream = new ByteArrayInputStream(queryResult.getBytes("UTF-8"));
-		        if (queryType == QueryType.CONSTRUCT || queryType == QueryType.DESCRIBE) {
-		          resultsCount = rdfxmlResultStatementsCounter.getStatementsCount(iStream);
-		          Statistics.timeCorrectionsMS.addAndGet(rdfxmlResultStatementsCounter.getParseTime());
-		        } else {
-		          resultsCount = sparqlResultStatementsCounter.getStatementsCount(iStream);
-		          Statistics.timeCorrectionsMS.addAndGet(sparqlResultStatementsCounter.getParseTime());
-		        }
+			if (steps == null) {
+				resultsCount = resultStatementsCounter.getStatementsCount(queryResult, queryType);
+				Statistics.timeCorrectionsMS.addAndGet(resultStatementsCounter.getParseTime());
+			} else {
+				for (StepResult step : steps) {
+					resultsCount += resultStatementsCounter.getStatementsCount(step.getResult(), queryType);
+					Statistics.timeCorrectionsMS.addAndGet(resultStatementsCounter.getParseTime());
+				}
 			}
-			
-			if (queryResult.length() >= 0 && benchmarkingState.get()) {
-				if (startedDuringBenchmarkPhase) {
-					if (reportSuccess) {
-						Statistics.aggregateQueriesArray[queryNumber - 1].reportSuccess(queryExecutionTimeMs);
-						Statistics.totalAggregateQueryStatistics.reportSuccess(queryExecutionTimeMs);
-						logBrief(queryNameId, queryType, queryResult, "", queryExecutionTimeMs, resultsCount);
-					} else {				
-						Statistics.aggregateQueriesArray[queryNumber - 1].reportFailure();
-						Statistics.totalAggregateQueryStatistics.reportFailure();
-						logBrief(queryNameId, queryType, queryResult, ", query has timed out!", queryExecutionTimeMs, resultsCount);
-					}
+		} catch (IOException e) {
+			//a result which can not be parsed counts as a failed query
+			LOGGER.warn("Warning : AggregationAgent : failed to count results of query " + queryNameId + " : " + e.getMessage());
+			reportSuccess = false;
+			failureMessage = ", query result could not be parsed!";
+		}
+		
+		if (queryResult.length() >= 0 && benchmarkingState.get()) {
+			if (startedDuringBenchmarkPhase) {
+				if (reportSuccess) {
+					queryMixStatistics.getQueryStatistics(queryNumber).reportSuccess(queryExecutionTimeMs);
+					queryMixStatistics.getTotalAggregateQueryStatistics().reportSuccess(queryExecutionTimeMs);
+					Statistics.totalAggregateQueryStatistics.reportSuccess(queryExecutionTimeMs);
+					Statistics.reportSegmentSuccess(queryMixStatistics.getTotalAggregateQueryStatistics(), queryExecutionTimeMs);
+					logBrief(queryNameId, queryType, queryResult, "", queryExecutionTimeMs, resultsCount);
+				} else {				
+					queryMixStatistics.getQueryStatistics(queryNumber).reportFailure();
+					queryMixStatistics.getTotalAggregateQueryStatistics().reportFailure();
+					Statistics.totalAggregateQueryStatistics.reportFailure();
+					Statistics.reportSegmentFailure(queryMixStatistics.getTotalAggregateQueryStatistics());
+					logBrief(queryNameId, queryType, queryResult, failureMessage, queryExecutionTimeMs, resultsCount);
+				}
+			} else {
+				if (queryExecutionTimeMs > 0) {
+					LOGGER.info("\tQuery : " + queryName + ", time : " + queryExecutionTimeMs + " ms, queryResult.length : " + queryResult.length() + ", results : " + resultsCount + ", has been started during the warmup phase, it will be ignored in the benchmark result!");
+					logBrief(queryNameId, queryType, queryResult, ", has been started during the warmup phase, it will be ignored in the benchmark result!", queryExecutionTimeMs, resultsCount);
 				} else {
-					if (queryExecutionTimeMs > 0) {
-						LOGGER.info("\tQuery : " + queryName + ", time : " + queryExecutionTimeMs + " ms, queryResult.length : " + queryResult.length() + ", results : " + resultsCount + ", has been started during the warmup phase, it will be ignored in the benchmark result!");
-						logBrief(queryNameId, queryType, queryResult, ", has been started during the warmup phase, it will be ignored in the benchmark result!", queryExecutionTimeMs, resultsCount);
-					} else {
-						LOGGER.warn("\tQuery : " + queryName + ", time : " + queryExecutionTimeMs + " ms, queryResult.length : " + queryResult.length() + ", results : " + resultsCount + ", has failed to execute... possibly query timeout has been reached!");					
-						logBrief(queryNameId, queryType, queryResult, ", has failed to execute... possibly query timeout has been reached!", queryExecutionTimeMs, resultsCount);
-					}
+					LOGGER.warn("\tQuery : " + queryName + ", time : " + queryExecutionTimeMs + " ms, queryResult.length : " + queryResult.length() + ", results : " + resultsCount + ", has failed to execute... possibly query timeout has been reached!");					
+					logBrief(queryNameId, queryType, queryResult, ", has failed to execute... possibly query timeout has been reached!", queryExecutionTimeMs, resultsCount);
 				}
 			}
-			
-			LOGGER.info("\n*** Query [" + queryNameId + "], execution time : " + queryExecutionTimeMs + " ms, results : " + resultsCount + "\n" + queryString + "\n---------------------------------------------\n*** Result for query [" + queryNameId + "]" + " : \n" + "Length : " + queryResult.length() + "\n" + queryResult + "\n\n");
-		} catch (UnsupportedEncodingException e) {
-			e.printStackTrace();
+		}
+		
+		LOGGER.info("\n*** Query [" + queryNameId + "], execution time : " + queryExecutionTimeMs + " ms, results : " + resultsCount + "\n" + queryString + "\n---------------------------------------------\n*** Result for query [" + queryNameId + "]" + " : \n" + "Length : " + queryResult.length() + "\n" + (resultStatementsCounter.getResultFormat(queryType).isBinary() ? "(binary result)" : queryResult) + "\n\n");
+	}
+	
+	private void updateSessionStatistics(boolean reportSuccess, boolean startedDuringBenchmarkPhase, int aggregateQueryIndex, IterativeQueryTemplate iterativeQuery, long sessionTimeMs, List<StepResult> steps) {
+		if (startedDuringBenchmarkPhase && benchmarkingState.get()) {
+			SessionStatistics sessionStatistics = queryMixStatistics.getSessionStatistics(aggregateQueryIndex + 1, iterativeQuery.getIterationsCount());
+			if (reportSuccess) {
+				long[] stepsExecutionTimeMs = new long[steps.size()];
+				for (int i = 0; i < stepsExecutionTimeMs.length; i++) {
+					stepsExecutionTimeMs[i] = steps.get(i).getExecutionTimeMs();
+				}
+				sessionStatistics.reportSession(sessionTimeMs, stepsExecutionTimeMs, stepsExecutionTimeMs.length);
+			} else {
+				sessionStatistics.reportFailure();
+			}
+		}
+	}
+	
+	private void updateDriverOverheadStatistics(boolean startedDuringBenchmarkPhase, long driverCpuStartNs, long queryExecutionTimeMs, long queueingDelayMs) {
+		if (startedDuringBenchmarkPhase && benchmarkingState.get()) {
+			Statistics.driverOverheadStatistics.reportOperation(Statistics.driverOverheadStatistics.getCurrentThreadCpuTimeNs() - driverCpuStartNs, queryExecutionTimeMs, queueingDelayMs);
 		}
 	}
 	
@@ -507,6 +399,10 @@ public class AggregationAgent extends AbstractAsynchronousAgent {
 	
 	private String constructQueryNameId(String queryName, long id) {
 		StringBuilder queryId = new StringBuilder();
+		if (!queryMix.getName().isEmpty()) {
+			queryId.append(queryMix.getName());
+			queryId.append(":");
+		}
 		queryId.append(queryName);
 		queryId.append(", id:");
 		queryId.append("" + id);
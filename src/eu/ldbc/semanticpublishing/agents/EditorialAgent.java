@@ -37,14 +37,17 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 	private boolean enableValidation = true;
 	private int editorialOpsValidationInterval = 100;
 	private final AtomicBoolean maxUpdateOperationsReached;
+	private final AgentsThrottle throttle;
+	private final int agentIndex;
 	private EditorialOperationsValidator editorialOperationsValidator;
+	private long lastOperationCompletedMs = 0;
 	
 	private final static Logger LOGGER = LoggerFactory.getLogger(EditorialAgent.class.getName());
 	private final static Logger BRIEF_LOGGER = LoggerFactory.getLogger(TestDriver.class.getName());
 	
 	private final static long SLEEP_TIME_MS = 1000;
 	
-	public EditorialAgent(AtomicBoolean benchmarkingState, SparqlQueryExecuteManager queryExecuteManager, RandomUtil ru, AtomicBoolean runFlag, HashMap<String, String> queryTemplates, HashMap<String, String> validationQueryTemplates, Configuration configuration, Definitions definitions, AtomicBoolean maxUpdateOperationsReached) {
+	public EditorialAgent(AtomicBoolean benchmarkingState, SparqlQueryExecuteManager queryExecuteManager, RandomUtil ru, AtomicBoolean runFlag, HashMap<String, String> queryTemplates, HashMap<String, String> validationQueryTemplates, Configuration configuration, Definitions definitions, AtomicBoolean maxUpdateOperationsReached, AgentsThrottle throttle, int agentIndex) {
 		super(runFlag);
 		this.queryExecuteManager = queryExecuteManager;
 		this.ru = ru;
@@ -53,6 +56,8 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 		this.connection = new SparqlQueryConnection(queryExecuteManager.getEndpointUrl(), queryExecuteManager.getEndpointUpdateUrl(), queryExecuteManager.getTimeoutMilliseconds(), true);
 		this.definitions = definitions;
 		this.maxUpdateOperationsReached = maxUpdateOperationsReached;
+		this.throttle = throttle;
+		this.agentIndex = agentIndex;
 		this.enableValidation = configuration.getBoolean(Configuration.ENABLE_EDITORIAL_OPS_VALIDATION);
 		this.editorialOpsValidationInterval = configuration.getInt(Configuration.EDITORIAL_OPS_VALIDATION_INTEVAL);
 		this.editorialOperationsValidator = new EditorialOperationsValidator(queryExecuteManager, ru, queryTemplates, validationQueryTemplates, configuration, definitions);
@@ -62,6 +67,7 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 	public boolean executeLoop() {
 		int queryDistribution = Definitions.editorialOperationsAllocation.getAllocation();
 		
+		long driverCpuStartNs = Statistics.driverOverheadStatistics.getCurrentThreadCpuTimeNs();
 		long queryId = 0;
 		String queryName = "";
 		String queryString = "";
@@ -75,6 +81,17 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 			if (maxUpdateOperationsReached.get()) {
 				LOGGER.info(Thread.currentThread().getName() + " : Max update operations per seconds has been reached, skipping current update until update rate drops below configured maximum.");
 				Thread.sleep(SLEEP_TIME_MS);
+				//throttling is not a queueing delay of the driver
+				lastOperationCompletedMs = 0;
+				return true;
+			}
+			
+			//wait for a turn if the number of active editorial agents or the rate of editorial operations is limited
+			long waitedMs = throttle.acquire(agentIndex);
+			if (waitedMs != 0) {
+				lastOperationCompletedMs = 0;
+			}
+			if (waitedMs < 0) {
 				return true;
 			}
 			
@@ -131,10 +148,17 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 			}
 			
 			long executionTimeMs = System.currentTimeMillis();
+			long queueingDelayMs = (lastOperationCompletedMs > 0) ? executionTimeMs - lastOperationCompletedMs : 0;
 			
 			queryResult = queryExecuteManager.executeQuery(connection, queryName, queryString, queryType, true, false);
 			
-			updateQueryStatistics(true, queryType, queryName, queryString, queryResult, queryId, System.currentTimeMillis() - executionTimeMs);			
+			long queryExecutionTimeMs = System.currentTimeMillis() - executionTimeMs;
+			
+			updateQueryStatistics(true, queryType, queryName, queryString, queryResult, queryId, queryExecutionTimeMs);
+			
+			if (benchmarkingState.get()) {
+				Statistics.driverOverheadStatistics.reportOperation(Statistics.driverOverheadStatistics.getCurrentThreadCpuTimeNs() - driverCpuStartNs, queryExecutionTimeMs, queueingDelayMs);
+			}
 		} catch (InterruptedException ie) {
 			LOGGER.warn("InterruptedException : " + ie.getMessage());
 		} catch (IOException ioe) {
@@ -149,6 +173,8 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 			connection = new SparqlQueryConnection(queryExecuteManager.getEndpointUrl(), queryExecuteManager.getEndpointUpdateUrl(), queryExecuteManager.getTimeoutMilliseconds(), true);
 		}
 		
+		lastOperationCompletedMs = System.currentTimeMillis();
+		
 		return true;
 	}
 	
@@ -166,14 +192,17 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 			if (queryType == QueryType.INSERT) {
 				if (queryResult.length() >= 0 && benchmarkingState.get()) {
 					Statistics.insertCreativeWorksQueryStatistics.reportSuccess(queryExecutionTimeMs);
+					Statistics.reportSegmentSuccess(Statistics.insertCreativeWorksQueryStatistics, queryExecutionTimeMs);
 				}				
 			} else if (queryType == QueryType.UPDATE) {
 				if (queryResult.length() >= 0 && benchmarkingState.get()) {
 					Statistics.updateCreativeWorksQueryStatistics.reportSuccess(queryExecutionTimeMs);
+					Statistics.reportSegmentSuccess(Statistics.updateCreativeWorksQueryStatistics, queryExecutionTimeMs);
 				}								
 			} else if (queryType == QueryType.DELETE) {
 				if (queryResult.length() >= 0 && benchmarkingState.get()) {
 					Statistics.deleteCreativeWorksQueryStatistics.reportSuccess(queryExecutionTimeMs);
+					Statistics.reportSegmentSuccess(Statistics.deleteCreativeWorksQueryStatistics, queryExecutionTimeMs);
 				}	
 			}
 
@@ -184,10 +213,13 @@ public class EditorialAgent extends AbstractAsynchronousAgent {
 		} else {
 			if (queryType == QueryType.INSERT) {
 				Statistics.insertCreativeWorksQueryStatistics.reportFailure();
+				Statistics.reportSegmentFailure(Statistics.insertCreativeWorksQueryStatistics);
 			} else if (queryType == QueryType.UPDATE) {
 				Statistics.updateCreativeWorksQueryStatistics.reportFailure();
+				Statistics.reportSegmentFailure(Statistics.updateCreativeWorksQueryStatistics);
 			} else if (queryType == QueryType.DELETE) {
 				Statistics.deleteCreativeWorksQueryStatistics.reportFailure();
+				Statistics.reportSegmentFailure(Statistics.deleteCreativeWorksQueryStatistics);
 			}
 			logBrief(queryNameId, queryType, queryResult, ", query error!", queryExecutionTimeMs);
 		}
@@ -0,0 +1,129 @@
+package eu.ldbc.semanticpublishing.agents;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection;
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager;
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager.ResultStreamHandler;
+
+/**
+ * Executes independent steps of a query session (e.g. iterations of a faceted search) concurrently, each step on a connection
+ * taken from a pool. Steps are submitted by the agent thread, which waits for a step only when a following step depends on its result.
+ * Note that CPU time spent by the session threads for reading results is not part of the driver overhead measured for agent threads.
+ */
+public class SessionStepsExecutor {
+	private final SparqlQueryExecuteManager queryExecuteManager;
+	private final ExecutorService executorService;
+	private final BlockingQueue<SparqlQueryConnection> connectionsPool;
+
+	/**
+	 * @param concurrency - number of session steps executed at the same time, as well as the number of pooled connections
+	 * @param threadNamePrefix - name prefix of threads executing the steps, e.g. name of the owning agent
+	 */
+	public SessionStepsExecutor(SparqlQueryExecuteManager queryExecuteManager, int concurrency, final String threadNamePrefix) {
+		this.queryExecuteManager = queryExecuteManager;
+		this.connectionsPool = new ArrayBlockingQueue<SparqlQueryConnection>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			connectionsPool.add(newConnection());
+		}
+
+		this.executorService = Executors.newFixedThreadPool(concurrency, new ThreadFactory() {
+			private final AtomicInteger threadsCount = new AtomicInteger(0);
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, threadNamePrefix + "-session-" + threadsCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Submits a query for execution, returns without waiting for its completion.
+	 * @param resultHandler - optional, called by the session thread while the result is being received
+	 */
+	public Future<StepResult> submit(final String queryName, final String queryString, final QueryType queryType, final ResultStreamHandler resultHandler) {
+		return executorService.submit(new Callable<StepResult>() {
+			@Override
+			public StepResult call() throws Exception {
+				SparqlQueryConnection connection = connectionsPool.take();
+				boolean failed = true;
+				try {
+					long startedMs = System.currentTimeMillis();
+					String result = queryExecuteManager.executeQuery(connection, queryName, queryString, queryType, true, false, resultHandler);
+					failed = false;
+					return new StepResult(queryString, result, System.currentTimeMillis() - startedMs);
+				} finally {
+					//a connection that has failed is replaced with a new one, same as the agent does for its own connection
+					connectionsPool.add(failed ? newConnection() : connection);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits for completion of a submitted step.
+	 * @throws IOException - if the query of that step has failed or waiting was interrupted
+	 */
+	public StepResult getResult(Future<StepResult> step) throws IOException {
+		try {
+			return step.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException)e.getCause();
+			}
+			throw new IOException("Session step has failed : " + e.getCause(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for a session step", e);
+		}
+	}
+
+	public void shutDown() {
+		executorService.shutdownNow();
+		for (SparqlQueryConnection connection : connectionsPool) {
+			connection.disconnect();
+		}
+	}
+
+	private SparqlQueryConnection newConnection() {
+		SparqlQueryConnection connection = new SparqlQueryConnection(queryExecuteManager.getEndpointUrl(), queryExecuteManager.getEndpointUpdateUrl(), queryExecuteManager.getTimeoutMilliseconds(), true);
+		connection.setResultFormats(queryExecuteManager.getSelectResultFormat(), queryExecuteManager.getGraphResultFormat());
+		return connection;
+	}
+
+	public static class StepResult {
+		private final String queryString;
+		private final String result;
+		private final long executionTimeMs;
+
+		public StepResult(String queryString, String result, long executionTimeMs) {
+			this.queryString = queryString;
+			this.result = result;
+			this.executionTimeMs = executionTimeMs;
+		}
+
+		public String getQueryString() {
+			return queryString;
+		}
+
+		public String getResult() {
+			return result;
+		}
+
+		public long getExecutionTimeMs() {
+			return executionTimeMs;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package eu.ldbc.semanticpublishing.endpoint;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import org.openrdf.OpenRDFException;
+import org.openrdf.query.GraphQuery;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQuery;
+import org.openrdf.repository.Repository;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.sail.Sail;
+import org.openrdf.sail.memory.MemoryStore;
+import org.openrdf.sail.nativerdf.NativeStore;
+
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXResultTransformer;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
+
+/**
+ * The class for handling a SPARQL query execution against an embedded Sesame repository (memory or native store)
+ * running in the same process as the driver. No HTTP is involved, results are serialized in the formats
+ * requested by the connection, as a remote endpoint would do, so that the rest of the driver works unchanged.
+ */
+public class EmbeddedSparqlQueryExecuteManager extends SparqlQueryExecuteManager {
+	public static final String MEMORY_STORE = "memory";
+	public static final String NATIVE_STORE = "native";
+
+	//connections created by agents are never opened, a valid URL is needed only for preparing them
+	private static final String EMBEDDED_ENDPOINT_URL = "http://localhost/embedded";
+	private static final String EMBEDDED_ENDPOINT_UPDATE_URL = "http://localhost/embedded/statements";
+	private static final String BASE_URI = "http://www.ldbc.eu/";
+
+	private final Repository repository;
+
+	/**
+	 * @param storeType - memory or native
+	 * @param dataDir - folder for persisting the store, optional for memory store
+	 */
+	public EmbeddedSparqlQueryExecuteManager(AtomicBoolean benchmarkState, String storeType, String dataDir, int queryTimeoutMilliseconds, int systemQueryTimeoutMilliseconds, boolean verbose) throws IOException {
+		super(benchmarkState, EMBEDDED_ENDPOINT_URL, EMBEDDED_ENDPOINT_UPDATE_URL, queryTimeoutMilliseconds, systemQueryTimeoutMilliseconds, verbose);
+
+		Sail sail;
+		if (storeType.equalsIgnoreCase(MEMORY_STORE)) {
+			sail = dataDir.trim().isEmpty() ? new MemoryStore() : new MemoryStore(new File(dataDir));
+		} else if (storeType.equalsIgnoreCase(NATIVE_STORE)) {
+			if (dataDir.trim().isEmpty()) {
+				throw new IllegalArgumentException("Native store requires a data folder, check parameter : embeddedStoreDataDir");
+			}
+			sail = new NativeStore(new File(dataDir), "spoc,posc,cspo");
+		} else {
+			throw new IllegalArgumentException("Unknown embedded store type : " + storeType + ", expected one of : " + MEMORY_STORE + ", " + NATIVE_STORE);
+		}
+
+		this.repository = new SailRepository(sail);
+		try {
+			repository.initialize();
+		} catch (RepositoryException e) {
+			throw new IOException("Unable to initialize embedded repository : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Executes the query in the embedded repository, the connection is not used.
+	 */
+	@Override
+	public String executeQuery(SparqlQueryConnection connection, String queryName, String queryString, QueryType queryType, boolean useInStatistics, boolean disconnect, ResultStreamHandler resultHandler) throws IOException {
+		connection.setQueryType(queryType);
+		ResultFormat resultFormat = connection.getResultFormat();
+		byte[] result = evaluate(queryString, queryType, resultFormat, getTimeoutMilliseconds());
+		if (resultHandler != null) {
+			return handleResult(resultHandler, new ByteArrayInputStream(result), resultFormat);
+		}
+		return new String(result, resultFormat.getCharset());
+	}
+
+	@Override
+	public void executeSystemQuery(SAXResultTransformer transformer, String queryString, QueryType queryType) throws IOException {
+		ResultFormat resultFormat = (queryType == QueryType.CONSTRUCT || queryType == QueryType.DESCRIBE) ? ResultFormat.RDF_XML : ResultFormat.SPARQL_XML;
+		transformer.transform(new ByteArrayInputStream(evaluate(queryString, queryType, resultFormat, getSystemQueryTimeoutMilliseconds())));
+	}
+
+	@Override
+	public void postStatements(String contentType, InputStream input) throws IOException {
+		RDFFormat format = RDFFormat.forMIMEType(contentType);
+		if (format == null && contentType.equals(RdfUtils.CONTENT_TYPE_NQUADS)) {
+			format = RDFFormat.NQUADS;
+		}
+		if (format == null) {
+			input.close();
+			throw new IOException("Unsupported content type for loading statements : " + contentType);
+		}
+
+		try {
+			RepositoryConnection repositoryConnection = repository.getConnection();
+			try {
+				repositoryConnection.add(input, BASE_URI, format);
+			} finally {
+				repositoryConnection.close();
+			}
+		} catch (OpenRDFException e) {
+			throw new IOException("Posting statements failed : " + e.getMessage(), e);
+		} finally {
+			input.close();
+		}
+	}
+
+	@Override
+	public void postStatements(String contentType, File file) throws IOException {
+		InputStream input = new BufferedInputStream(new FileInputStream(file));
+		if (file.getName().endsWith(RdfUtils.GZIP_FILE_EXTENSION)) {
+			input = new GZIPInputStream(input);
+		}
+		postStatements(contentType, input);
+	}
+
+	@Override
+	public void shutDown() {
+		try {
+			repository.shutDown();
+		} catch (RepositoryException e) {
+			System.out.println("EmbeddedSparqlQueryExecuteManager : RepositoryException : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @param resultFormat - a SPARQL result format for SELECT queries, an RDF format for CONSTRUCT and DESCRIBE queries
+	 * @return serialized result, empty for updates
+	 */
+	private byte[] evaluate(String queryString, QueryType queryType, ResultFormat resultFormat, int timeoutMilliseconds) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		//the store limits query time in whole seconds, timeouts are rounded up as 0 would disable the limit
+		int maxQueryTimeSeconds = (timeoutMilliseconds + 999) / 1000;
+
+		try {
+			RepositoryConnection repositoryConnection = repository.getConnection();
+			try {
+				switch (queryType) {
+					case SELECT :
+						TupleQuery tupleQuery = repositoryConnection.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+						tupleQuery.setMaxQueryTime(maxQueryTimeSeconds);
+						tupleQuery.evaluate(resultFormat.createTupleResultWriter(result));
+						break;
+					case CONSTRUCT :
+					case DESCRIBE :
+						GraphQuery graphQuery = repositoryConnection.prepareGraphQuery(QueryLanguage.SPARQL, queryString);
+						graphQuery.setMaxQueryTime(maxQueryTimeSeconds);
+						graphQuery.evaluate(resultFormat.createGraphResultWriter(result));
+						break;
+					default :
+						repositoryConnection.prepareUpdate(QueryLanguage.SPARQL, queryString).execute();
+						break;
+				}
+			} finally {
+				repositoryConnection.close();
+			}
+		} catch (OpenRDFException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+
+		return result.toByteArray();
+	}
+}
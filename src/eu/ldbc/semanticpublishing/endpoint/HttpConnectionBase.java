@@ -3,6 +3,11 @@ package eu.ldbc.semanticpublishing.endpoint;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import eu.ldbc.semanticpublishing.statistics.Statistics;
+import eu.ldbc.semanticpublishing.util.CountingInputStream;
 
 /**
  * Base class for all HTTP operations.
@@ -13,6 +18,8 @@ public abstract class HttpConnectionBase {
 	protected int timeoutMilliseconds;
 	protected HttpURLConnection httpUrlConnection;
 	protected boolean verbose;
+	protected boolean acceptCompressedResults = false;
+	protected boolean compressRequests = false;
 	
 	public HttpConnectionBase(String endpointUrl, String endpointUpdateUrl, int timeoutMilliseconds, boolean verbose) {
 		this.endpointUrl = endpointUrl;
@@ -32,8 +39,19 @@ public abstract class HttpConnectionBase {
 			System.out.println("HttpConnectionBase : received error code : " + code + " from server. Error message : " + httpUrlConnection.getResponseMessage());
 		}
 		
-		return httpUrlConnection.getInputStream();
-			
+		//count bytes as received over the network, before decompressing them
+		InputStream is = new CountingInputStream(httpUrlConnection.getInputStream(), Statistics.bytesReceived);
+		
+		String contentEncoding = httpUrlConnection.getContentEncoding();
+		if (contentEncoding != null) {
+			if (contentEncoding.equalsIgnoreCase("gzip") || contentEncoding.equalsIgnoreCase("x-gzip")) {
+				return new GZIPInputStream(is, 64 * 1024);
+			} else if (contentEncoding.equalsIgnoreCase("deflate")) {
+				return new InflaterInputStream(is);
+			}
+		}
+		
+		return is;
 	}	
 	
 	public InputStream execute() throws IOException {
@@ -44,6 +62,15 @@ public abstract class HttpConnectionBase {
 		return returnedStream;
 	}	
 	
+	/**
+	 * @param acceptCompressedResults - request gzip or deflate encoded results, they are decompressed while being read
+	 * @param compressRequests - send update request bodies with gzip content encoding
+	 */
+	public void setCompression(boolean acceptCompressedResults, boolean compressRequests) {
+		this.acceptCompressedResults = acceptCompressedResults;
+		this.compressRequests = compressRequests;
+	}
+	
 	public void disconnect() {
 		httpUrlConnection.disconnect();
 		httpUrlConnection = null;
@@ -0,0 +1,148 @@
+package eu.ldbc.semanticpublishing.endpoint;
+
+import java.io.OutputStream;
+
+import org.openrdf.query.TupleQueryResultHandler;
+import org.openrdf.query.resultio.binary.BinaryQueryResultWriter;
+import org.openrdf.query.resultio.sparqlxml.SPARQLResultsXMLWriter;
+import org.openrdf.query.resultio.text.tsv.SPARQLResultsTSVWriter;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.binary.BinaryRDFWriter;
+import org.openrdf.rio.ntriples.NTriplesWriter;
+import org.openrdf.rio.rdfxml.RDFXMLWriter;
+
+import eu.ldbc.semanticpublishing.resultanalyzers.json.SPARQLJSONResultsWriter;
+
+/**
+ * Serialization formats of query results which can be requested from the endpoint.
+ * SELECT queries use one of the SPARQL result formats, CONSTRUCT and DESCRIBE queries use one of the RDF formats.
+ */
+public enum ResultFormat {
+	SPARQL_XML("xml", "application/sparql-results+xml", false, false),
+	SPARQL_JSON("json", "application/sparql-results+json", false, false),
+	SPARQL_TSV("tsv", "text/tab-separated-values", false, false),
+	SPARQL_BINARY("binary", "application/x-binary-rdf-results-table", false, true),
+	RDF_XML("rdfxml", "application/rdf+xml", true, false),
+	NTRIPLES("ntriples", "text/plain", true, false),
+	BINARY_RDF("binary", "application/x-binary-rdf", true, true);
+
+	//binary results are kept in a String (as all other results), each byte is mapped to a single char
+	private static final String TEXT_CHARSET = "UTF-8";
+	private static final String BINARY_CHARSET = "ISO-8859-1";
+
+	private final String name;
+	private final String mimeType;
+	private final boolean graphFormat;
+	private final boolean binary;
+
+	private ResultFormat(String name, String mimeType, boolean graphFormat, boolean binary) {
+		this.name = name;
+		this.mimeType = mimeType;
+		this.graphFormat = graphFormat;
+		this.binary = binary;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getMimeType() {
+		return mimeType;
+	}
+
+	public boolean isGraphFormat() {
+		return graphFormat;
+	}
+
+	public boolean isBinary() {
+		return binary;
+	}
+
+	/**
+	 * @return charset used for converting results of that format between bytes and a String
+	 */
+	public String getCharset() {
+		return binary ? BINARY_CHARSET : TEXT_CHARSET;
+	}
+
+	/**
+	 * @return a writer serializing SELECT query results in this format
+	 */
+	public TupleQueryResultHandler createTupleResultWriter(OutputStream out) {
+		switch (this) {
+			case SPARQL_JSON :
+				return new SPARQLJSONResultsWriter(out);
+			case SPARQL_TSV :
+				return new SPARQLResultsTSVWriter(out);
+			case SPARQL_BINARY :
+				return new BinaryQueryResultWriter(out);
+			case SPARQL_XML :
+				return new SPARQLResultsXMLWriter(out);
+			default :
+				throw new IllegalStateException("Not a SPARQL result format : " + name);
+		}
+	}
+
+	/**
+	 * @return a writer serializing CONSTRUCT and DESCRIBE query results in this format
+	 */
+	public RDFHandler createGraphResultWriter(OutputStream out) {
+		switch (this) {
+			case NTRIPLES :
+				return new NTriplesWriter(out);
+			case BINARY_RDF :
+				return new BinaryRDFWriter(out);
+			case RDF_XML :
+				return new RDFXMLWriter(out);
+			default :
+				throw new IllegalStateException("Not an RDF format : " + name);
+		}
+	}
+
+	/**
+	 * @param name - one of : xml, json, tsv, binary
+	 */
+	public static ResultFormat forSelectQueries(String name) throws IllegalArgumentException {
+		return forName(name, false);
+	}
+
+	/**
+	 * @param name - one of : rdfxml, ntriples, binary
+	 */
+	public static ResultFormat forGraphQueries(String name) throws IllegalArgumentException {
+		return forName(name, true);
+	}
+
+	/**
+	 * @param mimeTypes - value of an Accept or Content-Type header, parameters like charset or q are ignored
+	 * @return the format matching first known MIME type, or null if none matches
+	 */
+	public static ResultFormat forMimeType(String mimeTypes) {
+		if (mimeTypes == null) {
+			return null;
+		}
+		for (String mimeType : mimeTypes.split(",")) {
+			int parametersIndex = mimeType.indexOf(';');
+			String type = (parametersIndex >= 0 ? mimeType.substring(0, parametersIndex) : mimeType).trim();
+			for (ResultFormat format : values()) {
+				if (format.mimeType.equalsIgnoreCase(type)) {
+					return format;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static ResultFormat forName(String name, boolean graphFormat) throws IllegalArgumentException {
+		StringBuilder names = new StringBuilder();
+		for (ResultFormat format : values()) {
+			if (format.graphFormat == graphFormat) {
+				if (format.name.equalsIgnoreCase(name.trim())) {
+					return format;
+				}
+				names.append(names.length() > 0 ? ", " : "").append(format.name);
+			}
+		}
+		throw new IllegalArgumentException("Unknown result format : " + name + ", expected one of : " + names.toString());
+	}
+}
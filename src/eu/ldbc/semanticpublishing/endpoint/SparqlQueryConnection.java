@@ -7,6 +7,10 @@ import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.util.zip.GZIPOutputStream;
+
+import eu.ldbc.semanticpublishing.statistics.Statistics;
+import eu.ldbc.semanticpublishing.util.CountingOutputStream;
 
 /**
  * Used to prepare an HttpUrlConnection for executing a SPARQL query against a remote endpoint
@@ -18,6 +22,8 @@ public class SparqlQueryConnection extends HttpConnectionBase {
 	
 	private String queryString;
 	private QueryType queryType;
+	private ResultFormat selectResultFormat = ResultFormat.SPARQL_XML;
+	private ResultFormat graphResultFormat = ResultFormat.RDF_XML;
 
 	/**
 	 * Constructs a SparqlQueryConnection using a new HttpUrlConnection
@@ -75,11 +81,13 @@ public class SparqlQueryConnection extends HttpConnectionBase {
 				httpUrlConnection.setRequestMethod("POST");
 				httpUrlConnection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
 //				httpUrlConnection.setRequestProperty("Content-Type", "application/sparql-query");
-				if (graphQuery) {
-					httpUrlConnection.setRequestProperty("Accept", "application/rdf+xml");
-				} else {
-					httpUrlConnection.setRequestProperty("Accept", "application/sparql-results+xml");
-				}
+				httpUrlConnection.setRequestProperty("Accept", graphQuery ? graphResultFormat.getMimeType() : selectResultFormat.getMimeType());
+			}
+			if (acceptCompressedResults) {
+				httpUrlConnection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+			}
+			if (sparqlUpdate && compressRequests) {
+				httpUrlConnection.setRequestProperty("Content-Encoding", "gzip");
 			}
 			if (flushQueryContentsToStream && !queryString.isEmpty()) {
 				setOutputStream();
@@ -110,7 +118,10 @@ public class SparqlQueryConnection extends HttpConnectionBase {
 	private void setOutputStream() throws IOException {
 		boolean sparqlUpdate = queryType == QueryType.INSERT || queryType == QueryType.UPDATE || queryType == QueryType.DELETE;
 
-		OutputStream outStream = httpUrlConnection.getOutputStream();
+		OutputStream outStream = new CountingOutputStream(httpUrlConnection.getOutputStream(), Statistics.bytesSent);
+		if (sparqlUpdate && compressRequests) {
+			outStream = new GZIPOutputStream(outStream);
+		}
 		if (sparqlUpdate) {
 			outStream.write("update=".getBytes());
 		}
@@ -130,6 +141,22 @@ public class SparqlQueryConnection extends HttpConnectionBase {
 		this.queryString = queryString;
 	}
 	
+	/**
+	 * @param selectResultFormat - format requested for results of SELECT queries, SPARQL XML by default
+	 * @param graphResultFormat - format requested for results of CONSTRUCT and DESCRIBE queries, RDF/XML by default
+	 */
+	public void setResultFormats(ResultFormat selectResultFormat, ResultFormat graphResultFormat) {
+		this.selectResultFormat = selectResultFormat;
+		this.graphResultFormat = graphResultFormat;
+	}
+	
+	/**
+	 * @return format of the result expected for current query type
+	 */
+	public ResultFormat getResultFormat() {
+		return (queryType == QueryType.DESCRIBE || queryType == QueryType.CONSTRUCT) ? graphResultFormat : selectResultFormat;
+	}
+	
 	public QueryType getQueryType() {
 		return this.queryType;
 	}
@@ -1,11 +1,19 @@
 package eu.ldbc.semanticpublishing.endpoint;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
 import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXResultTransformer;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
 
 /**
  * The class for handling a SPARQL query execution.
@@ -16,6 +24,10 @@ public class SparqlQueryExecuteManager {
 	private int queryTimeoutMilliseconds;
 	private int systemQueryTimeoutMilliseconds;
 	private boolean verbose;
+	private boolean acceptCompressedResults = false;
+	private boolean compressRequests = false;
+	private ResultFormat selectResultFormat = ResultFormat.SPARQL_XML;
+	private ResultFormat graphResultFormat = ResultFormat.RDF_XML;
 	
 	public SparqlQueryExecuteManager(AtomicBoolean benchmarkState, String endpointUrl, String endpointUpdateUrl, int queryTimeoutMilliseconds, int systemQueryTimeoutMilliseconds, boolean verbose) {
 		this.endpointUrl = endpointUrl;
@@ -43,14 +55,30 @@ public class SparqlQueryExecuteManager {
 	 * @throws IOException
 	 */
 	public String executeQuery(SparqlQueryConnection connection, String queryName, String queryString, QueryType queryType, boolean useInStatistics, boolean disconnect) throws IOException {
+		return executeQuery(connection, queryName, queryString, queryType, useInStatistics, disconnect, null);
+	}
+	
+	/**
+	 * Executes a query by using an existing connection, requires an explicit disconnect.
+	 * @param resultHandler - optional, parses the result while it is being read from the connection
+	 * @return the result, as read by the handler
+	 * @throws IOException
+	 */
+	public String executeQuery(SparqlQueryConnection connection, String queryName, String queryString, QueryType queryType, boolean useInStatistics, boolean disconnect, ResultStreamHandler resultHandler) throws IOException {
 		
 		connection.setQueryString(queryString);
 		connection.setQueryType(queryType);
+		connection.setCompression(acceptCompressedResults, compressRequests);
 		connection.prepareConnection(true);
 		
 		InputStream is = connection.execute();
 		
-		String queryResult = readResultString(is);
+		String queryResult;
+		if (resultHandler == null) {
+			queryResult = readResultString(is, connection.getResultFormat().getCharset());
+		} else {
+			queryResult = handleResult(resultHandler, is, connection.getResultFormat());
+		}
 		
 		if (disconnect) {
 			connection.disconnect();
@@ -81,6 +109,32 @@ public class SparqlQueryExecuteManager {
 		sparqlQuery.disconnect();
 	}
 
+	/**
+	 * Posts (loads) statements from the input stream to the update endpoint.
+	 * @param contentType - one of RdfUtils.CONTENT_TYPE_* serialization formats
+	 * @param input - statements, closed after posting
+	 * @throws IOException
+	 */
+	public void postStatements(String contentType, InputStream input) throws IOException {
+		RdfUtils.postStatements(endpointUpdateUrl, contentType, input, compressRequests);
+	}
+	
+	/**
+	 * Posts (loads) statements from a file to the update endpoint, streaming its contents without buffering them in memory.
+	 * @param contentType - one of RdfUtils.CONTENT_TYPE_* serialization formats
+	 * @param file - file with statements
+	 * @throws IOException
+	 */
+	public void postStatements(String contentType, File file) throws IOException {
+		RdfUtils.postStatements(endpointUpdateUrl, contentType, file, compressRequests);
+	}
+	
+	/**
+	 * Releases resources held by the query execute manager, nothing to release for a remote endpoint.
+	 */
+	public void shutDown() {
+	}
+
 /*	
 	private int countResultBytes(InputStream is) throws IOException {
 		int length = 0;
@@ -95,17 +149,61 @@ public class SparqlQueryExecuteManager {
 	}
 */	
 	
-	private String readResultString(InputStream is) throws IOException {
-		int length = 0;
+	/**
+	 * Passes the result stream to the handler, bytes read by the handler are kept for statistics of the query
+	 * @return the whole result, including bytes left unread by the handler
+	 */
+	protected String handleResult(ResultStreamHandler resultHandler, InputStream is, ResultFormat resultFormat) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		InputStream tee = new TeeInputStream(is, result);
+		//a parser may close the stream when done with it, the rest of the result is still needed
+		resultHandler.handleResult(new CloseShieldInputStream(tee), resultFormat);
 		byte[] buffer = new byte[10000];
+		while (tee.read(buffer) != -1) {
+		}
+		return result.toString(resultFormat.getCharset());
+	}
+	
+	private String readResultString(InputStream is, String charset) throws IOException {
+		int length = 0;
+		char[] buffer = new char[10000];
 		StringBuilder sb = new StringBuilder();
-		while((length = is.read(buffer)) != -1) {
-			String s = new String(buffer, 0, length);
-			sb.append(s);
+		//decoding the whole stream, a multi-byte character may span two reads
+		Reader reader = new InputStreamReader(is, charset);
+		while((length = reader.read(buffer)) != -1) {
+			sb.append(buffer, 0, length);
 		}
 		return sb.toString();		
 	}
 	
+	/**
+	 * Opt-in compression of the HTTP traffic, both settings are off by default
+	 * @param acceptCompressedResults - ask the endpoint for gzip or deflate encoded results
+	 * @param compressRequests - gzip bodies of update requests and of loaded statements
+	 */
+	public void setCompression(boolean acceptCompressedResults, boolean compressRequests) {
+		this.acceptCompressedResults = acceptCompressedResults;
+		this.compressRequests = compressRequests;
+	}
+	
+	/**
+	 * Result formats requested by the benchmark agents, validation and system queries always use SPARQL XML and RDF/XML
+	 * @param selectResultFormat - format for results of SELECT queries
+	 * @param graphResultFormat - format for results of CONSTRUCT and DESCRIBE queries
+	 */
+	public void setResultFormats(ResultFormat selectResultFormat, ResultFormat graphResultFormat) {
+		this.selectResultFormat = selectResultFormat;
+		this.graphResultFormat = graphResultFormat;
+	}
+	
+	public ResultFormat getSelectResultFormat() {
+		return this.selectResultFormat;
+	}
+	
+	public ResultFormat getGraphResultFormat() {
+		return this.graphResultFormat;
+	}
+	
 	public String getEndpointUrl() {
 		return this.endpointUrl;
 	}
@@ -118,8 +216,19 @@ public class SparqlQueryExecuteManager {
 		return this.queryTimeoutMilliseconds;
 	}
 	
+	public int getSystemQueryTimeoutMilliseconds() {
+		return this.systemQueryTimeoutMilliseconds;
+	}
+	
 	public void setTimeoutsMilliseconds(int milliseconds) {
 		this.queryTimeoutMilliseconds = milliseconds;
 		this.systemQueryTimeoutMilliseconds = milliseconds;
 	}
+	
+	/**
+	 * Parses the result of a query while it is being received, e.g. for picking values needed by the next step of a drill-down
+	 */
+	public interface ResultStreamHandler {
+		public void handleResult(InputStream result, ResultFormat resultFormat) throws IOException;
+	}
 }
@@ -0,0 +1,77 @@
+package eu.ldbc.semanticpublishing.endpoint.mock;
+
+import java.util.Random;
+
+/**
+ * A class for producing artificial response latencies of the mock SPARQL endpoint.
+ * Distribution is defined by a string in one of the following formats :
+ *   fixed:ms
+ *   uniform:minMs:maxMs
+ *   exponential:meanMs
+ *   normal:meanMs:stdDevMs
+ */
+public class LatencyDistribution {
+	private static enum Type {FIXED, UNIFORM, EXPONENTIAL, NORMAL};
+
+	private final Type type;
+	private final double param1;
+	private final double param2;
+	private final Random random;
+
+	public LatencyDistribution(String definition, long seed) throws IllegalArgumentException {
+		String[] tokens = definition.trim().split(":");
+
+		try {
+			String name = tokens[0].trim().toLowerCase();
+			if (name.equals("fixed") && tokens.length == 2) {
+				this.type = Type.FIXED;
+				this.param1 = Double.parseDouble(tokens[1].trim());
+				this.param2 = 0.0;
+			} else if (name.equals("uniform") && tokens.length == 3) {
+				this.type = Type.UNIFORM;
+				this.param1 = Double.parseDouble(tokens[1].trim());
+				this.param2 = Double.parseDouble(tokens[2].trim());
+			} else if (name.equals("exponential") && tokens.length == 2) {
+				this.type = Type.EXPONENTIAL;
+				this.param1 = Double.parseDouble(tokens[1].trim());
+				this.param2 = 0.0;
+			} else if (name.equals("normal") && tokens.length == 3) {
+				this.type = Type.NORMAL;
+				this.param1 = Double.parseDouble(tokens[1].trim());
+				this.param2 = Double.parseDouble(tokens[2].trim());
+			} else {
+				throw new IllegalArgumentException("Unknown latency distribution : " + definition + ", expected one of fixed:ms, uniform:minMs:maxMs, exponential:meanMs, normal:meanMs:stdDevMs");
+			}
+		} catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("Illegal value in latency distribution : " + definition);
+		}
+
+		if (param1 < 0 || param2 < 0 || (type == Type.UNIFORM && param2 < param1)) {
+			throw new IllegalArgumentException("Illegal value in latency distribution : " + definition);
+		}
+
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @return next latency value in milliseconds, never negative
+	 */
+	public synchronized long nextLatencyMs() {
+		double value;
+		switch (type) {
+			case UNIFORM :
+				value = param1 + random.nextDouble() * (param2 - param1);
+				break;
+			case EXPONENTIAL :
+				value = -param1 * Math.log(1.0 - random.nextDouble());
+				break;
+			case NORMAL :
+				value = param1 + random.nextGaussian() * param2;
+				break;
+			default :
+				value = param1;
+				break;
+		}
+		return value > 0 ? Math.round(value) : 0;
+	}
+}
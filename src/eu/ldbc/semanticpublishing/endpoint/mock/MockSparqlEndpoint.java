@@ -0,0 +1,340 @@
+package eu.ldbc.semanticpublishing.endpoint.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openrdf.OpenRDFException;
+import org.openrdf.query.TupleQueryResultHandler;
+import org.openrdf.rio.RDFHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+import eu.ldbc.semanticpublishing.util.FileUtils;
+import eu.ldbc.semanticpublishing.util.StringUtil;
+import eu.ldbc.semanticpublishing.util.ThreadUtil;
+
+/**
+ * A lightweight HTTP server which answers the requests sent by SparqlQueryConnection without a real database behind it.
+ * Used for measuring the maximum throughput that the benchmark driver itself is able to achieve.
+ *
+ * Queries are answered with canned or previously recorded results, taken from files in the responses folder.
+ * The format requested in the Accept header selects the files which are returned :
+ *   *.srx, *.xml  - SPARQL XML results
+ *   *.srj, *.json - SPARQL JSON results
+ *   *.tsv         - SPARQL TSV results
+ *   *.brt         - Sesame binary query results
+ *   *.rdf         - RDF/XML results
+ *   *.nt          - N-Triples results
+ *   *.brf         - Sesame binary RDF results
+ * If more than one file of a kind is present, they are returned in a round-robin fashion. If no files are found
+ * for the requested format, an empty result is returned. Updates and uploaded statements are consumed and acknowledged.
+ * Gzip encoded requests are accepted and results are gzip encoded if the client accepts it.
+ */
+public class MockSparqlEndpoint {
+	public static final String QUERY_PATH = "/repositories/mock";
+	public static final String UPDATE_PATH = "/repositories/mock/statements";
+
+
+	private final int port;
+	private final Map<ResultFormat, List<byte[]>> responses = new EnumMap<ResultFormat, List<byte[]>>(ResultFormat.class);
+	private final Map<ResultFormat, List<byte[]>> gzippedResponses = new EnumMap<ResultFormat, List<byte[]>>(ResultFormat.class);
+	private final LatencyDistribution queryLatency;
+	private final LatencyDistribution updateLatency;
+	private final AtomicLong queriesCount = new AtomicLong(0);
+	private final AtomicLong updatesCount = new AtomicLong(0);
+	private final AtomicLong responseIndex = new AtomicLong(0);
+	private final AtomicInteger concurrentRequests = new AtomicInteger(0);
+	private final AtomicInteger maxConcurrentRequests = new AtomicInteger(0);
+	private HttpServer server;
+	private ExecutorService executor;
+
+	private final static Logger LOGGER = LoggerFactory.getLogger(MockSparqlEndpoint.class.getName());
+
+	public MockSparqlEndpoint(int port, String responsesPath, String queryLatencyDistribution, String updateLatencyDistribution, long seed) throws IOException {
+		this.port = port;
+		this.queryLatency = new LatencyDistribution(queryLatencyDistribution, seed);
+		this.updateLatency = new LatencyDistribution(updateLatencyDistribution, seed + 1);
+		loadResponses(responsesPath);
+	}
+
+	private void loadResponses(String responsesPath) throws IOException {
+		for (ResultFormat format : ResultFormat.values()) {
+			responses.put(format, new ArrayList<byte[]>());
+			gzippedResponses.put(format, new ArrayList<byte[]>());
+		}
+		
+		if (responsesPath != null && !responsesPath.trim().isEmpty()) {
+			List<File> files = new ArrayList<File>();
+			FileUtils.collectFilesList2(StringUtil.normalizePath(responsesPath), files, "*", false);
+			Collections.sort(files);
+
+			for (File file : files) {
+				ResultFormat format = formatForFile(file.getName().toLowerCase());
+				if (format != null) {
+					responses.get(format).add(readFile(file));
+				}
+			}
+		}
+
+		for (ResultFormat format : ResultFormat.values()) {
+			if (responses.get(format).size() == 0) {
+				responses.get(format).add(emptyResult(format));
+			}
+			for (byte[] response : responses.get(format)) {
+				gzippedResponses.get(format).add(gzip(response));
+			}
+		}
+	}
+	
+	private static ResultFormat formatForFile(String name) {
+		if (name.endsWith(".srx") || name.endsWith(".xml")) {
+			return ResultFormat.SPARQL_XML;
+		} else if (name.endsWith(".srj") || name.endsWith(".json")) {
+			return ResultFormat.SPARQL_JSON;
+		} else if (name.endsWith(".tsv")) {
+			return ResultFormat.SPARQL_TSV;
+		} else if (name.endsWith(".brt")) {
+			return ResultFormat.SPARQL_BINARY;
+		} else if (name.endsWith(".rdf")) {
+			return ResultFormat.RDF_XML;
+		} else if (name.endsWith(".nt")) {
+			return ResultFormat.NTRIPLES;
+		} else if (name.endsWith(".brf")) {
+			return ResultFormat.BINARY_RDF;
+		}
+		return null;
+	}
+	
+	private static byte[] emptyResult(ResultFormat format) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try {
+			if (format.isGraphFormat()) {
+				RDFHandler writer = format.createGraphResultWriter(baos);
+				writer.startRDF();
+				writer.endRDF();
+			} else {
+				TupleQueryResultHandler writer = format.createTupleResultWriter(baos);
+				writer.startQueryResult(new ArrayList<String>());
+				writer.endQueryResult();
+			}
+		} catch (OpenRDFException e) {
+			throw new IOException("Unable to create an empty result : " + e.getMessage(), e);
+		}
+		return baos.toByteArray();
+	}
+	
+	private byte[] gzip(byte[] contents) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		GZIPOutputStream gzos = new GZIPOutputStream(baos);
+		gzos.write(contents);
+		gzos.close();
+		return baos.toByteArray();
+	}
+
+	private byte[] readFile(File file) throws IOException {
+		byte[] contents = new byte[(int)file.length()];
+		InputStream is = new FileInputStream(file);
+		try {
+			int offset = 0;
+			int length;
+			while (offset < contents.length && (length = is.read(contents, offset, contents.length - offset)) != -1) {
+				offset += length;
+			}
+		} finally {
+			is.close();
+		}
+		return contents;
+	}
+
+	public void start() throws IOException {
+		//small responses would otherwise be delayed by Nagle's algorithm, adding ~40ms to each request
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext(QUERY_PATH, new MockHandler());
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.start();
+
+		StringBuilder loaded = new StringBuilder();
+		for (ResultFormat format : ResultFormat.values()) {
+			loaded.append(loaded.length() > 0 ? ", " : "").append(format.getName()).append(format.isGraphFormat() ? " (graph) : " : " : ").append(responses.get(format).size());
+		}
+		String message = String.format("Mock SPARQL endpoint started at %s, responses loaded : %s", getEndpointUrl(), loaded.toString());
+		System.out.println(message);
+		LOGGER.info(message);
+	}
+
+	public void stop() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+			server = null;
+
+			String message = String.format("Mock SPARQL endpoint stopped, served %d queries and %d updates", queriesCount.get(), updatesCount.get());
+			System.out.println(message);
+			LOGGER.info(message);
+		}
+	}
+
+	public String getEndpointUrl() {
+		return "http://localhost:" + getPort() + QUERY_PATH;
+	}
+
+	public String getEndpointUpdateUrl() {
+		return "http://localhost:" + getPort() + UPDATE_PATH;
+	}
+
+	public int getPort() {
+		return server != null ? server.getAddress().getPort() : port;
+	}
+
+	public long getQueriesCount() {
+		return queriesCount.get();
+	}
+
+	public long getUpdatesCount() {
+		return updatesCount.get();
+	}
+
+	/**
+	 * @return the highest number of requests which have been delayed by the latency of the endpoint at the same time
+	 */
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests.get();
+	}
+
+	private class MockHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				boolean update = exchange.getRequestURI().getPath().startsWith(UPDATE_PATH);
+
+				//requests are form encoded, the prefix is enough to tell a query from an update
+				byte[] prefix = new byte[7];
+				InputStream requestBody = exchange.getRequestBody();
+				String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+				if (contentEncoding != null && contentEncoding.contains("gzip")) {
+					requestBody = new GZIPInputStream(requestBody);
+				}
+				int prefixLength = readRequestBody(requestBody, prefix);
+				if (prefixLength >= 7 && new String(prefix, 0, 7, "US-ASCII").equals("update=")) {
+					update = true;
+				}
+
+				if (update) {
+					delay(updateLatency);
+					updatesCount.incrementAndGet();
+					exchange.sendResponseHeaders(204, -1);
+					return;
+				}
+
+				ResultFormat format = ResultFormat.forMimeType(exchange.getRequestHeaders().getFirst("Accept"));
+				if (format == null) {
+					format = ResultFormat.SPARQL_XML;
+				}
+				String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+				boolean gzipResponse = acceptEncoding != null && acceptEncoding.contains("gzip");
+				List<byte[]> formatResponses;
+				if (gzipResponse) {
+					formatResponses = gzippedResponses.get(format);
+					exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+				} else {
+					formatResponses = responses.get(format);
+				}
+				byte[] response = formatResponses.get((int)(responseIndex.getAndIncrement() % formatResponses.size()));
+
+				delay(queryLatency);
+				queriesCount.incrementAndGet();
+
+				exchange.getResponseHeaders().set("Content-Type", format.isBinary() ? format.getMimeType() : format.getMimeType() + ";charset=UTF-8");
+				exchange.sendResponseHeaders(200, response.length);
+				OutputStream os = exchange.getResponseBody();
+				os.write(response);
+				os.flush();
+			} finally {
+				exchange.close();
+			}
+		}
+
+		/**
+		 * Delays the response by the latency of the endpoint, keeping track of the requests being delayed at the same time
+		 */
+		private void delay(LatencyDistribution latency) {
+			int concurrent = concurrentRequests.incrementAndGet();
+			int max = maxConcurrentRequests.get();
+			while (concurrent > max && !maxConcurrentRequests.compareAndSet(max, concurrent)) {
+				max = maxConcurrentRequests.get();
+			}
+			try {
+				ThreadUtil.sleepMilliseconds((int)latency.nextLatencyMs());
+			} finally {
+				concurrentRequests.decrementAndGet();
+			}
+		}
+
+		/**
+		 * Consumes the whole request body, keeping only its first bytes in prefix
+		 * @return number of bytes stored in prefix
+		 */
+		private int readRequestBody(InputStream is, byte[] prefix) throws IOException {
+			byte[] buffer = new byte[64 * 1024];
+			int prefixLength = 0;
+			int length;
+			while ((length = is.read(buffer)) != -1) {
+				for (int i = 0; i < length && prefixLength < prefix.length; i++) {
+					prefix[prefixLength++] = buffer[i];
+				}
+			}
+			is.close();
+			return prefixLength;
+		}
+	}
+
+	/**
+	 * Starts a standalone mock endpoint
+	 * @param args - port, [responsesPath], [queryLatencyDistribution], [updateLatencyDistribution]
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Usage : MockSparqlEndpoint <port> [responsesPath] [queryLatency e.g. exponential:20] [updateLatency e.g. fixed:5]");
+			System.exit(-1);
+		}
+
+		int port = Integer.parseInt(args[0]);
+		String responsesPath = args.length > 1 ? args[1] : "";
+		String queryLatency = args.length > 2 ? args[2] : "fixed:0";
+		String updateLatency = args.length > 3 ? args[3] : "fixed:0";
+
+		final MockSparqlEndpoint endpoint = new MockSparqlEndpoint(port, responsesPath, queryLatency, updateLatency, 0);
+		endpoint.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				endpoint.stop();
+			}
+		});
+	}
+}
@@ -6,11 +6,14 @@ package eu.ldbc.semanticpublishing.generators.data;
 public abstract class AbstractAsynchronousWorker extends Thread {
 	
 	protected static final String FILENAME_FORMAT = "%s%sgeneratedCreativeWorks-%06d.";
+	//files of a task of sharded generation, numbered by the task and by the file of the task
+	protected static final String TASK_FILENAME_FORMAT = "%s%sgeneratedCreativeWorks-%06d-%04d.";
 	
 	@Override
 	public void run() {
 		try {
 			execute();
+			completed();
 		} catch (Exception e) {
 			System.out.println("Exception caught by : " + Thread.currentThread().getName() + " : " + e.getMessage());
 			e.printStackTrace();
@@ -21,4 +24,10 @@ public abstract class AbstractAsynchronousWorker extends Thread {
 	 * This method will be called for execution of a concrete task
 	 */
 	public abstract void execute() throws Exception;
+	
+	/**
+	 * This method will be called after the task has been executed successfully
+	 */
+	protected void completed() throws Exception {
+	}
 }
@@ -1,8 +1,5 @@
 package eu.ldbc.semanticpublishing.generators.data;
 
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Calendar;
@@ -13,11 +10,9 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.openrdf.model.Model;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
-import org.openrdf.rio.Rio;
 
 import eu.ldbc.semanticpublishing.generators.data.sesamemodelbuilders.CreativeWorkBuilder;
 import eu.ldbc.semanticpublishing.refdataset.model.Entity;
-import eu.ldbc.semanticpublishing.util.CompressionUtil;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 import eu.ldbc.semanticpublishing.util.SesameUtils;
 
@@ -36,6 +31,7 @@ public class CorrelationsWorker extends RandomWorker {
 	private Entity entityC;
 	
 	private long firstCwId;
+	private Date startDate;
 	private List<Integer> correlationsMagnitudesForSingleIterationList;
 	private int dataGenerationPeriodYears = 1;
 	private int correlationsMagnitude = 10;
@@ -46,7 +42,7 @@ public class CorrelationsWorker extends RandomWorker {
 	//a distance in days between third entity appearance in a correlation
 	private static final int THRID_ENTITY_CORRELATION_DISTANCE = 9;
 	
-	public CorrelationsWorker(RandomUtil ru, Entity entityA, Entity entityB, Entity entityC, long firstCwId, int totalCorrelationPeriodDays, List<Integer> correlationsMagnitudesForSingleIterationList, int dataGenerationPeriodYears, int correlationsMagnitude, 
+	public CorrelationsWorker(RandomUtil ru, Entity entityA, Entity entityB, Entity entityC, long firstCwId, Date startDate, int totalCorrelationPeriodDays, List<Integer> correlationsMagnitudesForSingleIterationList, int dataGenerationPeriodYears, int correlationsMagnitude, 
 							  double correlationEntityLifespan, double correlationDuration, Object lock, AtomicLong filesCount, 
 							  long totalTriples, long triplesPerFile, AtomicLong triplesGeneratedSoFar, String destinationPath, String serializationFormat, boolean compress, boolean silent) {
 		super(ru, lock, filesCount, totalTriples, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
@@ -54,6 +50,7 @@ public class CorrelationsWorker extends RandomWorker {
 		this.entityB = entityB;
 		this.entityC = entityC;
 		this.firstCwId = firstCwId;
+		this.startDate = startDate;
 		this.totalCorrelationPeriodDays = totalCorrelationPeriodDays;
 		this.correlationsMagnitudesForSingleIterationList = correlationsMagnitudesForSingleIterationList;
 		this.dataGenerationPeriodYears = dataGenerationPeriodYears;
@@ -62,11 +59,22 @@ public class CorrelationsWorker extends RandomWorker {
 		this.correlationDurationPercent = correlationDuration;
 	}
 
+	/**
+	 * @return number of Creative Works generated by the worker, the sum of magnitudes of all days of the correlation
+	 */
+	public long getCreativeWorksCount() {
+		long count = 0;
+		for (Integer magnitude : correlationsMagnitudesForSingleIterationList) {
+			count += magnitude;
+		}
+		return count;
+	}
+
 	@Override
 	public void execute() throws Exception {
 		
 		//skip data generation if targetTriples size has already been reached 
-		if (triplesGeneratedSoFar.get() > targetTriples) {
+		if (targetTriplesReached()) {
 //			System.out.println(Thread.currentThread().getName() + " :: generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + " have reached the targeted triples size: " + String.format("%,d", targetTriples) + ". Generating is cancelled");
 			return;
 		}
@@ -80,16 +88,13 @@ public class CorrelationsWorker extends RandomWorker {
 		int thirdEntityOutsideCorrelationCountdown = 0;
 		int correlationsMagnitudeForIteration = this.correlationsMagnitude;
 		long currentFilesCount = filesCount.incrementAndGet();		
-		String fileName = String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);
+		String fileName = buildFileName(currentFilesCount, rdfFormat);
 				
-		Date startDate;
 		int thirdEntityInCorrelationOccurences = (int) ((365 * dataGenerationPeriodYears * correlationDurationPercent) / 10);
 		int thirdEntityOutsideCorrelationOccurences = (int) ((365 * dataGenerationPeriodYears * (correlationEntityLifespanPercent * 2 - correlationDurationPercent)) / 10) / 2;
 		
-		os = new BufferedOutputStream(new FileOutputStream(fileName));
+		os = openOutputStream(fileName);
 		
-		//pick a random date starting from 1.Jan to the value of totalCorrelationPeriodDays
-		startDate = ru.randomDateTime(365 * dataGenerationPeriodYears - totalCorrelationPeriodDays);
 		thirdEntityCountdown = ru.nextInt((int)(THRID_ENTITY_CORRELATION_DISTANCE * 0.6), THRID_ENTITY_CORRELATION_DISTANCE + 1);
 		thirdEntityOutsideCorrelationCountdown = ru.nextInt((int)(THRID_ENTITY_CORRELATION_DISTANCE * 0.6), THRID_ENTITY_CORRELATION_DISTANCE + 1) / 2;
 		
@@ -105,23 +110,18 @@ public class CorrelationsWorker extends RandomWorker {
 				for (int i = 0; i < correlationsMagnitudeForIteration; i++) {
 					if (currentTriplesCount >= triplesPerFile) {						
 						flushClose(os);
-						if (compress) {
-							CompressionUtil.compressFile(fileName, true);
-						}
-						if (!silent && cwsInFileCount > 0) {
-							System.out.println(Thread.currentThread().getName() + " " + this.getClass().getSimpleName() + " :: Saving " + (compress ? "compressed " : "") + "file #" + currentFilesCount + " with " + String.format("%,d", cwsInFileCount) + " Creative Works. Generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + ". Target: " + String.format("%,d", targetTriples) + " triples");
-						}
+						printSavedFile(currentFilesCount, cwsInFileCount);
 	
 						cwsInFileCount = 0;
 						currentTriplesCount = 0;
 						
 						currentFilesCount = filesCount.incrementAndGet();
-						fileName = String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);
+						fileName = buildFileName(currentFilesCount, rdfFormat);
 	
-						os = new BufferedOutputStream(new FileOutputStream(fileName));
+						os = openOutputStream(fileName);
 					}
 					
-					if (triplesGeneratedSoFar.get() > targetTriples) {
+					if (targetTriplesReached()) {
 						return;
 					}
 					
@@ -165,7 +165,7 @@ public class CorrelationsWorker extends RandomWorker {
 						}
 					}
 					
-					Rio.write(sesameModel, os, rdfFormat);
+					writeModel(sesameModel, os, rdfFormat);
 										
 					cwsInFileCount++;
 					currentTriplesCount += sesameModel.size();
@@ -182,12 +182,7 @@ public class CorrelationsWorker extends RandomWorker {
 			throw new IOException("A problem occurred while generating RDF data: " + e.getMessage());
 		} finally {
 			flushClose(os);
-			if (compress) {
-				CompressionUtil.compressFile(fileName, true);
-			}
-			if (!silent && cwsInFileCount > 0) {
-				System.out.println(Thread.currentThread().getName() + " " + this.getClass().getSimpleName() + " :: Saving " + (compress ? "compressed " : "") + "file #" + currentFilesCount + " with " + String.format("%,d", cwsInFileCount) + " Creative Works. Generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + ". Target: " + String.format("%,d", targetTriples) + " triples");
-			}
+			printSavedFile(currentFilesCount, cwsInFileCount);
 		}
 	}
 	
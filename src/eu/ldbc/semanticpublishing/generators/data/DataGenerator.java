@@ -1,5 +1,6 @@
 package eu.ldbc.semanticpublishing.generators.data;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
@@ -9,13 +10,16 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import eu.ldbc.semanticpublishing.generators.data.sesamemodelbuilders.CreativeWorkBuilder;
 import eu.ldbc.semanticpublishing.properties.Configuration;
 import eu.ldbc.semanticpublishing.properties.Definitions;
 import eu.ldbc.semanticpublishing.refdataset.DataManager;
 import eu.ldbc.semanticpublishing.refdataset.model.Entity;
+import eu.ldbc.semanticpublishing.util.CompressionUtil;
 import eu.ldbc.semanticpublishing.util.ExponentialDecayNumberGeneratorUtil;
 import eu.ldbc.semanticpublishing.util.FileUtils;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
+import eu.ldbc.semanticpublishing.util.sesame.UriCache;
 
 /**
  * The class responsible for managing data generation for the benchmark.
@@ -35,6 +39,18 @@ public class DataGenerator {
 	private String serializationFormat;
 	private static final long AWAIT_PERIOD_HOURS = 168; 
 	private Object syncLock;
+	//shard of the dataset produced by the generator, zero based, and number of shards
+	private int shardIndex = 0;
+	private int shardsCount = 1;
+	private boolean sharded = false;
+	private GenerateAndLoadPipeline pipeline = null;
+	//if enabled, completed generation tasks are recorded in a checkpoint, and a generation can be resumed from it
+	private boolean checkpointEnabled = false;
+	private boolean resumeFromCheckpoint = false;
+	private GenerationCheckpoint checkpoint = null;
+	//if enabled, an existing dataset is grown to the targeted size, its size is read from its dataset info file
+	private boolean growth = false;
+	private long existingTriples = 0;
 	
 	//defines quotient for major events for 1M triples - number of major events per million triples
 	private static final double EXP_DECAY_MAJOR_EVENTS_QT = 0.1;
@@ -42,6 +58,17 @@ public class DataGenerator {
 	private static final double EXP_DECAY_MINOR_EVENTS_QT = 2.2;
 	//defines quotient for correlations for 1M triples - number of correlations per million triples
 	private static final double CORRELATIONS_QT = 1.3;
+	//folder of files generated when an existing dataset is grown, in its creativeWorksPath, named after the targeted size of the grown dataset
+	public static final String GROWTH_FOLDER_PREFIX = "growth-";
+	public static final String GROWTH_FOLDER_FORMAT = GROWTH_FOLDER_PREFIX + "%d";
+	//number of Creative Works built for estimating the average number of triples of a random Creative Work in sharded generation
+	private static final int TRIPLES_ESTIMATE_SAMPLE_SIZE = 1000;
+	//size of the dataset in triples for which the quotients above define the amounts of correlations and events
+	private long eventsSizeUnit = 1000000;
+	//dates of events generated when an existing dataset is grown are moved after the date range of the existing dataset, see prepareGrowth()
+	private long periodStartMillis = 0;
+	private long deltaDatesStartMillis = 0;
+	private double deltaDatesScale = 1.0;
 	
 	public DataGenerator(RandomUtil ru, Configuration configuration, Definitions definitions, int generatorThreads, long totalTriples, long triplesPerFile, String destinationPath, String serializationFormat) {
 		this.ru = ru;
@@ -55,11 +82,121 @@ public class DataGenerator {
 		this.syncLock = this;
 	}
 	
+	/**
+	 * Sets the shard of the dataset produced by the generator. All shards plan the same generation tasks (correlations, major and minor events
+	 * and ranges of random Creative Works) with the same random seeds and ranges of Creative Work IDs, and each shard executes every shardsCount-th task.
+	 * Shards produce disjoint parts of the same dataset regardless of the number of threads, and the same dataset info file.
+	 * @param shard - shard in format i/N, where i is from 1 to N
+	 */
+	public void setShard(String shard) throws IllegalArgumentException {
+		String[] tokens = shard.trim().split("/");
+		try {
+			if (tokens.length == 2) {
+				int index = Integer.parseInt(tokens[0].trim());
+				int count = Integer.parseInt(tokens[1].trim());
+				if (count >= 1 && index >= 1 && index <= count) {
+					this.shardIndex = index - 1;
+					this.shardsCount = count;
+					this.sharded = true;
+					return;
+				}
+			}
+		} catch (NumberFormatException nfe) {
+		}
+		throw new IllegalArgumentException("Illegal value for data generator shard : " + shard + ", expected i/N, where i is from 1 to N");
+	}
+	
+	/**
+	 * Sets the pipeline which loads generated data while it is being generated
+	 */
+	public void setPipeline(GenerateAndLoadPipeline pipeline) {
+		this.pipeline = pipeline;
+	}
+	
+	/**
+	 * Enables checkpoints of the generation, which is then planned in tasks as the sharded generation, so that an interrupted generation 
+	 * can be resumed and produces the same data as if it has not been interrupted. Not supported when data is loaded by the pipeline.
+	 * @param resume - if true, tasks completed by an interrupted generation are skipped and files of incomplete tasks are generated again
+	 */
+	public void setCheckpoint(boolean enabled, boolean resume) {
+		this.checkpointEnabled = enabled || resume;
+		this.resumeFromCheckpoint = resume;
+	}
+	
+	/**
+	 * Enables growth of an existing dataset described by its dataset info file (parameter creativeWorksInfo) to the targeted size. Growth is planned
+	 * as a generation of the targeted size : tasks of the existing dataset are planned again with the same seeds and verified against its dataset info 
+	 * file, and only the tasks which follow them are executed, so that the grown dataset is the same as a dataset generated at the targeted size, 
+	 * except the dates of its newly planned correlations and events, which are moved after the date range of the existing dataset. The existing 
+	 * dataset must have been generated by a planned generation (sharded or checkpointed). Files are written to a folder named after the targeted 
+	 * size in the destination path, see GROWTH_FOLDER_FORMAT, and the dataset info file is replaced by that of the grown dataset.
+	 */
+	public void setGrowth(boolean growth) {
+		this.growth = growth;
+	}
+	
+	public static String buildGrowthPath(String creativeWorksPath, long datasetSizeTriples) {
+		return creativeWorksPath + File.separator + String.format(GROWTH_FOLDER_FORMAT, datasetSizeTriples);
+	}
+	
+	/**
+	 * @return true if a shard is set, including shard 1/1, which plans the same tasks as any other number of shards
+	 */
+	private boolean isSharded() {
+		return sharded;
+	}
+	
+	/**
+	 * @return true if generation is planned in tasks with their own random seeds and ranges of Creative Work IDs
+	 */
+	private boolean isPlanned() {
+		return isSharded() || checkpoint != null || growth;
+	}
+	
+	/**
+	 * Sets the size of the dataset in triples for which the amounts of correlations and events are defined, when they are adjusted to the targeted size
+	 */
+	void setEventsSizeUnit(long eventsSizeUnit) {
+		this.eventsSizeUnit = eventsSizeUnit;
+	}
+	
+	/**
+	 * @return true if the generation task of given index belongs to the shard of the generator
+	 */
+	private boolean isShardTask(long taskIndex) {
+		return taskIndex % shardsCount == shardIndex;
+	}
+	
+	/**
+	 * Starts a generation task if it belongs to the shard of the generator and has not been completed by an interrupted generation
+	 * @param firstCwId - ID of the first Creative Work generated by the task, used for verifying the task against the checkpoint
+	 * @param creativeWorksCount - number of Creative Works generated by the task
+	 */
+	private void executeTask(ExecutorService executorService, RandomWorker worker, long taskIndex, long firstCwId, long creativeWorksCount) throws IOException {
+		if (isPlanned()) {
+			worker.setTaskIndex(taskIndex);
+		}
+		worker.setPipeline(pipeline);
+		if (isShardTask(taskIndex)) {
+			if (checkpoint != null) {
+				if (checkpoint.planTask(taskIndex, worker.getClass().getSimpleName(), firstCwId, creativeWorksCount, worker.ru.getSeed())) {
+					return;
+				}
+				worker.setCheckpoint(checkpoint);
+			}
+			executorService.execute(worker);
+		}
+	}
+	
 	public void produceData() throws InterruptedException, IOException {
 		produceData(true, true, true, true, false);		
 	}
 	
 	public void produceData(boolean produceRandom, boolean produceClusterings, boolean produceCorrelations, boolean persistDatasetInfo, boolean silent) throws InterruptedException, IOException  {
+		if (growth && !prepareGrowth()) {
+			return;
+		}
+		
 		long creativeWorksInDatabase = DataManager.creativeWorksNextId.get();
 		
 		List<Entity> correlatedEntitiesList = null;
@@ -69,143 +206,444 @@ public class DataGenerator {
 		if (creativeWorksInDatabase > 0) {
 			System.out.println("\t" + creativeWorksInDatabase + " Creative Works currently exist.");
 		}
+		
+		//URIs of reference entities and geonames locations are created once and shared by all workers
+		UriCache.preloadReferenceData();
 
-		//Adjust the amount of correlations and clusterings, in relation to the targeted triples size, keeping ratio of 1/3 for each of the motellings in generated data
-		if (configuration.getBoolean(Configuration.ALLOW_SIZE_ADJUSTMENTS_ON_DATA_MODELS)) {
-			adjustDataAllocations(targetedTriplesSize, definitions, definitions.getInt(Definitions.DATA_GENERATOR_PERIOD_YEARS));
+		if (growth) {
+			System.out.println("\tGrowing the dataset from " + String.format("%,d", existingTriples) + " to " + String.format("%,d", targetedTriplesSize) + " triples, to " + destinationPath);
 		}
 		
 		//create destination directory
 		FileUtils.makeDirectories(this.destinationPath);
 		
+		//triples of the existing dataset count towards the targeted size when it is grown
+		triplesGeneratedSoFar.set(existingTriples);
+		
+		if (checkpointEnabled && pipeline != null) {
+			System.out.println("\tCheckpoints of data generation are not supported when generated data is loaded while being generated, generation is not checkpointed");
+		} else if (checkpointEnabled) {
+			checkpoint = new GenerationCheckpoint(destinationPath, resumeFromCheckpoint);
+			if (checkpoint.isResumed()) {
+				int removedFiles = checkpoint.removeIncompleteTaskFiles();
+				triplesGeneratedSoFar.addAndGet(checkpoint.getCompletedTriples());
+				filesCount.addAndGet(checkpoint.getCompletedFiles());
+				System.out.println("\tResuming data generation, " + checkpoint.getCompletedTasksCount() + " generation tasks with " + String.format("%,d", checkpoint.getCompletedTriples()) + " triples completed, " + removedFiles + " files of incomplete tasks removed");
+			}
+		}
+		
 		//compress output?
 		boolean compress = configuration.getBoolean(Configuration.ENABLE_COMPRESSION_ON_GENERATED_DATA);
+		if (compress) {
+			//data is compressed while being written, either by each worker or in blocks by a pool of compression threads
+			CompressionUtil.startCompressionThreads(configuration.getInt(Configuration.GENERATED_DATA_COMPRESSION_THREADS));
+			CompressionUtil.resetStatistics();
+		}
 		
 		ExecutorService executorService = null;
 		executorService = Executors.newFixedThreadPool(generatorThreads);
 		
-		long spawnedRuSeed = ru.getSeed() + 1;
-		long nextCwId = DataManager.creativeWorksNextId.get();
-		
 		long currentTime = System.currentTimeMillis();
-
-		//Generate Correlations between entities
-		int correlationsAmount = definitions.getInt(Definitions.CORRELATIONS_AMOUNT);
 		
-		if (produceCorrelations && correlationsAmount > 0) {
-			correlatedEntitiesList = buildCorrelationsList(correlationsAmount);
+		if (configuration.getBoolean(Configuration.USE_RANDOM_DATA_GENERATORS) == false) {
+			System.out.println("* Skipping execution of GeneralWorkers in data generation, see test.properties parameter: useRandomDataGenerators");
+		}
+		
+		if (isPlanned()) {
+			if (isSharded()) {
+				System.out.println("\tGenerating shard " + (shardIndex + 1) + " of " + shardsCount);
+			}
+			correlatedEntitiesList = new ArrayList<Entity>();
+			expDecayingMajorEntitiesList = new ArrayList<Entity>();
+			expDecayingMinorEntitiesList = new ArrayList<Entity>();
+			producePlannedData(executorService, produceRandom, produceClusterings, produceCorrelations, correlatedEntitiesList, expDecayingMajorEntitiesList, expDecayingMinorEntitiesList, compress, silent);
+		} else {
+			//Adjust the amount of correlations and clusterings, in relation to the targeted triples size, keeping ratio of 1/3 for each of the motellings in generated data
+			if (configuration.getBoolean(Configuration.ALLOW_SIZE_ADJUSTMENTS_ON_DATA_MODELS)) {
+				adjustDataAllocations(targetedTriplesSize, definitions, definitions.getInt(Definitions.DATA_GENERATOR_PERIOD_YEARS));
+			}
 			
-			for (int i = 0; i < (correlatedEntitiesList.size() / 3);i++) {
-				RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
+			long spawnedRuSeed = ru.getSeed() + 1;
+			long nextCwId = DataManager.creativeWorksNextId.get();
+			
+			//index of the next generation task
+			long taskIndex = 0;
+	
+			//Generate Correlations between entities
+			int correlationsAmount = definitions.getInt(Definitions.CORRELATIONS_AMOUNT);
+			
+			if (produceCorrelations && correlationsAmount > 0) {
+				correlatedEntitiesList = buildCorrelationsList(correlationsAmount);
 				
-				Entity entityA = correlatedEntitiesList.get(i * 3);
-				Entity entityB = correlatedEntitiesList.get(i * 3 + 1);
-				Entity entityC = correlatedEntitiesList.get(i * 3 + 2);		
-
-				long generatedCWsByWorker = 0; 
-				int dataGeneratorPeriodYears = 1; //assuming that a correlation between entities will exist no longer than one year
-				int correlationsMagnitude = definitions.getInt(Definitions.CORRELATIONS_MAGNITUDE);
-				double correlationEntityLifespanPercent = definitions.getDouble(Definitions.CORRELATION_ENTITY_LIFESPAN);
-				double correlationDurationPercent = definitions.getDouble(Definitions.CORRELATIONS_DURATION);
-				int totalCorrelationPeriodDays = (int) (365 * dataGeneratorPeriodYears * (correlationEntityLifespanPercent * 2 - correlationDurationPercent));
-
-				//initialize a list of correlations magnitudes for each day
-				List<Integer> correlationsMagnitudesList = new ArrayList<Integer>();
-				for (int j = 0; j < totalCorrelationPeriodDays; j++) {
-					int nextRandom = spawnedRu.nextInt((int)(correlationsMagnitude * 0.75), correlationsMagnitude + 1);
-					generatedCWsByWorker += nextRandom;
-					correlationsMagnitudesList.add(nextRandom);
+				for (int i = 0; i < (correlatedEntitiesList.size() / 3);i++) {
+					RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
+					
+					Entity entityA = correlatedEntitiesList.get(i * 3);
+					Entity entityB = correlatedEntitiesList.get(i * 3 + 1);
+					Entity entityC = correlatedEntitiesList.get(i * 3 + 2);		
+	
+					nextCwId = DataManager.creativeWorksNextId.get() + 1;
+					CorrelationsWorker crw = buildCorrelationsWorker(spawnedRu, entityA, entityB, entityC, nextCwId, false, compress, silent);
+					DataManager.creativeWorksNextId.addAndGet(crw.getCreativeWorksCount());				
+					executeTask(executorService, crw, taskIndex++, nextCwId, crw.getCreativeWorksCount());
 				}
+			}
+			
+			ExponentialDecayNumberGeneratorUtil edgu;
+	
+			int exponentialDecayUpperLimitOfCws = definitions.getInt(Definitions.EXPONENTIAL_DECAY_UPPER_LIMIT_OF_CWS);
+			
+			//preinitialize
+			if (definitions.getInt(Definitions.MAJOR_EVENTS) > 0) {
+				expDecayingMajorEntitiesList = new ArrayList<Entity>();
+				
+				for (int i = 0; i < definitions.getInt(Definitions.MAJOR_EVENTS); i++) {
+					Entity e = DataManager.popularEntitiesList.get(ru.nextInt(DataManager.popularEntitiesList.size()));
+					expDecayingMajorEntitiesList.add(e);				
+				}			
+			}
+			
+			if (definitions.getInt(Definitions.MINOR_EVENTS) > 0) {
+				expDecayingMinorEntitiesList = new ArrayList<Entity>();
+				
+				for (int i = 0; i < definitions.getInt(Definitions.MINOR_EVENTS); i++) {
+					Entity e = DataManager.regularEntitiesList.get(ru.nextInt(DataManager.regularEntitiesList.size()));
+					expDecayingMinorEntitiesList.add(e);
+				}			
+			}
+			
+			//Generate MAJOR EVENTS with exponential decay
+			if (produceClusterings && definitions.getInt(Definitions.MAJOR_EVENTS) > 0) {			
+				for (int i = 0; i < definitions.getInt(Definitions.MAJOR_EVENTS); i++) {
+					edgu =  new ExponentialDecayNumberGeneratorUtil(/*ru.nextInt(1000, */exponentialDecayUpperLimitOfCws, 
+								  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_RATE), 
+								  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_THRESHOLD_PERCENT));
+					RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
+					Date startDate = spawnedRu.randomDateTime();
+					Entity e = expDecayingMajorEntitiesList.get(i);
 				
-				nextCwId = DataManager.creativeWorksNextId.incrementAndGet();				
-				DataManager.creativeWorksNextId.addAndGet(generatedCWsByWorker - 1);				
-				CorrelationsWorker crw = new CorrelationsWorker(spawnedRu, entityA, entityB, entityC, nextCwId,  totalCorrelationPeriodDays, correlationsMagnitudesList, dataGeneratorPeriodYears, 
-															    correlationsMagnitude, correlationEntityLifespanPercent, correlationDurationPercent, syncLock, 
-															    filesCount, targetedTriplesSize, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
-				executorService.execute(crw);
+					nextCwId = DataManager.creativeWorksNextId.incrementAndGet();
+					DataManager.creativeWorksNextId.addAndGet(edgu.calculateTotal() - 1);
+					ExpDecayWorker edw = new ExpDecayWorker(edgu.produceIterationStepsList(), nextCwId, startDate, e, spawnedRu, syncLock, filesCount, triplesPerFile, targetedTriplesSize, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
+					executeTask(executorService, edw, taskIndex++, nextCwId, edgu.calculateTotal());
+				}
+			}
+	
+			//Generate MINOR EVENTS with exponential decay
+			if (produceClusterings && definitions.getInt(Definitions.MINOR_EVENTS) > 0) {			
+				for (int i = 0; i < definitions.getInt(Definitions.MINOR_EVENTS); i++) {
+					edgu =  new ExponentialDecayNumberGeneratorUtil(/*ru.nextInt(1000,*/ exponentialDecayUpperLimitOfCws / 10, 
+								  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_RATE), 
+								  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_THRESHOLD_PERCENT));
+					RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
+					Date startDate = spawnedRu.randomDateTime();
+					Entity e = expDecayingMinorEntitiesList.get(i);
+					
+					nextCwId = DataManager.creativeWorksNextId.incrementAndGet();
+					DataManager.creativeWorksNextId.addAndGet(edgu.calculateTotal() - 1);
+					ExpDecayWorker edw = new ExpDecayWorker(edgu.produceIterationStepsList(), nextCwId, startDate, e, spawnedRu, syncLock, filesCount, triplesPerFile, targetedTriplesSize, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);				
+					executeTask(executorService, edw, taskIndex++, nextCwId, edgu.calculateTotal());
+				}
+			}
+	
+			//reset allocations back to initial state by setting back the initial random generator (CreativeWorksBuilder constructor will change random generator with each new instance)
+			//synchronized with workers, which build each Creative Work with allocations set to their own random generator
+			synchronized (syncLock) {
+				Definitions.reconfigureAllocations(ru.getRandom());
+			}
+	
+			//Generate random Creative Works to fill-in with rest of the generated data with randomly distributed tags of creative works, i.e. generate "noise"
+			if (produceRandom && (triplesGeneratedSoFar.get() < targetedTriplesSize) && configuration.getBoolean(Configuration.USE_RANDOM_DATA_GENERATORS)) {
+				for (int i = 0; i < generatorThreads; i++) {				
+					RandomWorker rw = new RandomWorker(ru, syncLock, filesCount, targetedTriplesSize, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
+					executeTask(executorService, rw, taskIndex++, 0, 0);
+				}
 			}
 		}
+		executorService.shutdown();
+		executorService.awaitTermination(AWAIT_PERIOD_HOURS, TimeUnit.HOURS);		
 		
-		ExponentialDecayNumberGeneratorUtil edgu;
-
-		int exponentialDecayUpperLimitOfCws = definitions.getInt(Definitions.EXPONENTIAL_DECAY_UPPER_LIMIT_OF_CWS);
+		if (checkpoint != null) {
+			checkpoint.close();
+		}
 		
-		//preinitialize
-		if (definitions.getInt(Definitions.MAJOR_EVENTS) > 0) {
-			expDecayingMajorEntitiesList = new ArrayList<Entity>();
-			
-			for (int i = 0; i < definitions.getInt(Definitions.MAJOR_EVENTS); i++) {
-				Entity e = DataManager.popularEntitiesList.get(ru.nextInt(DataManager.popularEntitiesList.size()));
-				expDecayingMajorEntitiesList.add(e);				
-			}			
+		if (compress) {
+			CompressionUtil.stopCompressionThreads();
+			if (!silent) {
+				double seconds = Math.max(1, System.currentTimeMillis() - currentTime) / 1000.0;
+				long uncompressedBytes = CompressionUtil.getUncompressedBytes();
+				long compressedBytes = CompressionUtil.getCompressedBytes();
+				System.out.println(String.format("\tcompressed %,d MB of generated data to %,d MB (%.1f%%), throughput : %.1f MB/s of uncompressed data, %.1f MB/s written", 
+												 uncompressedBytes / (1024 * 1024), compressedBytes / (1024 * 1024), compressedBytes * 100.0 / Math.max(1, uncompressedBytes), 
+												 uncompressedBytes / seconds / (1024 * 1024), compressedBytes / seconds / (1024 * 1024)));
+			}
 		}
 		
-		if (definitions.getInt(Definitions.MINOR_EVENTS) > 0) {
-			expDecayingMinorEntitiesList = new ArrayList<Entity>();
+		//persist information about generated dataset, a grown dataset also records the end of its date range
+		String persistFilePath = DataManager.buildDataInfoFilePath(configuration);
+		if (persistDatasetInfo && !persistFilePath.isEmpty()) {			
+			long dateRangeEnd = growth ? shiftDeltaDate(periodStartMillis + periodMillis()) : 0;
+			DataManager.persistDatasetInfo(persistFilePath, targetedTriplesSize, correlatedEntitiesList, expDecayingMajorEntitiesList, expDecayingMinorEntitiesList, dateRangeEnd);
+			if (growth) {
+				//entities of the grown dataset replace those of the existing dataset
+				DataManager.correlatedEntitiesList.clear();
+				DataManager.exponentialDecayEntitiesMajorList.clear();
+				DataManager.exponentialDecayEntitiesMinorList.clear();
+				DataManager.initDatasetInfo(persistFilePath, false);
+			}
+		}
+		
+		System.out.println("\tcompleted! Total Creative Works created : " + String.format("%,d", (DataManager.creativeWorksNextId.get() - creativeWorksInDatabase)) + ". Time : " + (System.currentTimeMillis() - currentTime) + " ms");		
+	}
+	
+	/**
+	 * Plans the generation in tasks, each with its own random seed and range of Creative Work IDs, in the order of the growing size of the dataset : 
+	 * correlations and major and minor events are planned when the planned size reaches their thresholds (see eventThreshold()) if they are not greater 
+	 * than the targeted size, interleaved with ranges of random Creative Works sized from an estimate of triples per Creative Work. A generation of a smaller size plans a prefix of the tasks 
+	 * of a larger size, which allows an existing dataset to be grown. Tasks of the existing dataset are planned again and verified against its 
+	 * dataset info file, they are not executed.
+	 */
+	private void producePlannedData(ExecutorService executorService, boolean produceRandom, boolean produceClusterings, boolean produceCorrelations, List<Entity> correlatedEntitiesList, 
+									List<Entity> expDecayingMajorEntitiesList, List<Entity> expDecayingMinorEntitiesList, boolean compress, boolean silent) throws IOException {
+		//amount of random data can not depend on data generated by other shards, it is planned from the estimated size of a Creative Work
+		double triplesPerCw = estimateTriplesPerCreativeWork(ru.getSeed() + 1);
+		long cwsPerTask = Math.max(1, (long)(triplesPerFile / triplesPerCw));
+		boolean adjustSizes = configuration.getBoolean(Configuration.ALLOW_SIZE_ADJUSTMENTS_ON_DATA_MODELS);
+		boolean executeRandom = produceRandom && configuration.getBoolean(Configuration.USE_RANDOM_DATA_GENERATORS);
+		int exponentialDecayUpperLimitOfCws = definitions.getInt(Definitions.EXPONENTIAL_DECAY_UPPER_LIMIT_OF_CWS);
+		
+		long spawnedRuSeed = ru.getSeed() + 2;
+		//Creative Work IDs are planned from zero, and shifted by the next ID of the generation or of the existing dataset when it is grown
+		long plannedCws = 0;
+		long idOffset = DataManager.creativeWorksNextId.get();
+		double plannedTriples = 0;
+		boolean existingDatasetPlanned = !growth;
+		long taskIndex = 0;
+		
+		while (true) {
+			long correlationThreshold = produceCorrelations ? eventThreshold(correlatedEntitiesList.size() / 3, CORRELATIONS_QT, Definitions.CORRELATIONS_AMOUNT, adjustSizes) : Long.MAX_VALUE;
+			long majorEventThreshold = produceClusterings ? eventThreshold(expDecayingMajorEntitiesList.size(), EXP_DECAY_MAJOR_EVENTS_QT, Definitions.MAJOR_EVENTS, adjustSizes) : Long.MAX_VALUE;
+			long minorEventThreshold = produceClusterings ? eventThreshold(expDecayingMinorEntitiesList.size(), EXP_DECAY_MINOR_EVENTS_QT, Definitions.MINOR_EVENTS, adjustSizes) : Long.MAX_VALUE;
+			long threshold = Math.min(correlationThreshold, Math.min(majorEventThreshold, minorEventThreshold));
 			
-			for (int i = 0; i < definitions.getInt(Definitions.MINOR_EVENTS); i++) {
-				Entity e = DataManager.regularEntitiesList.get(ru.nextInt(DataManager.regularEntitiesList.size()));
-				expDecayingMinorEntitiesList.add(e);
-			}			
-		}
-		
-		//Generate MAJOR EVENTS with exponential decay
-		if (produceClusterings && definitions.getInt(Definitions.MAJOR_EVENTS) > 0) {			
-			for (int i = 0; i < definitions.getInt(Definitions.MAJOR_EVENTS); i++) {
-				edgu =  new ExponentialDecayNumberGeneratorUtil(/*ru.nextInt(1000, */exponentialDecayUpperLimitOfCws, 
-							  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_RATE), 
-							  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_THRESHOLD_PERCENT));
+			//events are planned up to the size of the dataset being planned, the existing dataset of a growth plans the same events as its generation
+			if (threshold <= Math.min(plannedTriples, existingDatasetPlanned ? targetedTriplesSize : existingTriples)) {
 				RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
-				Date startDate = spawnedRu.randomDateTime();
-				Entity e = expDecayingMajorEntitiesList.get(i);
+				long firstCwId = plannedCws + 1 + idOffset;
+				RandomWorker worker;
+				long creativeWorksCount;
+				
+				if (threshold == correlationThreshold) {
+					Entity entityA = DataManager.popularEntitiesList.get(spawnedRu.nextInt(DataManager.popularEntitiesList.size()));
+					Entity entityB = DataManager.popularEntitiesList.get(spawnedRu.nextInt(DataManager.popularEntitiesList.size()));
+					Entity entityC = DataManager.regularEntitiesList.get(spawnedRu.nextInt(DataManager.regularEntitiesList.size()));
+					correlatedEntitiesList.add(entityA);
+					correlatedEntitiesList.add(entityB);
+					correlatedEntitiesList.add(entityC);
+					
+					CorrelationsWorker crw = buildCorrelationsWorker(spawnedRu, entityA, entityB, entityC, firstCwId, existingDatasetPlanned && growth, compress, silent);
+					creativeWorksCount = crw.getCreativeWorksCount();
+					worker = crw;
+				} else {
+					boolean majorEvent = threshold == majorEventThreshold;
+					Entity e;
+					if (majorEvent) {
+						e = DataManager.popularEntitiesList.get(spawnedRu.nextInt(DataManager.popularEntitiesList.size()));
+						expDecayingMajorEntitiesList.add(e);
+					} else {
+						e = DataManager.regularEntitiesList.get(spawnedRu.nextInt(DataManager.regularEntitiesList.size()));
+						expDecayingMinorEntitiesList.add(e);
+					}
+					
+					ExponentialDecayNumberGeneratorUtil edgu = new ExponentialDecayNumberGeneratorUtil(majorEvent ? exponentialDecayUpperLimitOfCws : exponentialDecayUpperLimitOfCws / 10, 
+																									   definitions.getDouble(Definitions.EXPONENTIAL_DECAY_RATE), 
+																									   definitions.getDouble(Definitions.EXPONENTIAL_DECAY_THRESHOLD_PERCENT));
+					Date startDate = spawnedRu.randomDateTime();
+					if (existingDatasetPlanned && growth) {
+						startDate = new Date(shiftDeltaDate(startDate.getTime()));
+					}
+					creativeWorksCount = edgu.calculateTotal();
+					worker = new ExpDecayWorker(edgu.produceIterationStepsList(), firstCwId, startDate, e, spawnedRu, syncLock, filesCount, triplesPerFile, targetedTriplesSize, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
+				}
+				
+				if (existingDatasetPlanned) {
+					executeTask(executorService, worker, taskIndex, firstCwId, creativeWorksCount);
+				}
+				taskIndex++;
+				plannedCws += creativeWorksCount;
+				plannedTriples += creativeWorksCount * triplesPerCw;
+				continue;
+			}
 			
-				nextCwId = DataManager.creativeWorksNextId.incrementAndGet();
-				DataManager.creativeWorksNextId.addAndGet(edgu.calculateTotal() - 1);
-				ExpDecayWorker edw = new ExpDecayWorker(edgu.produceIterationStepsList(), nextCwId, startDate, e, spawnedRu, syncLock, filesCount, triplesPerFile, targetedTriplesSize, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
-				executorService.execute(edw);				
+			if (!existingDatasetPlanned && plannedTriples >= existingTriples) {
+				verifyExistingDatasetPlan(plannedCws, correlatedEntitiesList, expDecayingMajorEntitiesList, expDecayingMinorEntitiesList);
+				idOffset = DataManager.datasetInfoCreativeWorkNextId - plannedCws;
+				existingDatasetPlanned = true;
+				continue;
+			}
+			
+			if (plannedTriples >= targetedTriplesSize) {
+				break;
 			}
-		}
 
-		//Generate MINOR EVENTS with exponential decay
-		if (produceClusterings && definitions.getInt(Definitions.MINOR_EVENTS) > 0) {			
-			for (int i = 0; i < definitions.getInt(Definitions.MINOR_EVENTS); i++) {
-				edgu =  new ExponentialDecayNumberGeneratorUtil(/*ru.nextInt(1000,*/ exponentialDecayUpperLimitOfCws / 10, 
-							  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_RATE), 
-							  									definitions.getDouble(Definitions.EXPONENTIAL_DECAY_THRESHOLD_PERCENT));
-				RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
-				Date startDate = spawnedRu.randomDateTime();
-				Entity e = expDecayingMinorEntitiesList.get(i);
-				
-				nextCwId = DataManager.creativeWorksNextId.incrementAndGet();
-				DataManager.creativeWorksNextId.addAndGet(edgu.calculateTotal() - 1);
-				ExpDecayWorker edw = new ExpDecayWorker(edgu.produceIterationStepsList(), nextCwId, startDate, e, spawnedRu, syncLock, filesCount, triplesPerFile, targetedTriplesSize, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);				
-				executorService.execute(edw);
+			//Generate random Creative Works to fill-in with rest of the generated data with randomly distributed tags of creative works, i.e. generate "noise"
+			RandomUtil spawnedRu = ru.randomUtilFactory(spawnedRuSeed++);
+			long firstCwId = plannedCws + 1 + idOffset;
+			if (existingDatasetPlanned && executeRandom) {
+				RandomRangeWorker rrw = new RandomRangeWorker(firstCwId, cwsPerTask, spawnedRu, syncLock, filesCount, targetedTriplesSize, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
+				executeTask(executorService, rrw, taskIndex, firstCwId, cwsPerTask);
 			}
+			taskIndex++;
+			plannedCws += cwsPerTask;
+			plannedTriples += cwsPerTask * triplesPerCw;
 		}
+		
+		DataManager.creativeWorksNextId.set(plannedCws + idOffset);
+		
+		//reset allocations back to initial state, workers build each Creative Work with allocations set to their own random generator
+		synchronized (syncLock) {
+			Definitions.reconfigureAllocations(ru.getRandom());
+		}
+	}
+	
+	/**
+	 * Builds the worker of a correlation, its magnitudes for each day and its start date are drawn from the random generator of the worker
+	 * @param shiftDate - if set, the start date is moved after the date range of the grown dataset
+	 */
+	private CorrelationsWorker buildCorrelationsWorker(RandomUtil spawnedRu, Entity entityA, Entity entityB, Entity entityC, long firstCwId, boolean shiftDate, boolean compress, boolean silent) {
+		int dataGeneratorPeriodYears = 1; //assuming that a correlation between entities will exist no longer than one year
+		int correlationsMagnitude = definitions.getInt(Definitions.CORRELATIONS_MAGNITUDE);
+		double correlationEntityLifespanPercent = definitions.getDouble(Definitions.CORRELATION_ENTITY_LIFESPAN);
+		double correlationDurationPercent = definitions.getDouble(Definitions.CORRELATIONS_DURATION);
+		int totalCorrelationPeriodDays = (int) (365 * dataGeneratorPeriodYears * (correlationEntityLifespanPercent * 2 - correlationDurationPercent));
 
-		//reset allocations back to initial state by setting back the initial random generator (CreativeWorksBuilder constructor will change random generator with each new instance)
-		Definitions.reconfigureAllocations(ru.getRandom());
-
-		//Generate random Creative Works to fill-in with rest of the generated data with randomly distributed tags of creative works, i.e. generate "noise"
-		if (configuration.getBoolean(Configuration.USE_RANDOM_DATA_GENERATORS) == false) {
-			System.out.println("* Skipping execution of GeneralWorkers in data generation, see test.properties parameter: useRandomDataGenerators");
+		//initialize a list of correlations magnitudes for each day
+		List<Integer> correlationsMagnitudesList = new ArrayList<Integer>();
+		for (int j = 0; j < totalCorrelationPeriodDays; j++) {
+			int nextRandom = spawnedRu.nextInt((int)(correlationsMagnitude * 0.75), correlationsMagnitude + 1);
+			correlationsMagnitudesList.add(nextRandom);
+		}
+		
+		//pick a random date starting from 1.Jan to the value of totalCorrelationPeriodDays
+		Date startDate = spawnedRu.randomDateTime(365 * dataGeneratorPeriodYears - totalCorrelationPeriodDays);
+		if (shiftDate) {
+			startDate = new Date(shiftDeltaDate(startDate.getTime()));
 		}
-		if (produceRandom && (triplesGeneratedSoFar.get() < targetedTriplesSize) && configuration.getBoolean(Configuration.USE_RANDOM_DATA_GENERATORS)) {
-			for (int i = 0; i < generatorThreads; i++) {				
-				RandomWorker rw = new RandomWorker(ru, syncLock, filesCount, targetedTriplesSize, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
-				executorService.execute(rw);
+		
+		return new CorrelationsWorker(spawnedRu, entityA, entityB, entityC, firstCwId, startDate, totalCorrelationPeriodDays, correlationsMagnitudesList, dataGeneratorPeriodYears, 
+									  correlationsMagnitude, correlationEntityLifespanPercent, correlationDurationPercent, syncLock, 
+									  filesCount, targetedTriplesSize, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
+	}
+	
+	/**
+	 * @param index - index of the correlation or event among those of its kind
+	 * @param quotient - amount of correlations or events of the kind per eventsSizeUnit triples
+	 * @param amountDefinition - definition of the amount of correlations or events of the kind, used when their amount is not adjusted to the size of the dataset
+	 * @return planned size of the dataset in triples from which the correlation or event is generated
+	 */
+	private long eventThreshold(int index, double quotient, String amountDefinition, boolean adjustSizes) {
+		if (!adjustSizes) {
+			return index < definitions.getInt(amountDefinition) ? 0 : Long.MAX_VALUE;
+		}
+		//the least number of units for which the amount computed by adjustDataAllocations() includes the event
+		long units = Math.max(1, (long) ((index + 1) / quotient) - 1);
+		while ((int) (quotient * units) <= index) {
+			units++;
+		}
+		return units * eventsSizeUnit;
+	}
+	
+	/**
+	 * Verifies that correlations and events planned for the existing dataset of a growth are those of its dataset info file
+	 */
+	private void verifyExistingDatasetPlan(long plannedCws, List<Entity> correlatedEntitiesList, List<Entity> expDecayingMajorEntitiesList, List<Entity> expDecayingMinorEntitiesList) {
+		if (DataManager.datasetInfoCreativeWorkNextId < plannedCws || !sameEntityUris(DataManager.correlatedEntitiesList, correlatedEntitiesList) 
+			|| !sameEntityUris(DataManager.exponentialDecayEntitiesMajorList, expDecayingMajorEntitiesList) || !sameEntityUris(DataManager.exponentialDecayEntitiesMinorList, expDecayingMinorEntitiesList)) {
+			throw new IllegalStateException("The existing dataset was not generated with the same plan as its growth, it can be grown only if it has been generated by a sharded (e.g. dataGeneratorShard=1/1) " 
+											+ "or checkpointed generation with the same configuration, definitions and reference data. Dataset info file : " + DataManager.buildDataInfoFilePath(configuration));
+		}
+	}
+	
+	private static boolean sameEntityUris(List<String> uris, List<Entity> entities) {
+		if (uris.size() != entities.size()) {
+			return false;
+		}
+		for (int i = 0; i < uris.size(); i++) {
+			if (!uris.get(i).equals(entities.get(i).getURI())) {
+				return false;
 			}
-		}		
-		executorService.shutdown();
-		executorService.awaitTermination(AWAIT_PERIOD_HOURS, TimeUnit.HOURS);		
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads the dataset info file of the existing dataset and switches to the folder of the grown dataset. Dates of the correlations and events
+	 * which are planned for the grown dataset only are moved after the date range of the existing dataset, to a range longer in proportion to the growth 
+	 * @return false if the dataset can not be grown
+	 */
+	private boolean prepareGrowth() {
+		String datasetInfoFile = DataManager.buildDataInfoFilePath(configuration);
+		if (datasetInfoFile.isEmpty() || !new File(datasetInfoFile).exists()) {
+			System.out.println("\tGrowing a dataset requires the dataset info file of the existing dataset (see parameter creativeWorksInfo), it was not found : " + datasetInfoFile);
+			return false;
+		}
 		
-		//persist information about generated dataset
-		String persistFilePath = DataManager.buildDataInfoFilePath(configuration);
-		if (persistDatasetInfo && !persistFilePath.isEmpty()) {			
-			DataManager.persistDatasetInfo(persistFilePath, correlatedEntitiesList, expDecayingMajorEntitiesList, expDecayingMinorEntitiesList);
+		DataManager.correlatedEntitiesList.clear();
+		DataManager.exponentialDecayEntitiesMajorList.clear();
+		DataManager.exponentialDecayEntitiesMinorList.clear();
+		DataManager.datasetInfoCreativeWorkNextId = 0;
+		DataManager.datasetInfoSizeTriples = 0;
+		DataManager.datasetInfoDateRangeEnd = 0;
+		DataManager.initDatasetInfo(datasetInfoFile, false);
+		
+		existingTriples = DataManager.datasetInfoSizeTriples;
+		if (existingTriples == 0) {
+			System.out.println("\tSize of the existing dataset is missing in its dataset info file " + datasetInfoFile + ", it can be added in section [DatasetSizeTriples]");
+			return false;
+		}
+		if (existingTriples >= targetedTriplesSize) {
+			System.out.println("\tExisting dataset of " + String.format("%,d", existingTriples) + " triples is not smaller than the targeted size of " + String.format("%,d", targetedTriplesSize) + " triples, nothing to generate");
+			return false;
 		}
 		
-		System.out.println("\tcompleted! Total Creative Works created : " + String.format("%,d", (DataManager.creativeWorksNextId.get() - creativeWorksInDatabase)) + ". Time : " + (System.currentTimeMillis() - currentTime) + " ms");		
+		DataManager.creativeWorksNextId.set(DataManager.datasetInfoCreativeWorkNextId);
+		
+		//the date range of a dataset which has not been grown is the data generation period
+		periodStartMillis = RandomUtil.toEpochMillis(ru.getSeedYear(), 1, 1, 0, 0, 0, 0);
+		deltaDatesStartMillis = DataManager.datasetInfoDateRangeEnd > 0 ? DataManager.datasetInfoDateRangeEnd : periodStartMillis + periodMillis();
+		deltaDatesScale = (double) (deltaDatesStartMillis - periodStartMillis) * (targetedTriplesSize - existingTriples) / existingTriples / periodMillis();
+		
+		destinationPath = buildGrowthPath(destinationPath, targetedTriplesSize);
+		return true;
+	}
+	
+	/**
+	 * @return length of the data generation period in milliseconds
+	 */
+	private long periodMillis() {
+		return RandomUtil.toEpochMillis(ru.getSeedYear() + ru.getDataGenerationPeriodYears(), 1, 1, 0, 0, 0, 0) - periodStartMillis;
+	}
+	
+	/**
+	 * Moves a date of the data generation period to the date range following that of the existing dataset, when it is grown
+	 */
+	private long shiftDeltaDate(long dateMillis) {
+		return deltaDatesStartMillis + (long) ((dateMillis - periodStartMillis) * deltaDatesScale);
+	}
+	
+	/**
+	 * Builds a sample of random Creative Works with a fixed seed, the estimate is the same in all shards
+	 * @return average number of triples of a random Creative Work
+	 */
+	private double estimateTriplesPerCreativeWork(long seed) {
+		RandomUtil sampleRu = ru.randomUtilFactory(seed);
+		long triplesCount = 0;
+		for (int i = 0; i < TRIPLES_ESTIMATE_SAMPLE_SIZE; i++) {
+			synchronized (syncLock) {
+				triplesCount += new CreativeWorkBuilder(i + 1, sampleRu).buildSesameModel().size();
+			}
+		}
+		return Math.max(1.0, (double) triplesCount / TRIPLES_ESTIMATE_SAMPLE_SIZE);
 	}
 	
 	private synchronized ArrayList<Entity> buildCorrelationsList(int correlationsAmount) {
@@ -234,9 +672,9 @@ public class DataGenerator {
 	 * @param definitions - definitions properties
 	 */
 	private void adjustDataAllocations(long targetTriples, Definitions definitions, int dataGeneratorPeriodYears) {
-		long majorEvents = (int)(EXP_DECAY_MAJOR_EVENTS_QT * (targetedTriplesSize / 1000000)) > 0 ? (int)(EXP_DECAY_MAJOR_EVENTS_QT * (targetedTriplesSize / 1000000)) : 0;
-		long minorEvents = (int)(EXP_DECAY_MINOR_EVENTS_QT * (targetedTriplesSize / 1000000)) > 0 ? (int)(EXP_DECAY_MINOR_EVENTS_QT * (targetedTriplesSize / 1000000)) : 0;
-		long correlations = (int)(CORRELATIONS_QT * (targetedTriplesSize / 1000000)) > 0 ? (int)(CORRELATIONS_QT * (targetedTriplesSize / 1000000)) : 0;
+		long majorEvents = (int)(EXP_DECAY_MAJOR_EVENTS_QT * (targetedTriplesSize / eventsSizeUnit)) > 0 ? (int)(EXP_DECAY_MAJOR_EVENTS_QT * (targetedTriplesSize / eventsSizeUnit)) : 0;
+		long minorEvents = (int)(EXP_DECAY_MINOR_EVENTS_QT * (targetedTriplesSize / eventsSizeUnit)) > 0 ? (int)(EXP_DECAY_MINOR_EVENTS_QT * (targetedTriplesSize / eventsSizeUnit)) : 0;
+		long correlations = (int)(CORRELATIONS_QT * (targetedTriplesSize / eventsSizeUnit)) > 0 ? (int)(CORRELATIONS_QT * (targetedTriplesSize / eventsSizeUnit)) : 0;
 		
 		definitions.setLong(Definitions.MAJOR_EVENTS, majorEvents);
 		definitions.setLong(Definitions.MINOR_EVENTS, minorEvents);
@@ -1,8 +1,5 @@
 package eu.ldbc.semanticpublishing.generators.data;
 
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Date;
@@ -13,11 +10,9 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.openrdf.model.Model;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
-import org.openrdf.rio.Rio;
 
 import eu.ldbc.semanticpublishing.generators.data.sesamemodelbuilders.CreativeWorkBuilder;
 import eu.ldbc.semanticpublishing.refdataset.model.Entity;
-import eu.ldbc.semanticpublishing.util.CompressionUtil;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 import eu.ldbc.semanticpublishing.util.SesameUtils;
 
@@ -52,10 +47,10 @@ public class ExpDecayWorker extends RandomWorker {
 		int currentTriplesCount = 0;
 
 		long currentFilesCount = filesCount.incrementAndGet();
-		String fileName = String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);
+		String fileName = buildFileName(currentFilesCount, rdfFormat);
 				
 		//skip data generation if targetTriples size has already been reached 
-		if (triplesGeneratedSoFar.get() > targetTriples) {
+		if (targetTriplesReached()) {
 //			System.out.println(Thread.currentThread().getName() + " :: generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + " have reached the targeted triples size: " + String.format("%,d", targetTriples) + ". Generating is cancelled");
 			return;
 		}
@@ -64,7 +59,7 @@ public class ExpDecayWorker extends RandomWorker {
 		long iterationStep = 0;
 		
 		try {
-			os = new BufferedOutputStream(new FileOutputStream(fileName));
+			os = openOutputStream(fileName);
 
 			for (int i = 0; i < exponentialDecayIerations.size(); i++) {
 				creativeWorksForCurrentIteration = exponentialDecayIerations.get(i);
@@ -72,23 +67,18 @@ public class ExpDecayWorker extends RandomWorker {
 				for (int j = 0; j < creativeWorksForCurrentIteration; j++) {
 					if (currentTriplesCount >= triplesPerFile) {
 						flushClose(os);
-						if (compress) {
-							CompressionUtil.compressFile(fileName, true);
-						}
-						if (!silent && cwsInFileCount > 0) {
-							System.out.println(Thread.currentThread().getName() + " " + this.getClass().getSimpleName() + " :: Saving " + (compress ? "compressed " : "") + "file #" + currentFilesCount + " with " + String.format("%,d", cwsInFileCount) + " Creative Works. Generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + ". Target: " + String.format("%,d", targetTriples) + " triples");
-						}
+						printSavedFile(currentFilesCount, cwsInFileCount);
 							
 						cwsInFileCount = 0;
 						currentTriplesCount = 0;				
 
 						currentFilesCount = filesCount.incrementAndGet();
-						fileName = String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);						
+						fileName = buildFileName(currentFilesCount, rdfFormat);						
 						
-						os = new BufferedOutputStream(new FileOutputStream(fileName));
+						os = openOutputStream(fileName);
 					}
 					
-					if (triplesGeneratedSoFar.get() > targetTriples) {
+					if (targetTriplesReached()) {
 						return;
 					}
 					
@@ -102,7 +92,7 @@ public class ExpDecayWorker extends RandomWorker {
 						sesameModel = creativeWorkBuilder.buildSesameModel();												
 					}
 					
-					Rio.write(sesameModel, os, rdfFormat);
+					writeModel(sesameModel, os, rdfFormat);
 										
 					cwsInFileCount++;
 					currentTriplesCount += sesameModel.size();					
@@ -116,12 +106,7 @@ public class ExpDecayWorker extends RandomWorker {
 			//reached the end of iteration, close file stream in finally section
 		} finally {
 			flushClose(os);
-			if (compress) {
-				CompressionUtil.compressFile(fileName, true);
-			}
-			if (!silent && cwsInFileCount > 0) {
-				System.out.println(Thread.currentThread().getName() + " " + this.getClass().getSimpleName() + " :: Saving " + (compress ? "compressed " : "") + "file #" + currentFilesCount + " with " + String.format("%,d", cwsInFileCount) + " Creative Works. Generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + ". Target: " + String.format("%,d", targetTriples) + " triples");
-			}
+			printSavedFile(currentFilesCount, cwsInFileCount);
 		}
 	}
 }
\ No newline at end of file
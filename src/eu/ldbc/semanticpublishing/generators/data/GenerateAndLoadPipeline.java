@@ -0,0 +1,212 @@
+package eu.ldbc.semanticpublishing.generators.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openrdf.rio.RDFFormat;
+
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager;
+import eu.ldbc.semanticpublishing.util.CompressionUtil;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
+
+/**
+ * Connects data generation and loading of Creative Works. Generator workers serialize the content of each file into a batch
+ * in memory, batches are passed through a bounded queue to concurrent load streams posting them to the endpoint. Workers wait
+ * while the queue is full, so that memory taken by the pipeline is limited and generation does not run ahead of loading.
+ * Files can optionally be written as well, e.g. for loading them again later.
+ */
+public class GenerateAndLoadPipeline {
+	private static final Batch END_OF_DATA = new Batch(null, 0);
+
+	private final SparqlQueryExecuteManager queryExecuteManager;
+	private final String contentType;
+	private final int loadStreamsCount;
+	private final boolean saveFiles;
+	private final BlockingQueue<Batch> queue;
+	private final List<Thread> loadStreams = new ArrayList<Thread>();
+	private volatile IOException loadException = null;
+
+	private final AtomicLong generatedTriples = new AtomicLong(0);
+	private final AtomicLong generatedBytes = new AtomicLong(0);
+	private final AtomicLong loadedTriples = new AtomicLong(0);
+	private final AtomicLong loadedBytes = new AtomicLong(0);
+	private final AtomicLong loadedBatches = new AtomicLong(0);
+	private long startTimeMs;
+	private long generationEndTimeMs = 0;
+
+	/**
+	 * @param rdfFormat - serialization format of generated data
+	 * @param loadStreamsCount - number of batches loaded at once
+	 * @param queueSize - number of generated batches waiting to be loaded
+	 * @param saveFiles - also write generated data to files
+	 */
+	public GenerateAndLoadPipeline(SparqlQueryExecuteManager queryExecuteManager, RDFFormat rdfFormat, int loadStreamsCount, int queueSize, boolean saveFiles) {
+		this.queryExecuteManager = queryExecuteManager;
+		this.contentType = (rdfFormat == RDFFormat.NQUADS) ? RdfUtils.CONTENT_TYPE_SESAME_NQUADS : rdfFormat.getDefaultMIMEType();
+		this.loadStreamsCount = Math.max(1, loadStreamsCount);
+		this.saveFiles = saveFiles;
+		this.queue = new ArrayBlockingQueue<Batch>(Math.max(1, queueSize));
+	}
+
+	public void start() {
+		startTimeMs = System.currentTimeMillis();
+		for (int i = 0; i < loadStreamsCount; i++) {
+			Thread loadStream = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					load();
+				}
+			}, "LoadStream-" + (i + 1));
+			loadStream.start();
+			loadStreams.add(loadStream);
+		}
+	}
+
+	/**
+	 * Opens a stream for the content of a generated file, which is passed to the load streams when the stream is closed
+	 * @param fileName - name of the generated file, written only if files are saved
+	 */
+	public OutputStream openBatch(String fileName, boolean compress) throws IOException {
+		checkLoadFailure();
+		return new BatchOutputStream(fileName, compress);
+	}
+
+	/**
+	 * Marks the end of generation, generated triples per second are computed until then
+	 */
+	public void generationFinished() {
+		generationEndTimeMs = System.currentTimeMillis();
+	}
+
+	/**
+	 * Waits until all generated batches have been loaded and reports throughput of both stages
+	 * @throws IOException - if loading of a batch has failed
+	 */
+	public void finish() throws IOException, InterruptedException {
+		for (int i = 0; i < loadStreams.size(); i++) {
+			queue.put(END_OF_DATA);
+		}
+		for (Thread loadStream : loadStreams) {
+			loadStream.join();
+		}
+
+		long endTimeMs = System.currentTimeMillis();
+		if (generationEndTimeMs == 0) {
+			generationEndTimeMs = endTimeMs;
+		}
+		double generationSeconds = Math.max(1, generationEndTimeMs - startTimeMs) / 1000.0;
+		double seconds = Math.max(1, endTimeMs - startTimeMs) / 1000.0;
+		System.out.println(String.format("\tgenerated %,d triples (%,d MB), %.0f triples per second", generatedTriples.get(), generatedBytes.get() / (1024 * 1024), generatedTriples.get() / generationSeconds));
+		System.out.println(String.format("\tloaded %,d triples (%,d MB) in %,d batches by %d load streams, %.0f triples per second, %.2f MB/s", loadedTriples.get(), loadedBytes.get() / (1024 * 1024), loadedBatches.get(), loadStreamsCount, loadedTriples.get() / seconds, loadedBytes.get() / (1024.0 * 1024.0) / seconds));
+
+		if (loadException != null) {
+			throw loadException;
+		}
+	}
+
+	/**
+	 * Stops the generation once loading has failed, as generated data would not be loaded anyway
+	 * @throws IOException - if loading of a batch has failed
+	 */
+	private void checkLoadFailure() throws IOException {
+		if (loadException != null) {
+			throw new IOException("Loading of generated data has failed, generation is stopped : " + loadException.getMessage(), loadException);
+		}
+	}
+
+	private void load() {
+		try {
+			while (true) {
+				Batch batch = queue.take();
+				if (batch == END_OF_DATA) {
+					break;
+				}
+				//after a failure batches are still taken from the queue, so that generator workers are not blocked
+				if (loadException != null) {
+					continue;
+				}
+				try {
+					queryExecuteManager.postStatements(contentType, new ByteArrayInputStream(batch.data));
+					loadedTriples.addAndGet(batch.triplesCount);
+					loadedBytes.addAndGet(batch.data.length);
+					loadedBatches.incrementAndGet();
+				} catch (IOException e) {
+					System.out.println(Thread.currentThread().getName() + " :: failed to load generated data : " + e.getMessage());
+					loadException = e;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class Batch {
+		private final byte[] data;
+		private final long triplesCount;
+
+		Batch(byte[] data, long triplesCount) {
+			this.data = data;
+			this.triplesCount = triplesCount;
+		}
+	}
+
+	/**
+	 * Collects serialized content of a generated file
+	 */
+	public class BatchOutputStream extends ByteArrayOutputStream {
+		private final String fileName;
+		private final boolean compress;
+		private long triplesCount = 0;
+		private boolean closed = false;
+
+		BatchOutputStream(String fileName, boolean compress) {
+			super(1024 * 1024);
+			this.fileName = fileName;
+			this.compress = compress;
+		}
+
+		/**
+		 * Counts triples written to the batch, for reporting throughput
+		 */
+		public void addTriples(long count) {
+			triplesCount += count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+
+			if (saveFiles) {
+				OutputStream os = compress ? CompressionUtil.createCompressedOutputStream(fileName + RdfUtils.GZIP_FILE_EXTENSION) : new FileOutputStream(fileName);
+				try {
+					writeTo(os);
+				} finally {
+					os.close();
+				}
+			}
+
+			generatedTriples.addAndGet(triplesCount);
+			generatedBytes.addAndGet(size());
+			checkLoadFailure();
+			if (size() > 0) {
+				try {
+					queue.put(new Batch(toByteArray(), triplesCount));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while passing generated data to load streams");
+				}
+			}
+		}
+	}
+}
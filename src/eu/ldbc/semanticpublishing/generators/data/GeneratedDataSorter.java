@@ -0,0 +1,419 @@
+package eu.ldbc.semanticpublishing.generators.data;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+
+import eu.ldbc.semanticpublishing.util.CompressionUtil;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
+
+/**
+ * Re-orders generated N-Quads files for bulk loaders : statements are split into partitions by hash of their graph (or subject)
+ * and each partition is written to a single file, sorted by graph (or subject). Statements of the same graph keep the order
+ * in which they were generated. Sorting uses bounded memory, sorted runs which do not fit into memory are spilled to temporary
+ * files and merged at the end, at most MERGE_FAN_IN runs at once, so that open files and read buffers do not grow with the size of the data.
+ * Input files are deleted when all partitions have been written.
+ */
+public class GeneratedDataSorter {
+	public static final String SORTED_FILENAME_FORMAT = "%s%ssortedCreativeWorks-p%04d.nq";
+	private static final String INPUT_FILENAME_PREFIX = "generatedCreativeWorks-";
+	private static final String NQUADS_FILE_EXTENSION = ".nq";
+	private static final String TEMP_FOLDER = ".sort-tmp";
+	private static final int BUFFER_SIZE = 128 * 1024;
+	//approximate heap taken by a statement held in memory, in addition to its characters
+	private static final int RECORD_OVERHEAD_BYTES = 80;
+	//maximum number of runs merged at once, more runs are first merged in groups into intermediate runs
+	private static final int MERGE_FAN_IN = 64;
+
+	public static enum SortKey {
+		GRAPH, SUBJECT;
+
+		public static SortKey parse(String value) {
+			if (value.equalsIgnoreCase("graph")) {
+				return GRAPH;
+			} else if (value.equalsIgnoreCase("subject")) {
+				return SUBJECT;
+			}
+			throw new IllegalArgumentException("unknown sort key : " + value + ", expected graph or subject");
+		}
+	}
+
+	private static final Comparator<Record> KEY_COMPARATOR = new Comparator<Record>() {
+		@Override
+		public int compare(Record r1, Record r2) {
+			return r1.key.compareTo(r2.key);
+		}
+	};
+
+	private final String dataPath;
+	private final SortKey sortKey;
+	private final int partitionsCount;
+	private final long memoryBytes;
+	private final boolean compress;
+
+	private final List<List<Record>> buffers;
+	private final List<List<File>> runs;
+	private long bufferedBytes = 0;
+	private long spillsCount = 0;
+	private int mergeFanIn = MERGE_FAN_IN;
+	private File tempFolder;
+
+	/**
+	 * @param dataPath - folder with generated files, sorted files are written to the same folder
+	 * @param partitionsCount - number of output files
+	 * @param memoryBytes - approximate memory used for sorting, before statements are spilled to temporary files
+	 * @param compress - write gzip compressed output files
+	 */
+	public GeneratedDataSorter(String dataPath, SortKey sortKey, int partitionsCount, long memoryBytes, boolean compress) {
+		this.dataPath = dataPath;
+		this.sortKey = sortKey;
+		this.partitionsCount = Math.max(1, partitionsCount);
+		this.memoryBytes = memoryBytes;
+		this.compress = compress;
+		this.buffers = new ArrayList<List<Record>>(this.partitionsCount);
+		this.runs = new ArrayList<List<File>>(this.partitionsCount);
+		for (int i = 0; i < this.partitionsCount; i++) {
+			buffers.add(new ArrayList<Record>());
+			runs.add(new ArrayList<File>());
+		}
+	}
+
+	/**
+	 * Sets the maximum number of runs merged at once, at least 2
+	 */
+	void setMergeFanIn(int mergeFanIn) {
+		this.mergeFanIn = Math.max(2, mergeFanIn);
+	}
+
+	/**
+	 * @return number of times statements held in memory have been spilled to run files
+	 */
+	long getSpillsCount() {
+		return spillsCount;
+	}
+
+	/**
+	 * Sorts and partitions all generated N-Quads files (also compressed) in the data folder
+	 * @return number of sorted statements
+	 */
+	public long sort() throws IOException {
+		long startTimeMs = System.currentTimeMillis();
+
+		List<File> inputFiles = new ArrayList<File>();
+		File[] files = new File(dataPath).listFiles();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				String name = file.getName();
+				if (name.startsWith(INPUT_FILENAME_PREFIX) && (name.endsWith(NQUADS_FILE_EXTENSION) || name.endsWith(NQUADS_FILE_EXTENSION + RdfUtils.GZIP_FILE_EXTENSION))) {
+					inputFiles.add(file);
+				}
+			}
+		}
+		if (inputFiles.isEmpty()) {
+			System.out.println("\tno generated N-Quads files found in " + dataPath + ", nothing to sort");
+			return 0;
+		}
+
+		tempFolder = new File(dataPath, TEMP_FOLDER);
+		if (!tempFolder.exists() && !tempFolder.mkdirs()) {
+			throw new IOException("Failed to create folder for temporary files : " + tempFolder.getPath());
+		}
+
+		long statementsCount = 0;
+		long inputBytes = 0;
+		try {
+			for (File inputFile : inputFiles) {
+				BufferedReader br = new BufferedReader(new InputStreamReader(openInputStream(inputFile), "UTF-8"), BUFFER_SIZE);
+				try {
+					String lastKey = null;
+					String line;
+					while ((line = br.readLine()) != null) {
+						if (line.isEmpty()) {
+							continue;
+						}
+						String key = extractKey(line, sortKey);
+						//consecutive statements mostly share their graph and subject, the same key object is kept for them
+						if (key.equals(lastKey)) {
+							key = lastKey;
+						} else {
+							bufferedBytes += key.length() * 2 + RECORD_OVERHEAD_BYTES;
+						}
+						lastKey = key;
+
+						buffers.get(partitionOf(key, partitionsCount)).add(new Record(key, line));
+						bufferedBytes += line.length() * 2 + RECORD_OVERHEAD_BYTES;
+						statementsCount++;
+
+						if (bufferedBytes >= memoryBytes) {
+							spill();
+							lastKey = null;
+						}
+					}
+				} finally {
+					br.close();
+				}
+				inputBytes += inputFile.length();
+			}
+
+			for (int i = 0; i < partitionsCount; i++) {
+				merge(i);
+			}
+		} finally {
+			//spilled and intermediate runs
+			File[] tempFiles = tempFolder.listFiles();
+			if (tempFiles != null) {
+				for (File tempFile : tempFiles) {
+					tempFile.delete();
+				}
+			}
+			tempFolder.delete();
+		}
+
+		for (File inputFile : inputFiles) {
+			if (!inputFile.delete()) {
+				System.out.println("\tfailed to delete sorted file " + inputFile.getName());
+			}
+		}
+
+		double seconds = Math.max(1, System.currentTimeMillis() - startTimeMs) / 1000.0;
+		System.out.println(String.format("\tsorted %,d statements from %d files (%,d MB) by %s into %d partitions in %.1f seconds, %,.0f statements per second, spilled to disk : %d times",
+										 statementsCount, inputFiles.size(), inputBytes / (1024 * 1024), sortKey.toString().toLowerCase(), partitionsCount, seconds, statementsCount / seconds, spillsCount));
+		return statementsCount;
+	}
+
+	/**
+	 * Sorts statements held in memory and writes them to a temporary run file of each partition
+	 */
+	private void spill() throws IOException {
+		for (int i = 0; i < partitionsCount; i++) {
+			List<Record> buffer = buffers.get(i);
+			if (buffer.isEmpty()) {
+				continue;
+			}
+			Collections.sort(buffer, KEY_COMPARATOR);
+
+			File run = new File(tempFolder, String.format("p%04d-run%06d.tmp", i, runs.get(i).size()));
+			Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(run), "UTF-8"), BUFFER_SIZE);
+			try {
+				for (Record record : buffer) {
+					writer.write(record.line);
+					writer.write('\n');
+				}
+			} finally {
+				writer.close();
+			}
+			runs.get(i).add(run);
+			buffers.set(i, new ArrayList<Record>());
+		}
+		bufferedBytes = 0;
+		spillsCount++;
+	}
+
+	/**
+	 * Merges run files of a partition and its statements held in memory into the sorted output file of the partition.
+	 * If there are more runs than can be merged at once, groups of consecutive runs are first merged into intermediate runs,
+	 * as many times as needed. Statements with equal keys are taken from earlier runs first, to keep the order in which they were generated
+	 */
+	private void merge(int partition) throws IOException {
+		List<Record> buffer = buffers.get(partition);
+		Collections.sort(buffer, KEY_COMPARATOR);
+
+		List<File> partitionRuns = runs.get(partition);
+		//statements held in memory are merged as the last run
+		for (int pass = 0; partitionRuns.size() + 1 > mergeFanIn; pass++) {
+			List<File> mergedRuns = new ArrayList<File>();
+			for (int first = 0; first < partitionRuns.size(); first += mergeFanIn) {
+				List<File> group = partitionRuns.subList(first, Math.min(first + mergeFanIn, partitionRuns.size()));
+				if (group.size() == 1) {
+					mergedRuns.add(group.get(0));
+					continue;
+				}
+				File mergedRun = new File(tempFolder, String.format("p%04d-pass%02d-run%06d.tmp", partition, pass, mergedRuns.size()));
+				mergeRuns(group, null, new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mergedRun), "UTF-8"), BUFFER_SIZE));
+				for (File run : group) {
+					run.delete();
+				}
+				mergedRuns.add(mergedRun);
+			}
+			partitionRuns = mergedRuns;
+			runs.set(partition, mergedRuns);
+		}
+
+		String fileName = String.format(SORTED_FILENAME_FORMAT, dataPath, File.separator, partition + 1);
+		OutputStream os = compress ? CompressionUtil.createCompressedOutputStream(fileName + RdfUtils.GZIP_FILE_EXTENSION) : new BufferedOutputStream(new FileOutputStream(fileName), BUFFER_SIZE);
+		mergeRuns(partitionRuns, buffer, new BufferedWriter(new OutputStreamWriter(os, "UTF-8"), BUFFER_SIZE));
+		buffers.set(partition, new ArrayList<Record>());
+	}
+
+	/**
+	 * Merges sorted run files, followed by sorted statements held in memory if any, into the writer, which is closed
+	 */
+	private void mergeRuns(List<File> runFiles, List<Record> buffer, Writer writer) throws IOException {
+		List<RunReader> readers = new ArrayList<RunReader>();
+		PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(runFiles.size() + 1, new Comparator<RunReader>() {
+			@Override
+			public int compare(RunReader r1, RunReader r2) {
+				int result = r1.current.key.compareTo(r2.current.key);
+				return (result != 0) ? result : (r1.index - r2.index);
+			}
+		});
+
+		try {
+			for (File run : runFiles) {
+				readers.add(new RunReader(readers.size(), new BufferedReader(new InputStreamReader(new FileInputStream(run), "UTF-8"), BUFFER_SIZE), null));
+			}
+			if (buffer != null) {
+				readers.add(new RunReader(readers.size(), null, buffer));
+			}
+
+			for (RunReader reader : readers) {
+				if (reader.next()) {
+					queue.add(reader);
+				}
+			}
+
+			while (!queue.isEmpty()) {
+				RunReader reader = queue.poll();
+				writer.write(reader.current.line);
+				writer.write('\n');
+				if (reader.next()) {
+					queue.add(reader);
+				}
+			}
+		} finally {
+			writer.close();
+			for (RunReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+
+	private static InputStream openInputStream(File file) throws IOException {
+		InputStream is = new FileInputStream(file);
+		if (file.getName().endsWith(RdfUtils.GZIP_FILE_EXTENSION)) {
+			is = new GZIPInputStream(is, BUFFER_SIZE);
+		}
+		return is;
+	}
+
+	public static int partitionOf(String key, int partitionsCount) {
+		return (key.hashCode() & Integer.MAX_VALUE) % partitionsCount;
+	}
+
+	/**
+	 * @return graph or subject of a statement in N-Quads format, statements without a graph are keyed by an empty string when sorted by graph
+	 */
+	public static String extractKey(String line, SortKey sortKey) {
+		int subjectEnd = termEnd(line, 0);
+		if (sortKey == SortKey.SUBJECT) {
+			return line.substring(0, subjectEnd);
+		}
+
+		int predicateEnd = termEnd(line, skipSpaces(line, subjectEnd));
+		int objectEnd = termEnd(line, skipSpaces(line, predicateEnd));
+		int graphStart = skipSpaces(line, objectEnd);
+		if (graphStart >= line.length() || line.charAt(graphStart) == '.') {
+			return "";
+		}
+		return line.substring(graphStart, termEnd(line, graphStart));
+	}
+
+	private static int skipSpaces(String line, int index) {
+		while (index < line.length() && (line.charAt(index) == ' ' || line.charAt(index) == '\t')) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * @return index following the term starting at given index : a URI, a blank node or a literal with optional language tag or datatype
+	 */
+	private static int termEnd(String line, int index) {
+		if (index < line.length() && line.charAt(index) == '"') {
+			index++;
+			while (index < line.length() && line.charAt(index) != '"') {
+				index += (line.charAt(index) == '\\') ? 2 : 1;
+			}
+			index++;
+			if (index < line.length() && line.charAt(index) == '^') {
+				//datatype URI follows ^^
+				return termEnd(line, index + 2);
+			}
+		}
+		while (index < line.length() && line.charAt(index) != ' ' && line.charAt(index) != '\t') {
+			index++;
+		}
+		return index;
+	}
+
+	private static class Record {
+		private final String key;
+		private final String line;
+
+		Record(String key, String line) {
+			this.key = key;
+			this.line = line;
+		}
+	}
+
+	/**
+	 * Reads sorted statements of a run file, or of the statements held in memory
+	 */
+	private class RunReader {
+		private final int index;
+		private final BufferedReader reader;
+		private final List<Record> records;
+		private int position = 0;
+		private Record current;
+
+		RunReader(int index, BufferedReader reader, List<Record> records) {
+			this.index = index;
+			this.reader = reader;
+			this.records = records;
+		}
+
+		boolean next() throws IOException {
+			if (records != null) {
+				current = (position < records.size()) ? records.get(position++) : null;
+			} else {
+				String line = reader.readLine();
+				current = (line != null) ? new Record(extractKey(line, sortKey), line) : null;
+			}
+			return current != null;
+		}
+
+		void close() {
+			if (reader != null) {
+				try {reader.close();} catch (IOException e) {};
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage : GeneratedDataSorter <folder with generated N-Quads files> <graph|subject> [partitions, default 1] [memory MB, default 256] [compress true|false, default false]");
+			return;
+		}
+		int partitions = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		long memoryMB = args.length > 3 ? Long.parseLong(args[3]) : 256;
+		boolean compress = args.length > 4 && Boolean.parseBoolean(args[4]);
+		new GeneratedDataSorter(args[0], SortKey.parse(args[1]), partitions, memoryMB * 1024 * 1024, compress).sort();
+	}
+}
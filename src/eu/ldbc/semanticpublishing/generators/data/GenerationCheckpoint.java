@@ -0,0 +1,194 @@
+package eu.ldbc.semanticpublishing.generators.data;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checkpoint of a data generation, which allows an interrupted generation to be resumed. Generation is planned in tasks (as in sharded generation),
+ * each with its own random seed and range of Creative Work IDs, so the checkpoint records the plan of each task and the tasks which have been completed,
+ * with the number of their files and triples. A completed task is appended to the checkpoint file as soon as all its files are closed.
+ *
+ * A resumed generation plans the same tasks again, verifies them against the checkpoint, removes files of tasks which were not completed and
+ * executes those tasks only, so that the generated data is the same as of a generation which has not been interrupted.
+ */
+public class GenerationCheckpoint {
+	public static final String CHECKPOINT_FILE_NAME = "generatedCreativeWorks.checkpoint";
+
+	private static final String TASK = "task";
+	private static final String COMPLETED = "completed";
+	private static final Pattern TASK_FILE_NAME_PATTERN = Pattern.compile("generatedCreativeWorks-(\\d+)-\\d+\\..+");
+
+	private final File checkpointFile;
+	private final boolean resume;
+	//plan of each task and completed tasks, as read from the checkpoint file of the interrupted generation
+	private final Map<Long, String> plannedTasks = new LinkedHashMap<Long, String>();
+	private final Map<Long, long[]> completedTasks = new HashMap<Long, long[]>();
+	private FileOutputStream fos;
+
+	/**
+	 * @param destinationPath - folder of generated files
+	 * @param resume - if true, the generation is resumed from an existing checkpoint, otherwise a new checkpoint is started
+	 */
+	public GenerationCheckpoint(String destinationPath, boolean resume) throws IOException {
+		this.checkpointFile = new File(destinationPath, CHECKPOINT_FILE_NAME);
+		this.resume = resume && checkpointFile.exists();
+
+		if (resume && !checkpointFile.exists()) {
+			System.out.println("\tNo checkpoint of data generation found in " + destinationPath + ", starting a new generation");
+		}
+
+		if (this.resume) {
+			read();
+		}
+
+		//the file is rewritten with what has been read, a line left incomplete by the interrupted generation is dropped,
+		//the new file replaces the checkpoint once it has been written
+		File newCheckpointFile = new File(destinationPath, CHECKPOINT_FILE_NAME + ".new");
+		fos = new FileOutputStream(newCheckpointFile, false);
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<Long, String> entry : plannedTasks.entrySet()) {
+			sb.append(entry.getValue()).append("\n");
+		}
+		for (Map.Entry<Long, long[]> entry : completedTasks.entrySet()) {
+			sb.append(completedLine(entry.getKey(), entry.getValue()[0], entry.getValue()[1])).append("\n");
+		}
+		append(sb.toString(), true);
+		fos.close();
+
+		if (checkpointFile.exists() && !checkpointFile.delete()) {
+			throw new IOException("Failed to replace checkpoint file " + checkpointFile.getPath());
+		}
+		if (!newCheckpointFile.renameTo(checkpointFile)) {
+			throw new IOException("Failed to rename " + newCheckpointFile.getPath() + " to " + checkpointFile.getPath());
+		}
+		fos = new FileOutputStream(checkpointFile, true);
+	}
+
+	private void read() throws IOException {
+		BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(checkpointFile), "UTF-8"));
+		try {
+			String line;
+			while ((line = br.readLine()) != null) {
+				String[] tokens = line.split("\t");
+				try {
+					if (tokens.length == 6 && tokens[0].equals(TASK)) {
+						plannedTasks.put(Long.parseLong(tokens[1]), line);
+					} else if (tokens.length == 4 && tokens[0].equals(COMPLETED)) {
+						completedTasks.put(Long.parseLong(tokens[1]), new long[] { Long.parseLong(tokens[2]), Long.parseLong(tokens[3]) });
+					}
+				} catch (NumberFormatException nfe) {
+					//an incomplete line written while the generation was interrupted
+				}
+			}
+		} finally {
+			br.close();
+		}
+		completedTasks.keySet().retainAll(plannedTasks.keySet());
+	}
+
+	public boolean isResumed() {
+		return resume;
+	}
+
+	/**
+	 * Records the plan of a task, or verifies it against the plan recorded by the interrupted generation
+	 * @param taskIndex - index of the task
+	 * @param workerType - type of the worker generating the task
+	 * @param firstCwId - ID of the first Creative Work of the task
+	 * @param creativeWorksCount - number of Creative Works of the task
+	 * @param seed - seed of the random generator of the task
+	 * @return true if the task has been completed by the interrupted generation and can be skipped
+	 */
+	public synchronized boolean planTask(long taskIndex, String workerType, long firstCwId, long creativeWorksCount, long seed) throws IOException {
+		String line = TASK + "\t" + taskIndex + "\t" + workerType + "\t" + firstCwId + "\t" + creativeWorksCount + "\t" + seed;
+		String plannedLine = plannedTasks.get(taskIndex);
+		if (plannedLine == null) {
+			plannedTasks.put(taskIndex, line);
+			//plan is synchronized with the storage device together with the next completed task
+			append(line + "\n", false);
+			return false;
+		}
+		if (!plannedLine.equals(line)) {
+			throw new IllegalStateException("Generation task #" + taskIndex + " differs from the checkpoint in " + checkpointFile.getPath() + ", expected : " + plannedLine.replace('\t', ' ') + ", planned : " + line.replace('\t', ' ') + ". Configuration or definitions may have changed since the generation was interrupted");
+		}
+		return completedTasks.containsKey(taskIndex);
+	}
+
+	/**
+	 * Records a completed task, the checkpoint file is synchronized with the storage device
+	 */
+	public synchronized void taskCompleted(long taskIndex, long filesCount, long triplesCount) throws IOException {
+		completedTasks.put(taskIndex, new long[] { filesCount, triplesCount });
+		append(completedLine(taskIndex, filesCount, triplesCount) + "\n", true);
+	}
+
+	public synchronized long getCompletedFiles() {
+		long files = 0;
+		for (long[] completed : completedTasks.values()) {
+			files += completed[0];
+		}
+		return files;
+	}
+
+	public synchronized long getCompletedTriples() {
+		long triples = 0;
+		for (long[] completed : completedTasks.values()) {
+			triples += completed[1];
+		}
+		return triples;
+	}
+
+	public synchronized int getCompletedTasksCount() {
+		return completedTasks.size();
+	}
+
+	/**
+	 * Deletes files of tasks which have not been completed by the interrupted generation, they are generated again
+	 * @return number of deleted files
+	 */
+	public synchronized int removeIncompleteTaskFiles() throws IOException {
+		int count = 0;
+		File[] files = checkpointFile.getParentFile().listFiles();
+		if (files == null) {
+			return count;
+		}
+		for (File file : files) {
+			Matcher matcher = TASK_FILE_NAME_PATTERN.matcher(file.getName());
+			if (matcher.matches() && !completedTasks.containsKey(Long.parseLong(matcher.group(1)))) {
+				if (!file.delete()) {
+					throw new IOException("Failed to delete incomplete file " + file.getPath());
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public synchronized void close() throws IOException {
+		if (fos != null) {
+			fos.close();
+			fos = null;
+		}
+	}
+
+	private static String completedLine(long taskIndex, long filesCount, long triplesCount) {
+		return COMPLETED + "\t" + taskIndex + "\t" + filesCount + "\t" + triplesCount;
+	}
+
+	private void append(String lines, boolean sync) throws IOException {
+		fos.write(lines.getBytes("UTF-8"));
+		fos.flush();
+		if (sync) {
+			fos.getFD().sync();
+		}
+	}
+}
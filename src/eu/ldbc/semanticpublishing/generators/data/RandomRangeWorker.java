@@ -0,0 +1,79 @@
+package eu.ldbc.semanticpublishing.generators.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openrdf.model.Model;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+
+import eu.ldbc.semanticpublishing.generators.data.sesamemodelbuilders.CreativeWorkBuilder;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+import eu.ldbc.semanticpublishing.util.SesameUtils;
+
+/**
+ * A worker generating a fixed range of Creative Works with randomly distributed tags, used in sharded generation instead of
+ * the RandomWorker, so that random data of each task does not depend on other tasks or on the order in which tasks are executed.
+ */
+public class RandomRangeWorker extends RandomWorker {
+	private long firstCwId;
+	private long creativeWorksCount;
+
+	public RandomRangeWorker(long firstCwId, long creativeWorksCount, RandomUtil ru, Object lock, AtomicLong filesCount, long totalTriples, long triplesPerFile,
+							 AtomicLong triplesGeneratedSoFar, String destinationPath, String serializationFormat, boolean compress, boolean silent) {
+		super(ru, lock, filesCount, totalTriples, triplesPerFile, triplesGeneratedSoFar, destinationPath, serializationFormat, compress, silent);
+		this.firstCwId = firstCwId;
+		this.creativeWorksCount = creativeWorksCount;
+	}
+
+	@Override
+	public void execute() throws Exception {
+		OutputStream os = null;
+		RDFFormat rdfFormat = SesameUtils.parseRdfFormat(serializationFormat);
+
+		int cwsInFileCount = 0;
+		int currentTriplesCount = 0;
+
+		long currentFilesCount = filesCount.incrementAndGet();
+		String fileName = buildFileName(currentFilesCount, rdfFormat);
+
+		try {
+			os = openOutputStream(fileName);
+
+			for (long i = 0; i < creativeWorksCount; i++) {
+				if (currentTriplesCount >= triplesPerFile) {
+					flushClose(os);
+					printSavedFile(currentFilesCount, cwsInFileCount);
+
+					cwsInFileCount = 0;
+					currentTriplesCount = 0;
+
+					currentFilesCount = filesCount.incrementAndGet();
+					fileName = buildFileName(currentFilesCount, rdfFormat);
+
+					os = openOutputStream(fileName);
+				}
+
+				Model sesameModel;
+
+				synchronized (lock) {
+					CreativeWorkBuilder creativeWorkBuilder = new CreativeWorkBuilder(firstCwId + i, ru);
+					sesameModel = creativeWorkBuilder.buildSesameModel();
+				}
+
+				writeModel(sesameModel, os, rdfFormat);
+
+				cwsInFileCount++;
+				currentTriplesCount += sesameModel.size();
+
+				triplesGeneratedSoFar.addAndGet(sesameModel.size());
+			}
+		} catch (RDFHandlerException e) {
+			throw new IOException("A problem occurred while generating RDF data: " + e.getMessage());
+		} finally {
+			flushClose(os);
+			printSavedFile(currentFilesCount, cwsInFileCount);
+		}
+	}
+}
@@ -8,13 +8,16 @@ import java.io.OutputStream;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFWriter;
 import org.openrdf.rio.Rio;
 
 import eu.ldbc.semanticpublishing.generators.data.sesamemodelbuilders.CreativeWorkBuilder;
 import eu.ldbc.semanticpublishing.util.CompressionUtil;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
 import eu.ldbc.semanticpublishing.util.SesameUtils;
 
 /**
@@ -34,6 +37,17 @@ public class RandomWorker extends AbstractAsynchronousWorker {
 	protected Object lock;
 	protected boolean compress;
 	protected boolean silent;
+	//index of the task in sharded generation, -1 if generation is not sharded
+	protected long taskIndex = -1;
+	private int taskFilesCount = 0;
+	private long taskTriplesCount = 0;
+	//if set, a completed task is recorded in the checkpoint of the generation
+	protected GenerationCheckpoint checkpoint = null;
+	//if set, generated data is passed to the pipeline loading it
+	protected GenerateAndLoadPipeline pipeline = null;
+	//writer of the currently open file, all Creative Works of a file are written as a single RDF document
+	private RDFWriter rdfWriter = null;
+	private OutputStream rdfWriterStream = null;
 	
 	public RandomWorker(RandomUtil ru, Object lock, AtomicLong filesCount, long totalTriples, long triplesPerFile, AtomicLong triplesGeneratedSoFar, String destinationPath, String serializationFormat, boolean compress, boolean silent) {
 		this.ru = ru;
@@ -54,7 +68,7 @@ public class RandomWorker extends AbstractAsynchronousWorker {
 		RDFFormat rdfFormat = SesameUtils.parseRdfFormat(serializationFormat);
 
 		long currentFilesCount = filesCount.incrementAndGet();
-		String fileName = String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);
+		String fileName = buildFileName(currentFilesCount, rdfFormat);
 		
 		int cwsInFileCount = 0;
 		int currentTriplesCount = 0;
@@ -72,7 +86,7 @@ public class RandomWorker extends AbstractAsynchronousWorker {
 			}
 			
 			try {
-				os = new BufferedOutputStream(new FileOutputStream(fileName));
+				os = openOutputStream(fileName);
 				
 				Model sesameModel;
 
@@ -91,7 +105,7 @@ public class RandomWorker extends AbstractAsynchronousWorker {
 						sesameModel = creativeWorkBuilder.buildSesameModel();
 					}
 					
-					Rio.write(sesameModel, os, rdfFormat);
+					writeModel(sesameModel, os, rdfFormat);
 					
 					cwsInFileCount++;
 					currentTriplesCount += sesameModel.size();											
@@ -99,29 +113,108 @@ public class RandomWorker extends AbstractAsynchronousWorker {
 				}
 				
 				flushClose(os);
-				if (compress) {
-					CompressionUtil.compressFile(fileName, true);
-				}
-				if (!silent && cwsInFileCount > 0) {
-					System.out.println(Thread.currentThread().getName() + " " + this.getClass().getSimpleName() + " :: Saving " + (compress ? "compressed " : "") + "file #" + currentFilesCount + " with " + String.format("%,d", cwsInFileCount) + " Creative Works. Generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + ". Target: " + String.format("%,d", targetTriples) + " triples");
-				}
+				printSavedFile(currentFilesCount, cwsInFileCount);
 
 				cwsInFileCount = 0;
 				currentTriplesCount = 0;
 
 				currentFilesCount = filesCount.incrementAndGet();
-				fileName = String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);
+				fileName = buildFileName(currentFilesCount, rdfFormat);
 			} catch (RDFHandlerException e) {
 				flushClose(os);
-				if (compress) {
-					CompressionUtil.compressFile(fileName, true);
-				}
 				throw new IOException("A problem occurred while generating RDF data: " + e.getMessage());
 			}
 		}
 	}
 	
+	/**
+	 * Sets the index of the generation task performed by the worker, in sharded generation. Files are then named after the task instead of
+	 * the order in which workers have written them, and the worker produces all data of the task regardless of the targeted triples size,
+	 * which is accounted for when the tasks are planned.
+	 */
+	public void setTaskIndex(long taskIndex) {
+		this.taskIndex = taskIndex;
+	}
+	
+	public void setPipeline(GenerateAndLoadPipeline pipeline) {
+		this.pipeline = pipeline;
+	}
+	
+	public void setCheckpoint(GenerationCheckpoint checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+	
+	@Override
+	protected void completed() throws Exception {
+		if (checkpoint != null && taskIndex >= 0) {
+			checkpoint.taskCompleted(taskIndex, taskFilesCount, taskTriplesCount);
+		}
+	}
+	
+	protected String buildFileName(long currentFilesCount, RDFFormat rdfFormat) {
+		if (taskIndex >= 0) {
+			return String.format(TASK_FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, taskIndex, ++taskFilesCount);
+		}
+		return String.format(FILENAME_FORMAT + rdfFormat.getDefaultFileExtension(), destinationPath, File.separator, currentFilesCount);
+	}
+	
+	/**
+	 * Reports a saved file, unless silent or the file is empty
+	 */
+	protected void printSavedFile(long fileNumber, int cwsInFileCount) {
+		if (!silent && cwsInFileCount > 0) {
+			System.out.println(Thread.currentThread().getName() + " " + this.getClass().getSimpleName() + " :: Saving " + (compress ? "compressed " : "") + "file #" + fileNumber + " with " + String.format("%,d", cwsInFileCount) + " Creative Works. Generated triples so far: " + String.format("%,d", triplesGeneratedSoFar.get()) + ". Target: " + String.format("%,d", targetTriples) + " triples");
+		}
+	}
+	
+	protected boolean targetTriplesReached() {
+		return taskIndex < 0 && triplesGeneratedSoFar.get() > targetTriples;
+	}
+	
+	/**
+	 * Opens a stream for a generated file, data is compressed while being written if compression is enabled, or passed to the pipeline if set
+	 */
+	protected OutputStream openOutputStream(String fileName) throws IOException {
+		if (pipeline != null) {
+			return pipeline.openBatch(fileName, compress);
+		}
+		if (compress) {
+			return CompressionUtil.createCompressedOutputStream(fileName + RdfUtils.GZIP_FILE_EXTENSION);
+		}
+		return new BufferedOutputStream(new FileOutputStream(fileName));
+	}
+	
+	/**
+	 * Writes a Creative Work to the file open in given stream. The writer is kept open until the file is closed by flushClose(), 
+	 * as formats such as BinaryRDF or TriX do not allow several documents to be concatenated in a file
+	 */
+	protected void writeModel(Model sesameModel, OutputStream os, RDFFormat rdfFormat) throws RDFHandlerException {
+		if (rdfWriterStream != os) {
+			rdfWriter = Rio.createWriter(rdfFormat, os);
+			rdfWriterStream = os;
+			rdfWriter.startRDF();
+		}
+		for (Statement statement : sesameModel) {
+			rdfWriter.handleStatement(statement);
+		}
+		taskTriplesCount += sesameModel.size();
+		if (os instanceof GenerateAndLoadPipeline.BatchOutputStream) {
+			((GenerateAndLoadPipeline.BatchOutputStream) os).addTriples(sesameModel.size());
+		}
+	}
+	
 	protected synchronized void flushClose(OutputStream fos) throws IOException {
+		if (fos != null && fos == rdfWriterStream) {
+			RDFWriter writer = rdfWriter;
+			rdfWriter = null;
+			rdfWriterStream = null;
+			try {
+				writer.endRDF();
+			} catch (RDFHandlerException e) {
+				fos.close();
+				throw new IOException("A problem occurred while generating RDF data: " + e.getMessage());
+			}
+		}
 		if (fos != null) {
 			fos.flush();
 			fos.close();
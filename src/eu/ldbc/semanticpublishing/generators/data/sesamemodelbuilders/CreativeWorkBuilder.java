@@ -1,21 +1,22 @@
 package eu.ldbc.semanticpublishing.generators.data.sesamemodelbuilders;
 
-import java.util.Calendar;
 import java.util.Date;
 
 import org.openrdf.model.Model;
 import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.vocabulary.XMLSchema;
 
 import eu.ldbc.semanticpublishing.properties.Definitions;
 import eu.ldbc.semanticpublishing.refdataset.DataManager;
 import eu.ldbc.semanticpublishing.refdataset.model.Entity;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
+import eu.ldbc.semanticpublishing.util.sesame.UriCache;
 
 public class CreativeWorkBuilder implements SesameBuilder {
 
-	private Date presetDate;
+	private long presetDateMillis;
 	private CWType cwType = CWType.BLOG_POST;
 	private String cwTypeString = "cwork:BlogPost";
 	private String contextURI = "";
@@ -34,6 +35,37 @@ public class CreativeWorkBuilder implements SesameBuilder {
 	private static final String cworkNamespace = "http://www.bbc.co.uk/ontologies/creativework/";
 	private static final String bbcNamespace = "http://www.bbc.co.uk/ontologies/bbc/";
 	
+	//URIs of the ontology, shared by all generated Creative Works
+	private static final URI RDF_TYPE = sesameValueFactory.createURI(rdfTypeNamespace);
+	private static final URI TITLE = sesameValueFactory.createURI(cworkNamespace + "title");
+	private static final URI SHORT_TITLE = sesameValueFactory.createURI(cworkNamespace + "shortTitle");
+	private static final URI CATEGORY = sesameValueFactory.createURI(cworkNamespace + "category");
+	private static final URI DESCRIPTION = sesameValueFactory.createURI(cworkNamespace + "description");
+	private static final URI ABOUT = sesameValueFactory.createURI(cworkNamespace + "about");
+	private static final URI MENTIONS = sesameValueFactory.createURI(cworkNamespace + "mentions");
+	private static final URI AUDIENCE = sesameValueFactory.createURI(cworkNamespace + "audience");
+	private static final URI LIVE_COVERAGE = sesameValueFactory.createURI(cworkNamespace + "liveCoverage");
+	private static final URI PRIMARY_FORMAT = sesameValueFactory.createURI(cworkNamespace + "primaryFormat");
+	private static final URI DATE_CREATED = sesameValueFactory.createURI(cworkNamespace + "dateCreated");
+	private static final URI DATE_MODIFIED = sesameValueFactory.createURI(cworkNamespace + "dateModified");
+	private static final URI THUMBNAIL = sesameValueFactory.createURI(cworkNamespace + "thumbnail");
+	private static final URI ALT_TEXT = sesameValueFactory.createURI(cworkNamespace + "altText");
+	private static final URI PRIMARY_CONTENT_OF = sesameValueFactory.createURI(bbcNamespace + "primaryContentOf");
+	private static final URI WEB_DOCUMENT_TYPE = sesameValueFactory.createURI(bbcNamespace + "webDocumentType");
+	private static final URI BLOG_POST_TYPE = sesameValueFactory.createURI(cworkNamespace + "BlogPost");
+	private static final URI NEWS_ITEM_TYPE = sesameValueFactory.createURI(cworkNamespace + "NewsItem");
+	private static final URI PROGRAMME_TYPE = sesameValueFactory.createURI(cworkNamespace + "Programme");
+	private static final URI INTERNATIONAL_AUDIENCE = sesameValueFactory.createURI(cworkNamespace + "InternationalAudience");
+	private static final URI NATIONAL_AUDIENCE = sesameValueFactory.createURI(cworkNamespace + "NationalAudience");
+	private static final URI TEXTUAL_FORMAT = sesameValueFactory.createURI(cworkNamespace + "TextualFormat");
+	private static final URI INTERACTIVE_FORMAT = sesameValueFactory.createURI(cworkNamespace + "InteractiveFormat");
+	private static final URI VIDEO_FORMAT = sesameValueFactory.createURI(cworkNamespace + "VideoFormat");
+	private static final URI AUDIO_FORMAT = sesameValueFactory.createURI(cworkNamespace + "AudioFormat");
+	private static final URI HIGH_WEB = sesameValueFactory.createURI(bbcNamespace + "HighWeb");
+	private static final URI MOBILE = sesameValueFactory.createURI(bbcNamespace + "Mobile");
+	private static final Value LITERAL_TRUE = sesameValueFactory.createLiteral(true);
+	private static final Value LITERAL_FALSE = sesameValueFactory.createLiteral(false);
+	
 	private static enum CWType {
 		BLOG_POST, NEWS_ITEM, PROGRAMME
 	}
@@ -107,16 +139,11 @@ public class CreativeWorkBuilder implements SesameBuilder {
 	}
 	
 	public void setDateIncrement(Date startDate, int daySteps) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(startDate);
-		calendar.add(Calendar.DATE, daySteps);
-		calendar.add(Calendar.HOUR, ru.nextInt(23 + 1));
-		calendar.add(Calendar.MINUTE, ru.nextInt(59 + 1));
-		calendar.add(Calendar.SECOND, ru.nextInt(59 + 1));
-		//milliseconds are fixed, some strange problem when re-running the generator - produces different values
-		calendar.set(Calendar.MILLISECOND, ru.nextInt(999 + 1));
-		
-		this.presetDate = calendar.getTime();
+		long millis = startDate.getTime() + daySteps * RandomUtil.MILLIS_PER_DAY;
+		millis += ru.nextInt(23 + 1) * RandomUtil.MILLIS_PER_HOUR;
+		millis += ru.nextInt(59 + 1) * RandomUtil.MILLIS_PER_MINUTE;
+		millis += ru.nextInt(59 + 1) * RandomUtil.MILLIS_PER_SECOND;
+		this.presetDateMillis = RandomUtil.setMillisecond(millis, ru.nextInt(999 + 1));
 	}
 	
 	public void setUsePresetData(boolean usePresetData) {
@@ -151,33 +178,41 @@ public class CreativeWorkBuilder implements SesameBuilder {
 		
 		//Set Creative Work Type
 		URI subject = sesameValueFactory.createURI(adaptedContextUri.replace("/context/", "/things/"));
-		URI predicate = sesameValueFactory.createURI(rdfTypeNamespace);
-		String s = cwTypeString;
-		s = s.replace("cwork:", cworkNamespace);
-		Value object = sesameValueFactory.createURI(s);
+		URI predicate = RDF_TYPE;
+		Value object;
+		switch (cwType) {
+			case NEWS_ITEM :
+				object = NEWS_ITEM_TYPE;
+				break;
+			case PROGRAMME :
+				object = PROGRAMME_TYPE;
+				break;
+			default :
+				object = BLOG_POST_TYPE;
+		}
 		
 		model.add(subject, predicate, object, context);
 		
 		//Set Title
-		predicate = sesameValueFactory.createURI(cworkNamespace + "title");
+		predicate = TITLE;
 		object = sesameValueFactory.createLiteral(ru.sentenceFromDictionaryWords(this.cwEntity.getLabel(), 10, false, true, 1, false));		
 		
 		model.add(subject, predicate, object, context);
 
 		//Set Short Title
-		predicate = sesameValueFactory.createURI(cworkNamespace + "shortTitle");
+		predicate = SHORT_TITLE;
 		object = sesameValueFactory.createLiteral(ru.sentenceFromDictionaryWords("", 10, false, true, 1, false));		
 		
 		model.add(subject, predicate, object, context);
 
 		//Set Category
-		predicate = sesameValueFactory.createURI(cworkNamespace + "category");
+		predicate = CATEGORY;
 		object = sesameValueFactory.createURI(ru.stringURI("category", cwEntity.getCategory(), false, false));
 
 		model.add(subject, predicate, object, context);
 		
 		//Set Description
-		predicate = sesameValueFactory.createURI(cworkNamespace + "description");
+		predicate = DESCRIPTION;
 		object = sesameValueFactory.createLiteral(ru.sentenceFromDictionaryWords("", ru.nextInt(8, 26 + 1), false, true, 1, false));
 		
 		model.add(subject, predicate, object, context);
@@ -192,7 +227,7 @@ public class CreativeWorkBuilder implements SesameBuilder {
 		//Set About(s)
 		//using aboutsCount + 1, because Definitions.aboutsAllocations.getAllocation() returning 0 is still a valid allocation
 		for (int i = 0; i < aboutsCount + 1; i++) {
-			predicate = sesameValueFactory.createURI(cworkNamespace + "about");
+			predicate = ABOUT;
 			
 			if (!initialAboutUriUsed) {
 				initialAboutUriUsed = true;
@@ -200,15 +235,15 @@ public class CreativeWorkBuilder implements SesameBuilder {
 				initialUri = DataManager.regularEntitiesList.get(ru.nextInt(DataManager.regularEntitiesList.size())).getURI();
 			}
 			
-			object = sesameValueFactory.createURI(initialUri.replace("<", "").replace(">", ""));
+			object = UriCache.get(initialUri);
 			
 			model.add(subject, predicate, object, context);
 		}
 		
 		//Add optional About URI - in case of modeling correlations - disregard the about distributions
 		if (usePresetData && !optionalAboutPresetUri.isEmpty()) {
-			predicate = sesameValueFactory.createURI(cworkNamespace + "about");
-			object = sesameValueFactory.createURI(optionalAboutPresetUri.replace("<", "").replace(">", ""));
+			predicate = ABOUT;
+			object = UriCache.get(optionalAboutPresetUri);
 			model.add(subject, predicate, object, context);			
 		}
 		
@@ -216,7 +251,7 @@ public class CreativeWorkBuilder implements SesameBuilder {
 		//using mentionsCount + 1, because Definitions.mentionsAllocations.getAllocation() returning 0 is still a valid allocation
 		boolean geonamesLocationUsedLocal = false;			
 		for (int i = 0; i < mentionsCount + 1; i++) {
-			predicate = sesameValueFactory.createURI(cworkNamespace + "mentions");
+			predicate = MENTIONS;
 			
 			if (!initialAboutUriUsed) {
 				initialAboutUriUsed = true;
@@ -229,49 +264,49 @@ public class CreativeWorkBuilder implements SesameBuilder {
 				}
 			}
 			
-			object = sesameValueFactory.createURI(initialUri.replace("<", "").replace(">", ""));			
+			object = UriCache.get(initialUri);			
 			
 			model.add(subject, predicate, object, context);
 		}
 
 		//Add Mentions URI - in case of modeling correlations - disregard the mentions distributions
 		if (usePresetData && !mentionsPresetUri.isEmpty()) {
-			predicate = sesameValueFactory.createURI(cworkNamespace + "mentions");
-			object = sesameValueFactory.createURI(mentionsPresetUri.replace("<", "").replace(">", ""));
+			predicate = MENTIONS;
+			object = UriCache.get(mentionsPresetUri);
 			model.add(subject, predicate, object, context);			
 		}		
 
 		//Add optional Mentions URI - in case of modeling correlations - disregard the mentions distributions
 		if (usePresetData && !optionalMentionsPresetUri.isEmpty()) {
-			predicate = sesameValueFactory.createURI(cworkNamespace + "mentions");
-			object = sesameValueFactory.createURI(optionalMentionsPresetUri.replace("<", "").replace(">", ""));
+			predicate = MENTIONS;
+			object = UriCache.get(optionalMentionsPresetUri);
 			model.add(subject, predicate, object, context);			
 		}		
 
 		switch (cwType) {
 		case BLOG_POST :
 			//Set Audience
-			predicate = sesameValueFactory.createURI(cworkNamespace + "audience");
-			object = sesameValueFactory.createURI(cworkNamespace + "InternationalAudience");
+			predicate = AUDIENCE;
+			object = INTERNATIONAL_AUDIENCE;
 			
 			model.add(subject, predicate, object, context);
 			
 			//Set LiveCoverage
-			predicate = sesameValueFactory.createURI(cworkNamespace + "liveCoverage");
-			object = sesameValueFactory.createLiteral(false);
+			predicate = LIVE_COVERAGE;
+			object = LITERAL_FALSE;
 			
 			model.add(subject, predicate, object, context);
 			
 			//Set PrimaryFormat
-			predicate = sesameValueFactory.createURI(cworkNamespace + "primaryFormat");
-			object = sesameValueFactory.createURI(cworkNamespace + "TextualFormat");
+			predicate = PRIMARY_FORMAT;
+			object = TEXTUAL_FORMAT;
 			
 			model.add(subject, predicate, object, context);
 			
 			if (ru.nextBoolean()) {
 				//Set additional primary format randomly
-				predicate = sesameValueFactory.createURI(cworkNamespace + "primaryFormat");
-				object = sesameValueFactory.createURI(cworkNamespace + "InteractiveFormat");
+				predicate = PRIMARY_FORMAT;
+				object = INTERACTIVE_FORMAT;
 				
 				model.add(subject, predicate, object, context);
 			}
@@ -279,49 +314,49 @@ public class CreativeWorkBuilder implements SesameBuilder {
 			break;
 		case NEWS_ITEM :
 			//Set Audience
-			predicate = sesameValueFactory.createURI(cworkNamespace + "audience");
-			object = sesameValueFactory.createURI(cworkNamespace + "NationalAudience");
+			predicate = AUDIENCE;
+			object = NATIONAL_AUDIENCE;
 			
 			model.add(subject, predicate, object, context);
 			
 			//Set LiveCoverage
-			predicate = sesameValueFactory.createURI(cworkNamespace + "liveCoverage");
-			object = sesameValueFactory.createLiteral(false);
+			predicate = LIVE_COVERAGE;
+			object = LITERAL_FALSE;
 			
 			model.add(subject, predicate, object, context);			
 			
 			//Set PrimaryFormat
-			predicate = sesameValueFactory.createURI(cworkNamespace + "primaryFormat");
-			object = sesameValueFactory.createURI(cworkNamespace + "TextualFormat");
+			predicate = PRIMARY_FORMAT;
+			object = TEXTUAL_FORMAT;
 			
 			model.add(subject, predicate, object, context);			
 			
 			//Set additional primary format
-			predicate = sesameValueFactory.createURI(cworkNamespace + "primaryFormat");
-			object = sesameValueFactory.createURI(cworkNamespace + "InteractiveFormat");
+			predicate = PRIMARY_FORMAT;
+			object = INTERACTIVE_FORMAT;
 			
 			model.add(subject, predicate, object, context);
 			
 			break;
 		case PROGRAMME : 
 			//Set Audience
-			predicate = sesameValueFactory.createURI(cworkNamespace + "audience");
-			object = sesameValueFactory.createURI(cworkNamespace + "InternationalAudience");
+			predicate = AUDIENCE;
+			object = INTERNATIONAL_AUDIENCE;
 			
 			model.add(subject, predicate, object, context);
 			
 			//Set LiveCoverage
-			predicate = sesameValueFactory.createURI(cworkNamespace + "liveCoverage");
-			object = sesameValueFactory.createLiteral(true);
+			predicate = LIVE_COVERAGE;
+			object = LITERAL_TRUE;
 			
 			model.add(subject, predicate, object, context);			
 			
 			//Set PrimaryFormat
-			predicate = sesameValueFactory.createURI(cworkNamespace + "primaryFormat");
+			predicate = PRIMARY_FORMAT;
 			if (ru.nextBoolean()) {
-				object = sesameValueFactory.createURI(cworkNamespace + "VideoFormat");
+				object = VIDEO_FORMAT;
 			} else {
-				object = sesameValueFactory.createURI(cworkNamespace + "AudioFormat");
+				object = AUDIO_FORMAT;
 			}
 			
 			model.add(subject, predicate, object, context);			
@@ -329,60 +364,36 @@ public class CreativeWorkBuilder implements SesameBuilder {
 			break;
 		}
 		
-		//Creation and Modification date
-		Calendar calendar = Calendar.getInstance();
+		//Creation and Modification date, computed in milliseconds since the epoch (UTC) and formatted without creating Calendar objects
+		long creationDateMillis = usePresetData ? presetDateMillis : ru.randomDateTimeMillis();
 		
-		if (usePresetData) {
-			//Set Creation Date
-			predicate = sesameValueFactory.createURI(cworkNamespace + "dateCreated");
-			object = sesameValueFactory.createLiteral(presetDate);
-			model.add(subject, predicate, object, context);
-			
-			//Set Modification Date
-			calendar.setTime(presetDate);
-			calendar.add(Calendar.MONTH, 1 * ru.nextInt(12 + 1));
-			calendar.add(Calendar.DATE, 1 * ru.nextInt(31 + 1));
-			calendar.add(Calendar.HOUR, 1 * ru.nextInt(23 + 1));
-			calendar.add(Calendar.MINUTE, 1 * ru.nextInt(59 + 1));
-			calendar.add(Calendar.SECOND, 1 * ru.nextInt(59 + 1));
-			//milliseconds are fixed, some strange problem when re-running the generator - produces different values
-			calendar.set(Calendar.MILLISECOND, ru.nextInt(999 + 1));
-			
-			predicate = sesameValueFactory.createURI(cworkNamespace + "dateModified");
-			object = sesameValueFactory.createLiteral(calendar.getTime());
-		} else {
-			Date creationDate = ru.randomDateTime();
-			
-			//Set Creation Date
-			predicate = sesameValueFactory.createURI(cworkNamespace + "dateCreated");
-			object = sesameValueFactory.createLiteral(creationDate);
-			
-			model.add(subject, predicate, object, context);
-			
-			//Set Modification Date
-			calendar.setTime(creationDate);
-			calendar.add(Calendar.MONTH, 1 * ru.nextInt(12 + 1));
-			calendar.add(Calendar.DATE, 1 * ru.nextInt(31 + 1));
-			calendar.add(Calendar.HOUR, 1 * ru.nextInt(23 + 1));
-			calendar.add(Calendar.MINUTE, 1 * ru.nextInt(59 + 1));
-			calendar.add(Calendar.SECOND, 1 * ru.nextInt(59 + 1));
-			//milliseconds are fixed, some strange problem when re-running the generator - produces different values
-			calendar.set(Calendar.MILLISECOND, ru.nextInt(999 + 1));
-			
-			predicate = sesameValueFactory.createURI(cworkNamespace + "dateModified");
-			object = sesameValueFactory.createLiteral(calendar.getTime());
-		}
+		//Set Creation Date
+		predicate = DATE_CREATED;
+		object = sesameValueFactory.createLiteral(RandomUtil.xsdDateTime(creationDateMillis), XMLSchema.DATETIME);
+		
+		model.add(subject, predicate, object, context);
+		
+		//Set Modification Date
+		long modificationDateMillis = RandomUtil.addMonths(creationDateMillis, ru.nextInt(12 + 1));
+		modificationDateMillis += ru.nextInt(31 + 1) * RandomUtil.MILLIS_PER_DAY;
+		modificationDateMillis += ru.nextInt(23 + 1) * RandomUtil.MILLIS_PER_HOUR;
+		modificationDateMillis += ru.nextInt(59 + 1) * RandomUtil.MILLIS_PER_MINUTE;
+		modificationDateMillis += ru.nextInt(59 + 1) * RandomUtil.MILLIS_PER_SECOND;
+		modificationDateMillis = RandomUtil.setMillisecond(modificationDateMillis, ru.nextInt(999 + 1));
+		
+		predicate = DATE_MODIFIED;
+		object = sesameValueFactory.createLiteral(RandomUtil.xsdDateTime(modificationDateMillis), XMLSchema.DATETIME);
 		
 		model.add(subject, predicate, object, context);
 		
 		//Set Thumbnail
-		predicate = sesameValueFactory.createURI(cworkNamespace + "thumbnail");
+		predicate = THUMBNAIL;
 		object = sesameValueFactory.createURI(ru.randomURI("thumbnail", false, false));
 		
 		model.add(subject, predicate, object, context);
 		
 		//Set cwork:altText to thumbnail
-		predicate = sesameValueFactory.createURI(cworkNamespace + "altText");
+		predicate = ALT_TEXT;
 		object = sesameValueFactory.createLiteral("thumbnail atlText for CW " + adaptedContextUri);
 		
 		model.add(subject, predicate, object, context);
@@ -390,18 +401,18 @@ public class CreativeWorkBuilder implements SesameBuilder {
 		//Set PrimaryContentOf
 		int random = ru.nextInt(1, 4 + 1);
 		for (int i = 0; i < random; i++) {
-			predicate = sesameValueFactory.createURI(bbcNamespace + "primaryContentOf");
+			predicate = PRIMARY_CONTENT_OF;
 			String primaryContentUri = ru.randomURI("things", false, true);
-			object = sesameValueFactory.createURI(primaryContentUri);
+			URI subjectPrimaryContent = sesameValueFactory.createURI(primaryContentUri);
+			object = subjectPrimaryContent;
 			
 			model.add(subject, predicate, object, context);
 			
-			URI subjectPrimaryContent = sesameValueFactory.createURI(primaryContentUri);
-			predicate = sesameValueFactory.createURI(bbcNamespace + "webDocumentType");
+			predicate = WEB_DOCUMENT_TYPE;
 			if (ru.nextBoolean()) {
-				object = sesameValueFactory.createURI(bbcNamespace + "HighWeb");
+				object = HIGH_WEB;
 			} else {
-				object = sesameValueFactory.createURI(bbcNamespace + "Mobile");
+				object = MOBILE;
 			}
 			
 			model.add(subjectPrimaryContent, predicate, object, context);
@@ -39,6 +39,10 @@ public class Configuration {
 	public static final String GENERATE_CREATIVE_WORKS_FORMAT = "generateCreativeWorksFormat";
 	public static final String CREATIVE_WORKS_PATH = "creativeWorksPath";
 	public static final String LOAD_CREATIVE_WORKS = "loadCreativeWorks";
+	public static final String GENERATE_AND_LOAD_CREATIVE_WORKS = "generateAndLoadCreativeWorks";
+	public static final String PIPELINE_LOAD_STREAMS = "pipelineLoadStreams";
+	public static final String PIPELINE_QUEUE_SIZE = "pipelineQueueSize";
+	public static final String PIPELINE_SAVE_FILES = "pipelineSaveFiles";
 	public static final String WARM_UP = "warmUp";
 	public static final String RUN_BENCHMARK = "runBenchmark";
 	public static final String CLEAR_DATABASE = "clearDatabase";
@@ -47,11 +51,16 @@ public class Configuration {
 	public static final String DEFINITIONS_PATH = "definitionsPath";
 	public static final String GENERATOR_RANDOM_SEED = "generatorRandomSeed";
 	public static final String CREATIVE_WORK_NEXT_ID = "creativeWorkNextId";
+	public static final String DATA_GENERATOR_SHARD = "dataGeneratorShard";
+	public static final String CHECKPOINT_DATA_GENERATION = "checkpointDataGeneration";
+	public static final String RESUME_DATA_GENERATION = "resumeDataGeneration";
+	public static final String GROW_DATASET = "growDataset";
 	public static final String USE_RANDOM_DATA_GENERATORS = "useRandomDataGenerators";
 	public static final String ALLOW_SIZE_ADJUSTMENTS_ON_DATA_MODELS = "allowSizeAdjustmentsOnDataModels";
 	public static final String CREATIVE_WORKS_INFO = "creativeWorksInfo";
 	public static final String GENERATE_QUERY_SUBSTITUTION_PARAMETERS = "generateQuerySubstitutionParameters";
 	public static final String QUERY_SUBSTITUTION_PARAMETERS = "querySubstitutionParameters";
+	public static final String SUBSTITUTION_PARAMETERS_GENERATOR_WORKERS = "substitutionParametersGeneratorWorkers";
 	public static final String VALIDATE_QUERY_RESULTS = "validateQueryResults";
 	public static final String VALIDATION_PATH = "validationPath";
 	public static final String VALIDATION_ITERATIONS = "validationIterations";
@@ -66,7 +75,27 @@ public class Configuration {
 	public static final String ENABLE_EDITORIAL_OPS_VALIDATION = "enableEditorialOpeartionsValidation";
 	public static final String EDITORIAL_OPS_VALIDATION_INTEVAL = "editorialOpsValidationInterval";
 	public static final String ENABLE_COMPRESSION_ON_GENERATED_DATA = "enableCompressionOnGeneratedData";
+	public static final String GENERATED_DATA_COMPRESSION_THREADS = "generatedDataCompressionThreads";
+	public static final String SORT_GENERATED_DATA = "sortGeneratedData";
+	public static final String SORT_PARTITIONS = "sortPartitions";
+	public static final String SORT_MEMORY_MB = "sortMemoryMB";
 	public static final String INTERRUPT_SIGNAL_LOCATION = "interruptSignalLocation";
+	public static final String DRIVER_CPU_WARNING_THRESHOLD_PERCENT = "driverCpuWarningThresholdPercent";
+	public static final String DRIVER_GC_WARNING_THRESHOLD_PERCENT = "driverGcWarningThresholdPercent";
+	public static final String MOCK_ENDPOINT_PORT = "mockEndpointPort";
+	public static final String MOCK_ENDPOINT_RESPONSES_PATH = "mockEndpointResponsesPath";
+	public static final String MOCK_ENDPOINT_QUERY_LATENCY = "mockEndpointQueryLatency";
+	public static final String MOCK_ENDPOINT_UPDATE_LATENCY = "mockEndpointUpdateLatency";
+	public static final String EMBEDDED_STORE = "embeddedStore";
+	public static final String EMBEDDED_STORE_DATA_DIR = "embeddedStoreDataDir";
+	public static final String ACCEPT_COMPRESSED_RESULTS = "acceptCompressedResults";
+	public static final String COMPRESS_UPDATES_AND_LOADS = "compressUpdatesAndLoads";
+	public static final String SELECT_RESULT_FORMAT = "selectResultFormat";
+	public static final String GRAPH_RESULT_FORMAT = "graphResultFormat";
+	public static final String FACETED_SEARCH_SESSION_CONCURRENCY = "facetedSearchSessionConcurrency";
+	public static final String QUERY_MIXES = "queryMixes";
+	public static final String WORKLOAD_SCHEDULE = "workloadSchedule";
+	public static final String SUBSTITUTION_PARAMETERS_DISTRIBUTION = "substitutionParametersDistribution";
 	
 	/**
 	 * Initialise and set default values for parameters that make sense.
@@ -92,6 +121,10 @@ public class Configuration {
 		properties.setProperty(REFERENCE_DATASETS_PATH, "./data/datasets");
 		properties.setProperty(GENERATE_CREATIVE_WORKS, "true");
 		properties.setProperty(CREATIVE_WORKS_PATH, "");
+		properties.setProperty(GENERATE_AND_LOAD_CREATIVE_WORKS, "false");
+		properties.setProperty(PIPELINE_LOAD_STREAMS, "4");
+		properties.setProperty(PIPELINE_QUEUE_SIZE, "16");
+		properties.setProperty(PIPELINE_SAVE_FILES, "false");
 		properties.setProperty(WARM_UP, "true");
 		properties.setProperty(RUN_BENCHMARK, "true");
 		properties.setProperty(CLEAR_DATABASE, "false");
@@ -100,11 +133,16 @@ public class Configuration {
 		properties.setProperty(DEFINITIONS_PATH, "./definitions.properties");
 		properties.setProperty(GENERATOR_RANDOM_SEED, "0");
 		properties.setProperty(CREATIVE_WORK_NEXT_ID, "0");
+		properties.setProperty(DATA_GENERATOR_SHARD, "");
+		properties.setProperty(CHECKPOINT_DATA_GENERATION, "false");
+		properties.setProperty(RESUME_DATA_GENERATION, "false");
+		properties.setProperty(GROW_DATASET, "false");
 		properties.setProperty(USE_RANDOM_DATA_GENERATORS, "true");
 		properties.setProperty(ALLOW_SIZE_ADJUSTMENTS_ON_DATA_MODELS, "true");
 		properties.setProperty(CREATIVE_WORKS_INFO, "");
 		properties.setProperty(GENERATE_QUERY_SUBSTITUTION_PARAMETERS, "true");
 		properties.setProperty(QUERY_SUBSTITUTION_PARAMETERS, "1000");
+		properties.setProperty(SUBSTITUTION_PARAMETERS_GENERATOR_WORKERS, "0");
 		properties.setProperty(VALIDATE_QUERY_RESULTS, "false");
 		properties.setProperty(VALIDATION_PATH, "./data/validation");
 		properties.setProperty(VALIDATION_ITERATIONS, "1");
@@ -117,9 +155,29 @@ public class Configuration {
 		properties.setProperty(ENABLE_EDITORIAL_OPS_VALIDATION, "true");
 		properties.setProperty(EDITORIAL_OPS_VALIDATION_INTEVAL, "100");
 		properties.setProperty(ENABLE_COMPRESSION_ON_GENERATED_DATA, "false");
+		properties.setProperty(GENERATED_DATA_COMPRESSION_THREADS, "0");
+		properties.setProperty(SORT_GENERATED_DATA, "none");
+		properties.setProperty(SORT_PARTITIONS, "1");
+		properties.setProperty(SORT_MEMORY_MB, "256");
 		properties.setProperty(MAX_UPDATE_RATE_THRESHOLD_OPS, "0.0");
 		properties.setProperty(INTERRUPT_SIGNAL_LOCATION, "");
 		properties.setProperty(BENCHMARK_BY_QUERY_MIX_RUNS, "0");
+		properties.setProperty(DRIVER_CPU_WARNING_THRESHOLD_PERCENT, "80.0");
+		properties.setProperty(DRIVER_GC_WARNING_THRESHOLD_PERCENT, "10.0");
+		properties.setProperty(MOCK_ENDPOINT_PORT, "-1");
+		properties.setProperty(MOCK_ENDPOINT_RESPONSES_PATH, "");
+		properties.setProperty(MOCK_ENDPOINT_QUERY_LATENCY, "fixed:0");
+		properties.setProperty(MOCK_ENDPOINT_UPDATE_LATENCY, "fixed:0");
+		properties.setProperty(EMBEDDED_STORE, "");
+		properties.setProperty(EMBEDDED_STORE_DATA_DIR, "");
+		properties.setProperty(ACCEPT_COMPRESSED_RESULTS, "false");
+		properties.setProperty(COMPRESS_UPDATES_AND_LOADS, "false");
+		properties.setProperty(SELECT_RESULT_FORMAT, "xml");
+		properties.setProperty(GRAPH_RESULT_FORMAT, "rdfxml");
+		properties.setProperty(FACETED_SEARCH_SESSION_CONCURRENCY, "0");
+		properties.setProperty(QUERY_MIXES, "");
+		properties.setProperty(WORKLOAD_SCHEDULE, "");
+		properties.setProperty(SUBSTITUTION_PARAMETERS_DISTRIBUTION, "roundrobin");
 	}
 	
 	/**
@@ -167,6 +225,16 @@ public class Configuration {
 		return value;
 	}
 
+	/**
+	 * Read an optional configuration parameter's value as a string
+	 * @param key
+	 * @param defaultValue - returned if the parameter is missing
+	 * @return
+	 */
+	public String getString(String key, String defaultValue) {
+		return properties.getProperty(key, defaultValue);
+	}
+	
 	/**
 	 * Read a configuration parameter's value as a boolean
 	 * @param key
@@ -232,6 +300,15 @@ public class Configuration {
 		}
 	}	
 	
+	/**
+	 * Override a configuration parameter's value
+	 * @param key
+	 * @param value
+	 */
+	public void setString(String key, String value) {
+		properties.setProperty(key, value);
+	}
+	
 	private final Properties properties = new Properties();
 	
 	public static void main(String[] args) throws IOException  {
@@ -38,6 +38,8 @@ public class Definitions {
 	public static final String GEO_MAX_LONG = "maxLong";
 	public static final String MILESTONE_QUERY_POSITION = "mileStoneQueryPosition";
 	public static final String QUERY_POOLS = "queryPools";
+	public static final String AGGREGATION_QUERY_TEMPLATES = "aggregationQueryTemplates";
+	public static final String AGGREGATION_QUERY_TEMPLATES_PACKAGE = "aggregationQueryTemplatesPackage";
 	
 	//About tags in Creative Works
 	public static AllocationsUtil aboutsAllocations;
@@ -57,8 +59,8 @@ public class Definitions {
 	//Determines the aggregation type, aggregate on about or on mentions property
 	public static AllocationsUtil aboutAndMentionsAllocation;
 	
-	//Determines the editorial operations distribution, e.g. insert - 80%, update - 10%, delete - 10%
-	public static AllocationsUtil editorialOperationsAllocation;	
+	//Determines the editorial operations distribution, e.g. insert - 80%, update - 10%, delete - 10%, can be replaced during the run by a workload schedule
+	public static volatile AllocationsUtil editorialOperationsAllocation;	
 	
 	//Determines the aggregation operations distribution, e.g. query1 - 80%, query2 - 20%
 	public static AllocationsUtil aggregationOperationsAllocation;
@@ -97,6 +99,16 @@ public class Definitions {
 		}
 		return value;
 	}
+
+	/**
+	 * Read an optional definition parameter's value as a string
+	 * @param key
+	 * @param defaultValue - returned if the parameter is missing
+	 * @return
+	 */
+	public String getString(String key, String defaultValue) {
+		return definitionsProperties.getProperty(key, defaultValue);
+	}
 	
 	/**
 	 * Read a configuration parameter's value as an int
@@ -181,12 +193,7 @@ public class Definitions {
 	 */
 	private void initializeAllocation(String allocationPorpertyName, Random random) {
 		String allocations = getString(allocationPorpertyName);
-		String[] allocationsAsStrings = allocations.split(",");
-		double[] allocationsAsDoubles = new double[allocationsAsStrings.length];
-		
-		for (int i = 0; i < allocationsAsDoubles.length; i++) {
-			allocationsAsDoubles[i] = Double.parseDouble(allocationsAsStrings[i]);
-		}
+		double[] allocationsAsDoubles = parseAllocations(allocations);
 		
 		if (allocationPorpertyName.equals(ABOUTS_ALLOCATIONS)) {
 			aboutsAllocations = new AllocationsUtil(allocationsAsDoubles, random);
@@ -210,4 +217,17 @@ public class Definitions {
 //			System.out.println(String.format("\t%-33s : {%s}", allocationPorpertyName, allocations));
 //		}
 	}
+	
+	/**
+	 * @param allocations - comma separated allocation values, e.g. 0.8,0.2
+	 */
+	public static double[] parseAllocations(String allocations) {
+		String[] allocationsAsStrings = allocations.split(",");
+		double[] allocationsAsDoubles = new double[allocationsAsStrings.length];
+		
+		for (int i = 0; i < allocationsAsDoubles.length; i++) {
+			allocationsAsDoubles[i] = Double.parseDouble(allocationsAsStrings[i]);
+		}
+		return allocationsAsDoubles;
+	}
 }
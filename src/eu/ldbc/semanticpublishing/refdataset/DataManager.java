@@ -47,23 +47,33 @@ public class DataManager {
 	//stores the ID of a Creative Work which is has the greatest value, used for further CRUD operations
 	public static AtomicLong creativeWorksNextId = new AtomicLong(0);
 	
+	//next ID of a Creative Work and targeted size of the dataset, as read from the dataset info file, zero if not found
+	public static long datasetInfoCreativeWorkNextId = 0;
+	public static long datasetInfoSizeTriples = 0;
+	//end of the date range of a grown dataset in milliseconds since the epoch, as read from the dataset info file, zero if not found
+	public static long datasetInfoDateRangeEnd = 0;
+	
 	//Dataset info constants for persisting
 	private static final String CREATIVE_WORK_NEXT_ID_TEXT = "[CreativeWorkNextId]";
+	private static final String DATASET_SIZE_TRIPLES_TEXT = "[DatasetSizeTriples]";
+	private static final String DATASET_DATE_RANGE_END_TEXT = "[DatasetDateRangeEnd]";
 	private static final String EXP_DECAY_ENTITIES_MAJOR_TEXT = "[ExponentialDecayEntitiesMajor]";
 	private static final String EXP_DECAY_ENTITIES_MINOR_TEXT = "[ExponentialDecayEntitiesMinor]";
 	private static final String CORRELATED_ENTITIES_TEXT = "[CorrelatedEntities]";
 	
-	private enum actionsEnum {NONE, CREATIVE_WORK_NEXT_ID, EXP_DECAY_MAJOR_ENTITIES, EXP_DECAY_MINOR_ENTITIES, CORRELATED_ENTITIES};
+	private enum actionsEnum {NONE, CREATIVE_WORK_NEXT_ID, DATASET_SIZE_TRIPLES, DATASET_DATE_RANGE_END, EXP_DECAY_MAJOR_ENTITIES, EXP_DECAY_MINOR_ENTITIES, CORRELATED_ENTITIES};
 	
 	/**
 	 * The method will serialize entity URIs into a file which will help with identifying the important entities during the benchmark phase.
 	 * Location of the file will be in creativeWorksPath and will be part of the generated data
 	 * FileName will be stored in the property file :   
+	 * @param datasetSizeTriples - targeted size of the generated dataset, used when the dataset is grown
 	 * @param correlatedEntitiesList
 	 * @param exponentialDecayingMajorEntitiesList
 	 * @param exponentialDecayingMinorEntitiesList
+	 * @param datasetDateRangeEnd - end of the date range of a grown dataset in milliseconds since the epoch, not serialized if zero
 	 */
-	public static void persistDatasetInfo(String destinationFullPath, List<Entity> correlatedEntitiesList, List<Entity> exponentialDecayingMajorEntitiesList, List<Entity> exponentialDecayingMinorEntitiesList) throws IOException {
+	public static void persistDatasetInfo(String destinationFullPath, long datasetSizeTriples, List<Entity> correlatedEntitiesList, List<Entity> exponentialDecayingMajorEntitiesList, List<Entity> exponentialDecayingMinorEntitiesList, long datasetDateRangeEnd) throws IOException {
 		Writer writer = null;
 		
 		//do not serialize if no file name is specified
@@ -75,6 +85,17 @@ public class DataManager {
 			writer.write(String.format("%d\n", DataManager.creativeWorksNextId.get()));
 			writer.write("\n");
 			
+			//serialize targeted size of the dataset
+			writer.write(String.format("%s\n", DATASET_SIZE_TRIPLES_TEXT));
+			writer.write(String.format("%d\n", datasetSizeTriples));
+			writer.write("\n");
+			
+			if (datasetDateRangeEnd > 0) {
+				writer.write(String.format("%s\n", DATASET_DATE_RANGE_END_TEXT));
+				writer.write(String.format("%d\n", datasetDateRangeEnd));
+				writer.write("\n");
+			}
+			
 			if (exponentialDecayingMajorEntitiesList != null) {
 				writer.write(String.format("%s\n", EXP_DECAY_ENTITIES_MAJOR_TEXT));
 				
@@ -130,6 +151,13 @@ public class DataManager {
 					case CREATIVE_WORK_NEXT_ID :
 						//skip for now
 //						DataManager.creativeWorksNexId.set(Long.parseLong(line));
+						DataManager.datasetInfoCreativeWorkNextId = Long.parseLong(line.trim());
+						break;
+					case DATASET_SIZE_TRIPLES :
+						DataManager.datasetInfoSizeTriples = Long.parseLong(line.trim());
+						break;
+					case DATASET_DATE_RANGE_END :
+						DataManager.datasetInfoDateRangeEnd = Long.parseLong(line.trim());
 						break;
 					case EXP_DECAY_MAJOR_ENTITIES:
 						DataManager.exponentialDecayEntitiesMajorList.add(line);
@@ -150,6 +178,16 @@ public class DataManager {
 					canRead = true;
 				}
 
+				if (line.contains(DATASET_SIZE_TRIPLES_TEXT)) {
+					action = actionsEnum.DATASET_SIZE_TRIPLES;
+					canRead = true;
+				}
+
+				if (line.contains(DATASET_DATE_RANGE_END_TEXT)) {
+					action = actionsEnum.DATASET_DATE_RANGE_END;
+					canRead = true;
+				}
+
 				if (line.contains("[ExponentialDecayEntitiesMajor]")) {
 					action = actionsEnum.EXP_DECAY_MAJOR_ENTITIES;
 					canRead = true;
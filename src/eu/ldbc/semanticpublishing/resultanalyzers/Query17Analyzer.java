@@ -1,22 +1,38 @@
 package eu.ldbc.semanticpublishing.resultanalyzers;
 
-import java.io.ByteArrayInputStream;
-import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.refdataset.model.Entity;
-import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXQuery17TemplateTransformer;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
 
 /**
- * A class used to extract cwork uris, geonamesids, lat and long properties from a query17.txt result.
+ * A class used to pick a random cwork uri, with its geonamesid, lat and long properties, from a query17.txt result.
  */
-public class Query17Analyzer {
-	public ArrayList<Entity> collectEntitiesList(String result) throws UnsupportedEncodingException {
-		if (result.trim().isEmpty()) {		
+public class Query17Analyzer extends SolutionSamplingAnalyzer {
+	public Query17Analyzer(ResultFormat resultFormat, RandomUtil ru) {
+		super(resultFormat, ru);
+	}
+	
+	/**
+	 * @return a random entity from the result, null if the result has no solutions
+	 */
+	public Entity sampleEntity(InputStream result) throws IOException {
+		Map<String, String> solution = sampleSolution(result);
+		if (solution == null) {
 			return null;
-		}		
-		SAXQuery17TemplateTransformer transformer = new SAXQuery17TemplateTransformer();
-		transformer.transform(new ByteArrayInputStream(result.getBytes("UTF-8")));
-		return transformer.getEntitiesList();
+		}
+		
+		String cwork = toUri(solution.get("cwork"));
+		
+		//each entity will be identified with a Creative Work ID. Each of the properties will follow query 26 predicate names
+		Entity entity = new Entity();
+		entity.setURI(cwork);
+		entity.addTriple(cwork, "geo:lat", toLiteral(solution.get("lat")));
+		entity.addTriple(cwork, "geo:long", toLiteral(solution.get("long")));
+		entity.addTriple(cwork, "cwork:mentions", toUri(solution.get("geonamesId")));
+		return entity;
 	}
 }
@@ -1,22 +1,36 @@
 package eu.ldbc.semanticpublishing.resultanalyzers;
 
-import java.io.ByteArrayInputStream;
-import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.refdataset.model.Entity;
-import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXQuery18TemplateTransformer;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
 
 /**
- * A class used to extract cwork uris, geonamesids, lat and long properties from a query18.txt result.
+ * A class used to pick a random cwork uri, with its dateModified property, from a query18.txt result.
  */
-public class Query18Analyzer {
-	public ArrayList<Entity> collectEntitiesList(String result) throws UnsupportedEncodingException {
-		if (result.trim().isEmpty()) {	
+public class Query18Analyzer extends SolutionSamplingAnalyzer {
+	public Query18Analyzer(ResultFormat resultFormat, RandomUtil ru) {
+		super(resultFormat, ru);
+	}
+	
+	/**
+	 * @return a random entity from the result, null if the result has no solutions
+	 */
+	public Entity sampleEntity(InputStream result) throws IOException {
+		Map<String, String> solution = sampleSolution(result);
+		if (solution == null) {
 			return null;
 		}
-		SAXQuery18TemplateTransformer transformer = new SAXQuery18TemplateTransformer();
-		transformer.transform(new ByteArrayInputStream(result.getBytes("UTF-8")));
-		return transformer.getEntitiesList();
+		
+		String cwork = toUri(solution.get("cwork"));
+		
+		//each entity will be identified with a Creative Work ID. Each of the properties will follow query 25 predicate names
+		Entity entity = new Entity();
+		entity.setURI(cwork);
+		entity.addTriple(cwork, "cwork:dateModified", toLiteral(solution.get("dateModif")));
+		return entity;
 	}
 }
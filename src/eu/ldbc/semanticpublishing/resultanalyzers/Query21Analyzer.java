@@ -1,21 +1,28 @@
 package eu.ldbc.semanticpublishing.resultanalyzers;
 
-import java.io.ByteArrayInputStream;
-import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
-import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXQuery21TemplateTransformer;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
 
 /**
- * A class used to extract title, year, month, day from a query21.txt's result.
+ * A class used to pick a random year and month from a query21.txt's result.
  */
-public class Query21Analyzer {
-	public ArrayList<String> collectDatesList(String result) throws UnsupportedEncodingException {
-		if (result.trim().isEmpty()) {	
+public class Query21Analyzer extends SolutionSamplingAnalyzer {
+	public Query21Analyzer(ResultFormat resultFormat, RandomUtil ru) {
+		super(resultFormat, ru);
+	}
+	
+	/**
+	 * @return a random date from the result in format : year-month-0, null if the result has no solutions
+	 */
+	public String sampleDate(InputStream result) throws IOException {
+		Map<String, String> solution = sampleSolution(result);
+		if (solution == null) {
 			return null;
 		}
-		SAXQuery21TemplateTransformer transformer = new SAXQuery21TemplateTransformer();
-		transformer.transform(new ByteArrayInputStream(result.getBytes("UTF-8")));
-		return transformer.getDatesList();
+		return toLiteral(solution.get("year")) + "-" + toLiteral(solution.get("month")) + "-" + "0";
 	}
-}
\ No newline at end of file
+}
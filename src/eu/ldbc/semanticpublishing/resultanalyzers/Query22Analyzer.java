@@ -1,21 +1,13 @@
 package eu.ldbc.semanticpublishing.resultanalyzers;
 
-import java.io.ByteArrayInputStream;
-import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
-
-import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXQuery22TemplateTransformer;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
 
 /**
- * A class used to extract title, year, month, day from a query21.txt's result.
+ * A class used to pick a random year and month from a query22.txt's result.
  */
-public class Query22Analyzer {
-	public ArrayList<String> collectDatesList(String result) throws UnsupportedEncodingException {
-		if (result.trim().isEmpty()) {
-			return null;
-		}
-		SAXQuery22TemplateTransformer transformer = new SAXQuery22TemplateTransformer();
-		transformer.transform(new ByteArrayInputStream(result.getBytes("UTF-8")));
-		return transformer.getDatesList();
+public class Query22Analyzer extends Query21Analyzer {
+	public Query22Analyzer(ResultFormat resultFormat, RandomUtil ru) {
+		super(resultFormat, ru);
 	}
 }
@@ -0,0 +1,44 @@
+package eu.ldbc.semanticpublishing.resultanalyzers;
+
+import java.util.Map;
+
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+
+/**
+ * Picks a single solution, uniformly at random, from a stream of solutions of unknown length (reservoir sampling with a reservoir of one).
+ * Only the currently picked solution is kept in memory. Instances can be re-used after calling reset().
+ */
+public class RandomSolutionSampler implements SolutionHandler {
+	private final RandomUtil ru;
+	private Map<String, String> sample;
+	private long solutionsCount;
+
+	public RandomSolutionSampler(RandomUtil ru) {
+		this.ru = ru;
+	}
+
+	public void reset() {
+		sample = null;
+		solutionsCount = 0;
+	}
+
+	@Override
+	public void handleSolution(Map<String, String> solution) {
+		solutionsCount++;
+		//n-th solution replaces the picked one with probability 1/n
+		if (solutionsCount == 1 || (solutionsCount <= Integer.MAX_VALUE && ru.nextInt((int)solutionsCount) == 0)) {
+			sample = solution;
+		}
+	}
+
+	/**
+	 * @return randomly picked solution, null if no solutions were received since last reset
+	 */
+	public Map<String, String> getSample() {
+		return sample;
+	}
+
+	public long getSolutionsCount() {
+		return solutionsCount;
+	}
+}
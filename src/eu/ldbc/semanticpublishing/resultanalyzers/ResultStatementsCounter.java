@@ -0,0 +1,117 @@
+package eu.ldbc.semanticpublishing.resultanalyzers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.openrdf.rio.RDFFormat;
+
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.resultanalyzers.sax.SPARQLResultStatementsCounter;
+import eu.ldbc.semanticpublishing.resultanalyzers.sesame.RDFResultStatementsCounter;
+import eu.ldbc.semanticpublishing.resultanalyzers.sesame.RDFXMLResultStatementsCounter;
+
+/**
+ * Counts results (solutions or statements) of a query, using a streaming parser matching the result format
+ * configured for SELECT and for CONSTRUCT / DESCRIBE queries.
+ */
+public class ResultStatementsCounter {
+	private final ResultFormat selectResultFormat;
+	private final ResultFormat graphResultFormat;
+	private final SPARQLResultStatementsCounter sparqlXmlCounter;
+	private final TupleResultStreamParser tupleResultParser;
+	private final RDFResultStatementsCounter rdfCounter;
+	private final CountingSolutionHandler countingSolutionHandler = new CountingSolutionHandler();
+
+	//stores last parse time for correcting query execution times
+	private long parseTime = 0;
+
+	public ResultStatementsCounter(ResultFormat selectResultFormat, ResultFormat graphResultFormat) {
+		this.selectResultFormat = selectResultFormat;
+		this.graphResultFormat = graphResultFormat;
+
+		if (selectResultFormat == ResultFormat.SPARQL_XML) {
+			this.sparqlXmlCounter = new SPARQLResultStatementsCounter();
+			this.tupleResultParser = null;
+		} else {
+			this.sparqlXmlCounter = null;
+			this.tupleResultParser = new TupleResultStreamParser(selectResultFormat);
+		}
+
+		switch (graphResultFormat) {
+			case NTRIPLES :
+				this.rdfCounter = new RDFResultStatementsCounter(RDFFormat.NTRIPLES);
+				break;
+			case BINARY_RDF :
+				this.rdfCounter = new RDFResultStatementsCounter(RDFFormat.BINARY);
+				break;
+			default :
+				this.rdfCounter = new RDFXMLResultStatementsCounter();
+				break;
+		}
+	}
+
+	/**
+	 * @param result - query result, as returned by SparqlQueryExecuteManager
+	 * @param queryType - type of the query which produced the result
+	 * @return count of solutions for SELECT queries, count of statements for CONSTRUCT and DESCRIBE queries
+	 * @throws IOException if the result can not be parsed
+	 */
+	public long getStatementsCount(String result, QueryType queryType) throws IOException {
+		if (result.trim().isEmpty()) {
+			parseTime = 0;
+			return 0;
+		}
+
+		boolean graphQuery = queryType == QueryType.CONSTRUCT || queryType == QueryType.DESCRIBE;
+		if (!graphQuery && tupleResultParser != null) {
+			long currentTime = System.currentTimeMillis();
+			countingSolutionHandler.count = 0;
+			tupleResultParser.parse(new ByteArrayInputStream(result.getBytes(selectResultFormat.getCharset())), countingSolutionHandler);
+			parseTime = System.currentTimeMillis() - currentTime;
+			return countingSolutionHandler.count;
+		}
+		return getStatementsCount(new ByteArrayInputStream(result.getBytes(getResultFormat(queryType).getCharset())), graphQuery);
+	}
+
+	private long getStatementsCount(InputStream is, boolean graphQuery) {
+		long count;
+
+		if (graphQuery) {
+			count = rdfCounter.getStatementsCount(is);
+			parseTime = rdfCounter.getParseTime();
+		} else {
+			count = sparqlXmlCounter.getStatementsCount(is);
+			parseTime = sparqlXmlCounter.getParseTime();
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return format in which results of given query type are received
+	 */
+	public ResultFormat getResultFormat(QueryType queryType) {
+		return (queryType == QueryType.CONSTRUCT || queryType == QueryType.DESCRIBE) ? graphResultFormat : selectResultFormat;
+	}
+
+	/**
+	 * Method will be used to correct query execution times in statistics
+	 *
+	 * @return time needed to count(parse) the last result, ms
+	 */
+	public long getParseTime() {
+		return parseTime;
+	}
+
+	static class CountingSolutionHandler implements SolutionHandler {
+		private long count = 0;
+
+		@Override
+		public void handleSolution(Map<String, String> solution) {
+			count++;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package eu.ldbc.semanticpublishing.resultanalyzers;
+
+import java.util.Map;
+
+/**
+ * Receives the solutions of a SELECT query result one at a time, while the result is being parsed.
+ */
+public interface SolutionHandler {
+	/**
+	 * @param solution - binding name mapped to the lexical value of the bound term (URIs without angle brackets), unbound variables are missing
+	 */
+	public void handleSolution(Map<String, String> solution);
+}
@@ -0,0 +1,49 @@
+package eu.ldbc.semanticpublishing.resultanalyzers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Map;
+
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+
+/**
+ * Base class for analyzers which pick a random solution from the result of a previous step of a drill-down or a faceted search.
+ * The solution is picked while the result is being received and parsed, so no list of all solutions is built. An analyzer is meant to be 
+ * created once per agent and re-used for all results it receives.
+ */
+public abstract class SolutionSamplingAnalyzer {
+	private final TupleResultStreamParser parser;
+	private final RandomSolutionSampler sampler;
+	
+	protected SolutionSamplingAnalyzer(ResultFormat resultFormat, RandomUtil ru) {
+		this.parser = new TupleResultStreamParser(resultFormat);
+		this.sampler = new RandomSolutionSampler(ru);
+	}
+	
+	/**
+	 * @return a random solution of the result, null if result is empty or has no solutions
+	 */
+	protected Map<String, String> sampleSolution(InputStream result) throws IOException {
+		//an empty response has no solutions, parsers would fail on it
+		PushbackInputStream pis = new PushbackInputStream(result);
+		int firstByte = pis.read();
+		if (firstByte == -1) {
+			return null;
+		}
+		pis.unread(firstByte);
+		
+		sampler.reset();
+		parser.parse(pis, sampler);
+		return sampler.getSample();
+	}
+	
+	protected static String toUri(String value) {
+		return (value == null || value.isEmpty()) ? "" : "<" + value + ">";
+	}
+	
+	protected static String toLiteral(String value) {
+		return value == null ? "" : value;
+	}
+}
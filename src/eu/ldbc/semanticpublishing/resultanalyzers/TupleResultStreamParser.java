@@ -0,0 +1,103 @@
+package eu.ldbc.semanticpublishing.resultanalyzers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openrdf.OpenRDFException;
+import org.openrdf.query.Binding;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.TupleQueryResultHandlerBase;
+import org.openrdf.query.resultio.QueryResultIO;
+import org.openrdf.query.resultio.TupleQueryResultFormat;
+import org.openrdf.query.resultio.TupleQueryResultParser;
+import org.xml.sax.InputSource;
+
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+import eu.ldbc.semanticpublishing.resultanalyzers.json.SPARQLJSONResultsParser;
+import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXSolutionsParser;
+
+/**
+ * Parses a SELECT query result in any of the supported SPARQL result formats, passing each solution to a SolutionHandler.
+ * The parser is created once for a format and can be re-used for parsing many results (not concurrently).
+ */
+public class TupleResultStreamParser {
+	private final ResultFormat format;
+	private TupleQueryResultParser sesameParser;
+	private final SPARQLJSONResultsParser jsonParser;
+	private final SAXSolutionsParser xmlParser;
+	private final SolutionAdapter solutionAdapter;
+
+	public TupleResultStreamParser(ResultFormat format) {
+		if (format.isGraphFormat()) {
+			throw new IllegalArgumentException("Not a SPARQL result format : " + format.getName());
+		}
+		this.format = format;
+		this.solutionAdapter = new SolutionAdapter();
+
+		this.xmlParser = format == ResultFormat.SPARQL_XML ? new SAXSolutionsParser() : null;
+		this.jsonParser = format == ResultFormat.SPARQL_JSON ? new SPARQLJSONResultsParser() : null;
+		switch (format) {
+			case SPARQL_TSV :
+				this.sesameParser = QueryResultIO.createParser(TupleQueryResultFormat.TSV);
+				break;
+			case SPARQL_BINARY :
+				this.sesameParser = QueryResultIO.createParser(TupleQueryResultFormat.BINARY);
+				break;
+			default :
+				this.sesameParser = null;
+				break;
+		}
+
+		if (sesameParser != null) {
+			sesameParser.setQueryResultHandler(solutionAdapter);
+		}
+	}
+
+	public void parse(InputStream is, SolutionHandler handler) throws IOException {
+		if (xmlParser != null) {
+			xmlParser.parse(new InputSource(is), handler);
+			return;
+		}
+		if (jsonParser != null) {
+			jsonParser.parse(is, handler);
+			return;
+		}
+
+		if (format == ResultFormat.SPARQL_TSV) {
+			//TSV parser keeps the header state from previous result, hence a new instance for each result
+			sesameParser = QueryResultIO.createParser(TupleQueryResultFormat.TSV);
+			sesameParser.setQueryResultHandler(solutionAdapter);
+		}
+		
+		solutionAdapter.handler = handler;
+		try {
+			sesameParser.parseQueryResult(is);
+		} catch (OpenRDFException e) {
+			throw new IOException("Unable to parse " + format.getName() + " result : " + e.getMessage(), e);
+		} finally {
+			solutionAdapter.handler = null;
+		}
+	}
+
+	public ResultFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Converts Sesame's binding sets into the binding name to value maps expected by a SolutionHandler
+	 */
+	static class SolutionAdapter extends TupleQueryResultHandlerBase {
+		private SolutionHandler handler;
+
+		@Override
+		public void handleSolution(BindingSet bindingSet) {
+			Map<String, String> solution = new HashMap<String, String>();
+			for (Binding binding : bindingSet) {
+				solution.put(binding.getName(), binding.getValue().stringValue());
+			}
+			handler.handleSolution(solution);
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package eu.ldbc.semanticpublishing.resultanalyzers.json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import eu.ldbc.semanticpublishing.resultanalyzers.SolutionHandler;
+
+//sample SPARQL JSON result being parsed here :
+/*
+{
+  "head" : { "vars" : [ "cwork", "dateModif" ] },
+  "results" : {
+    "bindings" : [
+      {
+        "cwork" : { "type" : "uri", "value" : "http://www.bbc.co.uk/things/598#id" },
+        "dateModif" : { "type" : "literal", "datatype" : "http://www.w3.org/2001/XMLSchema#dateTime", "value" : "2011-02-22T09:18:51.713Z" }
+      }
+    ]
+  }
+}
+*/
+
+/**
+ * A streaming parser for SPARQL query results in JSON format. Solutions are passed to a SolutionHandler while
+ * being read, so only a single solution is kept in memory. The bundled Sesame JSON parser depends on Jackson,
+ * which is not part of the driver's libraries.
+ */
+public class SPARQLJSONResultsParser {
+	private static final String RESULTS = "results";
+	private static final String BINDINGS = "bindings";
+	private static final String VALUE = "value";
+
+	private static final int NONE = -2;
+	private static final int EOF = -1;
+
+	private final StringBuilder sb = new StringBuilder();
+	private Reader reader;
+	private int peeked = NONE;
+
+	public void parse(InputStream is, SolutionHandler handler) throws IOException {
+		reader = new BufferedReader(new InputStreamReader(is, "UTF-8"), 64 * 1024);
+		peeked = NONE;
+		try {
+			expect('{');
+			if (!consumeIf('}')) {
+				do {
+					String key = readString();
+					expect(':');
+					if (key.equals(RESULTS)) {
+						parseResults(handler);
+					} else {
+						skipValue();
+					}
+				} while (consumeIf(','));
+				expect('}');
+			}
+		} finally {
+			reader = null;
+		}
+	}
+
+	private void parseResults(SolutionHandler handler) throws IOException {
+		expect('{');
+		if (consumeIf('}')) {
+			return;
+		}
+		do {
+			String key = readString();
+			expect(':');
+			if (key.equals(BINDINGS)) {
+				expect('[');
+				if (!consumeIf(']')) {
+					do {
+						handler.handleSolution(parseSolution());
+					} while (consumeIf(','));
+					expect(']');
+				}
+			} else {
+				skipValue();
+			}
+		} while (consumeIf(','));
+		expect('}');
+	}
+
+	private Map<String, String> parseSolution() throws IOException {
+		Map<String, String> solution = new HashMap<String, String>();
+		expect('{');
+		if (consumeIf('}')) {
+			return solution;
+		}
+		do {
+			String bindingName = readString();
+			String value = "";
+			expect(':');
+			expect('{');
+			if (!consumeIf('}')) {
+				do {
+					String key = readString();
+					expect(':');
+					if (key.equals(VALUE)) {
+						value = readString();
+					} else {
+						skipValue();
+					}
+				} while (consumeIf(','));
+				expect('}');
+			}
+			solution.put(bindingName, value);
+		} while (consumeIf(','));
+		expect('}');
+		return solution;
+	}
+
+	private void skipValue() throws IOException {
+		int c = peek();
+		if (c == '{') {
+			next();
+			if (!consumeIf('}')) {
+				do {
+					readString();
+					expect(':');
+					skipValue();
+				} while (consumeIf(','));
+				expect('}');
+			}
+		} else if (c == '[') {
+			next();
+			if (!consumeIf(']')) {
+				do {
+					skipValue();
+				} while (consumeIf(','));
+				expect(']');
+			}
+		} else if (c == '"') {
+			readString();
+		} else {
+			//number, true, false or null
+			while ((c = peekRaw()) != EOF && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+				readRaw();
+			}
+		}
+	}
+
+	private String readString() throws IOException {
+		expect('"');
+		sb.setLength(0);
+		int c;
+		while ((c = readRaw()) != '"') {
+			if (c == EOF) {
+				throw new IOException("Malformed SPARQL JSON result, unterminated string");
+			}
+			if (c == '\\') {
+				c = readRaw();
+				switch (c) {
+					case 'b' : sb.append('\b'); break;
+					case 'f' : sb.append('\f'); break;
+					case 'n' : sb.append('\n'); break;
+					case 'r' : sb.append('\r'); break;
+					case 't' : sb.append('\t'); break;
+					case 'u' :
+						char[] hex = new char[4];
+						for (int i = 0; i < 4; i++) {
+							hex[i] = (char)readRaw();
+						}
+						try {
+							sb.append((char)Integer.parseInt(new String(hex), 16));
+						} catch (NumberFormatException nfe) {
+							throw new IOException("Malformed SPARQL JSON result, illegal escape sequence : \\u" + new String(hex));
+						}
+						break;
+					case EOF :
+						throw new IOException("Malformed SPARQL JSON result, unterminated string");
+					default :
+						sb.append((char)c);
+						break;
+				}
+			} else {
+				sb.append((char)c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private void expect(char expected) throws IOException {
+		int c = next();
+		if (c != expected) {
+			throw new IOException("Malformed SPARQL JSON result, expected '" + expected + "' but found " + (c == EOF ? "end of stream" : "'" + (char)c + "'"));
+		}
+	}
+
+	private boolean consumeIf(char expected) throws IOException {
+		if (peek() == expected) {
+			next();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return next character which is not a whitespace, without consuming it
+	 */
+	private int peek() throws IOException {
+		int c;
+		while ((c = peekRaw()) != EOF && Character.isWhitespace(c)) {
+			readRaw();
+		}
+		return c;
+	}
+
+	/**
+	 * @return next character which is not a whitespace
+	 */
+	private int next() throws IOException {
+		peek();
+		return readRaw();
+	}
+
+	private int peekRaw() throws IOException {
+		if (peeked == NONE) {
+			peeked = reader.read();
+		}
+		return peeked;
+	}
+
+	private int readRaw() throws IOException {
+		if (peeked != NONE) {
+			int c = peeked;
+			peeked = NONE;
+			return c;
+		}
+		return reader.read();
+	}
+}
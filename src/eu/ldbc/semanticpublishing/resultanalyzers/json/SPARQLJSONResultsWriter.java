@@ -0,0 +1,123 @@
+package eu.ldbc.semanticpublishing.resultanalyzers.json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.util.List;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Value;
+import org.openrdf.query.Binding;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.TupleQueryResultHandlerBase;
+import org.openrdf.query.TupleQueryResultHandlerException;
+
+/**
+ * Writes SPARQL query results in JSON format, used by the embedded repository and the mock endpoint.
+ * The bundled Sesame JSON writer depends on Jackson, which is not part of the driver's libraries.
+ */
+public class SPARQLJSONResultsWriter extends TupleQueryResultHandlerBase {
+	private final Writer writer;
+	private boolean firstSolution = true;
+
+	public SPARQLJSONResultsWriter(OutputStream out) {
+		try {
+			this.writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		try {
+			writer.write("{\n\t\"head\" : { \"vars\" : [ ");
+			for (int i = 0; i < bindingNames.size(); i++) {
+				writer.write(i > 0 ? ", " : "");
+				writeString(bindingNames.get(i));
+			}
+			writer.write(" ] },\n\t\"results\" : {\n\t\t\"bindings\" : [");
+			firstSolution = true;
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleSolution(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		try {
+			writer.write(firstSolution ? "\n\t\t\t{ " : ",\n\t\t\t{ ");
+			firstSolution = false;
+
+			boolean firstBinding = true;
+			for (Binding binding : bindingSet) {
+				writer.write(firstBinding ? "" : ", ");
+				firstBinding = false;
+				writeString(binding.getName());
+				writer.write(" : ");
+				writeValue(binding.getValue());
+			}
+			writer.write(" }");
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		try {
+			writer.write("\n\t\t]\n\t}\n}\n");
+			writer.flush();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		writer.write("{ \"type\" : ");
+		if (value instanceof Literal) {
+			Literal literal = (Literal)value;
+			writer.write("\"literal\"");
+			if (literal.getLanguage() != null) {
+				writer.write(", \"xml:lang\" : ");
+				writeString(literal.getLanguage());
+			} else if (literal.getDatatype() != null) {
+				writer.write(", \"datatype\" : ");
+				writeString(literal.getDatatype().stringValue());
+			}
+		} else if (value instanceof BNode) {
+			writer.write("\"bnode\"");
+		} else {
+			writer.write("\"uri\"");
+		}
+		writer.write(", \"value\" : ");
+		writeString(value.stringValue());
+		writer.write(" }");
+	}
+
+	private void writeString(String s) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"' : writer.write("\\\""); break;
+				case '\\' : writer.write("\\\\"); break;
+				case '\n' : writer.write("\\n"); break;
+				case '\r' : writer.write("\\r"); break;
+				case '\t' : writer.write("\\t"); break;
+				default :
+					if (c < 0x20) {
+						writer.write(String.format("\\u%04x", (int)c));
+					} else {
+						writer.write(c);
+					}
+					break;
+			}
+		}
+		writer.write('"');
+	}
+}
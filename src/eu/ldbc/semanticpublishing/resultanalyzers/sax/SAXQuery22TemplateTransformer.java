@@ -1,7 +0,0 @@
-package eu.ldbc.semanticpublishing.resultanalyzers.sax;
-
-public class SAXQuery22TemplateTransformer extends SAXQuery21TemplateTransformer {
-	public SAXQuery22TemplateTransformer() {
-		super();
-	}
-}
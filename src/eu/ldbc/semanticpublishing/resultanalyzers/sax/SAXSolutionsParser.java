@@ -0,0 +1,94 @@
+package eu.ldbc.semanticpublishing.resultanalyzers.sax;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import eu.ldbc.semanticpublishing.resultanalyzers.SolutionHandler;
+
+/**
+ * A re-usable SAX parser for SPARQL XML results, passing each result element to a SolutionHandler as soon as it is read.
+ * The XML reader is created once, so parsing many results does not pay for creating a new parser each time.
+ */
+public class SAXSolutionsParser extends DefaultHandler {
+	private static final String RESULT_XML_ELEMENT = "result";
+	private static final String BINDING_XML_ELEMENT = "binding";
+	private static final String URI_XML_ELEMENT = "uri";
+	private static final String LITERAL_XML_ELEMENT = "literal";
+	private static final String BNODE_XML_ELEMENT = "bnode";
+	private static final String NAME = "name";
+
+	private final StringBuilder valueSb = new StringBuilder();
+	private XMLReader xmlReader;
+	private SolutionHandler handler;
+	private Map<String, String> solution;
+	private String currentBindingName;
+	private boolean valueElementBeginFlag = false;
+
+	public SAXSolutionsParser() {
+		try {
+			SAXParserFactory spf = SAXParserFactory.newInstance();
+			spf.setNamespaceAware(true);
+			spf.setValidating(false);
+			xmlReader = spf.newSAXParser().getXMLReader();
+			xmlReader.setContentHandler(this);
+		} catch (ParserConfigurationException e) {
+			e.printStackTrace();
+		} catch (SAXException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public void parse(InputSource inputSource, SolutionHandler handler) throws IOException {
+		this.handler = handler;
+		try {
+			xmlReader.parse(inputSource);
+		} catch (SAXException e) {
+			throw new IOException("Unable to parse SPARQL XML result : " + e.getMessage(), e);
+		} finally {
+			this.handler = null;
+			this.solution = null;
+		}
+	}
+
+	@Override
+	public void startElement(String namespaceURI, String localName, String qName, Attributes atts) throws SAXException {
+		if (localName.equals(RESULT_XML_ELEMENT)) {
+			solution = new HashMap<String, String>();
+		} else if (solution != null && localName.equals(BINDING_XML_ELEMENT)) {
+			currentBindingName = atts.getValue(NAME);
+		} else if (currentBindingName != null && (localName.equals(URI_XML_ELEMENT) || localName.equals(LITERAL_XML_ELEMENT) || localName.equals(BNODE_XML_ELEMENT))) {
+			valueSb.setLength(0);
+			valueElementBeginFlag = true;
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		if (valueElementBeginFlag) {
+			solution.put(currentBindingName, valueSb.toString());
+			valueElementBeginFlag = false;
+		} else if (localName.equals(BINDING_XML_ELEMENT)) {
+			currentBindingName = null;
+		} else if (solution != null && localName.equals(RESULT_XML_ELEMENT)) {
+			handler.handleSolution(solution);
+			solution = null;
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) throws SAXException {
+		if (valueElementBeginFlag) {
+			valueSb.append(ch, start, length);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package eu.ldbc.semanticpublishing.statistics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class for holding statistics about the resources consumed by the benchmark driver itself, i.e.
+ * CPU time spent by agent threads (building queries, reading and parsing results), time spent in garbage collection
+ * and the queueing delay between two consecutive operations of an agent. Used for detecting benchmark runs
+ * where the driver, and not the tested database, is the bottleneck.
+ */
+public class DriverOverheadStatistics {
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private final boolean cpuTimeSupported;
+	private final AtomicLong operationsCount;
+	private final AtomicLong driverCpuTimeNs;
+	private final AtomicLong storeTimeMs;
+	private final AtomicLong queueingDelayMs;
+
+	public DriverOverheadStatistics() {
+		this.cpuTimeSupported = enableThreadCpuTime();
+		this.operationsCount = new AtomicLong(0);
+		this.driverCpuTimeNs = new AtomicLong(0);
+		this.storeTimeMs = new AtomicLong(0);
+		this.queueingDelayMs = new AtomicLong(0);
+	}
+
+	private static boolean enableThreadCpuTime() {
+		try {
+			if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+				return false;
+			}
+			if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+				THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+			}
+			return true;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		} catch (SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return CPU time consumed so far by the calling thread in nanoseconds, or zero if the JVM does not support it
+	 */
+	public long getCurrentThreadCpuTimeNs() {
+		if (!cpuTimeSupported) {
+			return 0;
+		}
+		return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * @param driverCpuTimeNs - CPU time consumed by the agent thread for the whole operation (preparation, execution and parsing of results)
+	 * @param storeTimeMs - time measured for the operation as reported in query statistics
+	 * @param queueingDelayMs - time between completion of the previous operation of the agent and sending the current one
+	 */
+	public void reportOperation(long driverCpuTimeNs, long storeTimeMs, long queueingDelayMs) {
+		operationsCount.incrementAndGet();
+		this.driverCpuTimeNs.addAndGet(driverCpuTimeNs);
+		this.storeTimeMs.addAndGet(storeTimeMs);
+		this.queueingDelayMs.addAndGet(queueingDelayMs);
+	}
+
+	/**
+	 * @return accumulated time spent in garbage collection by all collectors of the JVM since its start
+	 */
+	public static long getTotalGcTimeMs() {
+		long totalTimeMs = 0;
+		for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			long time = gcBean.getCollectionTime();
+			if (time > 0) {
+				totalTimeMs += time;
+			}
+		}
+		return totalTimeMs;
+	}
+
+	public boolean isCpuTimeSupported() {
+		return cpuTimeSupported;
+	}
+
+	public long getOperationsCount() {
+		return operationsCount.get();
+	}
+
+	public long getDriverCpuTimeMs() {
+		return driverCpuTimeNs.get() / 1000000;
+	}
+
+	public double getAvgDriverCpuTimeMs() {
+		long count = operationsCount.get();
+		if (count == 0) {
+			return 0.0;
+		}
+		return (double)driverCpuTimeNs.get() / 1000000.0 / (double)count;
+	}
+
+	public double getAvgStoreTimeMs() {
+		long count = operationsCount.get();
+		if (count == 0) {
+			return 0.0;
+		}
+		return (double)storeTimeMs.get() / (double)count;
+	}
+
+	public double getAvgQueueingDelayMs() {
+		long count = operationsCount.get();
+		if (count == 0) {
+			return 0.0;
+		}
+		return (double)queueingDelayMs.get() / (double)count;
+	}
+}
@@ -0,0 +1,93 @@
+package eu.ldbc.semanticpublishing.statistics;
+
+/**
+ * A histogram of latencies in milliseconds with fixed, roughly logarithmic buckets (1, 2, 3, 5, 7, 10, 15, 20, 30, 50, 70, 100 ms...).
+ * Percentiles are reported as the upper bound of the bucket they fall in, i.e. with an error of less than 50%, which is
+ * enough to compare tails of latency distributions without keeping all measured values.
+ */
+public class LatencyHistogram {
+	private static final long[] BUCKET_UPPER_BOUNDS_MS;
+
+	private final long[] bucketCounts;
+	private long count = 0;
+	private long totalMs = 0;
+	private long minMs = 0;
+	private long maxMs = 0;
+
+	static {
+		long[] steps = {1, 2, 3, 5, 7};
+		int decades = 7;
+		BUCKET_UPPER_BOUNDS_MS = new long[steps.length * decades];
+		long magnitude = 1;
+		for (int i = 0; i < decades; i++) {
+			for (int j = 0; j < steps.length; j++) {
+				BUCKET_UPPER_BOUNDS_MS[i * steps.length + j] = steps[j] * magnitude;
+			}
+			magnitude *= 10;
+		}
+	}
+
+	public LatencyHistogram() {
+		//last bucket holds all values above highest upper bound
+		this.bucketCounts = new long[BUCKET_UPPER_BOUNDS_MS.length + 1];
+	}
+
+	public synchronized void record(long latencyMs) {
+		bucketCounts[bucketIndex(latencyMs)]++;
+		minMs = (count == 0) ? latencyMs : Math.min(minMs, latencyMs);
+		maxMs = Math.max(maxMs, latencyMs);
+		totalMs += latencyMs;
+		count++;
+	}
+
+	private static int bucketIndex(long latencyMs) {
+		for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+			if (latencyMs <= BUCKET_UPPER_BOUNDS_MS[i]) {
+				return i;
+			}
+		}
+		return BUCKET_UPPER_BOUNDS_MS.length;
+	}
+
+	/**
+	 * @param percent - e.g. 50.0 for the median, 99.0 for the 99th percentile
+	 * @return upper bound of the bucket which holds the percentile, never more than the maximum recorded value
+	 */
+	public synchronized long getPercentileMs(double percent) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long)Math.ceil(percent / 100.0 * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+			seen += bucketCounts[i];
+			if (seen >= rank) {
+				return Math.min(BUCKET_UPPER_BOUNDS_MS[i], maxMs);
+			}
+		}
+		return maxMs;
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	public synchronized long getTotalMs() {
+		return totalMs;
+	}
+
+	public synchronized long getMinMs() {
+		return minMs;
+	}
+
+	public synchronized long getMaxMs() {
+		return maxMs;
+	}
+
+	public synchronized long getAvgMs() {
+		if (count == 0) {
+			return 0;
+		}
+		return totalMs / count;
+	}
+}
@@ -0,0 +1,83 @@
+package eu.ldbc.semanticpublishing.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class for holding statistics of a query mix executed by a group of aggregation agents. Statistics are sized by the number of queries
+ * in the mix, which is known only at runtime, so that several mixes (e.g. basic and advanced) can be executed and reported side by side.
+ * Session statistics are created on first report of a session, as only queries executed in more than one iteration have sessions.
+ */
+public class QueryMixStatistics {
+	private final String mixName;
+	private final QueryStatistics[] aggregateQueriesArray;
+	private final SessionStatistics[] sessionStatisticsArray;
+	private final QueryStatistics totalAggregateQueryStatistics;
+	private final AtomicLong totalStartedQueryMixRuns = new AtomicLong(0);
+	private final AtomicLong totalCompletedQueryMixRuns = new AtomicLong(0);
+
+	/**
+	 * @param mixName - name of the query mix, empty for the default mix
+	 * @param queriesCount - number of aggregate queries in the mix
+	 */
+	public QueryMixStatistics(String mixName, int queriesCount) {
+		this.mixName = mixName;
+		this.aggregateQueriesArray = new QueryStatistics[queriesCount];
+		this.sessionStatisticsArray = new SessionStatistics[queriesCount];
+		this.totalAggregateQueryStatistics = new QueryStatistics(getStatisticsName(mixName, Statistics.AGGREGATE_QUERIES_STATISTICS));
+
+		for (int i = 0; i < queriesCount; i++) {
+			aggregateQueriesArray[i] = new QueryStatistics(getStatisticsName(mixName, Statistics.AGGREGATE_QUERIES_STATISTICS + "_" + (i + 1)));
+		}
+	}
+
+	private static String getStatisticsName(String mixName, String name) {
+		return mixName.isEmpty() ? name : mixName + "_" + name;
+	}
+
+	public String getMixName() {
+		return mixName;
+	}
+
+	public int getQueriesCount() {
+		return aggregateQueriesArray.length;
+	}
+
+	/**
+	 * @param queryNumber - number of the aggregate query, not zero based
+	 */
+	public QueryStatistics getQueryStatistics(int queryNumber) {
+		return aggregateQueriesArray[queryNumber - 1];
+	}
+
+	public QueryStatistics getTotalAggregateQueryStatistics() {
+		return totalAggregateQueryStatistics;
+	}
+
+	/**
+	 * @param queryNumber - number of the aggregate query, not zero based
+	 * @return statistics of sessions of that query, or null if no session of the query has been reported yet
+	 */
+	public synchronized SessionStatistics getSessionStatistics(int queryNumber) {
+		return sessionStatisticsArray[queryNumber - 1];
+	}
+
+	/**
+	 * @param queryNumber - number of the aggregate query, not zero based
+	 * @param maxStepsCount - limit of steps in a session of the query, used if statistics are created by this call
+	 * @return statistics of sessions of that query, created on first call
+	 */
+	public synchronized SessionStatistics getSessionStatistics(int queryNumber, int maxStepsCount) {
+		if (sessionStatisticsArray[queryNumber - 1] == null) {
+			sessionStatisticsArray[queryNumber - 1] = new SessionStatistics(getStatisticsName(mixName, Statistics.AGGREGATE_QUERIES_STATISTICS + "_" + queryNumber), maxStepsCount);
+		}
+		return sessionStatisticsArray[queryNumber - 1];
+	}
+
+	public AtomicLong getTotalStartedQueryMixRuns() {
+		return totalStartedQueryMixRuns;
+	}
+
+	public AtomicLong getTotalCompletedQueryMixRuns() {
+		return totalCompletedQueryMixRuns;
+	}
+}
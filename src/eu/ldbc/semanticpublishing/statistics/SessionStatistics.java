@@ -0,0 +1,111 @@
+package eu.ldbc.semanticpublishing.statistics;
+
+/**
+ * A class for holding statistics of query sessions, i.e. a sequence of steps (query iterations) executed on behalf of a single user action
+ * like a drill-down or a faceted search. Session time is the end-to-end time until the last step has completed (the critical path), which is shorter
+ * than the sum of step times when independent steps are executed concurrently. Latencies of sessions and of each step index are kept in histograms,
+ * sessions are also counted by the number of steps they have executed, as a session ends early when a step returns no results.
+ */
+public class SessionStatistics {
+	private final String sessionName;
+	private final int maxStepsCount;
+	private final LatencyHistogram sessionTimes;
+	private final LatencyHistogram[] stepTimes;
+	private final long[] sessionsByStepsCount;
+	private long failuresCount = 0;
+
+	/**
+	 * @param maxStepsCount - limit of steps in a session, including the first one
+	 */
+	public SessionStatistics(String sessionName, int maxStepsCount) {
+		this.sessionName = sessionName;
+		this.maxStepsCount = maxStepsCount;
+		this.sessionTimes = new LatencyHistogram();
+		this.stepTimes = new LatencyHistogram[maxStepsCount];
+		for (int i = 0; i < maxStepsCount; i++) {
+			stepTimes[i] = new LatencyHistogram();
+		}
+		this.sessionsByStepsCount = new long[maxStepsCount + 1];
+	}
+
+	/**
+	 * @param sessionTimeMs - end-to-end time of the session
+	 * @param stepsTimeMs - execution time of each step, in order of steps
+	 * @param stepsCount - number of steps actually executed, first stepsCount elements of stepsTimeMs are used
+	 */
+	public synchronized void reportSession(long sessionTimeMs, long[] stepsTimeMs, int stepsCount) {
+		if (stepsCount > maxStepsCount) {
+			throw new IllegalArgumentException("Session " + sessionName + " has executed " + stepsCount + " steps, limit is : " + maxStepsCount);
+		}
+		sessionTimes.record(sessionTimeMs);
+		sessionsByStepsCount[stepsCount]++;
+		for (int i = 0; i < stepsCount; i++) {
+			stepTimes[i].record(stepsTimeMs[i]);
+		}
+	}
+
+	public synchronized void reportFailure() {
+		failuresCount++;
+	}
+
+	public String getSessionName() {
+		return sessionName;
+	}
+
+	public int getMaxStepsCount() {
+		return maxStepsCount;
+	}
+
+	public long getSessionsCount() {
+		return sessionTimes.getCount();
+	}
+
+	public synchronized long getFailuresCount() {
+		return failuresCount;
+	}
+
+	public LatencyHistogram getSessionTimes() {
+		return sessionTimes;
+	}
+
+	/**
+	 * @param stepIndex - zero based index of the step in a session
+	 */
+	public LatencyHistogram getStepTimes(int stepIndex) {
+		return stepTimes[stepIndex];
+	}
+
+	/**
+	 * @return number of sessions which have executed exactly stepsCount steps
+	 */
+	public synchronized long getSessionsCount(int stepsCount) {
+		return sessionsByStepsCount[stepsCount];
+	}
+
+	public synchronized double getAvgStepsCount() {
+		long sessionsCount = 0;
+		long stepsCount = 0;
+		for (int i = 0; i <= maxStepsCount; i++) {
+			sessionsCount += sessionsByStepsCount[i];
+			stepsCount += sessionsByStepsCount[i] * i;
+		}
+		if (sessionsCount == 0) {
+			return 0.0;
+		}
+		return (double)stepsCount / (double)sessionsCount;
+	}
+
+	/**
+	 * @return sum of step times divided by session time, 1.0 when steps are executed one after another
+	 */
+	public synchronized double getStepsOverlap() {
+		long totalStepsTimeMs = 0;
+		for (int i = 0; i < maxStepsCount; i++) {
+			totalStepsTimeMs += stepTimes[i].getTotalMs();
+		}
+		if (sessionTimes.getTotalMs() == 0) {
+			return 0.0;
+		}
+		return (double)totalStepsTimeMs / (double)sessionTimes.getTotalMs();
+	}
+}
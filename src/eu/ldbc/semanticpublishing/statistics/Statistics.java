@@ -2,33 +2,57 @@ package eu.ldbc.semanticpublishing.statistics;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Statistics shared by all agents. Statistics of aggregate queries are kept per query mix (see QueryMixStatistics),
+ * totalAggregateQueryStatistics counts aggregate queries of all mixes together.
+ */
 public class Statistics {
 	private static final String INSERT_QUERIES_STATISTICS = "INSERT";
 	private static final String UPDATE_QUERIES_STATISTICS = "UPDATE";
 	private static final String DELETE_QUERIES_STATISTICS = "DELETE";
-	private static final String AGGREGATE_QUERIES_STATISTICS = "AGGREGATE";
-	
-	public static final int AGGREGATE_QUERIES_COUNT = 25;
+	static final String AGGREGATE_QUERIES_STATISTICS = "AGGREGATE";
+
 	public static final int EDITORIAL_QUERIES_COUNT = 3;
-	
+
 	public static final String AGGREGATE_QUERY_NAME = "query";
-	public static final QueryStatistics[] aggregateQueriesArray;
-	
+
 	public static final AtomicLong timeCorrectionsMS = new AtomicLong(0);
-	public static final AtomicLong totalStartedQueryMixRuns = new AtomicLong(0);
-	public static final AtomicLong totalCompletedQueryMixRuns = new AtomicLong(0);
-	
-	static {
-		aggregateQueriesArray = new QueryStatistics[AGGREGATE_QUERIES_COUNT];
-		
-		for (int i = 0; i < AGGREGATE_QUERIES_COUNT; i++) {
-			aggregateQueriesArray[i] = new QueryStatistics(AGGREGATE_QUERIES_STATISTICS + "_" + (i + 1));
-		}
-	}
-	
+
+	//bytes transferred over the network by queries and updates (compressed size, if compression is used)
+	public static final AtomicLong bytesReceived = new AtomicLong(0);
+	public static final AtomicLong bytesSent = new AtomicLong(0);
+
 	//section for keeping statistics for each executed query type
 	public static final QueryStatistics insertCreativeWorksQueryStatistics = new QueryStatistics(INSERT_QUERIES_STATISTICS);
 	public static final QueryStatistics updateCreativeWorksQueryStatistics = new QueryStatistics(UPDATE_QUERIES_STATISTICS);
 	public static final QueryStatistics deleteCreativeWorksQueryStatistics = new QueryStatistics(DELETE_QUERIES_STATISTICS);
 	public static final QueryStatistics totalAggregateQueryStatistics = new QueryStatistics(AGGREGATE_QUERIES_STATISTICS);
+
+	//resources consumed by the driver itself (CPU time of agent threads, queueing delay)
+	public static final DriverOverheadStatistics driverOverheadStatistics = new DriverOverheadStatistics();
+
+	//statistics of the running segment of a workload schedule, null if no schedule is used
+	private static volatile WorkloadSegmentStatistics segmentStatistics = null;
+
+	public static void setSegmentStatistics(WorkloadSegmentStatistics statistics) {
+		segmentStatistics = statistics;
+	}
+
+	/**
+	 * Reports an operation to the running segment of the workload schedule, if any
+	 * @param queryStatistics - overall statistics the operation is reported to
+	 */
+	public static void reportSegmentSuccess(QueryStatistics queryStatistics, long executionTimeMs) {
+		WorkloadSegmentStatistics statistics = segmentStatistics;
+		if (statistics != null) {
+			statistics.reportSuccess(queryStatistics.getQueryName(), executionTimeMs);
+		}
+	}
+
+	public static void reportSegmentFailure(QueryStatistics queryStatistics) {
+		WorkloadSegmentStatistics statistics = segmentStatistics;
+		if (statistics != null) {
+			statistics.reportFailure(queryStatistics.getQueryName());
+		}
+	}
 }
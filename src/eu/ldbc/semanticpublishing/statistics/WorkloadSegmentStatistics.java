@@ -0,0 +1,85 @@
+package eu.ldbc.semanticpublishing.statistics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a single segment of a workload schedule. Operations are counted in groups named as the overall statistics
+ * they are reported to (INSERT, UPDATE, DELETE and the total AGGREGATE statistics of each query mix), so that each segment
+ * of the run, e.g. a write spike, can be compared to the segments before and after it.
+ */
+public class WorkloadSegmentStatistics {
+	private final String segmentName;
+	private final long startTimeMs;
+	private volatile long endTimeMs = 0;
+	private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<String, LatencyHistogram>();
+	private final Map<String, AtomicLong> failures = new LinkedHashMap<String, AtomicLong>();
+
+	/**
+	 * @param groupNames - names of statistics counted in the segment, operations of other statistics are ignored
+	 */
+	public WorkloadSegmentStatistics(String segmentName, List<String> groupNames) {
+		this.segmentName = segmentName;
+		this.startTimeMs = System.currentTimeMillis();
+		for (String groupName : groupNames) {
+			latencies.put(groupName, new LatencyHistogram());
+			failures.put(groupName, new AtomicLong(0));
+		}
+	}
+
+	public void reportSuccess(String groupName, long executionTimeMs) {
+		LatencyHistogram histogram = latencies.get(groupName);
+		if (histogram != null) {
+			histogram.record(executionTimeMs);
+		}
+	}
+
+	public void reportFailure(String groupName) {
+		AtomicLong failuresCount = failures.get(groupName);
+		if (failuresCount != null) {
+			failuresCount.incrementAndGet();
+		}
+	}
+
+	public void finish() {
+		endTimeMs = System.currentTimeMillis();
+	}
+
+	public String getSegmentName() {
+		return segmentName;
+	}
+
+	public List<String> getGroupNames() {
+		return new ArrayList<String>(latencies.keySet());
+	}
+
+	/**
+	 * @return duration of the segment until it has finished, or until now if it is still running
+	 */
+	public double getDurationSeconds() {
+		long endMs = (endTimeMs > 0) ? endTimeMs : System.currentTimeMillis();
+		return (endMs - startTimeMs) / 1000.0;
+	}
+
+	public LatencyHistogram getLatencies(String groupName) {
+		return latencies.get(groupName);
+	}
+
+	public long getFailuresCount(String groupName) {
+		return failures.get(groupName).get();
+	}
+
+	/**
+	 * @return operations of the group per second during the segment
+	 */
+	public double getOperationsPerSecond(String groupName) {
+		double durationSeconds = getDurationSeconds();
+		if (durationSeconds <= 0.0) {
+			return 0.0;
+		}
+		return latencies.get(groupName).getCount() / durationSeconds;
+	}
+}
@@ -0,0 +1,188 @@
+package eu.ldbc.semanticpublishing.substitutionparameters;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import eu.ldbc.semanticpublishing.templates.QueryTemplatesRegistry;
+import eu.ldbc.semanticpublishing.util.AllocationsUtil;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+
+/**
+ * Generates substitution parameters files of aggregate queries in parallel. Parameters of each query are split into chunks
+ * of CHUNK_SIZE lines, each chunk is generated by a new query template with its own random generator, seeded from the
+ * configured seed and the index of the chunk. Chunks are written to the files in order, so that generated files
+ * are identical regardless of the number of threads.
+ */
+public class ParallelSubstitutionParametersGenerator {
+	public static final int CHUNK_SIZE = 10000;
+
+	//chunk 0 uses the configured seed, as a single generator of each query did before
+	private static final long CHUNK_SEED_STEP = 0x9E3779B97F4A7C15L;
+	//limits memory taken by generated chunks waiting to be written
+	private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+	private static final long PROGRESS_INTERVAL_MS = 10000;
+
+	private final RandomUtil randomUtil;
+	private final long seed;
+	private final int threadsCount;
+	private final List<QueryFile> queryFiles = new ArrayList<QueryFile>();
+
+	public ParallelSubstitutionParametersGenerator(RandomUtil randomUtil, long seed, int threadsCount) {
+		this.randomUtil = randomUtil;
+		this.seed = seed;
+		this.threadsCount = Math.max(1, threadsCount);
+	}
+
+	/**
+	 * Adds a parameters file to generate
+	 * @param queryNumber - number of the query in the registry, starting from 1
+	 */
+	public void addQuery(String filePath, QueryTemplatesRegistry queryTemplatesRegistry, int queryNumber) {
+		queryFiles.add(new QueryFile(filePath, queryTemplatesRegistry, queryNumber));
+	}
+
+	/**
+	 * Generates all added files, each with amount lines of parameters, together with their binary copies
+	 * @return number of generated lines of parameters
+	 */
+	public long generate(int amount) throws IOException, InterruptedException {
+		long startTimeMs = System.currentTimeMillis();
+		long lastProgressMs = startTimeMs;
+		long totalLines = (long)amount * queryFiles.size();
+		long writtenLines = 0;
+
+		List<Chunk> chunks = new ArrayList<Chunk>();
+		for (QueryFile queryFile : queryFiles) {
+			int chunksCount = Math.max(1, (amount + CHUNK_SIZE - 1) / CHUNK_SIZE);
+			for (int i = 0; i < chunksCount; i++) {
+				chunks.add(new Chunk(queryFile, i, Math.min(CHUNK_SIZE, amount - i * CHUNK_SIZE), i == chunksCount - 1));
+			}
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threadsCount);
+		LinkedList<Future<String>> pendingChunks = new LinkedList<Future<String>>();
+		List<Future<Integer>> binaryFiles = new ArrayList<Future<Integer>>();
+		BufferedWriter bw = null;
+		try {
+			int nextChunk = 0;
+			while (nextChunk < chunks.size() || !pendingChunks.isEmpty()) {
+				while (nextChunk < chunks.size() && pendingChunks.size() < threadsCount * CHUNKS_IN_FLIGHT_PER_THREAD) {
+					pendingChunks.add(executorService.submit(chunks.get(nextChunk++)));
+				}
+
+				Chunk chunk = chunks.get(nextChunk - pendingChunks.size());
+				String parameters = getResult(pendingChunks.removeFirst());
+
+				if (chunk.index == 0) {
+					bw = new BufferedWriter(new FileWriter(new File(chunk.queryFile.filePath)));
+				}
+				bw.write(parameters);
+				writtenLines += chunk.amount;
+
+				if (chunk.last) {
+					bw.close();
+					bw = null;
+
+					//compact copy of the parameters, split into fields and loaded by memory mapping
+					final String filePath = chunk.queryFile.filePath;
+					binaryFiles.add(executorService.submit(new Callable<Integer>() {
+						@Override
+						public Integer call() throws Exception {
+							return SubstitutionParametersFile.write(filePath);
+						}
+					}));
+				}
+
+				long currentTimeMs = System.currentTimeMillis();
+				if (currentTimeMs - lastProgressMs >= PROGRESS_INTERVAL_MS) {
+					lastProgressMs = currentTimeMs;
+					System.out.println(String.format("\tgenerated %d of %d query parameters (%.1f%%), %.0f parameters per second", writtenLines, totalLines, writtenLines * 100.0 / Math.max(1, totalLines), writtenLines * 1000.0 / (currentTimeMs - startTimeMs)));
+				}
+			}
+
+			for (Future<Integer> binaryFile : binaryFiles) {
+				getResult(binaryFile);
+			}
+		} finally {
+			executorService.shutdownNow();
+			if (bw != null) {
+				try {bw.close();} catch (IOException e) {};
+			}
+		}
+
+		double seconds = Math.max(1, System.currentTimeMillis() - startTimeMs) / 1000.0;
+		System.out.println(String.format("\tgenerated %d query parameters of %d queries in %.1f seconds, %.0f parameters per second, threads : %d", writtenLines, queryFiles.size(), seconds, writtenLines / seconds, threadsCount));
+		return writtenLines;
+	}
+
+	private static <T> T getResult(Future<T> future) throws IOException, InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException)e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new IllegalStateException("Failed to generate query substitution parameters", e.getCause());
+		}
+	}
+
+	private static class QueryFile {
+		private final String filePath;
+		private final QueryTemplatesRegistry queryTemplatesRegistry;
+		private final int queryNumber;
+
+		QueryFile(String filePath, QueryTemplatesRegistry queryTemplatesRegistry, int queryNumber) {
+			this.filePath = filePath;
+			this.queryTemplatesRegistry = queryTemplatesRegistry;
+			this.queryNumber = queryNumber;
+		}
+	}
+
+	private class Chunk implements Callable<String> {
+		private final QueryFile queryFile;
+		private final int index;
+		private final int amount;
+		private final boolean last;
+
+		Chunk(QueryFile queryFile, int index, int amount, boolean last) {
+			this.queryFile = queryFile;
+			this.index = index;
+			this.amount = amount;
+			this.last = last;
+		}
+
+		@Override
+		public String call() throws Exception {
+			RandomUtil chunkRandomUtil = randomUtil.randomUtilFactory(seed + index * CHUNK_SEED_STEP);
+
+			//allocations (e.g. of creative work types) are drawn from the generator of the chunk, not from the shared one
+			AllocationsUtil.setThreadRandom(chunkRandomUtil.getRandom());
+			try {
+				SubstitutionParametersGenerator queryTemplate = (SubstitutionParametersGenerator) queryFile.queryTemplatesRegistry.newTemplate(queryFile.queryNumber, chunkRandomUtil, null);
+				StringWriter sw = new StringWriter();
+				BufferedWriter bw = new BufferedWriter(sw);
+				if (amount > 0) {
+					queryTemplate.generateSubstitutionParameters(bw, amount);
+				}
+				bw.flush();
+				return sw.toString();
+			} finally {
+				AllocationsUtil.setThreadRandom(null);
+			}
+		}
+	}
+}
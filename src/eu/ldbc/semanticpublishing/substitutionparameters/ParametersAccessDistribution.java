@@ -0,0 +1,200 @@
+package eu.ldbc.semanticpublishing.substitutionparameters;
+
+/**
+ * A class for selecting the line of substitution parameters used by a query, i.e. how often each key (entity, date range, etc.) is queried.
+ * Distribution is defined by a string in one of the following formats :
+ *   roundrobin                                         - lines are used one after another, each line equally often
+ *   uniform                                            - lines are picked at random, each line is equally likely
+ *   zipf:exponent[:driftQueries]                       - line of rank r is picked with probability proportional to 1/r^exponent
+ *   hotset:trafficPercent:keysPercent[:driftQueries]   - trafficPercent of queries pick a line from the hot set of keysPercent of all lines
+ * If driftQueries is set, the hot lines move on by one line every driftQueries queries, modelling a drift of trending entities during the run.
+ *
+ * The picked line is a function of the seed and the query id only, so a run can be repeated with the same keys regardless of
+ * the order in which agents execute their queries.
+ */
+public class ParametersAccessDistribution {
+	private static enum Type {ROUND_ROBIN, UNIFORM, ZIPF, HOT_SET};
+
+	//probabilities of that many top ranks of a Zipf distribution are computed exactly, the tail is approximated by an integral
+	private static final int ZIPF_EXACT_RANKS = 10000;
+
+	public static final ParametersAccessDistribution ROUND_ROBIN = new ParametersAccessDistribution("roundrobin", 0);
+
+	private final Type type;
+	private final double exponent;
+	private final double trafficShare;
+	private final double keysShare;
+	private final long driftQueries;
+	private final long seed;
+	private volatile ZipfTable zipfTable = null;
+
+	public ParametersAccessDistribution(String definition, long seed) throws IllegalArgumentException {
+		String[] tokens = definition.trim().split(":");
+
+		try {
+			String name = tokens[0].trim().toLowerCase();
+			if (name.equals("roundrobin") && tokens.length == 1) {
+				this.type = Type.ROUND_ROBIN;
+				this.exponent = 0.0;
+				this.trafficShare = 0.0;
+				this.keysShare = 0.0;
+				this.driftQueries = 0;
+			} else if (name.equals("uniform") && tokens.length == 1) {
+				this.type = Type.UNIFORM;
+				this.exponent = 0.0;
+				this.trafficShare = 0.0;
+				this.keysShare = 0.0;
+				this.driftQueries = 0;
+			} else if (name.equals("zipf") && (tokens.length == 2 || tokens.length == 3)) {
+				this.type = Type.ZIPF;
+				this.exponent = Double.parseDouble(tokens[1].trim());
+				this.trafficShare = 0.0;
+				this.keysShare = 0.0;
+				this.driftQueries = (tokens.length == 3) ? Long.parseLong(tokens[2].trim()) : 0;
+			} else if (name.equals("hotset") && (tokens.length == 3 || tokens.length == 4)) {
+				this.type = Type.HOT_SET;
+				this.exponent = 0.0;
+				this.trafficShare = Double.parseDouble(tokens[1].trim()) / 100.0;
+				this.keysShare = Double.parseDouble(tokens[2].trim()) / 100.0;
+				this.driftQueries = (tokens.length == 4) ? Long.parseLong(tokens[3].trim()) : 0;
+			} else {
+				throw new IllegalArgumentException("Unknown substitution parameters distribution : " + definition + ", expected one of roundrobin, uniform, zipf:exponent[:driftQueries], hotset:trafficPercent:keysPercent[:driftQueries]");
+			}
+		} catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("Illegal value in substitution parameters distribution : " + definition);
+		}
+
+		if ((type == Type.ZIPF && exponent <= 0.0) || trafficShare < 0.0 || trafficShare > 1.0 || keysShare < 0.0 || keysShare > 1.0 || driftQueries < 0) {
+			throw new IllegalArgumentException("Illegal value in substitution parameters distribution : " + definition);
+		}
+
+		this.seed = seed;
+	}
+
+	/**
+	 * @param queryId - id of the query, unique for each execution of the query
+	 * @param size - number of lines of substitution parameters, positive
+	 * @return zero based index of the line used by the query
+	 */
+	public int getIndex(long queryId, int size) {
+		if (type == Type.ROUND_ROBIN) {
+			return (int)(queryId % size);
+		}
+
+		long hash = mix(seed + queryId * 0x9E3779B97F4A7C15L);
+		double u1 = toUnitInterval(hash);
+		long rank;
+
+		switch (type) {
+			case ZIPF :
+				rank = getZipfTable(size).getRank(u1);
+				break;
+			case HOT_SET :
+				long hotKeys = Math.max(1, Math.round(size * keysShare));
+				double u2 = toUnitInterval(mix(hash));
+				if (hotKeys >= size) {
+					rank = (long)(u2 * size);
+				} else if (u1 < trafficShare) {
+					rank = (long)(u2 * hotKeys);
+				} else {
+					rank = hotKeys + (long)(u2 * (size - hotKeys));
+				}
+				break;
+			default :
+				rank = (long)(u1 * size);
+				break;
+		}
+
+		long shift = (driftQueries > 0) ? queryId / driftQueries : 0;
+		return (int)((rank + shift) % size);
+	}
+
+	private ZipfTable getZipfTable(int size) {
+		ZipfTable table = zipfTable;
+		if (table == null || table.size != size) {
+			table = new ZipfTable(size, exponent);
+			zipfTable = table;
+		}
+		return table;
+	}
+
+	/**
+	 * SplitMix64 finalizer, spreads consecutive values evenly over all 64 bits
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static double toUnitInterval(long hash) {
+		return (hash >>> 11) * (1.0 / (1L << 53));
+	}
+
+	/**
+	 * Cumulative probabilities of top ranks of a Zipf distribution, ranks beyond them are picked by inverting
+	 * the integral of 1/x^exponent, which is close to the sum of probabilities for large ranks.
+	 */
+	private static class ZipfTable {
+		private final int size;
+		private final double exponent;
+		private final double[] cumulative;
+		private final double tailStart;
+		private final double total;
+
+		ZipfTable(int size, double exponent) {
+			this.size = size;
+			this.exponent = exponent;
+			this.cumulative = new double[Math.min(size, ZIPF_EXACT_RANKS)];
+
+			double sum = 0.0;
+			for (int i = 0; i < cumulative.length; i++) {
+				sum += 1.0 / Math.pow(i + 1, exponent);
+				cumulative[i] = sum;
+			}
+
+			//rank r of the tail covers interval [r - 0.5, r + 0.5)
+			this.tailStart = cumulative.length + 0.5;
+			this.total = sum + integral(tailStart, size + 0.5);
+		}
+
+		private double integral(double from, double to) {
+			if (Math.abs(exponent - 1.0) < 1e-9) {
+				return Math.log(to / from);
+			}
+			return (Math.pow(to, 1.0 - exponent) - Math.pow(from, 1.0 - exponent)) / (1.0 - exponent);
+		}
+
+		private double inverseIntegral(double from, double value) {
+			if (Math.abs(exponent - 1.0) < 1e-9) {
+				return from * Math.exp(value);
+			}
+			return Math.pow(Math.pow(from, 1.0 - exponent) + value * (1.0 - exponent), 1.0 / (1.0 - exponent));
+		}
+
+		/**
+		 * @return zero based rank
+		 */
+		long getRank(double u) {
+			double value = u * total;
+			double headSum = cumulative[cumulative.length - 1];
+
+			if (value < headSum) {
+				int low = 0;
+				int high = cumulative.length - 1;
+				while (low < high) {
+					int middle = (low + high) >>> 1;
+					if (cumulative[middle] <= value) {
+						low = middle + 1;
+					} else {
+						high = middle;
+					}
+				}
+				return low;
+			}
+
+			long rank = (long)Math.floor(inverseIntegral(tailStart, value - headSum) + 0.5);
+			return Math.max(cumulative.length + 1, Math.min(size, rank)) - 1;
+		}
+	}
+}
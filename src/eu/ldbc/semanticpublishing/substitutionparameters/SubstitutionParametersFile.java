@@ -0,0 +1,203 @@
+package eu.ldbc.semanticpublishing.substitutionparameters;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A compact binary copy of a substitution parameters file, written next to the text file at generation time (e.g. query1SubstParameters.bin)
+ * and loaded by memory mapping. Parameter lines are split into fields when the file is written, so that no parsing is needed at load time.
+ * Layout (big endian) :
+ *   int magic, int version, int linesCount, int fieldsCount
+ *   int[linesCount + 1]  - index of the first field of each line
+ *   int[fieldsCount + 1] - offset of the first char of each field
+ *   char[]               - values of all fields
+ */
+public class SubstitutionParametersFile {
+	public static final String BINARY_FILE_SUFFIX = ".bin";
+
+	private static final int MAGIC = 0x53504250;
+	private static final int VERSION = 1;
+	private static final int HEADER_INTS = 4;
+
+	private final int linesCount;
+	private final IntBuffer lineFields;
+	private final IntBuffer fieldOffsets;
+	private final CharBuffer chars;
+
+	private SubstitutionParametersFile(MappedByteBuffer buffer) throws IOException {
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("not a substitution parameters file of version " + VERSION);
+		}
+		this.linesCount = buffer.getInt(8);
+		int fieldsCount = buffer.getInt(12);
+
+		buffer.position(HEADER_INTS * 4);
+		this.lineFields = buffer.slice().asIntBuffer();
+		buffer.position(buffer.position() + (linesCount + 1) * 4);
+		this.fieldOffsets = buffer.slice().asIntBuffer();
+		buffer.position(buffer.position() + (fieldsCount + 1) * 4);
+		this.chars = buffer.slice().asCharBuffer();
+	}
+
+	/**
+	 * Maps a binary parameters file into memory, its content is read by the operating system on first access
+	 */
+	public static SubstitutionParametersFile map(String binaryPath) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(binaryPath, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("file is too large to be mapped : " + binaryPath);
+			}
+			//the mapping stays valid after the channel has been closed
+			return new SubstitutionParametersFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * @return path of the binary copy of a text parameters file, .txt suffix is replaced by .bin
+	 */
+	public static String getBinaryPath(String textPath) {
+		if (textPath.endsWith(".txt")) {
+			return textPath.substring(0, textPath.length() - 4) + BINARY_FILE_SUFFIX;
+		}
+		return textPath + BINARY_FILE_SUFFIX;
+	}
+
+	/**
+	 * @return true if the binary copy of a text parameters file exists and is not older than the text file
+	 */
+	public static boolean isUpToDate(String textPath) {
+		File binaryFile = new File(getBinaryPath(textPath));
+		File textFile = new File(textPath);
+		return binaryFile.exists() && (!textFile.exists() || binaryFile.lastModified() >= textFile.lastModified());
+	}
+
+	public int getLinesCount() {
+		return linesCount;
+	}
+
+	/**
+	 * Reads fields of a line, can be called by several threads at once, each field is copied from the mapped file in bulk
+	 * @param index - zero based index of the line
+	 */
+	public String[] getLine(int index) {
+		int firstField = lineFields.get(index);
+		String[] fields = new String[lineFields.get(index + 1) - firstField];
+		//position and limit of the shared buffer are not changed
+		CharBuffer lineChars = chars.duplicate();
+		for (int i = 0; i < fields.length; i++) {
+			int start = fieldOffsets.get(firstField + i);
+			char[] value = new char[fieldOffsets.get(firstField + i + 1) - start];
+			lineChars.position(start);
+			lineChars.get(value);
+			fields[i] = new String(value);
+		}
+		return fields;
+	}
+
+	/**
+	 * Writes a binary copy of a text parameters file. Lines are read and split as in SubstitutionQueryParameters.initFromFile(),
+	 * comment lines are skipped and reading stops at the first empty line.
+	 * @return number of lines written
+	 */
+	public static int write(String textPath) throws IOException {
+		//first pass counts lines and fields, so that tables can be written before values
+		int linesCount = 0;
+		int fieldsCount = 0;
+		BufferedReader br = new BufferedReader(new FileReader(textPath));
+		try {
+			String line;
+			while ((line = readParametersLine(br)) != null) {
+				linesCount++;
+				fieldsCount += line.split(SubstitutionParametersGenerator.PARAMS_DELIMITER).length;
+			}
+		} finally {
+			br.close();
+		}
+
+		int[] lineFields = new int[linesCount + 1];
+		int[] fieldOffsets = new int[fieldsCount + 1];
+		long charsStart = (long)(HEADER_INTS + lineFields.length + fieldOffsets.length) * 4;
+
+		FileOutputStream fos = new FileOutputStream(getBinaryPath(textPath));
+		try {
+			//second pass writes values after the tables and fills in the tables
+			fos.getChannel().position(charsStart);
+			DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+			br = new BufferedReader(new FileReader(textPath));
+			try {
+				int lineIndex = 0;
+				int fieldIndex = 0;
+				int offset = 0;
+				String line;
+				while ((line = readParametersLine(br)) != null) {
+					lineFields[lineIndex++] = fieldIndex;
+					for (String field : line.split(SubstitutionParametersGenerator.PARAMS_DELIMITER)) {
+						fieldOffsets[fieldIndex++] = offset;
+						dos.writeChars(field);
+						offset += field.length();
+					}
+				}
+				lineFields[lineIndex] = fieldIndex;
+				fieldOffsets[fieldIndex] = offset;
+			} finally {
+				br.close();
+			}
+			dos.flush();
+
+			fos.getChannel().position(0);
+			dos = new DataOutputStream(new BufferedOutputStream(fos));
+			dos.writeInt(MAGIC);
+			dos.writeInt(VERSION);
+			dos.writeInt(linesCount);
+			dos.writeInt(fieldsCount);
+			for (int value : lineFields) {
+				dos.writeInt(value);
+			}
+			for (int value : fieldOffsets) {
+				dos.writeInt(value);
+			}
+			dos.flush();
+		} finally {
+			fos.close();
+		}
+		return linesCount;
+	}
+
+	/**
+	 * @return next line of parameters, skipping comment lines, or null at the end of the file or at the first empty line
+	 */
+	private static String readParametersLine(BufferedReader br) throws IOException {
+		String line = br.readLine();
+		while (line != null && (line.startsWith("[") || line.startsWith("#"))) {
+			line = br.readLine();
+		}
+		return (line == null || line.isEmpty()) ? null : line;
+	}
+
+	/**
+	 * Writes binary copies of the given text parameters files, e.g. of files generated by an earlier version of the driver
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("Usage : SubstitutionParametersFile <text parameters file> [<text parameters file> ...]");
+			return;
+		}
+		for (String textPath : args) {
+			System.out.println(textPath + " : " + write(textPath) + " lines written to " + getBinaryPath(textPath));
+		}
+	}
+}
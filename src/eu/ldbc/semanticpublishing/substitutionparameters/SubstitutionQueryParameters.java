@@ -5,18 +5,44 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Substitution parameters of a query, one line of parameters for each execution. Lines are loaded from the compact binary copy
+ * of the parameters file if it is up to date (see SubstitutionParametersFile), in which case each line is decoded from the mapped file
+ * on first use, or else from the text file. In both cases further calls of get() for the same line return the same array, which must not 
+ * be modified, so that get() does not allocate in the agents' hot path. The trade-off is that decoded lines of the mapped file are kept, 
+ * which grow up to the size of the lines used in a run, while loading stays as fast as mapping the file.
+ */
 public class SubstitutionQueryParameters {
 	private String queryName;
-	private List<String> substParametersList;
+	private List<String[]> substParametersList;
+	private SubstitutionParametersFile mappedFile = null;
+	private AtomicReferenceArray<String[]> mappedLines = null;
+	private ParametersAccessDistribution accessDistribution = ParametersAccessDistribution.ROUND_ROBIN;
 	
 	public SubstitutionQueryParameters(String queryName) {
 		this.queryName = queryName;
-		this.substParametersList = new ArrayList<String>();
+		this.substParametersList = new ArrayList<String[]>();
 	}
 	
 	@SuppressWarnings("resource")
 	public void initFromFile(String fullPath, boolean suppressErrorMessages, boolean stopOnEmptyLine) throws IOException, InterruptedException {
+		//binary copies hold lines up to the first empty line only
+		if (stopOnEmptyLine && SubstitutionParametersFile.isUpToDate(fullPath)) {
+			try {
+				mappedFile = SubstitutionParametersFile.map(SubstitutionParametersFile.getBinaryPath(fullPath));
+				mappedLines = new AtomicReferenceArray<String[]>(mappedFile.getLinesCount());
+				substParametersList.clear();
+				return;
+			} catch (IOException ioe) {
+				System.out.println("\tFailed to map query substitution parameters from : " + SubstitutionParametersFile.getBinaryPath(fullPath) + " : " + ioe.getMessage() + ", reading text file instead.");
+			}
+		}
+		
+		mappedFile = null;
+		mappedLines = null;
+		
 		BufferedReader br = null;
 		try {
 			br = new BufferedReader(new FileReader(fullPath));
@@ -29,7 +55,7 @@ public class SubstitutionQueryParameters {
 				if (stopOnEmptyLine && line.isEmpty()) {
 					return;
 				}
-				substParametersList.add(line);
+				substParametersList.add(line.split(SubstitutionParametersGenerator.PARAMS_DELIMITER));
 				line = br.readLine();
 			}
 		} catch (IOException ioe) {
@@ -45,13 +71,30 @@ public class SubstitutionQueryParameters {
 		return this.queryName;
 	}
 
+	/**
+	 * @param accessDistribution - selects the line used by each query, lines are used one after another by default
+	 */
+	public void setAccessDistribution(ParametersAccessDistribution accessDistribution) {
+		this.accessDistribution = accessDistribution;
+	}
+
+	/**
+	 * @param ind - id of the query, the line of parameters is picked by the access distribution
+	 * @return parameters of the line, shared by all queries using the line, or null if no parameters have been loaded
+	 */
 	public String[] get(long ind) {
-		if (substParametersList.size() > 0) {
-			if (ind >= substParametersList.size()) {
-				return substParametersList.get((int)ind % substParametersList.size()).split(SubstitutionParametersGenerator.PARAMS_DELIMITER);
-			} else {
-				return substParametersList.get((int)ind).split(SubstitutionParametersGenerator.PARAMS_DELIMITER);
+		if (mappedLines != null && mappedLines.length() > 0) {
+			int index = accessDistribution.getIndex(ind, mappedLines.length());
+			String[] parameters = mappedLines.get(index);
+			if (parameters == null) {
+				//a line decoded by two threads at once is the same
+				parameters = mappedFile.getLine(index);
+				mappedLines.set(index, parameters);
 			}
+			return parameters;
+		}
+		if (substParametersList.size() > 0) {
+			return substParametersList.get(accessDistribution.getIndex(ind, substParametersList.size()));
 		}
 		return null;		
 	}
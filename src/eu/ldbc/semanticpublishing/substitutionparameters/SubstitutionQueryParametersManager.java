@@ -8,10 +8,11 @@ import eu.ldbc.semanticpublishing.util.StringUtil;
 
 /**
  * A class which will manage initialization and consumption of generated
- * substitution query parameters
+ * substitution query parameters. Aggregate query parameters are kept per query mix,
+ * files of a named mix are prefixed with the mix name, e.g. basic-query1SubstParameters.txt
  */
 public class SubstitutionQueryParametersManager {
-	private static final SubstitutionQueryParameters[] aggregateSubstitutionParameters;
+	private final SubstitutionQueryParameters[] aggregateSubstitutionParameters;
 	private static final SubstitutionQueryParameters[] editorialSubstitutionParameters;
 
 	public static final String AGGREGATE_QUERY_NAME = "query";
@@ -20,29 +21,67 @@ public class SubstitutionQueryParametersManager {
 	
 	private static final String AGGREGATE_STRING_FORMAT = "%s%d%s";
 	private static final String EDITORIAL_STRING_FORMAT = "%s%s";
+	private static final String QUERY_MIX_PREFIX_FORMAT = "%s-";
 	
 	public static enum QueryType {AGGREGATE, EDITORIAL};
 	
 	static {
-		aggregateSubstitutionParameters = new SubstitutionQueryParameters[Statistics.AGGREGATE_QUERIES_COUNT];
-		for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
-			aggregateSubstitutionParameters[i] = new SubstitutionQueryParameters(String.format(AGGREGATE_STRING_FORMAT, AGGREGATE_QUERY_NAME, (i + 1), SUBST_PARAMETERS_FILE_SUFFIX));
-		}
-		
 		editorialSubstitutionParameters = new SubstitutionQueryParameters[Statistics.EDITORIAL_QUERIES_COUNT];
 		
 		editorialSubstitutionParameters[0] = new SubstitutionQueryParameters(String.format(EDITORIAL_STRING_FORMAT, "insert", SUBST_PARAMETERS_FILE_SUFFIX));
 	}
+	
+	/**
+	 * Creates a manager of editorial substitution parameters only
+	 */
+	public SubstitutionQueryParametersManager() {
+		this("", 0);
+	}
+	
+	/**
+	 * @param queryMixName - name of the query mix, empty for the default mix
+	 * @param aggregateQueriesCount - number of aggregate queries in the mix
+	 */
+	public SubstitutionQueryParametersManager(String queryMixName, int aggregateQueriesCount) {
+		aggregateSubstitutionParameters = new SubstitutionQueryParameters[aggregateQueriesCount];
+		for (int i = 0; i < aggregateQueriesCount; i++) {
+			aggregateSubstitutionParameters[i] = new SubstitutionQueryParameters(getAggregateFileName(queryMixName, i + 1));
+		}
+	}
+	
+	/**
+	 * @param queryMixName - name of the query mix, empty for the default mix
+	 * @param queryNumber - number of the aggregate query, not zero based
+	 * @return name of the file storing substitution parameters of the query
+	 */
+	public static String getAggregateFileName(String queryMixName, int queryNumber) {
+		String fileName = String.format(AGGREGATE_STRING_FORMAT, AGGREGATE_QUERY_NAME, queryNumber, SUBST_PARAMETERS_FILE_SUFFIX);
+		return queryMixName.isEmpty() ? fileName : String.format(QUERY_MIX_PREFIX_FORMAT, queryMixName) + fileName;
+	}
 
-	public void intiSubstitutionParameters(String location, boolean suppressErrorMessagesForAggregate, boolean suppressErrorMessagesForEditorial) throws IOException,	InterruptedException {
-		for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
-			aggregateSubstitutionParameters[i].initFromFile(buildFilePath(location, aggregateSubstitutionParameters[i].getQueryName()), suppressErrorMessagesForAggregate, true);
+	/**
+	 * Sets the distribution of lines of substitution parameters used by aggregate queries, each query gets its own seed
+	 * @param definition - definition of the distribution, see ParametersAccessDistribution
+	 */
+	public void setAggregateAccessDistribution(String definition, long seed) {
+		for (int i = 0; i < aggregateSubstitutionParameters.length; i++) {
+			aggregateSubstitutionParameters[i].setAccessDistribution(new ParametersAccessDistribution(definition, seed + i + 1));
 		}
+	}
+
+	public void intiSubstitutionParameters(String location, boolean suppressErrorMessagesForAggregate, boolean suppressErrorMessagesForEditorial) throws IOException,	InterruptedException {
+		intiAggregateSubstitutionParameters(location, suppressErrorMessagesForAggregate);
 		
 		//editorial - initalizing insert substitution parameters only
 		editorialSubstitutionParameters[0].initFromFile(buildFilePath(location, editorialSubstitutionParameters[0].getQueryName()), suppressErrorMessagesForEditorial, true);
 	}
 
+	public void intiAggregateSubstitutionParameters(String location, boolean suppressErrorMessages) throws IOException, InterruptedException {
+		for (int i = 0; i < aggregateSubstitutionParameters.length; i++) {
+			aggregateSubstitutionParameters[i].initFromFile(buildFilePath(location, aggregateSubstitutionParameters[i].getQueryName()), suppressErrorMessages, true);
+		}
+	}
+
 	private String buildFilePath(String location, String queryName) {
 		StringBuilder sb = new StringBuilder();
 		sb.append(StringUtil.normalizePath(location));
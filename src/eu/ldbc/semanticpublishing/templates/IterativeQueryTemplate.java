@@ -0,0 +1,38 @@
+package eu.ldbc.semanticpublishing.templates;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
+
+/**
+ * An interface for query templates executed in several iterations on behalf of a single user action, e.g. a drill-down or a faceted search.
+ * Each iteration is a query built by the same template, an iteration may pick its parameters from the result of the previous one.
+ */
+public interface IterativeQueryTemplate {
+	/**
+	 * @return maximum number of iterations, including the first one
+	 */
+	public int getIterationsCount();
+
+	/**
+	 * @return true if the iteration needs the result of the previous iteration, false if it can be executed concurrently with previous iterations
+	 */
+	public boolean dependsOnPreviousIteration(int iteration);
+
+	/**
+	 * Picks parameters of the next iteration from the result of an iteration while the result is being received,
+	 * called only if the next iteration depends on that result
+	 * @param iteration - iteration which has produced the result
+	 * @param result - result of the iteration, read from the connection
+	 * @param resultFormat - format of the result
+	 */
+	public void analyzeResult(int iteration, InputStream result, ResultFormat resultFormat) throws IOException;
+
+	/**
+	 * Prepares the template for building the query of an iteration. First iteration (zero) is built right after MustacheTemplate.reInitialize()
+	 * @param iteration - iteration to build the query for, starting from 1
+	 * @return false if no query can be built, e.g. the analyzed result of previous iteration had no results, remaining iterations are skipped then
+	 */
+	public boolean initializeIteration(int iteration);
+}
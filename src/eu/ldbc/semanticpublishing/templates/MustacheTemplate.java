@@ -29,9 +29,25 @@ public abstract class MustacheTemplate {
 	public MustacheTemplate(HashMap<String, String> queryTemplates, String[] substitutionParameters) {
 		this.queryTemplates = queryTemplates;
 		this.substitutionParameters = substitutionParameters;
-		this.parameterIndex = 0;		
+		this.parameterIndex = 0;
 	}
-	
+
+	/**
+	 * Prepares the template for building a new query, allows an instance to be re-used for many queries instead of creating a new one for each query
+	 * @param substitutionParameters - pre-generated values of the query parameters, or null if values are to be drawn by the template
+	 */
+	public void reInitialize(String[] substitutionParameters) {
+		this.substitutionParameters = substitutionParameters;
+		this.parameterIndex = 0;
+		preInitialize();
+	}
+
+	/**
+	 * Draws random values of the query parameters, called by implementors from their constructor and by reInitialize()
+	 */
+	protected void preInitialize() {
+	}
+
 	/**
 	 * Method will return a compiled query string, ready for execution
 	 */
@@ -35,6 +35,14 @@ public class MustacheTemplatesHolder {
 		initializeQueries(SYSTEM);
 		initializeQueries(VALIDATION);
 	}
+	
+	/**
+	 * Loads query templates of a single type only, e.g. aggregation queries of a query mix
+	 */
+	public void loadFrom(String queryPath, String type) throws IOException {
+		this.queryPath = queryPath;
+		initializeQueries(type);
+	}
 		
 	/**
 	 * Initialize queryTemplates the HashMaps with aggregation and editorial queries
@@ -0,0 +1,112 @@
+package eu.ldbc.semanticpublishing.templates;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.statistics.Statistics;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+
+/**
+ * A registry of aggregation query templates. Template classes are looked up once, query N of the mix is built by the N-th class
+ * listed in definitions parameter aggregationQueryTemplates, or by class QueryNTemplate if the parameter is missing, in which case
+ * the mix has as many queries as there are template files query1.txt, query2.txt, ... Simple class names are looked up in
+ * the package given by definitions parameter aggregationQueryTemplatesPackage (default package templates.aggregation).
+ * Each class is expected to have a constructor (RandomUtil, HashMap, Definitions, String[]) and a template file name of form queryN.txt,
+ * so that a query can be added or replaced by listing its class in definitions.properties.
+ *
+ * Template instances are not thread safe, each agent creates its own instances and re-uses them by calling MustacheTemplate.reInitialize().
+ */
+public class QueryTemplatesRegistry {
+	public static final String DEFAULT_TEMPLATES_PACKAGE = "eu.ldbc.semanticpublishing.templates.aggregation";
+
+	private final HashMap<String, String> queryTemplates;
+	private final Definitions definitions;
+	private final List<Constructor<? extends MustacheTemplate>> constructors;
+
+	public QueryTemplatesRegistry(HashMap<String, String> queryTemplates, Definitions definitions) {
+		this(queryTemplates, definitions, definitions.getString(Definitions.AGGREGATION_QUERY_TEMPLATES_PACKAGE, DEFAULT_TEMPLATES_PACKAGE), definitions.getString(Definitions.AGGREGATION_QUERY_TEMPLATES, ""));
+	}
+
+	/**
+	 * @param templatesPackage - package of template classes given by simple names
+	 * @param templateClassNames - comma separated class names, or empty for classes QueryNTemplate of all template files queryN.txt
+	 */
+	public QueryTemplatesRegistry(HashMap<String, String> queryTemplates, Definitions definitions, String templatesPackage, String templateClassNames) {
+		this.queryTemplates = queryTemplates;
+		this.definitions = definitions;
+		this.constructors = new ArrayList<Constructor<? extends MustacheTemplate>>();
+
+		String[] classNames = getTemplateClassNames(queryTemplates, templatesPackage.trim(), templateClassNames);
+		if (classNames.length == 0) {
+			throw new IllegalStateException("No aggregation query templates found, check the queries path and definitions parameter : " + Definitions.AGGREGATION_QUERY_TEMPLATES);
+		}
+
+		for (String className : classNames) {
+			constructors.add(findConstructor(className));
+		}
+	}
+
+	private static String[] getTemplateClassNames(HashMap<String, String> queryTemplates, String templatesPackage, String templateClassNames) {
+		String[] classNames;
+		if (templateClassNames.trim().isEmpty()) {
+			int queriesCount = 0;
+			while (queryTemplates.containsKey(String.format("%s%d.txt", Statistics.AGGREGATE_QUERY_NAME, queriesCount + 1))) {
+				queriesCount++;
+			}
+			classNames = new String[queriesCount];
+			for (int i = 0; i < classNames.length; i++) {
+				classNames[i] = String.format("Query%dTemplate", i + 1);
+			}
+		} else {
+			classNames = templateClassNames.split(",");
+		}
+
+		for (int i = 0; i < classNames.length; i++) {
+			classNames[i] = classNames[i].trim();
+			if (classNames[i].indexOf('.') < 0) {
+				classNames[i] = templatesPackage + "." + classNames[i];
+			}
+		}
+		return classNames;
+	}
+
+	private static Constructor<? extends MustacheTemplate> findConstructor(String className) {
+		try {
+			Class<? extends MustacheTemplate> c = Class.forName(className).asSubclass(MustacheTemplate.class);
+			return c.getConstructor(RandomUtil.class, HashMap.class, Definitions.class, String[].class);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("Query template class not found : " + className, e);
+		} catch (ClassCastException e) {
+			throw new IllegalStateException("Query template class : " + className + " does not extend " + MustacheTemplate.class.getName(), e);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("Query template class : " + className + " has no constructor (RandomUtil, HashMap, Definitions, String[])", e);
+		}
+	}
+
+	public int getQueriesCount() {
+		return constructors.size();
+	}
+
+	/**
+	 * Creates a new instance of a query template
+	 * @param queryNumber - number of the query in the mix, starting from 1
+	 * @param substitutionParameters - pre-generated values of the query parameters, or null if values are to be drawn by the template
+	 */
+	public MustacheTemplate newTemplate(int queryNumber, RandomUtil ru, String[] substitutionParameters) {
+		Constructor<? extends MustacheTemplate> constructor = constructors.get(queryNumber - 1);
+		try {
+			return constructor.newInstance(ru, queryTemplates, definitions, substitutionParameters);
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new IllegalStateException("Failed to create query template : " + constructor.getDeclaringClass().getName(), e.getCause());
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to create query template : " + constructor.getDeclaringClass().getName(), e);
+		}
+	}
+}
@@ -28,7 +28,8 @@ public class Query12Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.cwNextId = ru.nextInt((int)DataManager.creativeWorksNextId.get());
 	}
 	
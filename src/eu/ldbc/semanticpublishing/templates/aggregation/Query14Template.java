@@ -36,7 +36,8 @@ public class Query14Template  extends MustacheTemplate implements SubstitutionPa
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.creativeWorkType = Definitions.creativeWorkTypesAllocation.getAllocation();
 	}
 	
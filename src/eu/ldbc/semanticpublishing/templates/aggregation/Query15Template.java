@@ -21,9 +21,6 @@ public class Query15Template  extends DefaultSelectTemplate implements Substitut
 	
 	private int creativeWorkType;
 	
-	private int parameterIndex;
-	private final String[] substitutionParameters;	
-	
 	public Query15Template(RandomUtil ru, HashMap<String, String> queryTemplates, Definitions definitions, String[] substitutionParameters) {
 		super(queryTemplates);
 		this.substitutionParameters = substitutionParameters;
@@ -31,7 +28,8 @@ public class Query15Template  extends DefaultSelectTemplate implements Substitut
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.creativeWorkType = Definitions.creativeWorkTypesAllocation.getAllocation();
 	}
 	
@@ -27,7 +27,8 @@ public class Query16Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.creativeWorkType = Definitions.creativeWorkTypesAllocation.getAllocation();
 	}
 	
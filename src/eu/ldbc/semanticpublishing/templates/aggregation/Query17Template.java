@@ -2,11 +2,16 @@ package eu.ldbc.semanticpublishing.templates.aggregation;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.refdataset.model.Entity;
+import eu.ldbc.semanticpublishing.resultanalyzers.Query17Analyzer;
+import eu.ldbc.semanticpublishing.templates.IterativeQueryTemplate;
 import eu.ldbc.semanticpublishing.templates.MustacheTemplate;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 
@@ -15,9 +20,10 @@ import eu.ldbc.semanticpublishing.util.RandomUtil;
  * corresponding to file Configuration.QUERIES_PATH/aggregation/query17.txt
  * A geo-locations drill-down query template
  */
-public class Query17Template extends MustacheTemplate implements SubstitutionParametersGenerator {
+public class Query17Template extends MustacheTemplate implements SubstitutionParametersGenerator, IterativeQueryTemplate {
 	//must match with corresponding file name of the mustache template file
 	private static final String templateFileName = "query17.txt";
+	private static final int DRILL_DOWN_ITERATIONS = 5;
 	//south boundary
 	private double minLat = 50.45;	
 	//north boundary
@@ -35,6 +41,9 @@ public class Query17Template extends MustacheTemplate implements SubstitutionPar
 	private double deviationValue = 0.25;
 	
 	private Definitions definitions;
+	private Query17Analyzer analyzer;
+	//picked from the result of previous iteration
+	private Entity sampledEntity;
 	
 	public Query17Template(RandomUtil ru, HashMap<String, String> queryTemplates, Definitions definitions, String[] substitutionParameters) {
 		super(queryTemplates, substitutionParameters);
@@ -43,7 +52,8 @@ public class Query17Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		minLat = definitions.getDouble(Definitions.GEO_MIN_LAT);
 		maxLat = definitions.getDouble(Definitions.GEO_MAX_LAT);
 		minLong = definitions.getDouble(Definitions.GEO_MIN_LONG);
@@ -116,6 +126,40 @@ public class Query17Template extends MustacheTemplate implements SubstitutionPar
 		return "1000";
 	}	
 	
+	@Override
+	public int getIterationsCount() {
+		return DRILL_DOWN_ITERATIONS;
+	}
+	
+	@Override
+	public boolean dependsOnPreviousIteration(int iteration) {
+		return iteration > 0;
+	}
+	
+	@Override
+	public void analyzeResult(int iteration, InputStream result, ResultFormat resultFormat) throws IOException {
+		if (analyzer == null) {
+			analyzer = new Query17Analyzer(resultFormat, ru);
+		}
+		
+		//random entity is picked while receiving the result of the query
+		sampledEntity = analyzer.sampleEntity(result);
+	}
+	
+	@Override
+	public boolean initializeIteration(int iteration) {
+		Entity entity = sampledEntity;
+		sampledEntity = null;
+		if (entity == null) {
+			return false;
+		}
+		
+		double latitude = Double.parseDouble(entity.getObjectFromTriple("geo:lat"));
+		double longtitude = Double.parseDouble(entity.getObjectFromTriple("geo:long"));
+		initialize(latitude, longtitude, ru.nextDouble(0.01, 0.08), null);
+		return true;
+	}
+	
 	@Override
 	public String generateSubstitutionParameters(BufferedWriter bw, int amount) throws IOException {
 		StringBuilder sb = new StringBuilder();
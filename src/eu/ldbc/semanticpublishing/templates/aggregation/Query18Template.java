@@ -2,12 +2,17 @@ package eu.ldbc.semanticpublishing.templates.aggregation;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Calendar;
 import java.util.HashMap;
 
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.refdataset.model.Entity;
+import eu.ldbc.semanticpublishing.resultanalyzers.Query18Analyzer;
+import eu.ldbc.semanticpublishing.templates.IterativeQueryTemplate;
 import eu.ldbc.semanticpublishing.templates.MustacheTemplate;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 
@@ -16,9 +21,10 @@ import eu.ldbc.semanticpublishing.util.RandomUtil;
  * corresponding to file Configuration.QUERIES_PATH/aggregation/query18.txt
  * A time range drill-down query template
  */
-public class Query18Template extends MustacheTemplate implements SubstitutionParametersGenerator {
+public class Query18Template extends MustacheTemplate implements SubstitutionParametersGenerator, IterativeQueryTemplate {
 	//must match with corresponding file name of the mustache template file
 	private static final String templateFileName = "query18.txt";
+	private static final int DRILL_DOWN_ITERATIONS = 5;
 	
 	protected final RandomUtil ru;
 	private int year;
@@ -31,6 +37,9 @@ public class Query18Template extends MustacheTemplate implements SubstitutionPar
 	private int iteration;
 	private int seedYear;
 	private Calendar calendar;
+	private Query18Analyzer analyzer;
+	//picked from the result of previous iteration
+	private Entity sampledEntity;
 
 	public Query18Template(RandomUtil ru, HashMap<String, String> queryTemplates, Definitions definitions, String[] substitutionParameters) {
 		super(queryTemplates, substitutionParameters);
@@ -40,6 +49,7 @@ public class Query18Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}
 	
+	@Override
 	protected void preInitialize() {
 		//Initializing year with a value that is certain to be used. see RandomUtil.YEARS_OFFSET
 		year = this.seedYear;
@@ -271,6 +281,38 @@ public class Query18Template extends MustacheTemplate implements SubstitutionPar
 		return sb.toString();
 	}	
 	
+	@Override
+	public int getIterationsCount() {
+		return DRILL_DOWN_ITERATIONS;
+	}
+	
+	@Override
+	public boolean dependsOnPreviousIteration(int iteration) {
+		return iteration > 0;
+	}
+	
+	@Override
+	public void analyzeResult(int iteration, InputStream result, ResultFormat resultFormat) throws IOException {
+		if (analyzer == null) {
+			analyzer = new Query18Analyzer(resultFormat, ru);
+		}
+		
+		//random entity is picked while receiving the result of the query
+		sampledEntity = analyzer.sampleEntity(result);
+	}
+	
+	@Override
+	public boolean initializeIteration(int iteration) {
+		Entity entity = sampledEntity;
+		sampledEntity = null;
+		if (entity == null) {
+			return false;
+		}
+		
+		initialize(entity.getObjectFromTriple("cwork:dateModified"), ru.nextInt(1, 3), null);
+		return true;
+	}
+	
 	@Override
 	public String generateSubstitutionParameters(BufferedWriter bw, int amount) throws IOException {
 		StringBuilder sb = new StringBuilder();
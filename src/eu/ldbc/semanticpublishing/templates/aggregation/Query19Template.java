@@ -26,6 +26,7 @@ public class Query19Template extends Query18Template {
 		preInitialize();
 	}
 	
+	@Override
 	protected void preInitialize() {
 		super.preInitialize();
 		this.parameterIndex = 0;
@@ -65,6 +66,14 @@ public class Query19Template extends Query18Template {
 		return "100";
 	}
 	
+	/**
+	 * Query19 is executed once, without drilling down into its results
+	 */
+	@Override
+	public int getIterationsCount() {
+		return 1;
+	}
+	
 	@Override
 	public String generateSubstitutionParameters(BufferedWriter bw, int amount) throws IOException {
 		StringBuilder sb = new StringBuilder();
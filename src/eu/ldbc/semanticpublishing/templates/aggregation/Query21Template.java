@@ -2,12 +2,16 @@ package eu.ldbc.semanticpublishing.templates.aggregation;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Calendar;
 import java.util.HashMap;
 
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.resultanalyzers.Query21Analyzer;
+import eu.ldbc.semanticpublishing.templates.IterativeQueryTemplate;
 import eu.ldbc.semanticpublishing.templates.MustacheTemplate;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 
@@ -16,7 +20,7 @@ import eu.ldbc.semanticpublishing.util.RandomUtil;
  * corresponding to file Configuration.QUERIES_PATH/aggregation/query21.txt
  * A time faceted search query template
  */
-public class Query21Template extends MustacheTemplate implements SubstitutionParametersGenerator {
+public class Query21Template extends MustacheTemplate implements SubstitutionParametersGenerator, IterativeQueryTemplate {
 	//must match with corresponding file name of the mustache template file
 	private static final String templateFileName = "query21.txt";
 	
@@ -43,6 +47,7 @@ public class Query21Template extends MustacheTemplate implements SubstitutionPar
 	protected static final String ORDER_BY_STRING_ITERATION_3 = "ORDER BY ?year ?month ?count";
 	protected static final String ORDER_BY_STRING_ITERATION_4 = "ORDER BY ?dateCreated ?title";
 	
+	protected static final int FACETED_SEARCH_ITERATIONS = 5;
 	protected int iteration;
 	
 	protected static final String[] categoryTypes = {"<http://www.bbc.co.uk/category/PoliticsPersonsReference>", 
@@ -61,6 +66,10 @@ public class Query21Template extends MustacheTemplate implements SubstitutionPar
 	protected String containsExpression2;
 	protected String category;
 	
+	private Query21Analyzer analyzer;
+	//picked from the result of iteration preceding the last one
+	private String sampledDate;
+	
 	public Query21Template(RandomUtil ru, HashMap<String, String> queryTemplates, Definitions definitions, String[] substitutionParameters) {
 		super(queryTemplates, substitutionParameters);
 		this.ru = ru;		
@@ -68,6 +77,7 @@ public class Query21Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}
 	
+	@Override
 	protected void preInitialize() {
 		this.iteration = 0;
 		this.year = 0;
@@ -221,6 +231,52 @@ public class Query21Template extends MustacheTemplate implements SubstitutionPar
 		return "500";
 	}
 	
+	@Override
+	public int getIterationsCount() {
+		return FACETED_SEARCH_ITERATIONS;
+	}
+	
+	/**
+	 * Last iteration narrows the search to a date picked from the result of previous one, other iterations are independent
+	 */
+	@Override
+	public boolean dependsOnPreviousIteration(int iteration) {
+		return iteration == FACETED_SEARCH_ITERATIONS - 1;
+	}
+	
+	@Override
+	public void analyzeResult(int iteration, InputStream result, ResultFormat resultFormat) throws IOException {
+		if (analyzer == null) {
+			analyzer = newAnalyzer(resultFormat);
+		}
+		
+		//random date is picked while receiving the result of the query
+		sampledDate = analyzer.sampleDate(result);
+	}
+	
+	@Override
+	public boolean initializeIteration(int iteration) {
+		String dateString = "";
+		if (dependsOnPreviousIteration(iteration)) {
+			dateString = sampledDate;
+			sampledDate = null;
+			if (dateString == null) {
+				//no results from previous query
+				return false;
+			}
+		}
+		
+		initialize(iteration, dateString, null);
+		return true;
+	}
+	
+	/**
+	 * @return analyzer of the result of iteration preceding the last one, date string format : 2010-10-02
+	 */
+	protected Query21Analyzer newAnalyzer(ResultFormat resultFormat) {
+		return new Query21Analyzer(resultFormat, ru);
+	}
+	
 	@Override
 	public String generateSubstitutionParameters(BufferedWriter bw, int amount) throws IOException {
 		StringBuilder sb = new StringBuilder();
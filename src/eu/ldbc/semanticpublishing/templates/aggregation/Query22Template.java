@@ -5,8 +5,11 @@ import java.io.IOException;
 import java.util.HashMap;
 
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.ResultFormat;
 import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.resultanalyzers.Query21Analyzer;
+import eu.ldbc.semanticpublishing.resultanalyzers.Query22Analyzer;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 
 /**
@@ -61,6 +64,14 @@ public class Query22Template extends Query21Template {
 		}
 	}
 	
+	/**
+	 * @return analyzer of the result of iteration preceding the last one, date string format : 2010-10
+	 */
+	@Override
+	protected Query21Analyzer newAnalyzer(ResultFormat resultFormat) {
+		return new Query22Analyzer(resultFormat, ru);
+	}
+	
 	@Override
 	public String generateSubstitutionParameters(BufferedWriter bw, int amount) throws IOException {
 		StringBuilder sb = new StringBuilder();
@@ -80,6 +80,14 @@ public class Query23Template extends Query21Template {
 		}
 	}	
 	
+	/**
+	 * Query23 doesn't use results of previous iterations, all iterations are independent
+	 */
+	@Override
+	public boolean dependsOnPreviousIteration(int iteration) {
+		return false;
+	}
+	
 	@Override
 	public String generateSubstitutionParameters(BufferedWriter bw, int amount) throws IOException {
 		StringBuilder sb = new StringBuilder();
@@ -34,7 +34,8 @@ public class Query24Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 //		this.useCorrelatedEntities = ru.nextBoolean();
 		if (DataManager.correlatedEntitiesList.size() > 0 /*&& useCorrelatedEntities*/) {
 			//correlatedEntitiesList contains URIs of correlated entities in the sequence : entityA1, entityB1, entityC1, entityA2, entityB2, entityC2...etc.
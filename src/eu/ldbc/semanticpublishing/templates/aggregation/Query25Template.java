@@ -31,7 +31,8 @@ public class Query25Template extends MustacheTemplate implements SubstitutionPar
 		preInitialize();
 	}	
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.entityURI = selectEntityURI();
 //		this.useCorrelatedEntities = ru.nextBoolean();		
 	}
@@ -32,7 +32,8 @@ public class Query3Template extends MustacheTemplate implements SubstitutionPara
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.initialDate = ru.randomDateTime();
 	}
 	
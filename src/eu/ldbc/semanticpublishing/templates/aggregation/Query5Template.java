@@ -55,7 +55,8 @@ public class Query5Template extends MustacheTemplate implements SubstitutionPara
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.entityTypeIndex = ru.nextInt(entityTypes.length);
 	}
 	
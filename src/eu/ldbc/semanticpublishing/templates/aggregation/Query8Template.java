@@ -34,7 +34,8 @@ public class Query8Template extends MustacheTemplate implements SubstitutionPara
 		preInitialize();
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.initialDate = ru.randomDateTime();
 		this.creativeWorkType = Definitions.creativeWorkTypesAllocation.getAllocation();		
 	}
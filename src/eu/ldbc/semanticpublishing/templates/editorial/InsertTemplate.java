@@ -55,7 +55,8 @@ public class InsertTemplate extends MustacheTemplate implements SubstitutionPara
 		}
 	}
 	
-	private void preInitialize() {
+	@Override
+	protected void preInitialize() {
 		this.aboutsCount = Definitions.aboutsAllocations.getAllocation();
 		this.mentionsCount = Definitions.mentionsAllocations.getAllocation();
 	}
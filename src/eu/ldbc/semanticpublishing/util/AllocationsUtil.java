@@ -11,6 +11,10 @@ public class AllocationsUtil {
 
 	private Random random;
 
+	//random generator of the current thread, used instead of the random generator of each allocator while set,
+	//e.g. by parallel generators that have to draw allocations independently of the other threads
+	private static final ThreadLocal<Random> threadRandom = new ThreadLocal<Random>();
+
 	/**
 	 * Construct an allocator. For example, to randomly allocate 10% of objects
 	 * to band 0, 35% to band 1 and the rest to band 2, initialise with these
@@ -48,7 +52,8 @@ public class AllocationsUtil {
 	 * @return The allocation band
 	 */
 	public int getAllocation() {
-		double d = random.nextDouble();
+		Random r = threadRandom.get();
+		double d = (r != null) ? r.nextDouble() : random.nextDouble();
 		for (int i = 0; i < limits.length; i++) {
 			if (d < limits[i]) {
 				return i;
@@ -60,4 +65,15 @@ public class AllocationsUtil {
 	public void setRandom(Random random) {
 		this.random = random;
 	}
+
+	/**
+	 * Sets the random generator used by all allocators in the current thread, null restores the random generators of the allocators
+	 */
+	public static void setThreadRandom(Random random) {
+		if (random == null) {
+			threadRandom.remove();
+		} else {
+			threadRandom.set(random);
+		}
+	}
 }
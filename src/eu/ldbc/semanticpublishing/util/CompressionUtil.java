@@ -1,10 +1,13 @@
 package eu.ldbc.semanticpublishing.util;
 
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-//import java.util.zip.ZipEntry;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -16,32 +19,74 @@ public class CompressionUtil {
 		FILE_OUTPUT_STREAM, BUFFERED_OUTPUT_STREAM, ZIP_OUTPUT_STREAM
 	}
 	
-	public static void compressFile(String inputFilePath, boolean deleteSource) throws IOException {
-		byte[] buffer = new byte[1024];
-		FileOutputStream fos = null;
-		GZIPOutputStream gzos = null;
-		FileInputStream fis = null;
-		
-		try {			
-			fos = new FileOutputStream(inputFilePath + ".gz");
-			gzos = new GZIPOutputStream(fos);
-			
-			fis = new FileInputStream(inputFilePath);			
-//			String zipEntryName = inputFilePath.substring(inputFilePath.lastIndexOf(File.separator) + 1);			
-//			gzos.putNextEntry(new ZipEntry(zipEntryName));
-			
-			int length;
-			while ((length = fis.read(buffer)) > 0) {
-				gzos.write(buffer, 0, length);
-			}
-		} finally {
-			gzos.close();
-			fos.close();
-			fis.close();
-		}		
-		
-		if (deleteSource) {
-			new File(inputFilePath).delete();
+	private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+	private static final int PENDING_BLOCKS_PER_THREAD = 2;
+
+	//threads compressing blocks of parallel gzip streams, shared by all streams, null if each stream is compressed by its writing thread
+	private static ExecutorService compressionService = null;
+	private static int compressionThreads = 0;
+
+	private static final AtomicLong uncompressedBytes = new AtomicLong(0);
+	private static final AtomicLong compressedBytes = new AtomicLong(0);
+
+	/**
+	 * Starts threads compressing streams created by createCompressedOutputStream(), each stream is then written as a parallel multi-member gzip
+	 * @param threads - number of threads, if zero or less each stream is compressed as a single gzip member by the thread writing to it
+	 */
+	public static synchronized void startCompressionThreads(int threads) {
+		stopCompressionThreads();
+		if (threads > 0) {
+			compressionThreads = threads;
+			compressionService = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "CompressionThread");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	public static synchronized void stopCompressionThreads() {
+		if (compressionService != null) {
+			compressionService.shutdown();
+			compressionService = null;
+			compressionThreads = 0;
 		}
 	}
+
+	/**
+	 * Creates a stream which compresses data while it is being written, i.e. without writing an uncompressed file first
+	 * @param filePath - path of the compressed file, including .gz extension
+	 */
+	public static synchronized OutputStream createCompressedOutputStream(String filePath) throws IOException {
+		OutputStream fileStream = new CountingOutputStream(new FileOutputStream(filePath), compressedBytes);
+		OutputStream gzipStream;
+		if (compressionService != null) {
+			gzipStream = new ParallelGZIPOutputStream(fileStream, compressionService, compressionThreads * PENDING_BLOCKS_PER_THREAD);
+		} else {
+			gzipStream = new GZIPOutputStream(fileStream, STREAM_BUFFER_SIZE);
+		}
+		return new BufferedOutputStream(new CountingOutputStream(gzipStream, uncompressedBytes), STREAM_BUFFER_SIZE);
+	}
+
+	public static void resetStatistics() {
+		uncompressedBytes.set(0);
+		compressedBytes.set(0);
+	}
+
+	/**
+	 * @return bytes written to streams created by createCompressedOutputStream() since last reset of statistics
+	 */
+	public static long getUncompressedBytes() {
+		return uncompressedBytes.get();
+	}
+
+	/**
+	 * @return bytes of compressed data written to files by streams created by createCompressedOutputStream() since last reset of statistics
+	 */
+	public static long getCompressedBytes() {
+		return compressedBytes.get();
+	}
 }
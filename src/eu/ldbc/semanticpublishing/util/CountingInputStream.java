@@ -0,0 +1,45 @@
+package eu.ldbc.semanticpublishing.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An input stream which adds the number of bytes read from the underlying stream to a shared counter.
+ */
+public class CountingInputStream extends FilterInputStream {
+	private final AtomicLong bytesCounter;
+
+	public CountingInputStream(InputStream in, AtomicLong bytesCounter) {
+		super(in);
+		this.bytesCounter = bytesCounter;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b != -1) {
+			bytesCounter.incrementAndGet();
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int length = super.read(b, off, len);
+		if (length > 0) {
+			bytesCounter.addAndGet(length);
+		}
+		return length;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		if (skipped > 0) {
+			bytesCounter.addAndGet(skipped);
+		}
+		return skipped;
+	}
+}
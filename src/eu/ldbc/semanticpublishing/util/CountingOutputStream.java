@@ -0,0 +1,30 @@
+package eu.ldbc.semanticpublishing.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An output stream which adds the number of bytes written to the underlying stream to a shared counter.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+	private final AtomicLong bytesCounter;
+
+	public CountingOutputStream(OutputStream out, AtomicLong bytesCounter) {
+		super(out);
+		this.bytesCounter = bytesCounter;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		bytesCounter.incrementAndGet();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		bytesCounter.addAndGet(len);
+	}
+}
@@ -0,0 +1,82 @@
+package eu.ldbc.semanticpublishing.util;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Words of the dictionary used for generated titles and descriptions, packed into a single char array, so that sentences
+ * can be copied word by word into a buffer without creating a String for each word. Words are kept in the order
+ * of the list they were created from, so that a word picked by index is the same as from the list.
+ * Instances are immutable and shared by all RandomUtil instances created by RandomUtil.randomUtilFactory().
+ */
+public class PackedWordsDictionary {
+	private final char[] chars;
+	private final int[] offsets;
+	private final int maxWordLength;
+
+	public PackedWordsDictionary(List<String> words) {
+		int length = 0;
+		int maxLength = 0;
+		for (String word : words) {
+			length += word.length();
+			maxLength = Math.max(maxLength, word.length());
+		}
+
+		this.chars = new char[length];
+		this.offsets = new int[words.size() + 1];
+		this.maxWordLength = maxLength;
+
+		int offset = 0;
+		for (int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			offsets[i] = offset;
+			word.getChars(0, word.length(), chars, offset);
+			offset += word.length();
+		}
+		offsets[words.size()] = offset;
+	}
+
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	public int getMaxWordLength() {
+		return maxWordLength;
+	}
+
+	/**
+	 * Copies a word into the buffer, which must have space for getMaxWordLength() chars
+	 * @return index following the copied word
+	 */
+	public int appendWord(char[] buffer, int index, int wordIndex) {
+		int start = offsets[wordIndex];
+		int length = offsets[wordIndex + 1] - start;
+		System.arraycopy(chars, start, buffer, index, length);
+		return index + length;
+	}
+
+	/**
+	 * Measures throughput of generating sentences of titles and descriptions, as by CreativeWorkBuilder
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage : PackedWordsDictionary <words dictionary file> [sentences, default 1000000]");
+			return;
+		}
+		int sentences = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		RandomUtil ru = new RandomUtil(args[0], 0, 2011, 1);
+		Random random = ru.getRandom();
+
+		//first round warms up the JIT compiler
+		for (int round = 0; round < 2; round++) {
+			long chars = 0;
+			long startTimeNs = System.nanoTime();
+			for (int i = 0; i < sentences; i++) {
+				chars += ru.sentenceFromDictionaryWords("label", 10, false, true, 1, false).length();
+				chars += ru.sentenceFromDictionaryWords("", 8 + random.nextInt(19), false, true, 1, false).length();
+			}
+			double seconds = (System.nanoTime() - startTimeNs) / 1000000000.0;
+			System.out.println(String.format("%s : %,d sentences in %.2f seconds, %,.0f sentences per second, %.1f MB of text per second", (round == 0 ? "warm-up" : "measured"), sentences * 2L, seconds, sentences * 2 / seconds, chars / (1024.0 * 1024.0) / seconds));
+		}
+	}
+}
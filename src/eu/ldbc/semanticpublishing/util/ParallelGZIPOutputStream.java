@@ -0,0 +1,136 @@
+package eu.ldbc.semanticpublishing.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An output stream writing gzip data as a series of gzip members, each compressing BLOCK_SIZE bytes of the input. Blocks are
+ * compressed in parallel by threads of the given executor and written in order. Readers of gzip files (gzip, GZIPInputStream)
+ * read concatenated members as a single stream, while readers aware of members can decompress them in parallel.
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+	public static final int BLOCK_SIZE = 1024 * 1024;
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	private final OutputStream out;
+	private final ExecutorService executorService;
+	private final int maxPendingBlocks;
+	private final LinkedList<Future<byte[]>> pendingBlocks = new LinkedList<Future<byte[]>>();
+	private byte[] block = new byte[BLOCK_SIZE];
+	private int blockLength = 0;
+	private boolean memberWritten = false;
+	private boolean closed = false;
+
+	/**
+	 * @param maxPendingBlocks - number of blocks which can be compressed at once, limits memory taken by the stream
+	 */
+	public ParallelGZIPOutputStream(OutputStream out, ExecutorService executorService, int maxPendingBlocks) {
+		this.out = out;
+		this.executorService = executorService;
+		this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (blockLength == BLOCK_SIZE) {
+			submitBlock();
+		}
+		block[blockLength++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (blockLength == BLOCK_SIZE) {
+				submitBlock();
+			}
+			int length = Math.min(len, BLOCK_SIZE - blockLength);
+			System.arraycopy(b, off, block, blockLength, length);
+			blockLength += length;
+			off += length;
+			len -= length;
+		}
+	}
+
+	/**
+	 * Writes blocks compressed so far, the block being filled is not compressed until it is full, so that flushing does not produce small members
+	 */
+	@Override
+	public void flush() throws IOException {
+		while (!pendingBlocks.isEmpty() && pendingBlocks.getFirst().isDone()) {
+			writeFirstPendingBlock();
+		}
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			//an empty stream is written as a single empty member, to keep the output a valid gzip file
+			if (blockLength > 0 || (!memberWritten && pendingBlocks.isEmpty())) {
+				submitBlock();
+			}
+			while (!pendingBlocks.isEmpty()) {
+				writeFirstPendingBlock();
+			}
+		} finally {
+			for (Future<byte[]> pendingBlock : pendingBlocks) {
+				pendingBlock.cancel(false);
+			}
+			out.close();
+		}
+	}
+
+	private void submitBlock() throws IOException {
+		while (pendingBlocks.size() >= maxPendingBlocks) {
+			writeFirstPendingBlock();
+		}
+
+		final byte[] data = block;
+		final int length = blockLength;
+		pendingBlocks.add(executorService.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return compress(data, length);
+			}
+		}));
+
+		block = new byte[BLOCK_SIZE];
+		blockLength = 0;
+	}
+
+	private void writeFirstPendingBlock() throws IOException {
+		try {
+			out.write(pendingBlocks.getFirst().get());
+			pendingBlocks.removeFirst();
+			memberWritten = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while compressing data");
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to compress data : " + e.getCause().getMessage());
+		}
+	}
+
+	/**
+	 * @return a complete gzip member with compressed data
+	 */
+	private static byte[] compress(byte[] data, int length) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(length / 4 + 64);
+		GZIPOutputStream gzos = new GZIPOutputStream(baos, GZIP_BUFFER_SIZE);
+		gzos.write(data, 0, length);
+		gzos.close();
+		return baos.toByteArray();
+	}
+}
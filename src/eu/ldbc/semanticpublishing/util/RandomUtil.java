@@ -4,7 +4,6 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -16,10 +15,29 @@ import java.util.Random;
 public class RandomUtil {
 	private static final String baseURI = "http://www.bbc.co.uk/";
 	private static final char[] symbols = new char[62];
-	private static final Calendar CALENDAR;
+	public static final long MILLIS_PER_SECOND = 1000L;
+	public static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+	public static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+	public static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+	private static final String XSD_STRING_SUFFIX = "^^<http://www.w3.org/2001/XMLSchema#string>";
+	private static final String XSD_DATE_TIME_SUFFIX = "^^<http://www.w3.org/2001/XMLSchema#dateTime>";
+	//sentences and dates are written into buffers of the calling thread, instances of RandomUtil can be used by several threads
+	private static final ThreadLocal<char[]> SENTENCE_BUFFER = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[1024];
+		}
+	};
+	private static final ThreadLocal<char[]> DATE_TIME_BUFFER = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[128];
+		}
+	};
 	
 	private Random randomGenerator;
 	private List<String> wordsList = new ArrayList<String>();
+	private volatile PackedWordsDictionary dictionary = null;
 	private String wordsFilePath;
 	private long seed = 0;
 	private int seedYear = 2000;
@@ -38,8 +56,6 @@ public class RandomUtil {
 		for (int index = 36; index < 62; ++index) {
 			symbols[index] = (char) ('A' + index - 10 - 26);
 		}
-		
-		CALENDAR = Calendar.getInstance();
 	}
 	
 	public RandomUtil(String wordsFilePath, long seed, int seedYear, int dataGenerationPeriodYears) {
@@ -62,8 +78,9 @@ public class RandomUtil {
 	
 	public RandomUtil randomUtilFactory(long newSeed) {
 		RandomUtil newRandomUtil = new RandomUtil(newSeed, seedYear, dataGenerationPeriodYears);
-		//re-using already initialized words list
+		//re-using already initialized words list and its packed dictionary
 		newRandomUtil.setWordsList(this.wordsList);
+		newRandomUtil.dictionary = getDictionary();
 		return newRandomUtil;
 	}
 
@@ -77,6 +94,7 @@ public class RandomUtil {
 	
 	public void setWordsList(List<String> wordsList) {
 		this.wordsList = wordsList;
+		this.dictionary = null;
 	}
 	
 	public void setRandomSeed(long seed) {
@@ -145,21 +163,12 @@ public class RandomUtil {
 	 * Produces a xsd:dateTime literal for current time and date
 	 */
 	public String currentDateTimeString() {
-		CALENDAR.setTimeInMillis(System.currentTimeMillis());
-
-		int year = CALENDAR.get(Calendar.YEAR);
-		int month = CALENDAR.get(Calendar.MONTH) + 1;
-		int day = CALENDAR.get(Calendar.DAY_OF_MONTH);
-		int hour = CALENDAR.get(Calendar.HOUR_OF_DAY);
-		int minute = CALENDAR.get(Calendar.MINUTE);
-		int second = CALENDAR.get(Calendar.SECOND);
-
-		return formatDateTime(year, month, day, hour, minute, second);
+		return dateTimeString(System.currentTimeMillis());
 	}
 
 	/**
 	 * Produces a random xsd:dateTime literal with a fixed year set in seedYear
-	 *   e.g. "2011-10-21T20:55:58.379+03:00"^^xsd:dateTime
+	 *   e.g. "2011-10-21T20:55:58Z"^^xsd:dateTime
 	 */
 	public String randomDateTimeString() {
 		int year = seedYear;
@@ -168,71 +177,69 @@ public class RandomUtil {
 		}
 
 		int month = nextInt(1, 12 + 1);
-
-		int day;
-		if (month == 2) {
-			day = nextInt(1, 28 + 1);
-		} else if (month == 4 || month == 6 || month == 9 || month == 11) {
-			day = nextInt(1, 30 + 1);
-		} else { // if (month == 1 || month == 3 || month == 5 || month == 7 ||
-					// month == 8 || month == 10|| month == 12) {
-			day = nextInt(1, 31 + 1);
-		}
+		int day = randomDayOfMonth(month);
 
 		int hour = nextInt(0, 23 + 1);
 		int minute = nextInt(0, 59 + 1);
 		int second = nextInt(0, 59 + 1);
 
-		return formatDateTime(year, month, day, hour, minute, second);
+		return dateTimeString(toEpochMillis(year, month, day, hour, minute, second, 0));
 	}
 	
 	/**
 	 * Produces a xsd:dateTime literal from given parameter Date
-	 *   e.g. "2011-10-21T20:55:58.379+03:00"^^xsd:dateTime
+	 *   e.g. "2011-10-21T20:55:58Z"^^xsd:dateTime
 	 */	
 	public String dateTimeString(Date date) {
-		CALENDAR.setTime(date);
-		
-		int year = CALENDAR.get(Calendar.YEAR);
-		int month = CALENDAR.get(Calendar.MONTH) + 1;
-		int day = CALENDAR.get(Calendar.DAY_OF_MONTH);
-		int hour = CALENDAR.get(Calendar.HOUR);
-		int minute = CALENDAR.get(Calendar.MINUTE);
-		int second = CALENDAR.get(Calendar.SECOND);
-		
-		return formatDateTime(year, month, day, hour, minute, second);
+		return dateTimeString(date.getTime());
+	}
+	
+	/**
+	 * Produces a xsd:dateTime literal in UTC, without milliseconds, from given milliseconds since the epoch
+	 */
+	public String dateTimeString(long millis) {
+		char[] buffer = DATE_TIME_BUFFER.get();
+		buffer[0] = '"';
+		int length = formatDateTime(buffer, 1, millis, false);
+		buffer[length++] = '"';
+		XSD_DATE_TIME_SUFFIX.getChars(0, XSD_DATE_TIME_SUFFIX.length(), buffer, length);
+		return new String(buffer, 0, length + XSD_DATE_TIME_SUFFIX.length());
+	}
+	
+	/**
+	 * @return lexical form of a xsd:dateTime value in UTC, with milliseconds, from given milliseconds since the epoch, 
+	 *         e.g. 2011-10-21T20:55:58.379Z, as written by Sesame for a Date in UTC time zone
+	 */
+	public static String xsdDateTime(long millis) {
+		char[] buffer = DATE_TIME_BUFFER.get();
+		return new String(buffer, 0, formatDateTime(buffer, 0, millis, true));
 	}
 	
 	/**
 	 * Produces a random Date object with a fixed offset of YEARS_OFFSET years from now
 	 */
 	public Date randomDateTime() {
+		return new Date(randomDateTimeMillis());
+	}
+	
+	/**
+	 * Produces a random date and time within the data generation period, in milliseconds since the epoch (UTC)
+	 */
+	public long randomDateTimeMillis() {
 		int year = seedYear;
 		if ((dataGenerationPeriodYears - 1) > 0) {
 			year += nextInt(dataGenerationPeriodYears);
 		}
 
 		int month = nextInt(1, 12 + 1);
-
-		int day;
-		if (month == 2) {
-			day = nextInt(1, 28 + 1);
-		} else if (month == 4 || month == 6 || month == 9 || month == 11) {
-			day = nextInt(1, 30 + 1);
-		} else { // if (month == 1 || month == 3 || month == 5 || month == 7 ||
-					// month == 8 || month == 10|| month == 12) {
-			day = nextInt(1, 31 + 1);
-		}
+		int day = randomDayOfMonth(month);
 
 		int hour = nextInt(0, 23 + 1);
 		int minute = nextInt(0, 59 + 1);
 		int second = nextInt(0, 59 + 1);
 		int millisecond = nextInt(0, 999 + 1);
 
-		CALENDAR.set(year, month - 1, day, hour, minute, second);
-		CALENDAR.set(Calendar.MILLISECOND, millisecond);
-		
-		return CALENDAR.getTime();
+		return toEpochMillis(year, month, day, hour, minute, second, millisecond);
 	}
 	
 	/**
@@ -244,13 +251,12 @@ public class RandomUtil {
 			year += nextInt(dataGenerationPeriodYears);
 		}
 		
-		CALENDAR.set(year, 0, 1, nextInt(23 + 1), nextInt(59 + 1), nextInt(59 + 1));
-		
+		int hour = nextInt(23 + 1);
+		int minute = nextInt(59 + 1);
+		int second = nextInt(59 + 1);
 		int offset = nextInt(maxDaysAfter + 1);
 		
-		CALENDAR.add(Calendar.DAY_OF_YEAR, offset);
-		
-		return CALENDAR.getTime();
+		return new Date(toEpochMillis(year, 1, 1, hour, minute, second, 0) + offset * MILLIS_PER_DAY);
 	}
 
 	/**
@@ -277,30 +283,134 @@ public class RandomUtil {
 			month = nextInt(1, maxMonth + 1);
 		}
 
-		int day;
-		if (month == 2) {
-			day = nextInt(1, 28 + 1);
-		} else if (month == 4 || month == 6 || month == 9 || month == 11) {
-			day = nextInt(1, 30 + 1);
-		} else { // if (month == 1 || month == 3 || month == 5 || month == 7 ||
-					// month == 8 || month == 10|| month == 12) {
-			day = nextInt(1, 31 + 1);
-		}
+		int day = randomDayOfMonth(month);
 
 		int hour = nextInt(0, 23 + 1);
 		int minute = nextInt(0, 59 + 1);
 		int second = nextInt(0, 59 + 1);
 
-		CALENDAR.set(year, month - 1, day, hour, minute, second);
+		return new Date(toEpochMillis(year, month, day, hour, minute, second, 0));
+	}
+	
+	private int randomDayOfMonth(int month) {
+		if (month == 2) {
+			return nextInt(1, 28 + 1);
+		} else if (month == 4 || month == 6 || month == 9 || month == 11) {
+			return nextInt(1, 30 + 1);
+		}
+		return nextInt(1, 31 + 1);
+	}
+	
+	/**
+	 * Converts a date and time in UTC to milliseconds since the epoch. Days past the end of the month roll over to the next month
+	 * @param month - Jan=1, Dec=12
+	 */
+	public static long toEpochMillis(int year, int month, int day, int hour, int minute, int second, int millisecond) {
+		return daysFromCivil(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND + millisecond;
+	}
+	
+	/**
+	 * Adds months to a date, keeping the time of day. The day of month is limited to the length of the resulting month, 
+	 * as by Calendar.add(Calendar.MONTH, months)
+	 */
+	public static long addMonths(long millis, int months) {
+		long days = floorDiv(millis, MILLIS_PER_DAY);
+		long timeOfDay = millis - days * MILLIS_PER_DAY;
+		long date = civilFromDays(days);
 		
-		return CALENDAR.getTime();
-	}	
+		int monthIndex = (int)(date >> 9) * 12 + (int)((date >> 5) & 0xF) - 1 + months;
+		int year = floorDiv(monthIndex, 12);
+		int month = monthIndex - year * 12 + 1;
+		int day = Math.min((int)(date & 0x1F), daysInMonth(year, month));
+		
+		return daysFromCivil(year, month, day) * MILLIS_PER_DAY + timeOfDay;
+	}
+	
+	/**
+	 * Replaces milliseconds of the second, as by Calendar.set(Calendar.MILLISECOND, millisecond)
+	 */
+	public static long setMillisecond(long millis, int millisecond) {
+		return floorDiv(millis, MILLIS_PER_SECOND) * MILLIS_PER_SECOND + millisecond;
+	}
+	
+	private static int daysInMonth(int year, int month) {
+		if (month == 2) {
+			return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+		}
+		return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+	}
 	
 	/**
-	 * Produce a data time with format "2013-06-05T16:43:30Z"^^xsd:dateTime
+	 * @return days since 1970-01-01 of a date in the proleptic Gregorian calendar
 	 */
-	private String formatDateTime(int year, int month, int day, int hour, int minute, int second) {
-		return String.format("\"%1$04d-%2$02d-%3$02dT%4$02d:%5$02d:%6$02dZ\"^^<http://www.w3.org/2001/XMLSchema#dateTime>", year, month, day, hour,	minute, second);
+	private static long daysFromCivil(int year, int month, int day) {
+		int y = (month <= 2) ? year - 1 : year;
+		int era = floorDiv(y, 400);
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+	
+	/**
+	 * @return year, month and day of days since 1970-01-01, packed as (year << 9) | (month << 5) | day
+	 */
+	private static long civilFromDays(long days) {
+		days += 719468;
+		long era = floorDiv(days, 146097);
+		int dayOfEra = (int)(days - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int mp = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+		int month = (mp < 10) ? mp + 3 : mp - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return (year << 9) | (month << 5) | day;
+	}
+	
+	private static long floorDiv(long value, long divisor) {
+		long result = value / divisor;
+		return (value % divisor != 0 && (value < 0) != (divisor < 0)) ? result - 1 : result;
+	}
+	
+	private static int floorDiv(int value, int divisor) {
+		return (int)floorDiv((long)value, (long)divisor);
+	}
+	
+	/**
+	 * Writes a date and time in UTC in format 2013-06-05T16:43:30Z or 2013-06-05T16:43:30.379Z
+	 * @return index following the written characters
+	 */
+	private static int formatDateTime(char[] buffer, int index, long millis, boolean withMilliseconds) {
+		long days = floorDiv(millis, MILLIS_PER_DAY);
+		int timeOfDay = (int)(millis - days * MILLIS_PER_DAY);
+		long date = civilFromDays(days);
+		
+		index = formatDigits(buffer, index, (int)(date >> 9), 4);
+		buffer[index++] = '-';
+		index = formatDigits(buffer, index, (int)((date >> 5) & 0xF), 2);
+		buffer[index++] = '-';
+		index = formatDigits(buffer, index, (int)(date & 0x1F), 2);
+		buffer[index++] = 'T';
+		index = formatDigits(buffer, index, timeOfDay / (int)MILLIS_PER_HOUR, 2);
+		buffer[index++] = ':';
+		index = formatDigits(buffer, index, (timeOfDay / (int)MILLIS_PER_MINUTE) % 60, 2);
+		buffer[index++] = ':';
+		index = formatDigits(buffer, index, (timeOfDay / (int)MILLIS_PER_SECOND) % 60, 2);
+		if (withMilliseconds) {
+			buffer[index++] = '.';
+			index = formatDigits(buffer, index, timeOfDay % (int)MILLIS_PER_SECOND, 3);
+		}
+		buffer[index++] = 'Z';
+		return index;
+	}
+	
+	private static int formatDigits(char[] buffer, int index, int value, int digits) {
+		for (int i = index + digits - 1; i >= index; i--) {
+			buffer[i] = (char)('0' + value % 10);
+			value /= 10;
+		}
+		return index + digits;
 	}
 
 	public String createBoolean(boolean value) {
@@ -392,44 +502,73 @@ public class RandomUtil {
 		return sb.toString();
 	}
 
+	/**
+	 * Builds a sentence of random words from the dictionary, written into a buffer of the calling thread, so that the only object
+	 * created is the resulting String. Words are picked by the same calls to the random generator as from the words list.
+	 */
 	public String sentenceFromDictionaryWords(String firstString, int numberOfWords, boolean surroundWithQuotes, boolean escapeQuotes, int numberOfEscapes, 
 			boolean appendDataType) {
-		StringBuilder sb = new StringBuilder();
-
-		sb.append(firstString);
-		sb.append(" ");
-
-		for (int i = 0; i < numberOfWords; i++) {
-			sb.append(randomWordFromDictionary(false, false));
-			if (i != (numberOfWords - 1)) {
-				sb.append(" ");
-			} else {
-				sb.append(".");
+		PackedWordsDictionary dictionary = getDictionary();
+		
+		//quotes used to be escaped by String.replaceAll(), in which a backslash of the replacement escapes the following character, 
+		//so that half of numberOfEscapes backslashes precede each quote
+		int backslashesCount = escapeQuotes ? numberOfEscapes / 2 : 0;
+		
+		char[] buffer = getSentenceBuffer(3 + firstString.length() * (backslashesCount + 1) + numberOfWords * (dictionary.getMaxWordLength() + 1) + XSD_STRING_SUFFIX.length());
+		int length = 0;
+		
+		if (surroundWithQuotes) {
+			buffer[length++] = '"';
+		}
+		
+		for (int i = 0; i < firstString.length(); i++) {
+			char c = firstString.charAt(i);
+			if (c == '"') {
+				for (int j = 0; j < backslashesCount; j++) {
+					buffer[length++] = '\\';
+				}
 			}
+			buffer[length++] = c;
 		}
+		buffer[length++] = ' ';
 
-		if (escapeQuotes) {
-			String replacement;
-			StringBuilder escapeSb = new StringBuilder();
-			for (int i = 0; i < numberOfEscapes; i++) {
-				escapeSb.append("\\");
-			}
-			escapeSb.append("\"");
-			replacement = sb.toString().replaceAll("\"", escapeSb.toString());			
-			sb.setLength(0);
-			sb.append(replacement);			
+		//words of the dictionary contain no quotes, no escaping is needed
+		for (int i = 0; i < numberOfWords; i++) {
+			length = dictionary.appendWord(buffer, length, randomGenerator.nextInt(dictionary.size()));
+			buffer[length++] = (i != (numberOfWords - 1)) ? ' ' : '.';
 		}
 		
 		if (surroundWithQuotes) {
-			sb.insert(0, '"');
-			sb.append("\"");
+			buffer[length++] = '"';
 		}
 
 		if (appendDataType) {
-			sb.append("^^<http://www.w3.org/2001/XMLSchema#string>");
+			XSD_STRING_SUFFIX.getChars(0, XSD_STRING_SUFFIX.length(), buffer, length);
+			length += XSD_STRING_SUFFIX.length();
 		}
 
-		return sb.toString();
+		return new String(buffer, 0, length);
+	}
+	
+	private static char[] getSentenceBuffer(int capacity) {
+		char[] buffer = SENTENCE_BUFFER.get();
+		if (buffer.length < capacity) {
+			buffer = new char[Math.max(capacity, buffer.length * 2)];
+			SENTENCE_BUFFER.set(buffer);
+		}
+		return buffer;
+	}
+	
+	/**
+	 * @return words of the dictionary packed for building sentences, created from the words list on first use
+	 */
+	public PackedWordsDictionary getDictionary() {
+		PackedWordsDictionary packedDictionary = dictionary;
+		if (packedDictionary == null) {
+			packedDictionary = new PackedWordsDictionary(wordsList);
+			dictionary = packedDictionary;
+		}
+		return packedDictionary;
 	}
 
 	/**
@@ -1,11 +1,17 @@
 package eu.ldbc.semanticpublishing.util;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
@@ -21,30 +27,45 @@ import eu.ldbc.semanticpublishing.util.sesame.CroppingRDFHandler;
 public class RdfUtils {
 	
 	private static final int READ_BUFFER_SIZE_BYTES = 128 * 1024;
+	private static final long TRANSFER_CHUNK_SIZE_BYTES = 8 * 1024 * 1024;
+	
+	public static final String GZIP_FILE_EXTENSION = ".gz";
 	
 	public static final String CONTENT_TYPE_NQUADS = "application/n-quads";
 	public static final String CONTENT_TYPE_SESAME_NQUADS = "text/x-nquads";
 	public static final String CONTENT_TYPE_TRIG = "application/x-trig";
 	public static final String CONTENT_TYPE_TURTLE = "application/x-turtle";
+	public static final String CONTENT_TYPE_BINARY_RDF = "application/x-binary-rdf";
 	
 	
 	private static String[] NAMESPACES = {"cwork:", "<http://www.bbc.co.uk/ontologies/creativework/>",
 										  "bbc:"  , "<http://www.bbc.co.uk/ontologies/bbc/>"};
 
+	/**
+	 * Posts statements from an input stream of unknown length. Chunked streaming mode is used, so that the body 
+	 * is not buffered by HttpURLConnection and memory usage does not depend on the size of the input.
+	 */
 	public static void postStatements(String endpoint, String contentType, InputStream input) throws IOException {
+		postStatements(endpoint, contentType, input, false);
+	}
+	
+	/**
+	 * @param gzipBody - compress the body while sending it, using gzip content encoding
+	 */
+	public static void postStatements(String endpoint, String contentType, InputStream input, boolean gzipBody) throws IOException {
 		
-		URL url = new URL(endpoint);
-		HttpURLConnection httpUrlConnection = (HttpURLConnection)url.openConnection();
-		httpUrlConnection.setDefaultUseCaches(false);
-		httpUrlConnection.setUseCaches(false);
-		httpUrlConnection.setDoOutput(input != null);
-
-		httpUrlConnection.setRequestMethod("POST");
-		httpUrlConnection.setRequestProperty("Content-Type", contentType);
-//		httpUrlConnection.setRequestProperty("Accept", "*/*");
+		HttpURLConnection httpUrlConnection = preparePostConnection(endpoint, contentType, input != null);
 
 		if(input != null) {
+			httpUrlConnection.setChunkedStreamingMode(READ_BUFFER_SIZE_BYTES);
+			if (gzipBody) {
+				httpUrlConnection.setRequestProperty("Content-Encoding", "gzip");
+			}
+			
 			OutputStream outStream = httpUrlConnection.getOutputStream();
+			if (gzipBody) {
+				outStream = new GZIPOutputStream(outStream, READ_BUFFER_SIZE_BYTES);
+			}
 			
 			try {
 				int b; 
@@ -60,6 +81,86 @@ public class RdfUtils {
 			}
 		}
 		
+		checkResponse(httpUrlConnection);
+	}
+	
+	public static void postStatements(String endpoint, String contentType, File file) throws IOException {
+		postStatements(endpoint, contentType, file, false);
+	}
+	
+	/**
+	 * Posts statements from a file. Content length is known in advance, so fixed-length streaming mode is used 
+	 * (chunked for files larger than 2GB) and file contents are transferred with FileChannel.transferTo 
+	 * directly to the connection, without being copied to the heap as a whole.
+	 * 
+	 * Files with extension .gz are sent as they are with gzip content encoding if gzipBody is set, otherwise 
+	 * they are decompressed while being sent.
+	 * 
+	 * @param gzipBody - send the body with gzip content encoding
+	 */
+	public static void postStatements(String endpoint, String contentType, File file, boolean gzipBody) throws IOException {
+		boolean gzippedFile = file.getName().endsWith(GZIP_FILE_EXTENSION);
+		
+		if (gzippedFile != gzipBody) {
+			//contents have to be re-encoded, length of the body is not known in advance
+			InputStream input = new FileInputStream(file);
+			if (gzippedFile) {
+				input = new GZIPInputStream(input, READ_BUFFER_SIZE_BYTES);
+			}
+			postStatements(endpoint, contentType, input, gzipBody);
+			return;
+		}
+		
+		HttpURLConnection httpUrlConnection = preparePostConnection(endpoint, contentType, true);
+		if (gzipBody) {
+			httpUrlConnection.setRequestProperty("Content-Encoding", "gzip");
+		}
+		
+		long length = file.length();
+		if (length <= Integer.MAX_VALUE) {
+			httpUrlConnection.setFixedLengthStreamingMode((int)length);
+		} else {
+			httpUrlConnection.setChunkedStreamingMode(READ_BUFFER_SIZE_BYTES);
+		}
+		
+		FileInputStream input = new FileInputStream(file);
+		OutputStream outStream = httpUrlConnection.getOutputStream();
+		
+		try {
+			FileChannel fileChannel = input.getChannel();
+			WritableByteChannel outChannel = Channels.newChannel(outStream);
+			long position = 0;
+			while (position < length) {
+				long transferred = fileChannel.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE_BYTES, length - position), outChannel);
+				if (transferred <= 0) {
+					throw new IOException("Unable to transfer contents of file : " + file.getName() + " at position : " + position);
+				}
+				position += transferred;
+			}
+			outStream.flush();
+		}
+		finally {
+			input.close();
+			outStream.close();
+		}
+		
+		checkResponse(httpUrlConnection);
+	}
+	
+	private static HttpURLConnection preparePostConnection(String endpoint, String contentType, boolean doOutput) throws IOException {
+		URL url = new URL(endpoint);
+		HttpURLConnection httpUrlConnection = (HttpURLConnection)url.openConnection();
+		httpUrlConnection.setDefaultUseCaches(false);
+		httpUrlConnection.setUseCaches(false);
+		httpUrlConnection.setDoOutput(doOutput);
+
+		httpUrlConnection.setRequestMethod("POST");
+		httpUrlConnection.setRequestProperty("Content-Type", contentType);
+//		httpUrlConnection.setRequestProperty("Accept", "*/*");
+		return httpUrlConnection;
+	}
+	
+	private static void checkResponse(HttpURLConnection httpUrlConnection) throws IOException {
 		int code = httpUrlConnection.getResponseCode();
 		if (code < 200 || code >= 300) {
 			throw new IOException("Posting statements received error code : " + code + " from server.");
@@ -0,0 +1,177 @@
+package eu.ldbc.semanticpublishing.util.sesame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.openrdf.model.Statement;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.RDFWriter;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+
+import eu.ldbc.semanticpublishing.util.CompressionUtil;
+import eu.ldbc.semanticpublishing.util.FileUtils;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
+import eu.ldbc.semanticpublishing.util.SesameUtils;
+
+/**
+ * Converts files with generated data between serialization formats, e.g. from N-Quads to BinaryRDF and back, and compares
+ * size of the files and throughput of parsing and writing both formats. Compressed files (.gz) are converted to compressed files.
+ */
+public class RdfFormatConverter {
+	private static final int BUFFER_SIZE = 128 * 1024;
+
+	private final RDFFormat outputFormat;
+	private final String outputPath;
+
+	private long statements = 0;
+	private long inputBytes = 0;
+	private long outputBytes = 0;
+	private long inputParseMs = 0;
+	private long convertMs = 0;
+	private long outputParseMs = 0;
+
+	public RdfFormatConverter(RDFFormat outputFormat, String outputPath) {
+		this.outputFormat = outputFormat;
+		this.outputPath = outputPath;
+	}
+
+	/**
+	 * Converts a file, the file is also parsed on its own before the conversion and the converted file is parsed after it, to measure parsing throughput of both formats
+	 * @return false if the file is not in a known serialization format and has been skipped
+	 */
+	public boolean convert(File inputFile) throws IOException, RDFParseException, RDFHandlerException {
+		boolean compressed = inputFile.getName().endsWith(RdfUtils.GZIP_FILE_EXTENSION);
+		String name = compressed ? inputFile.getName().substring(0, inputFile.getName().length() - RdfUtils.GZIP_FILE_EXTENSION.length()) : inputFile.getName();
+		RDFFormat inputFormat = Rio.getParserFormatForFileName(name);
+		if (inputFormat == null) {
+			return false;
+		}
+
+		String baseName = name.lastIndexOf('.') > 0 ? name.substring(0, name.lastIndexOf('.')) : name;
+		File outputFile = new File(outputPath, baseName + "." + outputFormat.getDefaultFileExtension() + (compressed ? RdfUtils.GZIP_FILE_EXTENSION : ""));
+
+		long startMs = System.currentTimeMillis();
+		long count = parse(inputFile, inputFormat, new RDFHandlerBase());
+		inputParseMs += System.currentTimeMillis() - startMs;
+
+		startMs = System.currentTimeMillis();
+		OutputStream os = compressed ? CompressionUtil.createCompressedOutputStream(outputFile.getPath()) : new BufferedOutputStream(new FileOutputStream(outputFile), BUFFER_SIZE);
+		try {
+			parse(inputFile, inputFormat, Rio.createWriter(outputFormat, os));
+		} finally {
+			os.close();
+		}
+		convertMs += System.currentTimeMillis() - startMs;
+
+		startMs = System.currentTimeMillis();
+		long outputCount = parse(outputFile, outputFormat, new RDFHandlerBase());
+		outputParseMs += System.currentTimeMillis() - startMs;
+
+		if (outputCount != count) {
+			throw new IOException("Converted file " + outputFile.getName() + " contains " + outputCount + " statements, " + count + " expected");
+		}
+
+		statements += count;
+		inputBytes += inputFile.length();
+		outputBytes += outputFile.length();
+		return true;
+	}
+
+	/**
+	 * @return number of parsed statements
+	 */
+	private static long parse(File file, RDFFormat format, RDFHandler handler) throws IOException, RDFParseException, RDFHandlerException {
+		final long[] count = new long[1];
+		final RDFHandler target = handler;
+		RDFParser parser = Rio.createParser(format);
+		parser.setRDFHandler(new RDFHandlerBase() {
+			@Override
+			public void startRDF() throws RDFHandlerException {
+				target.startRDF();
+			}
+			@Override
+			public void endRDF() throws RDFHandlerException {
+				target.endRDF();
+			}
+			@Override
+			public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+				target.handleNamespace(prefix, uri);
+			}
+			@Override
+			public void handleStatement(Statement st) throws RDFHandlerException {
+				count[0]++;
+				target.handleStatement(st);
+			}
+		});
+
+		InputStream is = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+		if (file.getName().endsWith(RdfUtils.GZIP_FILE_EXTENSION)) {
+			is = new GZIPInputStream(is, BUFFER_SIZE);
+		}
+		try {
+			parser.parse(is, "");
+		} finally {
+			is.close();
+		}
+		return count[0];
+	}
+
+	public void printStatistics(String inputFormatName) {
+		System.out.println(String.format("Converted %,d statements", statements));
+		System.out.println(String.format("\t%-12s : %,d bytes, %.1f bytes per statement, parsed in %,d ms (%s statements per second)", inputFormatName, inputBytes, (double)inputBytes / Math.max(1, statements), inputParseMs, rate(statements, inputParseMs)));
+		System.out.println(String.format("\t%-12s : %,d bytes, %.1f bytes per statement, parsed in %,d ms (%s statements per second), %.1f%% of input size", outputFormat.getName(), outputBytes, (double)outputBytes / Math.max(1, statements), outputParseMs, rate(statements, outputParseMs), outputBytes * 100.0 / Math.max(1, inputBytes)));
+		System.out.println(String.format("\tconversion (parsing input and writing output) : %,d ms (%s statements per second), writing alone : ~%,d ms", convertMs, rate(statements, convertMs), Math.max(0, convertMs - inputParseMs)));
+	}
+
+	private static String rate(long count, long ms) {
+		return String.format("%,.0f", count * 1000.0 / Math.max(1, ms));
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.out.println("Usage : RdfFormatConverter <input file or folder> <output folder> <output format, e.g. BinaryRDF, N-Quads>");
+			return;
+		}
+
+		File input = new File(args[0]);
+		FileUtils.makeDirectories(args[1]);
+		RdfFormatConverter converter = new RdfFormatConverter(SesameUtils.parseRdfFormat(args[2]), args[1]);
+
+		List<File> files = new ArrayList<File>();
+		if (input.isDirectory()) {
+			File[] listedFiles = input.listFiles();
+			Arrays.sort(listedFiles);
+			files.addAll(Arrays.asList(listedFiles));
+		} else {
+			files.add(input);
+		}
+
+		List<String> inputFormats = new ArrayList<String>();
+		for (File file : files) {
+			if (file.isFile() && converter.convert(file)) {
+				String name = file.getName().endsWith(RdfUtils.GZIP_FILE_EXTENSION) ? file.getName().substring(0, file.getName().length() - RdfUtils.GZIP_FILE_EXTENSION.length()) : file.getName();
+				String formatName = Rio.getParserFormatForFileName(name).getName();
+				if (!inputFormats.contains(formatName)) {
+					inputFormats.add(formatName);
+				}
+				System.out.println("\tconverted " + file.getName());
+			}
+		}
+		converter.printStatistics(inputFormats.isEmpty() ? "input" : inputFormats.toString().replaceAll("[\\[\\]]", ""));
+	}
+}
@@ -0,0 +1,73 @@
+package eu.ldbc.semanticpublishing.util.sesame;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import eu.ldbc.semanticpublishing.refdataset.DataManager;
+import eu.ldbc.semanticpublishing.refdataset.model.Entity;
+
+/**
+ * A shared cache of Sesame URIs of reference entities and geonames locations, which are tagged by many Creative Works.
+ * URIs are looked up by the form kept in DataManager, i.e. enclosed in angle brackets, so that neither the brackets
+ * need to be removed nor a new URI created for each generated statement. The cache is bounded, URIs not fitting
+ * into it are created on each use. Can be used by several threads at once.
+ */
+public class UriCache {
+	public static final int MAX_SIZE = 4 * 1024 * 1024;
+
+	private static final ValueFactory valueFactory = ValueFactoryImpl.getInstance();
+	private static final ConcurrentHashMap<String, URI> uris = new ConcurrentHashMap<String, URI>(1024, 0.75f, 16);
+
+	/**
+	 * @param uri - a URI, optionally enclosed in angle brackets
+	 */
+	public static URI get(String uri) {
+		URI cached = uris.get(uri);
+		if (cached != null) {
+			return cached;
+		}
+
+		URI created = valueFactory.createURI(stripBrackets(uri));
+		if (uris.size() < MAX_SIZE) {
+			URI previous = uris.putIfAbsent(uri, created);
+			if (previous != null) {
+				return previous;
+			}
+		}
+		return created;
+	}
+
+	/**
+	 * Creates URIs of all reference entities and geonames locations known by DataManager, before generation starts
+	 * @return number of cached URIs
+	 */
+	public static int preloadReferenceData() {
+		preloadEntities(DataManager.popularEntitiesList);
+		preloadEntities(DataManager.regularEntitiesList);
+		for (String geonamesId : DataManager.geonamesIdsList) {
+			get(geonamesId);
+		}
+		return uris.size();
+	}
+
+	private static void preloadEntities(List<Entity> entities) {
+		for (Entity entity : entities) {
+			get(entity.getURI());
+		}
+	}
+
+	public static void clear() {
+		uris.clear();
+	}
+
+	private static String stripBrackets(String uri) {
+		if (uri.indexOf('<') < 0 && uri.indexOf('>') < 0) {
+			return uri;
+		}
+		return uri.replace("<", "").replace(">", "");
+	}
+}
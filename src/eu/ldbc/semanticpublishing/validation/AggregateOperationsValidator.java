@@ -2,13 +2,10 @@ package eu.ldbc.semanticpublishing.validation;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Constructor;
 import java.util.Arrays;
-import java.util.HashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,12 +16,10 @@ import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryExecuteManager;
 import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
 import eu.ldbc.semanticpublishing.properties.Configuration;
-import eu.ldbc.semanticpublishing.properties.Definitions;
 import eu.ldbc.semanticpublishing.resultanalyzers.sax.SPARQLResultStatementsCounter;
 import eu.ldbc.semanticpublishing.resultanalyzers.sesame.RDFXMLResultStatementsCounter;
-import eu.ldbc.semanticpublishing.statistics.Statistics;
-import eu.ldbc.semanticpublishing.substitutionparameters.SubstitutionParametersGenerator;
 import eu.ldbc.semanticpublishing.templates.MustacheTemplate;
+import eu.ldbc.semanticpublishing.templates.QueryTemplatesRegistry;
 import eu.ldbc.semanticpublishing.util.RandomUtil;
 import eu.ldbc.semanticpublishing.util.RdfUtils;
 
@@ -34,29 +29,26 @@ public class AggregateOperationsValidator extends Validator {
 	private SparqlQueryExecuteManager queryExecuteManager;
 	private SparqlQueryConnection connection;
 	private RandomUtil ru;
-	private HashMap<String, String> aggregateQueryTemplates;
+	private QueryTemplatesRegistry queryTemplatesRegistry;
 	private Configuration configuration;
-	private Definitions definitions;
 	private RDFXMLResultStatementsCounter rdfxmlResultStatementsCounter;
 	private SPARQLResultStatementsCounter sparqlResultStatementsCounter;
 	
 	private final static Logger LOGGER = LoggerFactory.getLogger(EditorialAgent.class.getName());
 	private final static Logger BRIEF_LOGGER = LoggerFactory.getLogger(TestDriver.class.getName());	
 	
-	public AggregateOperationsValidator(TestDriver testDriver, ValidationValuesManager validationValuesManager, SparqlQueryExecuteManager queryExecuteManager, RandomUtil ru, HashMap<String, String> aggregateQueryTemplates, Configuration configuration, Definitions definitions) {
+	public AggregateOperationsValidator(TestDriver testDriver, ValidationValuesManager validationValuesManager, SparqlQueryExecuteManager queryExecuteManager, RandomUtil ru, QueryTemplatesRegistry queryTemplatesRegistry, Configuration configuration) {
 		this.testDriver = testDriver;
 		this.validationValuesManager = validationValuesManager;
 		this.queryExecuteManager = queryExecuteManager;
 		this.connection = new SparqlQueryConnection(queryExecuteManager.getEndpointUrl(), queryExecuteManager.getEndpointUpdateUrl(), queryExecuteManager.getTimeoutMilliseconds(), true);
 		this.ru = ru;
-		this.aggregateQueryTemplates = aggregateQueryTemplates;
+		this.queryTemplatesRegistry = queryTemplatesRegistry;
 		this.configuration = configuration;
-		this.definitions = definitions;
 		this.rdfxmlResultStatementsCounter = new RDFXMLResultStatementsCounter();
 		this.sparqlResultStatementsCounter = new SPARQLResultStatementsCounter();	
 	}
 	
-	@SuppressWarnings("unchecked")
 	public void validate() throws Exception {
 		System.out.println("\tvalidating AGGREGATE operations...");
 		
@@ -66,20 +58,16 @@ public class AggregateOperationsValidator extends Validator {
 		//refresh statistics
 		testDriver.populateRefDataEntitiesLists(false, false, true, "\t");
 
-		Class<SubstitutionParametersGenerator> c = null;
-		Constructor<?> cc = null;
 		MustacheTemplate queryTemplate = null;
 		String queryName = "";
 		String queryString = "";
 		String queryResult = "";
 		QueryType queryType;
 		
-		for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
+		for (int i = 0; i < queryTemplatesRegistry.getQueriesCount(); i++) {
 			ValidationValuesModel validationValues = validationValuesManager.getValidationValuesFor(i);
 			
-			c = (Class<SubstitutionParametersGenerator>) Class.forName(String.format("eu.ldbc.semanticpublishing.templates.aggregation.Query%dTemplate", (i + 1)));
-			cc = c.getConstructor(RandomUtil.class, HashMap.class, Definitions.class, String[].class);
-			queryTemplate = (MustacheTemplate) cc.newInstance(ru, aggregateQueryTemplates, definitions, validationValues.getSubstitutionParameters());
+			queryTemplate = queryTemplatesRegistry.newTemplate(i + 1, ru, validationValues.getSubstitutionParameters());
 			
 			queryType = queryTemplate.getTemplateQueryType();
 			queryName = queryTemplate.getTemplateFileName();
@@ -116,16 +104,13 @@ public class AggregateOperationsValidator extends Validator {
 	private void loadValidationData() throws IOException {
 		System.out.println("Loading Validation Data...");
 		
-		String endpoint = configuration.getString(Configuration.ENDPOINT_UPDATE_URL);
-		
 		File[] files = new File(configuration.getString(Configuration.VALIDATION_PATH)).listFiles();
 				
 		int processedNQfiles = 0;
 		Arrays.sort(files);
 		for( File file : files ) {
 			if( file.getName().endsWith(".nq")) {
-				InputStream input = new FileInputStream(file);
-				RdfUtils.postStatements(endpoint, RdfUtils.CONTENT_TYPE_SESAME_NQUADS, input);
+				queryExecuteManager.postStatements(RdfUtils.CONTENT_TYPE_SESAME_NQUADS, file);
 				processedNQfiles++;
 			}
 		}
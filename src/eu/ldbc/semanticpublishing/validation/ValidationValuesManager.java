@@ -3,24 +3,26 @@ package eu.ldbc.semanticpublishing.validation;
 import java.io.File;
 import java.io.IOException;
 
-import eu.ldbc.semanticpublishing.statistics.Statistics;
 import eu.ldbc.semanticpublishing.util.StringUtil;
 
 public class ValidationValuesManager {
-	private static final ValidationValuesModel[] validationValuesArray;
+	private final ValidationValuesModel[] validationValuesArray;
 	
 	public static final String VALIDATION_PREFIX = "query";
 	public static final String VALIDATION_SUFFIX = "Validation.txt";
 	
-	static {
-		validationValuesArray = new ValidationValuesModel[Statistics.AGGREGATE_QUERIES_COUNT];
-		for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
+	/**
+	 * @param queriesCount - number of aggregate queries in the validated query mix
+	 */
+	public ValidationValuesManager(int queriesCount) {
+		validationValuesArray = new ValidationValuesModel[queriesCount];
+		for (int i = 0; i < queriesCount; i++) {
 			validationValuesArray[i] = new ValidationValuesModel(String.format("%s%d%s", VALIDATION_PREFIX, (i + 1), VALIDATION_SUFFIX));
 		}
 	}
 	
 	public void initValidationValues(String location, boolean suppressErrorMessages) throws IOException, InterruptedException {
-		for (int i = 0; i < Statistics.AGGREGATE_QUERIES_COUNT; i++) {
+		for (int i = 0; i < validationValuesArray.length; i++) {
 			validationValuesArray[i].initFromFile(buildFilePath(location, validationValuesArray[i].getQueryName()), suppressErrorMessages);
 		}
 	}
@@ -0,0 +1,129 @@
+package eu.ldbc.semanticpublishing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import eu.ldbc.semanticpublishing.WorkloadSchedule.Segment;
+import eu.ldbc.semanticpublishing.properties.Configuration;
+import eu.ldbc.semanticpublishing.properties.Definitions;
+
+public class TestWorkloadSchedule {
+	private static final String DEFINITIONS_PATH = "./datasets_and_queries/definitions.properties-basic";
+	private static final int EDITORIAL_AGENTS = 3;
+	private static final String NINE_ALLOCATIONS = "0.2, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1";
+
+	@Test
+	public void testSegments() throws Exception {
+		WorkloadSchedule schedule = load("segments=night, morning, spike",
+										 "night.startSeconds=0",
+										 "night.editorialAgents=1",
+										 "night.aggregationAgents=1",
+										 "night.b.aggregationAgents=2",
+										 "morning.startSeconds=300",
+										 "morning.editorialRateOps=2.5",
+										 "morning.a.aggregationOperationsAllocation=" + NINE_ALLOCATIONS,
+										 "spike.startSeconds=600",
+										 "spike.editorialOperationsAllocation=0.6, 0.35, 0.05",
+										 "spike.aggregationRateOps=20");
+
+		List<Segment> segments = schedule.getSegments();
+		assertEquals(3, segments.size());
+		assertEquals("night", segments.get(0).getName());
+		assertEquals("morning", segments.get(1).getName());
+		assertEquals("spike", segments.get(2).getName());
+		assertEquals(0, segments.get(0).getStartSeconds());
+		assertEquals(300, segments.get(1).getStartSeconds());
+		assertEquals(600, segments.get(2).getStartSeconds());
+
+		//a key prefixed with the mix name takes precedence over the key without it
+		Segment night = segments.get(0);
+		assertEquals(Integer.valueOf(1), night.getEditorialAgentsCount());
+		assertEquals(Integer.valueOf(1), night.getAggregationAgentsCount("a"));
+		assertEquals(Integer.valueOf(2), night.getAggregationAgentsCount("b"));
+		assertNull(night.getEditorialRateOps());
+		assertNull(night.getEditorialOperationsAllocation());
+
+		//settings missing in a segment are not changed by it
+		Segment morning = segments.get(1);
+		assertNull(morning.getEditorialAgentsCount());
+		assertNull(morning.getAggregationAgentsCount("a"));
+		assertEquals(2.5, morning.getEditorialRateOps().doubleValue(), 0.0);
+		assertEquals(9, morning.getAggregationOperationsAllocation("a").length);
+		assertEquals(0.2, morning.getAggregationOperationsAllocation("a")[0], 0.0);
+		assertNull(morning.getAggregationOperationsAllocation("b"));
+		assertTrue(morning.getSettings().contains("editorialRateOps=2.5"));
+
+		Segment spike = segments.get(2);
+		assertTrue(Arrays.equals(new double[] { 0.6, 0.35, 0.05 }, spike.getEditorialOperationsAllocation()));
+		assertEquals(20.0, spike.getAggregationRateOps("a").doubleValue(), 0.0);
+		assertEquals(20.0, spike.getAggregationRateOps("b").doubleValue(), 0.0);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testFirstSegmentStart() throws Exception {
+		load("segments=night", "night.startSeconds=10");
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testSegmentsOrder() throws Exception {
+		load("segments=night, morning", "night.startSeconds=0", "morning.startSeconds=0");
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAllocationsSum() throws Exception {
+		load("segments=night", "night.startSeconds=0", "night.editorialOperationsAllocation=0.5, 0.2, 0.2");
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAllocationsCount() throws Exception {
+		load("segments=night", "night.startSeconds=0", "night.aggregationOperationsAllocation=0.5, 0.5");
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testEditorialAgentsCeiling() throws Exception {
+		load("segments=night", "night.startSeconds=0", "night.editorialAgents=" + (EDITORIAL_AGENTS + 1));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAggregationAgentsCeiling() throws Exception {
+		//mix b has 2 agents, mix a has 4
+		load("segments=night", "night.startSeconds=0", "night.aggregationAgents=3");
+	}
+
+	/**
+	 * Loads a schedule for query mixes 'a' (4 aggregation agents) and 'b' (2 aggregation agents), each of 9 queries
+	 */
+	private static WorkloadSchedule load(String... lines) throws Exception {
+		Definitions definitions = new Definitions();
+		definitions.loadFromFile(DEFINITIONS_PATH, false);
+		Configuration configuration = new Configuration();
+		configuration.setString("a." + Configuration.AGGREGATION_AGENTS_COUNT, "4");
+		configuration.setString("b." + Configuration.AGGREGATION_AGENTS_COUNT, "2");
+
+		HashMap<String, String> queryTemplates = new HashMap<String, String>();
+		for (int i = 1; i <= 9; i++) {
+			queryTemplates.put("query" + i + ".txt", "");
+		}
+		List<QueryMix> queryMixes = new ArrayList<QueryMix>();
+		queryMixes.add(new QueryMix("a", queryTemplates, configuration, definitions, new Random(0)));
+		queryMixes.add(new QueryMix("b", queryTemplates, configuration, definitions, new Random(0)));
+
+		File file = File.createTempFile("workload-schedule", ".properties");
+		try {
+			org.apache.commons.io.FileUtils.writeLines(file, "UTF-8", Arrays.asList(lines), "\n");
+			return new WorkloadSchedule(file.getPath(), queryMixes, EDITORIAL_AGENTS);
+		} finally {
+			file.delete();
+		}
+	}
+}
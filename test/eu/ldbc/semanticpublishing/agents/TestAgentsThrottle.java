@@ -0,0 +1,64 @@
+package eu.ldbc.semanticpublishing.agents;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestAgentsThrottle {
+
+	@Test
+	public void testUnlimited() throws Exception {
+		AgentsThrottle throttle = new AgentsThrottle(2);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, throttle.acquire(i % 2));
+		}
+	}
+
+	@Test
+	public void testIdleAgents() throws Exception {
+		AgentsThrottle throttle = new AgentsThrottle(4);
+		throttle.setActiveAgentsCount(2);
+		assertEquals(0, throttle.acquire(0));
+		assertEquals(0, throttle.acquire(1));
+		assertEquals(-1, throttle.acquire(2));
+		assertEquals(-1, throttle.acquire(3));
+
+		throttle.setActiveAgentsCount(0);
+		assertEquals(-1, throttle.acquire(0));
+
+		throttle.setActiveAgentsCount(4);
+		assertEquals(0, throttle.acquire(3));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testActiveAgentsCeiling() {
+		new AgentsThrottle(4).setActiveAgentsCount(5);
+	}
+
+	@Test
+	public void testRateSpacing() throws Exception {
+		final int operations = 26;
+		final double rateOps = 50.0;
+		AgentsThrottle throttle = new AgentsThrottle(2);
+		throttle.setTargetRateOps(rateOps);
+
+		//operations of the group are spaced by 1 / rate, whichever agent executes them
+		long startNs = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			assertTrue(throttle.acquire(i % 2) >= 0);
+		}
+		long elapsedMs = (System.nanoTime() - startNs) / 1000000L;
+		assertTrue("Elapsed : " + elapsedMs + " ms", elapsedMs >= (long)((operations - 1) * 1000.0 / rateOps));
+	}
+
+	@Test
+	public void testDistantOperationSkipped() throws Exception {
+		AgentsThrottle throttle = new AgentsThrottle(2);
+		throttle.setTargetRateOps(1.0);
+
+		//the next operation is a second away, the agent is told to check again later instead of waiting for it
+		assertEquals(0, throttle.acquire(0));
+		assertEquals(-1, throttle.acquire(1));
+	}
+}
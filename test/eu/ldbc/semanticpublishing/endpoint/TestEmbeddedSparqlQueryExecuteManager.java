@@ -0,0 +1,79 @@
+package eu.ldbc.semanticpublishing.endpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.resultanalyzers.ResultStatementsCounter;
+import eu.ldbc.semanticpublishing.resultanalyzers.sax.SAXCreativeWorksCountTransformer;
+import eu.ldbc.semanticpublishing.util.RdfUtils;
+
+public class TestEmbeddedSparqlQueryExecuteManager {
+	private static final String CREATIVE_WORKS_COUNT_QUERY = "SELECT (COUNT(?cw) AS ?count) WHERE { ?cw a <http://www.bbc.co.uk/ontologies/creativework/CreativeWork> . }";
+
+	@Test
+	public void testLoadAndQuery() throws Exception {
+		File plainFile = File.createTempFile("creativeWorks", ".nq");
+		File compressedFile = File.createTempFile("creativeWorks", ".nq" + RdfUtils.GZIP_FILE_EXTENSION);
+		EmbeddedSparqlQueryExecuteManager manager = new EmbeddedSparqlQueryExecuteManager(new AtomicBoolean(false), EmbeddedSparqlQueryExecuteManager.MEMORY_STORE, "", 5000, 5000, false);
+		try {
+			writeCreativeWorks(new FileOutputStream(plainFile), 0, 30);
+			writeCreativeWorks(new GZIPOutputStream(new FileOutputStream(compressedFile)), 30, 20);
+
+			//loading, as done by the driver for generated Creative Works
+			manager.postStatements(RdfUtils.CONTENT_TYPE_SESAME_NQUADS, plainFile);
+			manager.postStatements(RdfUtils.CONTENT_TYPE_SESAME_NQUADS, compressedFile);
+
+			//queries, as executed by the agents
+			SparqlQueryConnection connection = new SparqlQueryConnection(manager.getEndpointUrl(), manager.getEndpointUpdateUrl(), manager.getTimeoutMilliseconds(), false);
+			ResultStatementsCounter counter = new ResultStatementsCounter(manager.getSelectResultFormat(), manager.getGraphResultFormat());
+
+			String result = manager.executeQuery(connection, "select", "SELECT ?cw ?title WHERE { ?cw <http://www.bbc.co.uk/ontologies/creativework/title> ?title . }", QueryType.SELECT, true, false);
+			assertEquals(50, counter.getStatementsCount(result, QueryType.SELECT));
+
+			result = manager.executeQuery(connection, "construct", "CONSTRUCT { ?cw ?p ?o } WHERE { GRAPH <http://www.bbc.co.uk/context/cw7> { ?cw ?p ?o } }", QueryType.CONSTRUCT, true, false);
+			assertEquals(2, counter.getStatementsCount(result, QueryType.CONSTRUCT));
+
+			//an update, followed by a system query as used for counting Creative Works
+			manager.executeQuery(connection, "delete", "DELETE WHERE { GRAPH <http://www.bbc.co.uk/context/cw7> { ?s ?p ?o } }", QueryType.DELETE, true, true);
+			SAXCreativeWorksCountTransformer transformer = new SAXCreativeWorksCountTransformer();
+			manager.executeSystemQuery(transformer, CREATIVE_WORKS_COUNT_QUERY, QueryType.SELECT);
+			assertEquals(49, transformer.getResult());
+		} finally {
+			manager.shutDown();
+			assertTrue(plainFile.delete());
+			assertTrue(compressedFile.delete());
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNativeStoreRequiresDataDir() throws Exception {
+		new EmbeddedSparqlQueryExecuteManager(new AtomicBoolean(false), EmbeddedSparqlQueryExecuteManager.NATIVE_STORE, "", 5000, 5000, false);
+	}
+
+	/**
+	 * Writes Creative Works, each in a graph of its own, as N-Quads
+	 */
+	private static void writeCreativeWorks(OutputStream os, int firstId, int count) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = firstId; i < firstId + count; i++) {
+			String graph = " <http://www.bbc.co.uk/context/cw" + i + "> .\n";
+			sb.append("<http://www.bbc.co.uk/things/cw" + i + "#id> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://www.bbc.co.uk/ontologies/creativework/CreativeWork>").append(graph);
+			sb.append("<http://www.bbc.co.uk/things/cw" + i + "#id> <http://www.bbc.co.uk/ontologies/creativework/title> \"title " + i + "\"").append(graph);
+		}
+		try {
+			os.write(sb.toString().getBytes("UTF-8"));
+		} finally {
+			os.close();
+		}
+	}
+}
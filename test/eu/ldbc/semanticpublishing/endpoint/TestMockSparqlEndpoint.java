@@ -0,0 +1,141 @@
+package eu.ldbc.semanticpublishing.endpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import eu.ldbc.semanticpublishing.endpoint.SparqlQueryConnection.QueryType;
+import eu.ldbc.semanticpublishing.endpoint.mock.LatencyDistribution;
+import eu.ldbc.semanticpublishing.endpoint.mock.MockSparqlEndpoint;
+import eu.ldbc.semanticpublishing.resultanalyzers.ResultStatementsCounter;
+
+public class TestMockSparqlEndpoint {
+	private static final int AGENTS = 8;
+	private static final int OPERATIONS_PER_AGENT = 50;
+	private static final int LATENCY_MS = 20;
+
+	@Test
+	public void testQueriesAndUpdates() throws Exception {
+		MockSparqlEndpoint endpoint = new MockSparqlEndpoint(0, "", "fixed:0", "fixed:0", 0);
+		endpoint.start();
+		try {
+			SparqlQueryExecuteManager manager = new SparqlQueryExecuteManager(new AtomicBoolean(false), endpoint.getEndpointUrl(), endpoint.getEndpointUpdateUrl(), 5000, 5000, false);
+			SparqlQueryConnection connection = new SparqlQueryConnection(endpoint.getEndpointUrl(), endpoint.getEndpointUpdateUrl(), 5000, false);
+
+			assertTrue(manager.executeQuery(connection, "select", "SELECT * WHERE { ?s ?p ?o }", QueryType.SELECT, false, false).contains("<sparql"));
+			assertTrue(manager.executeQuery(connection, "construct", "CONSTRUCT { ?s ?p ?o } WHERE { ?s ?p ?o }", QueryType.CONSTRUCT, false, false).contains("<rdf:RDF"));
+			assertEquals("", manager.executeQuery(connection, "insert", "INSERT DATA { }", QueryType.INSERT, false, true));
+
+			assertEquals(2, endpoint.getQueriesCount());
+			assertEquals(1, endpoint.getUpdatesCount());
+		} finally {
+			endpoint.stop();
+		}
+	}
+
+	@Test
+	public void testResultFormats() throws Exception {
+		MockSparqlEndpoint endpoint = new MockSparqlEndpoint(0, "", "fixed:0", "fixed:0", 0);
+		endpoint.start();
+		try {
+			SparqlQueryExecuteManager manager = new SparqlQueryExecuteManager(new AtomicBoolean(false), endpoint.getEndpointUrl(), endpoint.getEndpointUpdateUrl(), 5000, 5000, false);
+			ResultFormat[][] formats = {{ResultFormat.SPARQL_JSON, ResultFormat.NTRIPLES}, {ResultFormat.SPARQL_TSV, ResultFormat.BINARY_RDF}, {ResultFormat.SPARQL_BINARY, ResultFormat.RDF_XML}};
+			
+			for (ResultFormat[] pair : formats) {
+				SparqlQueryConnection connection = new SparqlQueryConnection(endpoint.getEndpointUrl(), endpoint.getEndpointUpdateUrl(), 5000, false);
+				connection.setResultFormats(pair[0], pair[1]);
+				ResultStatementsCounter counter = new ResultStatementsCounter(pair[0], pair[1]);
+				
+				String result = manager.executeQuery(connection, "select", "SELECT * WHERE { ?s ?p ?o }", QueryType.SELECT, false, false);
+				assertTrue(result.length() > 0);
+				assertEquals(0, counter.getStatementsCount(result, QueryType.SELECT));
+				
+				result = manager.executeQuery(connection, "construct", "CONSTRUCT { ?s ?p ?o } WHERE { ?s ?p ?o }", QueryType.CONSTRUCT, false, true);
+				assertEquals(0, counter.getStatementsCount(result, QueryType.CONSTRUCT));
+			}
+			
+			assertEquals(ResultFormat.SPARQL_BINARY, ResultFormat.forMimeType("application/x-binary-rdf-results-table"));
+			assertEquals(ResultFormat.SPARQL_JSON, ResultFormat.forSelectQueries("json"));
+			assertEquals(ResultFormat.BINARY_RDF, ResultFormat.forGraphQueries("binary"));
+		} finally {
+			endpoint.stop();
+		}
+	}
+	
+	@Test
+	public void testConcurrentAgents() throws Exception {
+		final MockSparqlEndpoint endpoint = new MockSparqlEndpoint(0, "", "fixed:" + LATENCY_MS, "fixed:" + LATENCY_MS, 0);
+		endpoint.start();
+		try {
+			final SparqlQueryExecuteManager manager = new SparqlQueryExecuteManager(new AtomicBoolean(false), endpoint.getEndpointUrl(), endpoint.getEndpointUpdateUrl(), 5000, 5000, false);
+			final AtomicLong answered = new AtomicLong(0);
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(AGENTS);
+			
+			//each agent executes its queries and every tenth operation is an update, as agents of a query mix do
+			for (int i = 0; i < AGENTS; i++) {
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							SparqlQueryConnection connection = new SparqlQueryConnection(endpoint.getEndpointUrl(), endpoint.getEndpointUpdateUrl(), 5000, false);
+							for (int j = 0; j < OPERATIONS_PER_AGENT; j++) {
+								if (j % 10 == 9) {
+									if (manager.executeQuery(connection, "insert", "INSERT DATA { }", QueryType.INSERT, false, true).isEmpty()) {
+										answered.incrementAndGet();
+									}
+								} else if (manager.executeQuery(connection, "select", "SELECT * WHERE { ?s ?p ?o }", QueryType.SELECT, false, false).contains("<sparql")) {
+									answered.incrementAndGet();
+								}
+							}
+						} catch (Exception e) {
+							e.printStackTrace();
+						} finally {
+							done.countDown();
+						}
+					}
+				}).start();
+			}
+			
+			start.countDown();
+			done.await();
+			
+			//no operation is dropped
+			assertEquals(AGENTS * OPERATIONS_PER_AGENT, answered.get());
+			assertEquals(AGENTS * OPERATIONS_PER_AGENT * 9 / 10, endpoint.getQueriesCount());
+			assertEquals(AGENTS * OPERATIONS_PER_AGENT / 10, endpoint.getUpdatesCount());
+			
+			//agents are served concurrently, while each operation is delayed by the latency of the endpoint
+			assertEquals(AGENTS, endpoint.getMaxConcurrentRequests());
+		} finally {
+			endpoint.stop();
+		}
+	}
+
+	@Test
+	public void testLatencyDistributions() {
+		assertEquals(7, new LatencyDistribution("fixed:7", 0).nextLatencyMs());
+
+		LatencyDistribution uniform = new LatencyDistribution("uniform:5:10", 0);
+		for (int i = 0; i < 1000; i++) {
+			long value = uniform.nextLatencyMs();
+			assertTrue(value >= 5 && value <= 10);
+		}
+
+		LatencyDistribution normal = new LatencyDistribution("normal:1:5", 0);
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(normal.nextLatencyMs() >= 0);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnknownDistribution() {
+		new LatencyDistribution("pareto:1", 0);
+	}
+}
@@ -0,0 +1,244 @@
+package eu.ldbc.semanticpublishing.generators.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import eu.ldbc.semanticpublishing.properties.Configuration;
+import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.refdataset.DataManager;
+import eu.ldbc.semanticpublishing.refdataset.model.Entity;
+import eu.ldbc.semanticpublishing.util.FileUtils;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+
+public class TestDataGenerator {
+	private static final String DEFINITIONS_PATH = "./datasets_and_queries/definitions.properties-basic";
+	private static final String DICTIONARY_PATH = "./datasets_and_queries/dictionaries/WordsDictionary.txt";
+	private static final long TRIPLES = 60000;
+	private static final long TRIPLES_PER_FILE = 5000;
+	//amounts of correlations and events are adjusted per this number of triples in testGrowthUnion, so that the grown dataset has more of them
+	private static final long EVENTS_SIZE_UNIT = 10000;
+	private static final String DATASET_INFO = "dataset.info";
+	private static final Pattern DATE_TIME_PATTERN = Pattern.compile("\"([^\"]*)\"\\^\\^<http://www.w3.org/2001/XMLSchema#dateTime>");
+
+	@Test
+	public void testShardsUnion() throws Exception {
+		File oneShard = createTempFolder();
+		File twoShards = createTempFolder();
+		try {
+			generate(oneShard, TRIPLES, "1/1", 2, false, false);
+			generate(twoShards, TRIPLES, "1/2", 1, false, false);
+			generate(twoShards, TRIPLES, "2/2", 3, false, false);
+
+			assertSameFiles(oneShard, twoShards);
+		} finally {
+			deleteFolder(oneShard);
+			deleteFolder(twoShards);
+		}
+	}
+
+	@Test
+	public void testGrowthUnion() throws Exception {
+		File grown = createTempFolder();
+		File generated = createTempFolder();
+		try {
+			generate(grown, TRIPLES, "1/1", 2, true, false);
+			generate(grown, TRIPLES * 2, null, 3, true, true);
+			generate(generated, TRIPLES * 2, "1/1", 1, true, false);
+			
+			File growthFolder = new File(DataGenerator.buildGrowthPath(grown.getPath(), TRIPLES * 2));
+			List<String> grownNames = new ArrayList<String>();
+			for (String name : grown.list()) {
+				if (!name.equals(growthFolder.getName())) {
+					grownNames.add(name);
+				}
+			}
+			assertTrue(growthFolder.list().length > 0);
+			grownNames.addAll(Arrays.asList(growthFolder.list()));
+			List<String> generatedNames = Arrays.asList(generated.list());
+			Collections.sort(grownNames);
+			Collections.sort(generatedNames);
+			assertEquals(generatedNames, grownNames);
+			
+			//Creative Works of correlations and events planned for the grown dataset only are dated after the date range of the existing dataset
+			Definitions definitions = new Definitions();
+			definitions.loadFromFile(DEFINITIONS_PATH, false);
+			int dateRangeEndYear = definitions.getInt(Definitions.YEAR_SEED) + definitions.getInt(Definitions.DATA_GENERATOR_PERIOD_YEARS);
+			String existingDateRangeEnd = RandomUtil.xsdDateTime(RandomUtil.toEpochMillis(dateRangeEndYear, 1, 1, 0, 0, 0, 0));
+			int differentFiles = 0;
+			for (String name : growthFolder.list()) {
+				List<String> expectedLines = readLines(new File(generated, name));
+				List<String> actualLines = readLines(new File(growthFolder, name));
+				assertEquals(expectedLines.size(), actualLines.size());
+				if (!expectedLines.equals(actualLines)) {
+					differentFiles++;
+				}
+				for (int i = 0; i < expectedLines.size(); i++) {
+					if (!expectedLines.get(i).equals(actualLines.get(i))) {
+						Matcher matcher = DATE_TIME_PATTERN.matcher(actualLines.get(i));
+						assertTrue(matcher.find());
+						assertTrue(matcher.group(1).compareTo(existingDateRangeEnd) >= 0);
+						assertEquals(DATE_TIME_PATTERN.matcher(expectedLines.get(i)).replaceAll(""), matcher.replaceAll(""));
+					}
+				}
+			}
+			assertTrue(differentFiles > 0);
+			
+			for (String name : grown.list()) {
+				if (!name.equals(growthFolder.getName()) && !name.equals(DATASET_INFO)) {
+					assertSameFile(new File(generated, name), new File(grown, name));
+				}
+			}
+			
+			//dataset info of the grown dataset is that of the generated dataset, with the end of its date range
+			List<String> grownInfo = readLines(new File(grown, DATASET_INFO));
+			int dateRangeEnd = grownInfo.indexOf("[DatasetDateRangeEnd]");
+			assertTrue(dateRangeEnd > 0);
+			grownInfo.subList(dateRangeEnd, dateRangeEnd + 3).clear();
+			assertEquals(readLines(new File(generated, DATASET_INFO)), grownInfo);
+		} finally {
+			deleteFolder(grown);
+			deleteFolder(generated);
+		}
+	}
+
+	@Test
+	public void testResumeFromCheckpoint() throws Exception {
+		File uninterrupted = createTempFolder();
+		File resumed = createTempFolder();
+		try {
+			generate(uninterrupted, TRIPLES, null, 2, false, false, true, false);
+			generate(resumed, TRIPLES, null, 3, false, false, true, false);
+
+			//interruption of the generation : every other completed task is dropped from the checkpoint and a file of one of them is left incomplete
+			File checkpointFile = new File(resumed, GenerationCheckpoint.CHECKPOINT_FILE_NAME);
+			List<String> checkpointLines = new ArrayList<String>();
+			List<String> interruptedTasks = new ArrayList<String>();
+			int completedTasks = 0;
+			for (String line : readLines(checkpointFile)) {
+				if (line.startsWith("completed\t") && completedTasks++ % 2 == 1) {
+					interruptedTasks.add(line.split("\t")[1]);
+				} else {
+					checkpointLines.add(line);
+				}
+			}
+			assertTrue(interruptedTasks.size() > 1);
+			org.apache.commons.io.FileUtils.writeLines(checkpointFile, "UTF-8", checkpointLines, "\n");
+			
+			File truncatedFile = new File(resumed, String.format("generatedCreativeWorks-%06d-0001.nq", Long.parseLong(interruptedTasks.get(0))));
+			assertTrue(truncatedFile.exists());
+			byte[] contents = org.apache.commons.io.FileUtils.readFileToByteArray(truncatedFile);
+			org.apache.commons.io.FileUtils.writeByteArrayToFile(truncatedFile, Arrays.copyOf(contents, contents.length / 2));
+			assertTrue(new File(resumed, DATASET_INFO).delete());
+
+			generate(resumed, TRIPLES, null, 3, false, false, true, true);
+
+			//completed tasks are recorded in the order of their completion, the checkpoint files are compared by their lines only
+			List<String> expectedCheckpoint = readLines(new File(uninterrupted, GenerationCheckpoint.CHECKPOINT_FILE_NAME));
+			List<String> actualCheckpoint = readLines(checkpointFile);
+			Collections.sort(expectedCheckpoint);
+			Collections.sort(actualCheckpoint);
+			assertEquals(expectedCheckpoint, actualCheckpoint);
+			assertTrue(new File(uninterrupted, GenerationCheckpoint.CHECKPOINT_FILE_NAME).delete());
+			assertTrue(checkpointFile.delete());
+
+			assertSameFiles(uninterrupted, resumed);
+		} finally {
+			deleteFolder(uninterrupted);
+			deleteFolder(resumed);
+		}
+	}
+
+	private void generate(File folder, long triples, String shard, int threads, boolean adjustSizes, boolean growth) throws Exception {
+		generate(folder, triples, shard, threads, adjustSizes, growth, false, false);
+	}
+
+	private void generate(File folder, long triples, String shard, int threads, boolean adjustSizes, boolean growth, boolean checkpoint, boolean resume) throws Exception {
+		Definitions definitions = new Definitions();
+		definitions.loadFromFile(DEFINITIONS_PATH, false);
+		RandomUtil ru = new RandomUtil(DICTIONARY_PATH, 0, definitions.getInt(Definitions.YEAR_SEED), definitions.getInt(Definitions.DATA_GENERATOR_PERIOD_YEARS));
+		definitions.initializeAllocations(ru.getRandom());
+
+		//a few small correlations and events, next to random Creative Works
+		definitions.setLong(Definitions.CORRELATIONS_AMOUNT, 1);
+		definitions.setLong(Definitions.CORRELATIONS_MAGNITUDE, 2);
+		definitions.setLong(Definitions.MAJOR_EVENTS, 1);
+		definitions.setLong(Definitions.MINOR_EVENTS, 2);
+		definitions.setLong(Definitions.EXPONENTIAL_DECAY_UPPER_LIMIT_OF_CWS, 100);
+
+		Configuration configuration = new Configuration();
+		configuration.setString(Configuration.CREATIVE_WORKS_PATH, folder.getPath());
+		configuration.setString(Configuration.CREATIVE_WORKS_INFO, DATASET_INFO);
+		configuration.setString(Configuration.ALLOW_SIZE_ADJUSTMENTS_ON_DATA_MODELS, Boolean.toString(adjustSizes));
+
+		initializeReferenceData();
+		DataManager.creativeWorksNextId.set(0);
+
+		DataGenerator dataGenerator = new DataGenerator(ru, configuration, definitions, threads, triples, TRIPLES_PER_FILE, folder.getPath(), "N-Quads");
+		if (shard != null) {
+			dataGenerator.setShard(shard);
+		}
+		dataGenerator.setEventsSizeUnit(EVENTS_SIZE_UNIT);
+		dataGenerator.setGrowth(growth);
+		dataGenerator.setCheckpoint(checkpoint, resume);
+		dataGenerator.produceData(true, true, true, true, true);
+	}
+
+	private static void initializeReferenceData() {
+		if (DataManager.regularEntitiesList.size() > 0) {
+			return;
+		}
+		for (int i = 0; i < 500; i++) {
+			Entity entity = new Entity("<http://dbpedia.org/resource/E" + i + ">", "label " + i, "<http://dbpedia.org/resource/E" + i + ">", "<http://www.bbc.co.uk/category/Person>");
+			DataManager.regularEntitiesList.add(entity);
+			if (i < 50) {
+				DataManager.popularEntitiesList.add(entity);
+			}
+			DataManager.geonamesIdsList.add("<http://sws.geonames.org/" + (1000 + i) + "/>");
+		}
+	}
+
+	private static void assertSameFiles(File expectedFolder, File actualFolder) throws IOException {
+		String[] expectedNames = expectedFolder.list();
+		String[] actualNames = actualFolder.list();
+		Arrays.sort(expectedNames);
+		Arrays.sort(actualNames);
+		assertEquals(Arrays.asList(expectedNames), Arrays.asList(actualNames));
+		assertTrue(expectedNames.length > 2);
+
+		for (String name : expectedNames) {
+			assertSameFile(new File(expectedFolder, name), new File(actualFolder, name));
+		}
+	}
+
+	private static void assertSameFile(File expectedFile, File actualFile) throws IOException {
+		byte[] expected = org.apache.commons.io.FileUtils.readFileToByteArray(expectedFile);
+		byte[] actual = org.apache.commons.io.FileUtils.readFileToByteArray(actualFile);
+		assertTrue("Different content of " + actualFile.getName(), Arrays.equals(expected, actual));
+	}
+
+	private static List<String> readLines(File file) throws IOException {
+		return org.apache.commons.io.FileUtils.readLines(file, "UTF-8");
+	}
+
+	private static File createTempFolder() throws IOException {
+		File folder = File.createTempFile("generated", "");
+		folder.delete();
+		FileUtils.makeDirectories(folder.getPath());
+		return folder;
+	}
+
+	private static void deleteFolder(File folder) throws IOException {
+		org.apache.commons.io.FileUtils.deleteDirectory(folder);
+	}
+}
@@ -0,0 +1,103 @@
+package eu.ldbc.semanticpublishing.generators.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import eu.ldbc.semanticpublishing.generators.data.GeneratedDataSorter.SortKey;
+import eu.ldbc.semanticpublishing.util.FileUtils;
+
+public class TestGeneratedDataSorter {
+	private static final int FILES = 4;
+	private static final int GRAPHS = 50;
+	private static final int STATEMENTS_PER_FILE = 1000;
+	private static final int PARTITIONS = 2;
+	//a few kilobytes of memory and a small fan-in, so that sorting spills many runs and merges them in several passes
+	private static final long MEMORY_BYTES = 20000;
+	private static final int MERGE_FAN_IN = 3;
+
+	@Test
+	public void testSortWithSpills() throws Exception {
+		File folder = createTempFolder();
+		try {
+			List<String> input = new ArrayList<String>();
+			Random random = new Random(0);
+			for (int i = 1; i <= FILES; i++) {
+				List<String> lines = new ArrayList<String>();
+				for (int j = 0; j < STATEMENTS_PER_FILE; j++) {
+					//statements of a graph are numbered in the order of generation
+					int graph = random.nextInt(GRAPHS);
+					lines.add(String.format("<http://example.org/cw%d> <http://example.org/p> \"%d\" <http://example.org/graph%d> .", graph, input.size() + lines.size(), graph));
+				}
+				org.apache.commons.io.FileUtils.writeLines(new File(folder, String.format("generatedCreativeWorks-%06d-%04d.nq", i, 1)), "UTF-8", lines, "\n");
+				input.addAll(lines);
+			}
+
+			GeneratedDataSorter sorter = new GeneratedDataSorter(folder.getPath(), SortKey.GRAPH, PARTITIONS, MEMORY_BYTES, false);
+			sorter.setMergeFanIn(MERGE_FAN_IN);
+			assertEquals(input.size(), sorter.sort());
+			assertTrue(sorter.getSpillsCount() > MERGE_FAN_IN * MERGE_FAN_IN);
+
+			List<String> output = new ArrayList<String>();
+			Map<String, List<String>> inputByGraph = groupByGraph(input);
+			for (int i = 1; i <= PARTITIONS; i++) {
+				List<String> lines = org.apache.commons.io.FileUtils.readLines(new File(String.format(GeneratedDataSorter.SORTED_FILENAME_FORMAT, folder.getPath(), File.separator, i)), "UTF-8");
+				String lastKey = "";
+				for (String line : lines) {
+					String key = GeneratedDataSorter.extractKey(line, SortKey.GRAPH);
+					assertTrue(lastKey + " > " + key, lastKey.compareTo(key) <= 0);
+					assertEquals(i - 1, GeneratedDataSorter.partitionOf(key, PARTITIONS));
+					lastKey = key;
+				}
+				//statements of each graph keep their order of generation
+				for (Map.Entry<String, List<String>> entry : groupByGraph(lines).entrySet()) {
+					assertEquals(inputByGraph.get(entry.getKey()), entry.getValue());
+				}
+				output.addAll(lines);
+			}
+
+			Collections.sort(input);
+			Collections.sort(output);
+			assertEquals(input, output);
+
+			for (int i = 1; i <= FILES; i++) {
+				assertFalse(new File(folder, String.format("generatedCreativeWorks-%06d-%04d.nq", i, 1)).exists());
+			}
+			assertEquals(PARTITIONS, folder.list().length);
+		} finally {
+			org.apache.commons.io.FileUtils.deleteDirectory(folder);
+		}
+	}
+
+	private static Map<String, List<String>> groupByGraph(List<String> lines) {
+		Map<String, List<String>> linesByGraph = new HashMap<String, List<String>>();
+		for (String line : lines) {
+			String key = GeneratedDataSorter.extractKey(line, SortKey.GRAPH);
+			List<String> graphLines = linesByGraph.get(key);
+			if (graphLines == null) {
+				graphLines = new ArrayList<String>();
+				linesByGraph.put(key, graphLines);
+			}
+			graphLines.add(line);
+		}
+		return linesByGraph;
+	}
+
+	private static File createTempFolder() throws IOException {
+		File folder = File.createTempFile("sorted", "");
+		folder.delete();
+		FileUtils.makeDirectories(folder.getPath());
+		return folder;
+	}
+}
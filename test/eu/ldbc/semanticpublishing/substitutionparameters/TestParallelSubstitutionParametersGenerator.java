@@ -0,0 +1,103 @@
+package eu.ldbc.semanticpublishing.substitutionparameters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import eu.ldbc.semanticpublishing.properties.Definitions;
+import eu.ldbc.semanticpublishing.refdataset.DataManager;
+import eu.ldbc.semanticpublishing.refdataset.model.Entity;
+import eu.ldbc.semanticpublishing.templates.QueryTemplatesRegistry;
+import eu.ldbc.semanticpublishing.util.FileUtils;
+import eu.ldbc.semanticpublishing.util.RandomUtil;
+
+public class TestParallelSubstitutionParametersGenerator {
+	private static final String DEFINITIONS_PATH = "./datasets_and_queries/definitions.properties-basic";
+	private static final String DICTIONARY_PATH = "./datasets_and_queries/dictionaries/WordsDictionary.txt";
+	private static final String QUERIES_PATH = "./datasets_and_queries/sparql/basic/aggregation_standard";
+	private static final long SEED = 1000;
+	//more than two chunks of each query, the last one incomplete
+	private static final int AMOUNT = 2 * ParallelSubstitutionParametersGenerator.CHUNK_SIZE + 1234;
+
+	@Test
+	public void testSameFilesForAnyThreadsCount() throws Exception {
+		File oneThread = createTempFolder();
+		File threeThreads = createTempFolder();
+		try {
+			assertEquals(generate(oneThread, 1), generate(threeThreads, 3));
+			assertSameFiles(oneThread, threeThreads);
+		} finally {
+			org.apache.commons.io.FileUtils.deleteDirectory(oneThread);
+			org.apache.commons.io.FileUtils.deleteDirectory(threeThreads);
+		}
+	}
+
+	private long generate(File folder, int threads) throws Exception {
+		Definitions definitions = new Definitions();
+		definitions.loadFromFile(DEFINITIONS_PATH, false);
+		RandomUtil ru = new RandomUtil(DICTIONARY_PATH, SEED, definitions.getInt(Definitions.YEAR_SEED), definitions.getInt(Definitions.DATA_GENERATOR_PERIOD_YEARS));
+		//shared allocators are seeded as by the driver, the generated parameters must not depend on their state
+		definitions.initializeAllocations(ru.getRandom());
+		initializeReferenceData();
+
+		QueryTemplatesRegistry registry = new QueryTemplatesRegistry(loadQueryTemplates(), definitions);
+		assertTrue(registry.getQueriesCount() > 1);
+
+		ParallelSubstitutionParametersGenerator generator = new ParallelSubstitutionParametersGenerator(ru, SEED, threads);
+		for (int i = 1; i <= registry.getQueriesCount(); i++) {
+			generator.addQuery(new File(folder, SubstitutionQueryParametersManager.getAggregateFileName("basic", i)).getPath(), registry, i);
+		}
+		return generator.generate(AMOUNT);
+	}
+
+	private static HashMap<String, String> loadQueryTemplates() throws IOException {
+		HashMap<String, String> queryTemplates = new HashMap<String, String>();
+		for (File file : new File(QUERIES_PATH).listFiles()) {
+			queryTemplates.put(file.getName(), org.apache.commons.io.FileUtils.readFileToString(file, "UTF-8"));
+		}
+		return queryTemplates;
+	}
+
+	private static void initializeReferenceData() {
+		DataManager.creativeWorksNextId.set(10000);
+		if (DataManager.regularEntitiesList.size() > 0) {
+			return;
+		}
+		for (int i = 0; i < 500; i++) {
+			Entity entity = new Entity("<http://dbpedia.org/resource/E" + i + ">", "label " + i, "<http://dbpedia.org/resource/E" + i + ">", "<http://www.bbc.co.uk/category/Person>");
+			DataManager.regularEntitiesList.add(entity);
+			if (i < 50) {
+				DataManager.popularEntitiesList.add(entity);
+			}
+			DataManager.geonamesIdsList.add("<http://sws.geonames.org/" + (1000 + i) + "/>");
+		}
+	}
+
+	private static void assertSameFiles(File expectedFolder, File actualFolder) throws IOException {
+		String[] expectedNames = expectedFolder.list();
+		String[] actualNames = actualFolder.list();
+		Arrays.sort(expectedNames);
+		Arrays.sort(actualNames);
+		assertEquals(Arrays.asList(expectedNames), Arrays.asList(actualNames));
+		assertTrue(expectedNames.length > 2);
+
+		for (String name : expectedNames) {
+			byte[] expected = org.apache.commons.io.FileUtils.readFileToByteArray(new File(expectedFolder, name));
+			byte[] actual = org.apache.commons.io.FileUtils.readFileToByteArray(new File(actualFolder, name));
+			assertTrue("Different content of " + name, Arrays.equals(expected, actual));
+		}
+	}
+
+	private static File createTempFolder() throws IOException {
+		File folder = File.createTempFile("parameters", "");
+		folder.delete();
+		FileUtils.makeDirectories(folder.getPath());
+		return folder;
+	}
+}
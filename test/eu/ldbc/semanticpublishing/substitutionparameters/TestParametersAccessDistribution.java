@@ -0,0 +1,175 @@
+package eu.ldbc.semanticpublishing.substitutionparameters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestParametersAccessDistribution {
+	private static final int QUERIES = 200000;
+
+	@Test
+	public void testRoundRobin() {
+		ParametersAccessDistribution distribution = new ParametersAccessDistribution("roundrobin", 5);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 7, distribution.getIndex(i, 7));
+			assertEquals(0, distribution.getIndex(i, 1));
+		}
+		//query ids beyond the range of int
+		assertEquals(3, ParametersAccessDistribution.ROUND_ROBIN.getIndex(Integer.MAX_VALUE + 6L, 10));
+	}
+
+	@Test
+	public void testUniform() {
+		int[] counts = countIndexes(new ParametersAccessDistribution("uniform", 1), 10);
+		for (int count : counts) {
+			assertEquals(0.1, (double)count / QUERIES, 0.005);
+		}
+	}
+
+	@Test
+	public void testZipf() {
+		//share of rank r is 1/r^s divided by the sum over all ranks
+		int[] counts = countIndexes(new ParametersAccessDistribution("zipf:1.0", 1), 100);
+		double harmonic = harmonic(100, 1.0);
+		for (int r = 0; r < 5; r++) {
+			assertEquals(1.0 / (r + 1) / harmonic, (double)counts[r] / QUERIES, 0.005);
+		}
+		for (int r = 1; r < 20; r++) {
+			assertTrue(counts[r - 1] > counts[r]);
+		}
+
+		counts = countIndexes(new ParametersAccessDistribution("zipf:0.8", 1), 100);
+		harmonic = harmonic(100, 0.8);
+		for (int r = 0; r < 5; r++) {
+			assertEquals(1.0 / Math.pow(r + 1, 0.8) / harmonic, (double)counts[r] / QUERIES, 0.005);
+		}
+
+		//ranks beyond the exact table are approximated, top ranks keep their share
+		int size = 1000000;
+		counts = countIndexes(new ParametersAccessDistribution("zipf:1.0", 1), size);
+		harmonic = harmonic(size, 1.0);
+		assertEquals(1.0 / harmonic, (double)counts[0] / QUERIES, 0.005);
+		assertEquals(0.5 / harmonic, (double)counts[1] / QUERIES, 0.005);
+		int tail = 0;
+		for (int i = 10000; i < size; i++) {
+			tail += counts[i];
+		}
+		assertEquals((harmonic - harmonic(10000, 1.0)) / harmonic, (double)tail / QUERIES, 0.01);
+	}
+
+	@Test
+	public void testHotSet() {
+		//90% of queries use the 10% of lines of the hot set
+		int[] counts = countIndexes(new ParametersAccessDistribution("hotset:90:10", 1), 1000);
+		int hot = 0;
+		for (int i = 0; i < 100; i++) {
+			hot += counts[i];
+		}
+		assertEquals(0.9, (double)hot / QUERIES, 0.005);
+		assertEquals(0.9 / 100, (double)counts[50] / QUERIES, 0.0015);
+		assertEquals(0.1 / 900, (double)counts[500] / QUERIES, 0.0005);
+
+		//a hot set of all lines is uniform
+		counts = countIndexes(new ParametersAccessDistribution("hotset:50:100", 1), 4);
+		for (int count : counts) {
+			assertEquals(0.25, (double)count / QUERIES, 0.005);
+		}
+	}
+
+	@Test
+	public void testDrift() {
+		//the hot set moves on by one line every 1000 queries
+		ParametersAccessDistribution distribution = new ParametersAccessDistribution("hotset:100:1:1000", 1);
+		for (int i = 0; i < 50000; i++) {
+			int index = distribution.getIndex(i, 1000);
+			int first = i / 1000;
+			assertTrue(index >= first && index < first + 10);
+		}
+
+		//top rank of a Zipf distribution moves on as well, wrapping around the end of the lines
+		distribution = new ParametersAccessDistribution("zipf:2.0:1000", 1);
+		int[] counts = new int[50];
+		for (int i = 45000; i < 50000; i++) {
+			int index = distribution.getIndex(i, 50);
+			assertTrue(index >= 0 && index < 50);
+			counts[index]++;
+		}
+		for (int i = 0; i < counts.length; i++) {
+			if (i < 45 || i > 49) {
+				assertTrue(counts[i] < counts[45] && counts[i] < counts[49]);
+			}
+		}
+	}
+
+	@Test
+	public void testDeterminism() {
+		String[] definitions = { "uniform", "zipf:1.2", "zipf:0.9:300", "hotset:80:20", "hotset:95:5:1000" };
+		for (String definition : definitions) {
+			ParametersAccessDistribution first = new ParametersAccessDistribution(definition, 42);
+			ParametersAccessDistribution second = new ParametersAccessDistribution(definition, 42);
+			ParametersAccessDistribution otherSeed = new ParametersAccessDistribution(definition, 43);
+
+			//the index depends on the seed and the query id only, not on the order of queries
+			int[] indexes = new int[10000];
+			for (int i = 0; i < indexes.length; i++) {
+				indexes[i] = first.getIndex(i, 5000);
+			}
+			int differences = 0;
+			for (int i = indexes.length - 1; i >= 0; i--) {
+				assertEquals(indexes[i], second.getIndex(i, 5000));
+				assertEquals(indexes[i], first.getIndex(i, 5000));
+				if (indexes[i] != otherSeed.getIndex(i, 5000)) {
+					differences++;
+				}
+			}
+			assertTrue(definition, differences > indexes.length / 10);
+		}
+	}
+
+	@Test
+	public void testSingleLine() {
+		String[] definitions = { "roundrobin", "uniform", "zipf:1.0", "zipf:3:10", "hotset:90:10", "hotset:90:10:5" };
+		for (String definition : definitions) {
+			ParametersAccessDistribution distribution = new ParametersAccessDistribution(definition, 7);
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(0, distribution.getIndex(i, 1));
+			}
+		}
+	}
+
+	@Test
+	public void testIllegalDefinitions() {
+		String[] definitions = { "", "zipfian", "zipf", "zipf:0", "zipf:-1", "zipf:x", "zipf:1:-5", "uniform:1", "roundrobin:2", "hotset:90", "hotset:101:10", "hotset:90:-1", "hotset:90:10:1:1" };
+		for (String definition : definitions) {
+			try {
+				new ParametersAccessDistribution(definition, 0);
+				assertTrue("Accepted illegal distribution : " + definition, false);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+		//names are not case sensitive, spaces around values are ignored
+		assertEquals(0, new ParametersAccessDistribution(" ZipF : 1.5 ", 0).getIndex(0, 1));
+	}
+
+	/**
+	 * @return number of queries using each line, checking that all indexes are within bounds
+	 */
+	private static int[] countIndexes(ParametersAccessDistribution distribution, int size) {
+		int[] counts = new int[size];
+		for (int i = 0; i < QUERIES; i++) {
+			int index = distribution.getIndex(i, size);
+			assertTrue(index >= 0 && index < size);
+			counts[index]++;
+		}
+		return counts;
+	}
+
+	private static double harmonic(int size, double exponent) {
+		double sum = 0.0;
+		for (int i = 1; i <= size; i++) {
+			sum += 1.0 / Math.pow(i, exponent);
+		}
+		return sum;
+	}
+}
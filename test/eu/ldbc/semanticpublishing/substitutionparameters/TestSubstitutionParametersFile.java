@@ -0,0 +1,121 @@
+package eu.ldbc.semanticpublishing.substitutionparameters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestSubstitutionParametersFile {
+	//comment lines are skipped, lines after the first empty line are not parameters
+	private static final String[] TEXT_LINES = { "[comment]", "#comment", "<http://dbpedia.org/resource/E1>;\"2011-01-01T00:00:00.000Z\"^^<http://www.w3.org/2001/XMLSchema#dateTime>", 
+												 "single", "a;b;c;d;e", "label with spaces;\"quoted\"", "x;;y", "", "ignored;line" };
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		File textFile = File.createTempFile("query1SubstParameters", ".txt");
+		File binaryFile = new File(SubstitutionParametersFile.getBinaryPath(textFile.getPath()));
+		try {
+			writeLines(textFile, TEXT_LINES);
+			List<String> lines = parameterLines(TEXT_LINES);
+
+			assertEquals(lines.size(), SubstitutionParametersFile.write(textFile.getPath()));
+			assertTrue(binaryFile.exists());
+			assertTrue(SubstitutionParametersFile.isUpToDate(textFile.getPath()));
+
+			SubstitutionParametersFile mappedFile = SubstitutionParametersFile.map(binaryFile.getPath());
+			assertEquals(lines.size(), mappedFile.getLinesCount());
+			for (int i = 0; i < lines.size(); i++) {
+				assertEquals(Arrays.asList(split(lines.get(i))), Arrays.asList(mappedFile.getLine(i)));
+			}
+
+			//lines are read from the binary copy, one after another
+			SubstitutionQueryParameters parameters = new SubstitutionQueryParameters("query1");
+			parameters.initFromFile(textFile.getPath(), false, true);
+			for (int i = 0; i < 3 * lines.size(); i++) {
+				assertEquals(Arrays.asList(split(lines.get(i % lines.size()))), Arrays.asList(parameters.get(i)));
+			}
+			//a line is decoded once, further uses return the same array
+			assertTrue(parameters.get(0) == parameters.get(lines.size()));
+		} finally {
+			textFile.delete();
+			binaryFile.delete();
+		}
+	}
+
+	@Test
+	public void testTextFallback() throws Exception {
+		File textFile = File.createTempFile("query2SubstParameters", ".txt");
+		File binaryFile = new File(SubstitutionParametersFile.getBinaryPath(textFile.getPath()));
+		try {
+			//no binary copy
+			writeLines(textFile, TEXT_LINES);
+			assertFalse(SubstitutionParametersFile.isUpToDate(textFile.getPath()));
+			assertParameters(textFile, parameterLines(TEXT_LINES));
+
+			//binary copy older than the text file, which has been generated again
+			SubstitutionParametersFile.write(textFile.getPath());
+			String[] newTextLines = { "new;line", "another" };
+			writeLines(textFile, newTextLines);
+			assertTrue(binaryFile.setLastModified(textFile.lastModified() - 10000));
+			assertFalse(SubstitutionParametersFile.isUpToDate(textFile.getPath()));
+			assertParameters(textFile, parameterLines(newTextLines));
+
+			//damaged binary copy
+			writeLines(binaryFile, new String[] { "not a binary parameters file" });
+			assertTrue(SubstitutionParametersFile.isUpToDate(textFile.getPath()));
+			assertParameters(textFile, parameterLines(newTextLines));
+
+			//no parameters at all
+			SubstitutionQueryParameters parameters = new SubstitutionQueryParameters("query2");
+			parameters.initFromFile(textFile.getPath() + ".missing", true, true);
+			assertNull(parameters.get(0));
+		} finally {
+			textFile.delete();
+			binaryFile.delete();
+		}
+	}
+
+	private static void assertParameters(File textFile, List<String> lines) throws Exception {
+		SubstitutionQueryParameters parameters = new SubstitutionQueryParameters("query");
+		parameters.initFromFile(textFile.getPath(), false, true);
+		for (int i = 0; i < 2 * lines.size(); i++) {
+			assertEquals(Arrays.asList(split(lines.get(i % lines.size()))), Arrays.asList(parameters.get(i)));
+		}
+	}
+
+	/**
+	 * @return lines of parameters, as read from a text file by the driver
+	 */
+	private static List<String> parameterLines(String[] textLines) {
+		List<String> lines = new ArrayList<String>();
+		for (String line : textLines) {
+			if (line.isEmpty()) {
+				break;
+			}
+			if (!line.startsWith("[") && !line.startsWith("#")) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	private static String[] split(String line) {
+		return line.split(SubstitutionParametersGenerator.PARAMS_DELIMITER);
+	}
+
+	private static void writeLines(File file, String[] lines) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (String line : lines) {
+			sb.append(line).append("\n");
+		}
+		org.apache.commons.io.FileUtils.writeStringToFile(file, sb.toString());
+	}
+}
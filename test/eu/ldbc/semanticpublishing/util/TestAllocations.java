@@ -2,6 +2,7 @@ package eu.ldbc.semanticpublishing.util;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import org.junit.Test;
@@ -38,6 +39,46 @@ public class TestAllocations {
 		checkAllocations( new double[] {0.5, 0.55});
 	}
 
+	@Test
+	public void testThreadRandom() throws Exception {
+		double[] allocations = new double[] { 0.1, 0.2, 0.3, 0.4 };
+		final AllocationsUtil d = new AllocationsUtil(allocations, new Random(0));
+		int[] threadBands = allocate(new AllocationsUtil(allocations, new Random(1)), 1000);
+		int[] ownBands = allocate(new AllocationsUtil(allocations, new Random(0)), 2000);
+
+		//while set, allocations are drawn from the random generator of the thread, the allocator's own generator is not used
+		AllocationsUtil.setThreadRandom(new Random(1));
+		final int[][] otherThreadBands = new int[1][];
+		try {
+			assertTrue(Arrays.equals(threadBands, allocate(d, 1000)));
+
+			//other threads still use the generator of the allocator
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					otherThreadBands[0] = allocate(d, 1000);
+				}
+			};
+			thread.start();
+			thread.join();
+		} finally {
+			AllocationsUtil.setThreadRandom(null);
+		}
+
+		//once removed, the generator of the allocator is used again, continuing its sequence
+		int[] bands = allocate(d, 1000);
+		assertTrue(Arrays.equals(Arrays.copyOfRange(ownBands, 0, 1000), otherThreadBands[0]));
+		assertTrue(Arrays.equals(Arrays.copyOfRange(ownBands, 1000, 2000), bands));
+	}
+
+	private static int[] allocate(AllocationsUtil d, int count) {
+		int[] bands = new int[count];
+		for (int i = 0; i < count; ++i) {
+			bands[i] = d.getAllocation();
+		}
+		return bands;
+	}
+
 	private void checkAllocations(double[] allocations ) {
 		AllocationsUtil d = new AllocationsUtil(allocations, new Random(0));
 		int counts[] = new int[allocations.length];
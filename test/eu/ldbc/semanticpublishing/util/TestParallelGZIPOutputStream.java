@@ -0,0 +1,105 @@
+package eu.ldbc.semanticpublishing.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+public class TestParallelGZIPOutputStream {
+
+	@Test
+	public void testEmptyStream() throws Exception {
+		assertRoundTrip(new byte[0], 2, 0);
+	}
+
+	@Test
+	public void testSingleBlock() throws Exception {
+		assertRoundTrip(randomData(ParallelGZIPOutputStream.BLOCK_SIZE), 2, 0);
+	}
+
+	@Test
+	public void testSeveralBlocks() throws Exception {
+		//a single pending block, each block is written before the next one is compressed
+		assertRoundTrip(randomData(3 * ParallelGZIPOutputStream.BLOCK_SIZE + 1000), 1, 0);
+		assertRoundTrip(randomData(3 * ParallelGZIPOutputStream.BLOCK_SIZE + 1000), 4, 0);
+	}
+
+	@Test
+	public void testMixedWrites() throws Exception {
+		//single bytes and arrays written across block boundaries
+		assertRoundTrip(randomData(2 * ParallelGZIPOutputStream.BLOCK_SIZE + 7), 2, 1000);
+		assertRoundTrip(randomData(2 * ParallelGZIPOutputStream.BLOCK_SIZE + 7), 1, 4099);
+	}
+
+	/**
+	 * Compresses the data and checks that GZIPInputStream reads it back
+	 * @param chunkSize - if positive, data is written in chunks of that size, each followed by a single byte written by write(int), otherwise in a single array
+	 */
+	private static void assertRoundTrip(byte[] data, int maxPendingBlocks, int chunkSize) throws IOException {
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try {
+			ParallelGZIPOutputStream os = new ParallelGZIPOutputStream(compressed, executorService, maxPendingBlocks);
+			if (chunkSize > 0) {
+				int offset = 0;
+				while (offset < data.length) {
+					int length = Math.min(chunkSize, data.length - offset);
+					os.write(data, offset, length);
+					offset += length;
+					if (offset < data.length) {
+						os.write(data[offset++]);
+					}
+				}
+			} else {
+				os.write(data);
+			}
+			os.close();
+			//a second close has no effect
+			os.close();
+		} finally {
+			executorService.shutdown();
+		}
+
+		assertTrue(compressed.size() > 0);
+		byte[] decompressed = decompress(compressed.toByteArray());
+		assertEquals(data.length, decompressed.length);
+		assertTrue(Arrays.equals(data, decompressed));
+	}
+
+	private static byte[] decompress(byte[] compressed) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		InputStream is = new GZIPInputStream(new ByteArrayInputStream(compressed));
+		try {
+			byte[] buffer = new byte[64 * 1024];
+			int length;
+			while ((length = is.read(buffer)) != -1) {
+				baos.write(buffer, 0, length);
+			}
+		} finally {
+			is.close();
+		}
+		return baos.toByteArray();
+	}
+
+	/**
+	 * @return compressible data, words of a small alphabet with random lengths
+	 */
+	private static byte[] randomData(int length) {
+		Random random = new Random(length);
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte)(random.nextInt(8) == 0 ? ' ' : 'a' + random.nextInt(16));
+		}
+		return data;
+	}
+}
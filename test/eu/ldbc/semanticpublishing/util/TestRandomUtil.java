@@ -2,9 +2,15 @@ package eu.ldbc.semanticpublishing.util;
 
 import static org.junit.Assert.*;
 
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
 import org.junit.Test;
 
 public class TestRandomUtil {
+	private static final String DICTIONARY_PATH = "./datasets_and_queries/dictionaries/WordsDictionary.txt";
 
 	@Test
 	public void testNextInt_IntInt() {
@@ -45,4 +51,163 @@ public class TestRandomUtil {
 		}
 	}
 
+	@Test
+	public void testDateTimeFormat() {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		RandomUtil rg = new RandomUtil("./data/WordsDictionary.txt", 0, 2000, 1);
+
+		//leap days (2000, 2012), non leap century years (1900, 2100), ends of months and years, the epoch and a date before it
+		long[] dates = { toMillis(2000, 2, 29, 23, 59, 59, 999), toMillis(2000, 3, 1, 0, 0, 0, 0), toMillis(2012, 2, 29, 12, 30, 45, 5),
+						 toMillis(1900, 2, 28, 10, 0, 0, 0), toMillis(1900, 3, 1, 10, 0, 0, 0), toMillis(2100, 2, 28, 23, 0, 0, 0), toMillis(2100, 3, 1, 1, 0, 0, 0),
+						 toMillis(2011, 4, 30, 23, 59, 59, 999), toMillis(2011, 5, 1, 0, 0, 0, 0), toMillis(1999, 12, 31, 23, 59, 59, 999), 
+						 toMillis(2000, 1, 1, 0, 0, 0, 0), 0, -1 };
+		for (long millis : dates) {
+			checkDateTimeFormat(format, rg, millis);
+		}
+
+		//every day of several years around a leap year, at a different time of day
+		long millis = toMillis(2011, 12, 25, 0, 0, 0, 0);
+		for (int i = 0; i < 4 * 366; i++) {
+			checkDateTimeFormat(format, rg, millis);
+			millis += 24 * 3600 * 1000L + 3600 * 1000L * (i % 3) + 61 * 1000L + 7;
+		}
+	}
+
+	private void checkDateTimeFormat(SimpleDateFormat format, RandomUtil rg, long millis) {
+		String expected = format.format(new java.util.Date(millis));
+		assertEquals(expected, RandomUtil.xsdDateTime(millis));
+		assertEquals("\"" + expected.substring(0, 19) + "Z\"^^<http://www.w3.org/2001/XMLSchema#dateTime>", rg.dateTimeString(millis));
+	}
+
+	@Test
+	public void testToEpochMillis() {
+		assertEquals(toMillis(2000, 2, 29, 13, 14, 15, 16), RandomUtil.toEpochMillis(2000, 2, 29, 13, 14, 15, 16));
+		assertEquals(toMillis(2100, 3, 1, 0, 0, 0, 0), RandomUtil.toEpochMillis(2100, 3, 1, 0, 0, 0, 0));
+		assertEquals(toMillis(1969, 12, 31, 23, 59, 59, 999), RandomUtil.toEpochMillis(1969, 12, 31, 23, 59, 59, 999));
+		//days past the end of the month roll over to the next month
+		assertEquals(toMillis(2011, 3, 1, 0, 0, 0, 0), RandomUtil.toEpochMillis(2011, 2, 29, 0, 0, 0, 0));
+		assertEquals(toMillis(2013, 1, 1, 0, 0, 0, 0), RandomUtil.toEpochMillis(2012, 12, 32, 0, 0, 0, 0));
+	}
+
+	@Test
+	public void testAddMonths() {
+		long[] dates = { toMillis(2012, 1, 31, 10, 20, 30, 40), toMillis(2011, 1, 31, 0, 0, 0, 0), toMillis(2011, 12, 15, 23, 59, 59, 999), toMillis(2000, 2, 29, 1, 2, 3, 4) };
+		int[] months = { -25, -12, -1, 0, 1, 2, 11, 12, 13, 49 };
+		for (long millis : dates) {
+			for (int month : months) {
+				Calendar calendar = utcCalendar();
+				calendar.setTimeInMillis(millis);
+				calendar.add(Calendar.MONTH, month);
+				assertEquals(calendar.getTimeInMillis(), RandomUtil.addMonths(millis, month));
+			}
+		}
+		assertEquals(toMillis(2012, 5, 6, 7, 8, 9, 0), RandomUtil.setMillisecond(toMillis(2012, 5, 6, 7, 8, 9, 987), 0));
+		assertEquals(toMillis(1969, 12, 31, 23, 59, 59, 123), RandomUtil.setMillisecond(-1, 123));
+	}
+
+	@Test
+	public void testDeterministicDates() {
+		RandomUtil rg1 = new RandomUtil("./data/WordsDictionary.txt", 12345, 2011, 2);
+		RandomUtil rg2 = new RandomUtil("./data/WordsDictionary.txt", 12345, 2011, 2);
+
+		long periodStart = toMillis(2011, 1, 1, 0, 0, 0, 0);
+		long periodEnd = toMillis(2013, 1, 1, 0, 0, 0, 0);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(rg1.randomDateTimeString(), rg2.randomDateTimeString());
+			long millis = rg1.randomDateTimeMillis();
+			assertEquals(millis, rg2.randomDateTimeMillis());
+			assertTrue(millis >= periodStart && millis < periodEnd);
+			assertEquals(rg1.randomDateTime(30), rg2.randomDateTime(30));
+			assertEquals(rg1.randomDateTime(2011, 6), rg2.randomDateTime(2011, 6));
+		}
+	}
+
+	@Test
+	public void testSentenceFromDictionaryWords() {
+		RandomUtil packed = new RandomUtil(DICTIONARY_PATH, 2011, 2011, 1);
+		RandomUtil concatenated = new RandomUtil(DICTIONARY_PATH, 2011, 2011, 1);
+		assertTrue(packed.getDictionary().size() > 100);
+
+		//labels with quotes, escaped as by CreativeWorkBuilder and InsertTemplate, and sentences of titles and descriptions
+		String[] firstStrings = { "", "label", "\"quoted\" label", "\"" };
+		for (int i = 0; i < 1000; i++) {
+			String firstString = firstStrings[i % firstStrings.length];
+			int numberOfWords = 1 + (i % 27);
+			int numberOfEscapes = i % 4;
+			boolean quoted = (i % 2) == 0;
+			boolean escaped = (i % 3) != 0;
+			boolean dataType = (i % 5) < 2;
+			assertEquals(concatenatedSentence(concatenated, firstString, numberOfWords, quoted, escaped, numberOfEscapes, dataType), 
+						 packed.sentenceFromDictionaryWords(firstString, numberOfWords, quoted, escaped, numberOfEscapes, dataType));
+		}
+
+		//instances of the factory share the packed dictionary
+		assertTrue(packed.getDictionary() == packed.randomUtilFactory(1).getDictionary());
+		assertEquals(concatenatedSentence(concatenated.randomUtilFactory(7), "label", 10, true, true, 2, true), packed.randomUtilFactory(7).sentenceFromDictionaryWords("label", 10, true, true, 2, true));
+	}
+
+	@Test
+	public void testSentenceBufferReuse() {
+		RandomUtil packed = new RandomUtil(DICTIONARY_PATH, 0, 2011, 1);
+		RandomUtil concatenated = new RandomUtil(DICTIONARY_PATH, 0, 2011, 1);
+
+		//long sentences grow the buffer of the thread, shorter sentences written after them must not contain any of their characters
+		int[] numberOfWords = { 300, 1, 10, 500, 2, 26, 1, 8 };
+		for (int words : numberOfWords) {
+			String expected = concatenatedSentence(concatenated, "label", words, true, true, 2, true);
+			String sentence = packed.sentenceFromDictionaryWords("label", words, true, true, 2, true);
+			assertEquals(expected, sentence);
+			assertTrue(sentence.endsWith(".\"^^<http://www.w3.org/2001/XMLSchema#string>"));
+		}
+		assertEquals(concatenatedSentence(concatenated, "", 1, false, false, 0, false), packed.sentenceFromDictionaryWords("", 1, false, false, 0, false));
+	}
+
+	/**
+	 * Builds a sentence by concatenation and escaping with String.replaceAll(), as sentenceFromDictionaryWords() did before words were packed
+	 */
+	private static String concatenatedSentence(RandomUtil rg, String firstString, int numberOfWords, boolean surroundWithQuotes, boolean escapeQuotes, int numberOfEscapes, 
+			boolean appendDataType) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(firstString);
+		sb.append(" ");
+		for (int i = 0; i < numberOfWords; i++) {
+			sb.append(rg.randomWordFromDictionary(false, false));
+			sb.append(i != (numberOfWords - 1) ? " " : ".");
+		}
+
+		if (escapeQuotes) {
+			StringBuilder escapeSb = new StringBuilder();
+			for (int i = 0; i < numberOfEscapes; i++) {
+				escapeSb.append("\\");
+			}
+			escapeSb.append("\"");
+			String replacement = sb.toString().replaceAll("\"", escapeSb.toString());
+			sb.setLength(0);
+			sb.append(replacement);
+		}
+
+		if (surroundWithQuotes) {
+			sb.insert(0, '"');
+			sb.append("\"");
+		}
+
+		if (appendDataType) {
+			sb.append("^^<http://www.w3.org/2001/XMLSchema#string>");
+		}
+		return sb.toString();
+	}
+
+	private static Calendar utcCalendar() {
+		Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		calendar.clear();
+		return calendar;
+	}
+
+	private static long toMillis(int year, int month, int day, int hour, int minute, int second, int millisecond) {
+		Calendar calendar = utcCalendar();
+		calendar.set(year, month - 1, day, hour, minute, second);
+		calendar.set(Calendar.MILLISECOND, millisecond);
+		return calendar.getTimeInMillis();
+	}
 }